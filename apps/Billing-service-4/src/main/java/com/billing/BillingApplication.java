@@ -1,9 +1,14 @@
 package com.billing;
 
+import com.jewelshop.contracts.loadbalancer.HealthAwareLoadBalancerConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @SpringBootApplication
+@EnableFeignClients
+@LoadBalancerClients(defaultConfiguration = HealthAwareLoadBalancerConfiguration.class)
 public class BillingApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,16 @@
+package com.billing.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** One row of vendor_daily_sales, or a change to be added to it. */
+public record DailySales(long vendorId, LocalDate salesDate, String status, long billCount, long itemCount,
+                         BigDecimal subtotal, BigDecimal taxAmount, BigDecimal discountAmount,
+                         BigDecimal totalAmount) {
+
+    DailySales plus(DailySales other) {
+        return new DailySales(vendorId, salesDate, status, billCount + other.billCount, itemCount + other.itemCount,
+                subtotal.add(other.subtotal), taxAmount.add(other.taxAmount),
+                discountAmount.add(other.discountAmount), totalAmount.add(other.totalAmount));
+    }
+}
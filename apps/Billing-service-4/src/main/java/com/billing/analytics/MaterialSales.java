@@ -0,0 +1,14 @@
+package com.billing.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** One row of vendor_daily_material_sales, or a change to be added to it. */
+public record MaterialSales(long vendorId, String status, LocalDate salesDate, String material, long itemCount,
+                            double weight, BigDecimal totalPrice) {
+
+    MaterialSales plus(MaterialSales other) {
+        return new MaterialSales(vendorId, status, salesDate, material, itemCount + other.itemCount,
+                weight + other.weight, totalPrice.add(other.totalPrice));
+    }
+}
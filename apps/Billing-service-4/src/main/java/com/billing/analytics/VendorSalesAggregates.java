@@ -0,0 +1,112 @@
+package com.billing.analytics;
+
+import com.billing.entity.Bill;
+import com.billing.entity.BillItem;
+import com.billing.repository.VendorSalesRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Keeps the daily vendor sales aggregates in step with the bills. Every method must run in the
+ * transaction that changes the bill, so an aggregate changes if and only if the bill does. A
+ * bill counts on the day of its billDate under its current status; a status change moves it from
+ * one status row to the other.
+ * <p>
+ * All rows a call touches are updated in key order, so transactions changing bills of the same
+ * vendor and day queue on the row locks instead of deadlocking.
+ */
+@Component
+public class VendorSalesAggregates {
+
+    private static final Comparator<DailySales> DAILY_ORDER = Comparator.comparingLong(DailySales::vendorId)
+            .thenComparing(DailySales::salesDate)
+            .thenComparing(DailySales::status);
+
+    private static final Comparator<MaterialSales> MATERIAL_ORDER = Comparator.comparingLong(MaterialSales::vendorId)
+            .thenComparing(MaterialSales::status)
+            .thenComparing(MaterialSales::salesDate)
+            .thenComparing(MaterialSales::material);
+
+    @Autowired
+    private VendorSalesRepository vendorSalesRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void billCreated(Bill bill) {
+        billsCreated(List.of(bill));
+    }
+
+    /** Bills of a bulk import; bills of the same vendor and day are summed before they are written. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void billsCreated(Collection<Bill> bills) {
+        Changes changes = new Changes();
+        bills.forEach(bill -> changes.add(bill, bill.getStatus(), 1));
+        changes.write();
+    }
+
+    /** @param previousStatus the status the bill had before; nothing changes if it is the same */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(Bill bill, String previousStatus) {
+        if (Objects.equals(previousStatus, bill.getStatus())) {
+            return;
+        }
+        Changes changes = new Changes();
+        changes.add(bill, previousStatus, -1);
+        changes.add(bill, bill.getStatus(), 1);
+        changes.write();
+    }
+
+    /** Call before the bill is deleted, while its items can still be read. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void billDeleted(Bill bill) {
+        Changes changes = new Changes();
+        changes.add(bill, bill.getStatus(), -1);
+        changes.write();
+    }
+
+    private class Changes {
+
+        private final Map<DailySales, DailySales> daily = new TreeMap<>(DAILY_ORDER);
+        private final Map<MaterialSales, MaterialSales> materials = new TreeMap<>(MATERIAL_ORDER);
+
+        void add(Bill bill, String status, int sign) {
+            // Bills without these are invalid and never created by BillService; they are left out
+            if (bill.getVendorId() == null || bill.getBillDate() == null || status == null) {
+                return;
+            }
+            LocalDate day = bill.getBillDate().toLocalDate();
+            List<BillItem> items = bill.getBillItems() != null ? bill.getBillItems() : List.of();
+            long itemCount = items.stream().mapToLong(BillItem::getQuantity).sum();
+            DailySales billChange = new DailySales(bill.getVendorId(), day, status, sign, sign * itemCount,
+                    signed(bill.getSubtotal(), sign), signed(bill.getTaxAmount(), sign),
+                    signed(bill.getDiscountAmount(), sign), signed(bill.getTotalAmount(), sign));
+            daily.merge(billChange, billChange, DailySales::plus);
+            for (BillItem item : items) {
+                String material = item.getProductMaterial() != null ? item.getProductMaterial() : "Unknown";
+                MaterialSales itemChange = new MaterialSales(bill.getVendorId(), status, day, material,
+                        (long) sign * item.getQuantity(), sign * item.getProductWeight() * item.getQuantity(),
+                        signed(item.getTotalPrice(), sign));
+                materials.merge(itemChange, itemChange, MaterialSales::plus);
+            }
+        }
+
+        void write() {
+            daily.values().forEach(vendorSalesRepository::add);
+            materials.values().forEach(vendorSalesRepository::add);
+        }
+
+        private BigDecimal signed(BigDecimal amount, int sign) {
+            return amount == null ? BigDecimal.ZERO : sign < 0 ? amount.negate() : amount;
+        }
+    }
+}
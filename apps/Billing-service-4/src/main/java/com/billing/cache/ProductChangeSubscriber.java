@@ -0,0 +1,76 @@
+package com.billing.cache;
+
+import com.billing.feignclients.ProductClient;
+import com.jewelshop.contracts.product.ProductChangeDTO;
+import com.jewelshop.contracts.product.ProductChangeFeedDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Follows the Product service change feed and drops the matching entries from
+ * {@link ProductSnapshotCache}. The feed is kept in Product's database, so any
+ * Product instance can answer for the same cursor. When it cannot be followed
+ * exactly (first sync, or the cursor fell out of its retention) the whole cache
+ * is flushed instead. STOCK changes only move the quantity, which snapshots do
+ * not hold, so they advance the cursor and evict nothing.
+ */
+@Component
+@Slf4j
+public class ProductChangeSubscriber {
+
+    private static final String STOCK = "STOCK";
+
+    private final ProductClient productClient;
+    private final ProductSnapshotCache productSnapshotCache;
+    private final int batchSize;
+
+    private String epoch;
+    private long lastSequence;
+
+    public ProductChangeSubscriber(ProductClient productClient,
+                                   ProductSnapshotCache productSnapshotCache,
+                                   @Value("${billing.product-cache.change-batch-size:500}") int batchSize) {
+        this.productClient = productClient;
+        this.productSnapshotCache = productSnapshotCache;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${billing.product-cache.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            synchronize();
+        } catch (Exception e) {
+            log.warn("Could not read product changes, keeping cursor at {}: {}", lastSequence, e.getMessage());
+        }
+    }
+
+    synchronized void synchronize() {
+        ProductChangeFeedDTO feed;
+        do {
+            feed = productClient.getProductChanges(lastSequence, batchSize);
+            if (feed == null) {
+                return;
+            }
+            if (!feed.epoch().equals(epoch) || !feed.complete()) {
+                log.info("Product change feed reset (epoch {}, sequence {}), flushing product cache",
+                        feed.epoch(), feed.latestSequence());
+                productSnapshotCache.evictAll();
+                epoch = feed.epoch();
+                lastSequence = feed.latestSequence();
+                return;
+            }
+
+            List<ProductChangeDTO> changes = feed.changes();
+            for (ProductChangeDTO change : changes) {
+                if (!STOCK.equals(change.type())) {
+                    productSnapshotCache.evict(change.productId());
+                }
+                lastSequence = change.sequence();
+            }
+        } while (!feed.changes().isEmpty() && lastSequence < feed.latestSequence());
+    }
+}
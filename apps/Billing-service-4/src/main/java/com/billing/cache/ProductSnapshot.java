@@ -0,0 +1,17 @@
+package com.billing.cache;
+
+
+import com.jewelshop.contracts.product.ProductDTO;
+import java.math.BigDecimal;
+
+/**
+ * Product as cached by Billing, with its unit price already computed from the material rates
+ * of {@code ratesVersion}.
+ */
+public record ProductSnapshot(ProductDTO product, BigDecimal unitPrice, long ratesVersion) {
+
+    /** Products have no name of their own; bills show material and weight instead. */
+    public String productName() {
+        return product.productMaterial() + " Jewelry (" + product.productWeight() + "g)";
+    }
+}
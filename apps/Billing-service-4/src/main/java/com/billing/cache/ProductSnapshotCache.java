@@ -0,0 +1,99 @@
+package com.billing.cache;
+
+import com.billing.feignclients.ProductClient;
+import com.billing.pricing.PricingEngine;
+import com.jewelshop.contracts.product.ProductDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bounded, TTL-evicted copy of Product service data keyed by productId.
+ * Entries are dropped early by {@link ProductChangeSubscriber} when the
+ * Product service reports an update or delete. Each entry carries its unit
+ * price, computed once by {@link PricingEngine} and again only after a rate change.
+ */
+@Component
+@Slf4j
+public class ProductSnapshotCache {
+
+    public static final String CACHE_NAME = "billing.products";
+
+    private final ProductClient productClient;
+    private final PricingEngine pricingEngine;
+    private final Cache<Long, ProductSnapshot> cache;
+
+    public ProductSnapshotCache(ProductClient productClient,
+                                PricingEngine pricingEngine,
+                                MeterRegistry meterRegistry,
+                                @Value("${billing.product-cache.max-size:10000}") long maxSize,
+                                @Value("${billing.product-cache.ttl:10m}") Duration ttl) {
+        this.productClient = productClient;
+        this.pricingEngine = pricingEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached snapshots for the given IDs, fetching all misses from the
+     * Product service in one batch call. Unknown products are absent from the result.
+     * Snapshots priced with outdated material rates are repriced locally.
+     */
+    public Map<Long, ProductSnapshot> getProducts(Collection<Long> productIds) {
+        Map<Long, ProductSnapshot> snapshots = cache.getAll(productIds, this::loadProducts);
+        long ratesVersion = pricingEngine.currentVersion();
+        Map<Long, ProductSnapshot> repriced = null;
+        for (ProductSnapshot snapshot : snapshots.values()) {
+            if (snapshot.ratesVersion() != ratesVersion) {
+                if (repriced == null) {
+                    repriced = new HashMap<>(snapshots);
+                }
+                ProductSnapshot fresh = pricingEngine.snapshot(snapshot.product());
+                cache.asMap().replace(snapshot.product().productId(), snapshot, fresh);
+                repriced.put(snapshot.product().productId(), fresh);
+            }
+        }
+        return repriced != null ? repriced : snapshots;
+    }
+
+    public void evict(Long productId) {
+        cache.invalidate(productId);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private Map<Long, ProductSnapshot> loadProducts(Set<? extends Long> missingIds) {
+        log.debug("Loading {} products from Product service", missingIds.size());
+        List<ProductDTO> products = productClient.getProductsByIds(List.copyOf(missingIds));
+        Map<Long, ProductSnapshot> loaded = new HashMap<>();
+        if (products != null) {
+            for (ProductDTO product : products) {
+                if (product != null && product.productId() != null) {
+                    loaded.putIfAbsent(product.productId(), pricingEngine.snapshot(product));
+                }
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,20 @@
+package com.billing.config;
+
+import com.billing.outbox.BillingEventTransport;
+import com.billing.outbox.InMemoryBillingEventTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BillingEventTransportConfig {
+
+    // Stands in until a broker-backed BillingEventTransport bean is declared
+    @Bean
+    @ConditionalOnMissingBean(BillingEventTransport.class)
+    public InMemoryBillingEventTransport inMemoryBillingEventTransport(
+            @Value("${billing.outbox.in-memory.capacity:1000}") int capacity) {
+        return new InMemoryBillingEventTransport(capacity);
+    }
+}
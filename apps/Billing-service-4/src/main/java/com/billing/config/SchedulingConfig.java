@@ -0,0 +1,18 @@
+package com.billing.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs: outbox relay and purge, product change polling, material rate
+ * polling, idempotency key purge. Kept off {@code BillingApplication} because test slices such as
+ * {@code @DataJpaTest} load the application class but not other configuration classes, and a job
+ * running in the background would race the test driving the same bean.
+ * {@code billing.scheduling.enabled=false} turns the jobs off in a full context too.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "billing.scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,13 +1,24 @@
 package com.billing.controller;
 
 import com.billing.dto.BillDTO;
+import com.billing.dto.BulkBillImportDTO;
+import com.billing.dto.VendorSalesSummaryDTO;
+import com.billing.service.BillBulkImportService;
 import com.billing.service.BillService;
+import com.billing.service.VendorSalesService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -18,6 +29,15 @@ public class BillController {
     @Autowired
     private BillService billService;
 
+    @Autowired
+    private BillBulkImportService billBulkImportService;
+
+    @Autowired
+    private VendorSalesService vendorSalesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/create")
     public ResponseEntity<BillDTO> createBill(@Valid @RequestBody BillDTO billDTO) {
         log.info("Creating new bill for customer: {}", billDTO.getCustomerId());
@@ -25,6 +45,19 @@ public class BillController {
         return ResponseEntity.ok(createdBill);
     }
 
+    /**
+     * Takes a JSON array of bills or one bill per line (application/x-ndjson). Bills are read as
+     * they arrive rather than bound up front, so the request body is never held in memory whole.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkBillImportDTO> createBills(HttpServletRequest request) throws IOException {
+        log.info("Bulk importing bills");
+        try (MappingIterator<BillDTO> bills = objectMapper.readerFor(BillDTO.class).readValues(request.getInputStream())) {
+            BulkBillImportDTO result = billBulkImportService.importBills(bills);
+            return ResponseEntity.ok(result);
+        }
+    }
+
     @GetMapping("/{billId}")
     public ResponseEntity<BillDTO> getBillById(@PathVariable Long billId) {
         log.info("Fetching bill with ID: {}", billId);
@@ -39,9 +72,14 @@ public class BillController {
         return ResponseEntity.ok(bill);
     }
 
+    // With a limit, only the customer's newest that many bills (at most 100)
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<BillDTO>> getBillsByCustomerId(@PathVariable Long customerId) {
+    public ResponseEntity<List<BillDTO>> getBillsByCustomerId(@PathVariable Long customerId,
+            @RequestParam(required = false) Integer limit) {
         log.info("Fetching bills for customer: {}", customerId);
+        if (limit != null) {
+            return ResponseEntity.ok(billService.getRecentBillsByCustomerId(customerId, Math.max(1, Math.min(limit, 100))));
+        }
         List<BillDTO> bills = billService.getBillsByCustomerId(customerId);
         return ResponseEntity.ok(bills);
     }
@@ -53,6 +91,18 @@ public class BillController {
         return ResponseEntity.ok(bills);
     }
 
+    // Defaults to the last 30 days, today included
+    @GetMapping("/vendor/{vendorId}/summary")
+    public ResponseEntity<VendorSalesSummaryDTO> getVendorSummary(
+            @PathVariable Long vendorId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        VendorSalesSummaryDTO summary = vendorSalesService.getVendorSummary(vendorId, start, end);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/status/{status}")
     public ResponseEntity<List<BillDTO>> getBillsByStatus(@PathVariable String status) {
         log.info("Fetching bills with status: {}", status);
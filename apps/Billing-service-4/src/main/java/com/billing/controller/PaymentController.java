@@ -1,6 +1,7 @@
 package com.billing.controller;
 
 import com.billing.dto.PaymentDTO;
+import com.billing.service.IdempotentPaymentService;
 import com.billing.service.PaymentService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,14 +16,27 @@ import java.util.List;
 @Slf4j
 public class PaymentController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private IdempotentPaymentService idempotentPaymentService;
+
     @PostMapping("/process")
-    public ResponseEntity<PaymentDTO> processPayment(@Valid @RequestBody PaymentDTO paymentDTO) {
+    public ResponseEntity<PaymentDTO> processPayment(@Valid @RequestBody PaymentDTO paymentDTO,
+                                                     @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         log.info("Processing payment for bill: {}", paymentDTO.getBillId());
-        PaymentDTO processedPayment = paymentService.processPayment(paymentDTO);
-        return ResponseEntity.ok(processedPayment);
+        if (idempotencyKey == null) {
+            PaymentDTO processedPayment = paymentService.processPayment(paymentDTO);
+            return ResponseEntity.ok(processedPayment);
+        }
+        IdempotentPaymentService.Result result = idempotentPaymentService.processPayment(idempotencyKey, paymentDTO);
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAY_HEADER, String.valueOf(result.replayed()))
+                .body(result.payment());
     }
 
     @GetMapping("/{paymentId}")
@@ -0,0 +1,45 @@
+package com.billing.controller;
+
+import com.billing.dto.MaterialRatesDTO;
+import com.billing.exception.InvalidPricingDataException;
+import com.billing.pricing.MaterialRates;
+import com.billing.pricing.PricingEngine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/api/pricing")
+@Slf4j
+public class PricingController {
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @GetMapping("/rates")
+    public ResponseEntity<MaterialRatesDTO> getRates() {
+        return ResponseEntity.ok(toDTO(pricingEngine.currentRates()));
+    }
+
+    @PutMapping("/rates")
+    public ResponseEntity<MaterialRatesDTO> replaceRates(@RequestBody MaterialRatesDTO ratesDTO) {
+        if (ratesDTO == null || ratesDTO.getRates() == null || ratesDTO.getRates().isEmpty()) {
+            throw new InvalidPricingDataException("At least one material rate is required");
+        }
+        log.info("Replacing material rates: {}", ratesDTO.getRates());
+        return ResponseEntity.ok(toDTO(pricingEngine.replaceRates(ratesDTO.getRates(), ratesDTO.getDefaultRate())));
+    }
+
+    @PutMapping("/rates/{material}")
+    public ResponseEntity<MaterialRatesDTO> updateRate(@PathVariable String material, @RequestBody BigDecimal rate) {
+        log.info("Updating rate for {} to {}", material, rate);
+        return ResponseEntity.ok(toDTO(pricingEngine.updateRate(material, rate)));
+    }
+
+    private MaterialRatesDTO toDTO(MaterialRates rates) {
+        return new MaterialRatesDTO(rates.getRates(), rates.getDefaultRate(), rates.getVersion(), rates.getUpdatedAt());
+    }
+}
@@ -0,0 +1,19 @@
+package com.billing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkBillImportDTO {
+    private int received;
+    private int created;
+    private int failed;
+    private long elapsedMillis;
+    // One entry per received bill, in request order
+    private List<BulkBillResultDTO> results;
+}
@@ -0,0 +1,25 @@
+package com.billing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkBillResultDTO {
+    // Position of the bill in the request, from 0
+    private int index;
+    private String status; // CREATED, FAILED
+    private Long billId;
+    private String billNumber;
+    private String error;
+
+    public static BulkBillResultDTO created(int index, Long billId, String billNumber) {
+        return new BulkBillResultDTO(index, "CREATED", billId, billNumber, null);
+    }
+
+    public static BulkBillResultDTO failed(int index, String error) {
+        return new BulkBillResultDTO(index, "FAILED", null, null, error);
+    }
+}
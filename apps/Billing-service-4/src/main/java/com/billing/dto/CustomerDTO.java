@@ -1,16 +0,0 @@
-package com.billing.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class CustomerDTO {
-    private Long customerId;
-    private String firstName;
-    private String lastName;
-    private String emailId;
-    private String phoneNo;
-} 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.billing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialRatesDTO {
+    // Per-gram rate by material (lower case)
+    private Map<String, BigDecimal> rates;
+    // Rate for materials not listed in rates
+    private BigDecimal defaultRate;
+    // Read-only: set by the server
+    private Long version;
+    private Instant updatedAt;
+}
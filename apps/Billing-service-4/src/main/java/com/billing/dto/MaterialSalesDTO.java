@@ -0,0 +1,17 @@
+package com.billing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialSalesDTO {
+    private String material;
+    private long itemCount;
+    private double weight;
+    private BigDecimal revenue;
+}
@@ -0,0 +1,34 @@
+package com.billing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VendorSalesSummaryDTO {
+    private Long vendorId;
+    private LocalDate from;
+    private LocalDate to;
+
+    // Paid bills
+    private long paidBillCount;
+    private long itemCount;
+    private BigDecimal revenue;
+    private BigDecimal taxAmount;
+    private BigDecimal discountAmount;
+    private BigDecimal averageBillValue;
+
+    // Bills not paid yet, and cancelled ones
+    private long pendingBillCount;
+    private BigDecimal pendingAmount;
+    private long cancelledBillCount;
+
+    // Paid items per material, highest revenue first
+    private List<MaterialSalesDTO> materials;
+}
@@ -4,12 +4,20 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "bills")
+// Indexes are created by db/migration/V2__billing_indexes.sql; declared here to keep the mapping in sync
+@Table(name = "bills", indexes = {
+        @Index(name = "uk_bills_bill_number", columnList = "bill_number", unique = true),
+        @Index(name = "idx_bills_customer_status", columnList = "customer_id, status"),
+        @Index(name = "idx_bills_vendor", columnList = "vendor_id"),
+        @Index(name = "idx_bills_status", columnList = "status"),
+        @Index(name = "idx_bills_bill_date", columnList = "bill_date")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -32,8 +40,13 @@ public class Bill {
     private String notes;
     
     @OneToMany(mappedBy = "bill", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<BillItem> billItems;
     
+    // Optimistic lock: concurrent payments or status changes of one bill cannot both commit
+    @Version
+    private Long version;
+    
     // Audit fields
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
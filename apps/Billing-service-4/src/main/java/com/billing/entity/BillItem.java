@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "bill_items")
+@Table(name = "bill_items", indexes = {
+        @Index(name = "idx_bill_items_product", columnList = "product_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
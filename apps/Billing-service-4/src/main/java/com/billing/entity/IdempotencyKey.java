@@ -0,0 +1,35 @@
+package com.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyKey {
+    
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    // SHA-256 of the payment request the key was first used with
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    
+    private Long billId;
+    private Long paymentId;
+    
+    // PaymentDTO returned by the first request, as JSON
+    @Column(length = 2000)
+    private String response;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,24 @@
+package com.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "material_rates")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialRate {
+
+    // Lower case, as matched by MaterialRates
+    @Id
+    @Column(length = 100)
+    private String material;
+
+    // INR per gram
+    @Column(nullable = false)
+    private BigDecimal rate;
+}
@@ -0,0 +1,31 @@
+package com.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "material_rate_version")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MaterialRateVersion {
+
+    // Always 1: the table has a single row
+    @Id
+    private Long id;
+
+    // Bumped with every change to material_rates; 0 until the rates are first written
+    @Column(nullable = false)
+    private Long version;
+
+    // Rate of materials without a row in material_rates
+    @Column(nullable = false)
+    private BigDecimal defaultRate;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package com.billing.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "billing_outbox", indexes = {
+        @Index(name = "idx_billing_outbox_unpublished", columnList = "published_at, event_id")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long eventId;
+    
+    @Column(nullable = false, length = 30)
+    private String eventType; // BILL_CREATED, BILL_PAID, PAYMENT_REFUNDED
+    
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+    
+    @Column(nullable = false)
+    private Long billId;
+    private String billNumber;
+    private Long customerId;
+    private Long vendorId;
+    private String billStatus;
+    private Long paymentId;
+    private BigDecimal amount;
+    
+    // Null until OutboxRelay has handed the event to the transport
+    private LocalDateTime publishedAt;
+}
@@ -8,7 +8,12 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "uk_payments_transaction_id", columnList = "transaction_id", unique = true),
+        @Index(name = "idx_payments_bill", columnList = "bill_id"),
+        @Index(name = "idx_payments_customer", columnList = "customer_id"),
+        @Index(name = "idx_payments_status", columnList = "status")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
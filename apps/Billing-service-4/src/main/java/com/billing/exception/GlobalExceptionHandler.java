@@ -1,6 +1,7 @@
 package com.billing.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -81,6 +82,19 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InvalidPricingDataException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPricingDataException(InvalidPricingDataException ex, WebRequest request) {
+        log.error("Invalid pricing data: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.BAD_REQUEST.value(),
+            "Invalid Pricing Data",
+            ex.getMessage(),
+            request.getDescription(false)
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
     @ExceptionHandler(InvalidPaymentDataException.class)
     public ResponseEntity<ErrorResponse> handleInvalidPaymentDataException(InvalidPaymentDataException ex, WebRequest request) {
         log.error("Invalid payment data: {}", ex.getMessage());
@@ -133,6 +147,46 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStockException(InsufficientStockException ex, WebRequest request) {
+        log.warn("Insufficient stock: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Insufficient Stock",
+            ex.getMessage(),
+            request.getDescription(false)
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(PaymentConflictException.class)
+    public ResponseEntity<ErrorResponse> handlePaymentConflictException(PaymentConflictException ex, WebRequest request) {
+        log.error("Payment conflict: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Payment Conflict",
+            ex.getMessage(),
+            request.getDescription(false)
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    // Optimistic lock (Bill.version) or row lock lost to a concurrent request; the client may retry
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConcurrencyFailureException(ConcurrencyFailureException ex, WebRequest request) {
+        log.error("Concurrent update: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            "Concurrent Update",
+            "The bill was modified by another request, please retry",
+            request.getDescription(false)
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex, WebRequest request) {
         log.error("Validation exception: {}", ex.getMessage());
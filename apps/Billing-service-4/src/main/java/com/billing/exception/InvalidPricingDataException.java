@@ -0,0 +1,8 @@
+package com.billing.exception;
+
+public class InvalidPricingDataException extends RuntimeException {
+    
+    public InvalidPricingDataException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.billing.exception;
+
+public class PaymentConflictException extends RuntimeException {
+    
+    public PaymentConflictException(String message) {
+        super(message);
+    }
+    
+    public PaymentConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,13 +1,9 @@
 package com.billing.feignclients;
 
-import com.billing.dto.CustomerDTO;
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.customer.CustomerContract;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
-@FeignClient(name = "Customer-service")
-public interface CustomerClient {
-    
-    @GetMapping("/api/customers/{customerId}")
-    CustomerDTO getCustomerById(@PathVariable Long customerId);
-} 
\ No newline at end of file
+@FeignClient(name = ServiceNames.CUSTOMER)
+public interface CustomerClient extends CustomerContract {
+}
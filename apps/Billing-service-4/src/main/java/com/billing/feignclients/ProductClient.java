@@ -1,18 +1,9 @@
 package com.billing.feignclients;
 
-import com.billing.dto.ProductDTO;
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.product.ProductContract;
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
-import java.util.List;
-
-@FeignClient(name = "Product-service")
-public interface ProductClient {
-    
-    @GetMapping("/api/products/{productId}")
-    ProductDTO getProductById(@PathVariable Long productId);
-    
-    @GetMapping("/api/products")
-    List<ProductDTO> getAllProducts();
-} 
\ No newline at end of file
+@FeignClient(name = ServiceNames.PRODUCT)
+public interface ProductClient extends ProductContract {
+}
@@ -0,0 +1,11 @@
+package com.billing.feignclients;
+
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.product.StockReservationContract;
+import org.springframework.cloud.openfeign.FeignClient;
+
+// Second client of Product-service: contextId keeps its bean apart from ProductClient while both
+// share the service's load balancer, circuit breaker and bulkhead
+@FeignClient(name = ServiceNames.PRODUCT, contextId = "stockReservationClient")
+public interface StockReservationClient extends StockReservationContract {
+}
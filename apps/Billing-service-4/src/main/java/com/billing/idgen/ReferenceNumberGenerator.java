@@ -0,0 +1,147 @@
+package com.billing.idgen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues bill numbers and transaction IDs of the form {@code BILL-yyyyMMdd-XXXXXXXXXXXXX}.
+ * <p>
+ * The suffix is a 64-bit id in fixed-width base 36 built from 41 bits of milliseconds since
+ * 2024-01-01, a 10-bit node id ({@code billing.node-id}, 0..1023) and a 12-bit per-millisecond
+ * sequence. Ids are strictly increasing per node without locking: the timestamp/sequence pair is
+ * advanced with a CAS, and a node that exhausts 4096 ids in a millisecond (or sees the clock go
+ * backwards) keeps counting into the next millisecond instead of waiting. Two nodes can only
+ * collide if they share a node id, so start-up fails when {@code billing.node-id} is not set;
+ * only the {@code dev} and {@code test} profiles fall back to one derived from the host name,
+ * where a clash costs nothing.
+ */
+@Component
+@Slf4j
+public class ReferenceNumberGenerator {
+
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int SUFFIX_LENGTH = 13; // Long.MAX_VALUE in base 36
+    private static final char[] DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final long nodeBits;
+    private final Clock clock;
+    // (millis since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong lastState = new AtomicLong();
+    private volatile DayPrefix dayPrefix;
+
+    @Autowired
+    public ReferenceNumberGenerator(@Value("${billing.node-id:-1}") int nodeId, Environment environment) {
+        this(nodeId < 0 ? deriveNodeId(environment) : nodeId, Clock.systemDefaultZone());
+    }
+
+    public ReferenceNumberGenerator(int nodeId) {
+        this(nodeId, Clock.systemDefaultZone());
+    }
+
+    ReferenceNumberGenerator(int nodeId, Clock clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("billing.node-id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        this.dayPrefix = DayPrefix.of(LocalDate.now(clock), clock.getZone());
+    }
+
+    public String nextBillNumber() {
+        return format("BILL-", nextId());
+    }
+
+    public String nextTransactionId() {
+        return format("TXN-", nextId());
+    }
+
+    /** Next raw id; strictly greater than every id previously returned by this instance. */
+    public long nextId() {
+        long now = (clock.millis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long prev;
+        long next;
+        do {
+            prev = lastState.get();
+            next = Math.max(now, prev + 1);
+        } while (!lastState.compareAndSet(prev, next));
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    private String format(String type, long id) {
+        long millis = EPOCH_MILLIS + (id >>> (NODE_BITS + SEQUENCE_BITS));
+        String day = dayFor(millis);
+
+        char[] chars = new char[type.length() + day.length() + 1 + SUFFIX_LENGTH];
+        type.getChars(0, type.length(), chars, 0);
+        day.getChars(0, day.length(), chars, type.length());
+        int dash = type.length() + day.length();
+        chars[dash] = '-';
+        for (int i = chars.length - 1; i > dash; i--) {
+            chars[i] = DIGITS[(int) (id % 36)];
+            id /= 36;
+        }
+        return new String(chars);
+    }
+
+    private String dayFor(long millis) {
+        DayPrefix prefix = dayPrefix;
+        if (millis < prefix.startMillis || millis >= prefix.endMillis) {
+            ZoneId zone = clock.getZone();
+            prefix = DayPrefix.of(Instant.ofEpochMilli(millis).atZone(zone).toLocalDate(), zone);
+            dayPrefix = prefix;
+        }
+        return prefix.text;
+    }
+
+    // Host name hashes of two instances collide about once in 1024 pairs, silently duplicating numbers
+    private static int deriveNodeId(Environment environment) {
+        if (!environment.matchesProfiles("dev", "test")) {
+            throw new IllegalStateException("billing.node-id (env BILLING_NODE_ID) must be set to a value between 0 and "
+                    + MAX_NODE_ID + " that no other running Billing instance uses");
+        }
+        try {
+            int nodeId = Math.floorMod(InetAddress.getLocalHost().getHostName().hashCode(), MAX_NODE_ID + 1);
+            log.warn("billing.node-id is not set, using {} derived from the host name (dev/test profile only)", nodeId);
+            return nodeId;
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("billing.node-id is not set and the host name cannot be resolved", e);
+        }
+    }
+
+    private static final class DayPrefix {
+        private final long startMillis;
+        private final long endMillis;
+        private final String text;
+
+        private DayPrefix(long startMillis, long endMillis, String text) {
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+            this.text = text;
+        }
+
+        static DayPrefix of(LocalDate day, ZoneId zone) {
+            return new DayPrefix(day.atStartOfDay(zone).toInstant().toEpochMilli(),
+                    day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli(),
+                    day.format(DAY_FORMAT));
+        }
+    }
+}
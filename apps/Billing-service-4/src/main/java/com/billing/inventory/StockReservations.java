@@ -0,0 +1,122 @@
+package com.billing.inventory;
+
+import com.billing.dto.BillItemDTO;
+import com.billing.exception.InsufficientStockException;
+import com.billing.feignclients.StockReservationClient;
+import com.jewelshop.contracts.product.StockReservationLineDTO;
+import com.jewelshop.contracts.product.StockReservationRequestDTO;
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Holds the stock of a bill in Product-service, keyed by the bill number. A bill takes its stock
+ * when it is created (PENDING reservation), keeps it when it is paid (CONFIRMED) and gives it back
+ * when it is cancelled or deleted. Product-service returns the stock of bills left unpaid past
+ * {@code billing.reservations.hold}.
+ * <p>
+ * Calls are made inside the bill's transaction but cannot be part of it, so each one registers
+ * what to undo or finish once the outcome of the local transaction is known.
+ */
+@Component
+@Slf4j
+public class StockReservations {
+
+    private final StockReservationClient stockReservationClient;
+    private final boolean enabled;
+    private final Duration hold;
+
+    public StockReservations(StockReservationClient stockReservationClient,
+                             @Value("${billing.reservations.enabled:true}") boolean enabled,
+                             @Value("${billing.reservations.hold:15m}") Duration hold) {
+        this.stockReservationClient = stockReservationClient;
+        this.enabled = enabled;
+        this.hold = hold;
+    }
+
+    /**
+     * Reserves every item or none; throws {@link InsufficientStockException} when Product-service
+     * has too little of any of them. Released again if the bill's transaction rolls back.
+     */
+    public void reserve(String billNumber, List<BillItemDTO> items) {
+        if (!enabled || items == null || items.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (BillItemDTO item : items) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        List<StockReservationLineDTO> lines = quantities.entrySet().stream()
+                .map(entry -> new StockReservationLineDTO(entry.getKey(), entry.getValue()))
+                .toList();
+        try {
+            stockReservationClient.reserve(new StockReservationRequestDTO(billNumber, lines, hold.toSeconds()));
+        } catch (FeignException.Conflict e) {
+            throw new InsufficientStockException("Not enough stock for bill " + billNumber + ": " + e.contentUTF8(), e);
+        }
+        afterCompletion(billNumber, TransactionSynchronization.STATUS_ROLLED_BACK);
+    }
+
+    /**
+     * Marks the bill's stock as sold. Bills created before reservations existed have none, which is
+     * not an error. If the payment's transaction rolls back afterwards the reservation stays
+     * confirmed; a retried payment confirms it again without effect.
+     */
+    public void confirm(String billNumber) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stockReservationClient.confirm(billNumber);
+        } catch (FeignException.NotFound e) {
+            log.debug("No stock reservation for bill {}", billNumber);
+        } catch (FeignException.Conflict e) {
+            throw new InsufficientStockException("Stock of bill " + billNumber + " is no longer available: "
+                    + e.contentUTF8(), e);
+        }
+    }
+
+    /** Gives the bill's stock back once its cancellation or deletion has committed. */
+    public void release(String billNumber) {
+        if (!enabled) {
+            return;
+        }
+        afterCompletion(billNumber, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private void afterCompletion(String billNumber, int releaseOnStatus) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (releaseOnStatus == TransactionSynchronization.STATUS_COMMITTED) {
+                releaseNow(billNumber);
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == releaseOnStatus) {
+                    releaseNow(billNumber);
+                }
+            }
+        });
+    }
+
+    // Best effort: a PENDING reservation that could not be released still expires in Product-service
+    private void releaseNow(String billNumber) {
+        try {
+            stockReservationClient.release(billNumber);
+        } catch (FeignException.NotFound e) {
+            log.debug("No stock reservation for bill {}", billNumber);
+        } catch (Exception e) {
+            log.warn("Could not release the stock of bill {}: {}", billNumber, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.billing.outbox;
+
+import com.billing.entity.Bill;
+import com.billing.entity.OutboxEvent;
+import com.billing.entity.Payment;
+import com.billing.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Records bill and payment state changes in the billing_outbox table. Each method must run in the
+ * transaction that makes the change, so the event is stored if and only if the change commits;
+ * {@link OutboxRelay} publishes it afterwards.
+ */
+@Component
+public class BillingEventOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void billCreated(Bill bill) {
+        record(BillingEventType.BILL_CREATED, bill, null, bill.getTotalAmount());
+    }
+
+    /** BILL_CREATED for bills written by a bulk import, as one JDBC batch in bill order. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void billsCreated(List<Bill> bills) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO billing_outbox (event_type, occurred_at, bill_id, bill_number, "
+                        + "customer_id, vendor_id, bill_status, amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                bills, bills.size(), (ps, bill) -> {
+                    ps.setString(1, BillingEventType.BILL_CREATED.name());
+                    ps.setTimestamp(2, now);
+                    ps.setLong(3, bill.getBillId());
+                    ps.setString(4, bill.getBillNumber());
+                    ps.setObject(5, bill.getCustomerId());
+                    ps.setObject(6, bill.getVendorId());
+                    ps.setString(7, bill.getStatus());
+                    ps.setBigDecimal(8, bill.getTotalAmount());
+                });
+    }
+
+    /** @param payment null when the bill was marked paid without a payment */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void billPaid(Bill bill, Payment payment) {
+        record(BillingEventType.BILL_PAID, bill, payment,
+                payment != null ? payment.getAmount() : bill.getTotalAmount());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void paymentRefunded(Bill bill, Payment payment) {
+        record(BillingEventType.PAYMENT_REFUNDED, bill, payment, payment.getAmount());
+    }
+
+    private void record(BillingEventType type, Bill bill, Payment payment, BigDecimal amount) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventType(type.name());
+        event.setOccurredAt(LocalDateTime.now());
+        event.setBillId(bill.getBillId());
+        event.setBillNumber(bill.getBillNumber());
+        event.setCustomerId(bill.getCustomerId());
+        event.setVendorId(bill.getVendorId());
+        event.setBillStatus(bill.getStatus());
+        event.setPaymentId(payment != null ? payment.getPaymentId() : null);
+        event.setAmount(amount);
+        outboxEventRepository.save(event);
+    }
+}
@@ -0,0 +1,21 @@
+package com.billing.outbox;
+
+import com.jewelshop.contracts.billing.BillingEventDTO;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} publishes billing events. Declaring a bean of this type (for example
+ * one backed by a message broker) replaces the default {@link InMemoryBillingEventTransport}.
+ */
+public interface BillingEventTransport {
+
+    /**
+     * Publishes one batch, in order. Throwing leaves the whole batch unpublished and it is offered
+     * again on the next poll, so events can be delivered more than once.
+     * <p>
+     * Called while the relay holds the batch's row locks, which new outbox rows can wait on:
+     * hand the events off rather than doing slow work here.
+     */
+    void publish(List<BillingEventDTO> events) throws Exception;
+}
@@ -0,0 +1,7 @@
+package com.billing.outbox;
+
+public enum BillingEventType {
+    BILL_CREATED,
+    BILL_PAID,
+    PAYMENT_REFUNDED
+}
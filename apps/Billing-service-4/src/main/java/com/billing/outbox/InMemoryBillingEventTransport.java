@@ -0,0 +1,50 @@
+package com.billing.outbox;
+
+import com.jewelshop.contracts.billing.BillingEventDTO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers billing events to subscribers in this JVM, on the relay's thread, and keeps the most
+ * recent ones for inspection. A subscriber that throws fails the batch, which is then offered
+ * again to every subscriber.
+ */
+public class InMemoryBillingEventTransport implements BillingEventTransport {
+
+    private final int capacity;
+    private final Deque<BillingEventDTO> published = new ArrayDeque<>();
+    private final List<Consumer<BillingEventDTO>> subscribers = new CopyOnWriteArrayList<>();
+
+    public InMemoryBillingEventTransport(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void subscribe(Consumer<BillingEventDTO> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void publish(List<BillingEventDTO> events) {
+        for (BillingEventDTO event : events) {
+            subscribers.forEach(subscriber -> subscriber.accept(event));
+            synchronized (published) {
+                published.addLast(event);
+                if (published.size() > capacity) {
+                    published.removeFirst();
+                }
+            }
+        }
+    }
+
+    /** The last published events, oldest first. */
+    public List<BillingEventDTO> getPublished() {
+        synchronized (published) {
+            return new ArrayList<>(published);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.billing.outbox;
+
+import com.billing.entity.OutboxEvent;
+import com.billing.repository.OutboxEventRepository;
+import com.jewelshop.contracts.billing.BillingEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Publishes billing_outbox rows to the {@link BillingEventTransport} in batches, oldest first.
+ * Each batch is locked, published and marked in one transaction, so with several Billing instances
+ * only one relays at a time and order is kept. Delivery is at least once: a batch whose transport
+ * call or commit fails is offered again on the next poll.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final BillingEventTransport transport;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       BillingEventTransport transport,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${billing.outbox.batch-size:100}") int batchSize,
+                       @Value("${billing.outbox.retention:7d}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transport = transport;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.published = meterRegistry.counter("billing.outbox.published");
+        this.failures = meterRegistry.counter("billing.outbox.failures");
+    }
+
+    @Scheduled(fixedDelayString = "${billing.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        try {
+            relay();
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Could not publish billing events, retrying on the next poll: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes batches until the outbox is drained.
+     *
+     * @return the number of events published
+     */
+    public int relay() {
+        int total = 0;
+        int sent;
+        do {
+            sent = transactionTemplate.execute(status -> relayBatch());
+            total += sent;
+        } while (sent == batchSize);
+        return total;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockUnpublished(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            transport.publish(batch.stream().map(OutboxRelay::toDTO).toList());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Billing event transport failed", e);
+        }
+        outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getEventId).toList(), LocalDateTime.now());
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${billing.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        Integer deleted = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} published billing events", deleted);
+        }
+    }
+
+    static BillingEventDTO toDTO(OutboxEvent event) {
+        return new BillingEventDTO(event.getEventId(), event.getEventType(),
+                event.getOccurredAt().atZone(ZoneId.systemDefault()).toInstant(),
+                event.getBillId(), event.getBillNumber(), event.getCustomerId(), event.getVendorId(),
+                event.getBillStatus(), event.getPaymentId(), event.getAmount());
+    }
+}
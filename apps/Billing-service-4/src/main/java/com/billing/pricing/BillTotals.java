@@ -0,0 +1,15 @@
+package com.billing.pricing;
+
+import java.math.BigDecimal;
+
+/**
+ * Money totals of a bill, each rounded to 2 decimals (HALF_UP).
+ */
+public record BillTotals(BigDecimal subtotal,
+                         BigDecimal taxAmount,
+                         BigDecimal discountAmount,
+                         BigDecimal totalAmount) {
+
+    public static final BillTotals ZERO =
+            new BillTotals(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+}
@@ -0,0 +1,87 @@
+package com.billing.pricing;
+
+import com.billing.dto.BillItemDTO;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Jewellery bill totals in a single pass over the items.
+ * <ul>
+ *   <li>GST: 3% when any item is gold, otherwise 5%</li>
+ *   <li>Volume discount: 10% for 5+ pieces, 5% for 3+ pieces</li>
+ *   <li>Extra 2% discount when any item is platinum or diamond</li>
+ * </ul>
+ * Materials are matched case-insensitively as substrings (e.g. "White Gold").
+ */
+public final class BillTotalsCalculator {
+
+    static final BigDecimal GOLD_TAX_RATE = new BigDecimal("0.03");
+    static final BigDecimal STANDARD_TAX_RATE = new BigDecimal("0.05");
+    static final BigDecimal VOLUME_DISCOUNT_5_PLUS = new BigDecimal("0.10");
+    static final BigDecimal VOLUME_DISCOUNT_3_PLUS = new BigDecimal("0.05");
+    static final BigDecimal PRECIOUS_METAL_DISCOUNT = new BigDecimal("0.02");
+
+    private BillTotalsCalculator() {
+    }
+
+    public static BillTotals calculate(List<BillItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            return BillTotals.ZERO;
+        }
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        int totalQuantity = 0;
+        boolean hasGold = false;
+        boolean hasPreciousMetal = false;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            BillItemDTO item = items.get(i);
+            BigDecimal lineTotal = item.getTotalPrice();
+            if (lineTotal != null) {
+                subtotal = subtotal.add(lineTotal);
+            }
+            totalQuantity += item.getQuantity();
+            String material = item.getProductMaterial();
+            if (material != null && !(hasGold && hasPreciousMetal)) {
+                hasGold = hasGold || containsIgnoreCase(material, "gold");
+                hasPreciousMetal = hasPreciousMetal
+                        || containsIgnoreCase(material, "platinum")
+                        || containsIgnoreCase(material, "diamond");
+            }
+        }
+
+        BigDecimal taxRate = hasGold ? GOLD_TAX_RATE : STANDARD_TAX_RATE;
+        BigDecimal taxAmount = subtotal.multiply(taxRate).setScale(2, RoundingMode.HALF_UP);
+
+        BigDecimal discount = BigDecimal.ZERO;
+        if (totalQuantity >= 5) {
+            discount = subtotal.multiply(VOLUME_DISCOUNT_5_PLUS);
+        } else if (totalQuantity >= 3) {
+            discount = subtotal.multiply(VOLUME_DISCOUNT_3_PLUS);
+        }
+        if (hasPreciousMetal) {
+            discount = discount.add(subtotal.multiply(PRECIOUS_METAL_DISCOUNT));
+        }
+        BigDecimal discountAmount = discount.setScale(2, RoundingMode.HALF_UP);
+
+        return new BillTotals(
+                subtotal.setScale(2, RoundingMode.HALF_UP),
+                taxAmount,
+                discountAmount,
+                subtotal.add(taxAmount).subtract(discountAmount).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    // Allocation-free equivalent of value.toLowerCase().contains(lowerCaseNeedle)
+    static boolean containsIgnoreCase(String value, String lowerCaseNeedle) {
+        int length = lowerCaseNeedle.length();
+        char first = lowerCaseNeedle.charAt(0);
+        for (int i = 0, last = value.length() - length; i <= last; i++) {
+            if (Character.toLowerCase(value.charAt(i)) == first
+                    && value.regionMatches(true, i + 1, lowerCaseNeedle, 1, length - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,96 @@
+package com.billing.pricing;
+
+import com.billing.entity.MaterialRate;
+import com.billing.entity.MaterialRateVersion;
+import com.billing.repository.MaterialRateRepository;
+import com.billing.repository.MaterialRateVersionRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * The material rates shared by all Billing instances: one material_rates row per material, and the
+ * version and default rate of the whole table in the single material_rate_version row. A change
+ * locks that row, starts from the rates last committed by any instance, rewrites them and bumps the
+ * version in one transaction.
+ */
+@Component
+public class MaterialRateStore {
+
+    static final long VERSION_ROW_ID = 1L;
+
+    private final MaterialRateRepository materialRateRepository;
+    private final MaterialRateVersionRepository materialRateVersionRepository;
+
+    public MaterialRateStore(MaterialRateRepository materialRateRepository,
+                             MaterialRateVersionRepository materialRateVersionRepository) {
+        this.materialRateRepository = materialRateRepository;
+        this.materialRateVersionRepository = materialRateVersionRepository;
+    }
+
+    /** Version of the stored rates; 0 until they are first written. */
+    @Transactional(readOnly = true)
+    public long currentVersion() {
+        return materialRateVersionRepository.findVersion(VERSION_ROW_ID).orElseThrow(this::missingVersionRow);
+    }
+
+    @Transactional(readOnly = true)
+    public MaterialRates load() {
+        MaterialRateVersion version = materialRateVersionRepository.findById(VERSION_ROW_ID)
+                .orElseThrow(this::missingVersionRow);
+        return toRates(version, materialRateRepository.findAll());
+    }
+
+    /**
+     * Applies {@code change} to the stored rates and writes the result. {@code change} returns its
+     * argument to leave the table as it is; an exception from it leaves the table untouched.
+     */
+    @Transactional
+    public MaterialRates update(UnaryOperator<MaterialRates> change) {
+        MaterialRateVersion version = materialRateVersionRepository.lockById(VERSION_ROW_ID)
+                .orElseThrow(this::missingVersionRow);
+        List<MaterialRate> stored = materialRateRepository.findAll();
+        MaterialRates previous = toRates(version, stored);
+        MaterialRates updated = change.apply(previous);
+        if (updated == previous) {
+            return previous;
+        }
+
+        Map<String, MaterialRate> removed = stored.stream()
+                .collect(Collectors.toMap(MaterialRate::getMaterial, Function.identity()));
+        updated.getRates().forEach((material, rate) -> {
+            MaterialRate row = removed.remove(material);
+            if (row == null) {
+                materialRateRepository.save(new MaterialRate(material, rate));
+            } else {
+                row.setRate(rate);
+            }
+        });
+        materialRateRepository.deleteAll(removed.values());
+        version.setVersion(updated.getVersion());
+        version.setDefaultRate(updated.getDefaultRate());
+        version.setUpdatedAt(LocalDateTime.ofInstant(updated.getUpdatedAt(), ZoneId.systemDefault()));
+        return updated;
+    }
+
+    private static MaterialRates toRates(MaterialRateVersion version, List<MaterialRate> rows) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        rows.forEach(row -> rates.put(row.getMaterial(), row.getRate()));
+        return MaterialRates.of(rates, version.getDefaultRate(), version.getVersion(),
+                version.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private IllegalStateException missingVersionRow() {
+        return new IllegalStateException("material_rate_version has no row " + VERSION_ROW_ID
+                + "; has migration V6 run?");
+    }
+}
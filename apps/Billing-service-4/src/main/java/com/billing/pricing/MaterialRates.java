@@ -0,0 +1,105 @@
+package com.billing.pricing;
+
+import com.billing.exception.InvalidPricingDataException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable per-gram rate table keyed by lower-cased material name. Every change produces a
+ * new instance with a higher {@link #getVersion() version}, which {@link PricingEngine}
+ * stores through {@link MaterialRateStore} and swaps in atomically.
+ */
+public final class MaterialRates {
+
+    // Rates previously hard-coded in ProductDTO (INR per gram)
+    static final Map<String, BigDecimal> DEFAULT_RATES;
+    static final BigDecimal DEFAULT_OTHER_RATE = new BigDecimal("100");
+
+    static {
+        Map<String, BigDecimal> defaults = new LinkedHashMap<>();
+        defaults.put("gold", new BigDecimal("5000"));
+        defaults.put("silver", new BigDecimal("80"));
+        defaults.put("platinum", new BigDecimal("3500"));
+        defaults.put("diamond", new BigDecimal("100000"));
+        defaults.put("ruby", new BigDecimal("15000"));
+        defaults.put("emerald", new BigDecimal("12000"));
+        defaults.put("pearl", new BigDecimal("2000"));
+        DEFAULT_RATES = Map.copyOf(defaults);
+    }
+
+    private final Map<String, BigDecimal> rates;
+    private final BigDecimal defaultRate;
+    private final long version;
+    private final Instant updatedAt;
+
+    private MaterialRates(Map<String, BigDecimal> rates, BigDecimal defaultRate, long version, Instant updatedAt) {
+        this.rates = rates;
+        this.defaultRate = defaultRate;
+        this.version = version;
+        this.updatedAt = updatedAt;
+    }
+
+    static MaterialRates of(Map<String, BigDecimal> rates, BigDecimal defaultRate, long version) {
+        return of(rates, defaultRate, version, Instant.now());
+    }
+
+    static MaterialRates of(Map<String, BigDecimal> rates, BigDecimal defaultRate, long version, Instant updatedAt) {
+        Map<String, BigDecimal> normalised = new HashMap<>();
+        rates.forEach((material, rate) -> normalised.put(normalise(material), requireRate(material, rate)));
+        return new MaterialRates(Map.copyOf(normalised), requireRate("default", defaultRate), version, updatedAt);
+    }
+
+    MaterialRates withRate(String material, BigDecimal rate, long version) {
+        Map<String, BigDecimal> updated = new HashMap<>(rates);
+        updated.put(normalise(material), requireRate(material, rate));
+        return new MaterialRates(Map.copyOf(updated), defaultRate, version, Instant.now());
+    }
+
+    /** Rate for the material (case-insensitive); materials without a rate use the default rate. */
+    public BigDecimal rateFor(String material) {
+        if (material == null) {
+            return defaultRate;
+        }
+        return rates.getOrDefault(normalise(material), defaultRate);
+    }
+
+    public Map<String, BigDecimal> getRates() {
+        return rates;
+    }
+
+    public BigDecimal getDefaultRate() {
+        return defaultRate;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    private static String normalise(String material) {
+        if (material == null || material.isBlank()) {
+            throw new InvalidPricingDataException("Material name is required");
+        }
+        return material.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Rates are stored as DECIMAL(38, 2): anything finer is rejected rather than rounded, and the scale
+    // is fixed here so the instance that made a change holds the same values as the ones reloading it
+    private static BigDecimal requireRate(String material, BigDecimal rate) {
+        if (rate == null || rate.signum() <= 0) {
+            throw new InvalidPricingDataException("Rate for " + material + " must be greater than 0");
+        }
+        if (rate.stripTrailingZeros().scale() > 2) {
+            throw new InvalidPricingDataException("Rate for " + material + " must have at most 2 decimal places");
+        }
+        return rate.setScale(2);
+    }
+}
@@ -0,0 +1,110 @@
+package com.billing.pricing;
+
+import com.billing.cache.ProductSnapshot;
+import com.jewelshop.contracts.product.ProductDTO;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Prices products from the current {@link MaterialRates}. The rates live in the database
+ * ({@link MaterialRateStore}), so every Billing instance prices alike: a change is written there
+ * and swapped in locally, and the other instances poll the version and reload when it moves. The
+ * local copy is replaced with one atomic swap, so bill creation never waits on a reload and never
+ * sees a half-updated table; cached {@link ProductSnapshot}s priced with an older version are
+ * repriced on next use.
+ */
+@Component
+@Slf4j
+public class PricingEngine {
+
+    private final MaterialRateStore materialRateStore;
+    private final MaterialRates startupRates;
+    private final AtomicReference<MaterialRates> current;
+
+    public PricingEngine(PricingProperties properties, MaterialRateStore materialRateStore) {
+        this.materialRateStore = materialRateStore;
+        Map<String, BigDecimal> rates = new HashMap<>(MaterialRates.DEFAULT_RATES);
+        rates.putAll(properties.getRates());
+        this.startupRates = MaterialRates.of(rates, properties.getDefaultRate(), 1);
+        // Version 0 until load(), so whatever is stored replaces it
+        this.current = new AtomicReference<>(MaterialRates.of(rates, properties.getDefaultRate(), 0));
+    }
+
+    /** Loads the stored rates, seeding them from the configured ones if no instance has yet. */
+    @PostConstruct
+    public void load() {
+        MaterialRates loaded = install(materialRateStore.update(stored ->
+                stored.getVersion() == 0 ? startupRates : stored));
+        log.info("Material rates loaded, version {}: {}", loaded.getVersion(), loaded.getRates());
+    }
+
+    @Scheduled(fixedDelayString = "${billing.pricing.refresh-interval-ms:1000}")
+    public void poll() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Could not check material rates, keeping version {}: {}", currentVersion(), e.getMessage());
+        }
+    }
+
+    /** Reloads the rates when another instance has changed them. */
+    public void refresh() {
+        if (materialRateStore.currentVersion() > currentVersion()) {
+            MaterialRates loaded = install(materialRateStore.load());
+            log.info("Material rates changed elsewhere, now version {}", loaded.getVersion());
+        }
+    }
+
+    public MaterialRates currentRates() {
+        return current.get();
+    }
+
+    public long currentVersion() {
+        return current.get().getVersion();
+    }
+
+    /** Replaces every rate; materials missing from {@code rates} fall back to {@code defaultRate}. */
+    public MaterialRates replaceRates(Map<String, BigDecimal> rates, BigDecimal defaultRate) {
+        MaterialRates updated = materialRateStore.update(previous ->
+                MaterialRates.of(rates, defaultRate != null ? defaultRate : previous.getDefaultRate(),
+                        previous.getVersion() + 1));
+        install(updated);
+        log.info("Material rates replaced, now version {}: {}", updated.getVersion(), updated.getRates());
+        return updated;
+    }
+
+    /** Changes the rate of one material and keeps all others, as last stored by any instance. */
+    public MaterialRates updateRate(String material, BigDecimal rate) {
+        MaterialRates updated = materialRateStore.update(previous ->
+                previous.withRate(material, rate, previous.getVersion() + 1));
+        install(updated);
+        log.info("Rate for {} set to {}, now version {}", material, rate, updated.getVersion());
+        return updated;
+    }
+
+    public ProductSnapshot snapshot(ProductDTO product) {
+        MaterialRates rates = current.get();
+        return new ProductSnapshot(product, unitPrice(product, rates), rates.getVersion());
+    }
+
+    /** Rate per gram x weight x gm per weight. */
+    static BigDecimal unitPrice(ProductDTO product, MaterialRates rates) {
+        return rates.rateFor(product.productMaterial())
+                .multiply(BigDecimal.valueOf(product.productWeight()))
+                .multiply(BigDecimal.valueOf(product.productGmPerWeight()))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // A refresh racing a local change may load an older version after it; the newer one wins
+    private MaterialRates install(MaterialRates rates) {
+        return current.accumulateAndGet(rates, (held, loaded) -> loaded.getVersion() > held.getVersion() ? loaded : held);
+    }
+}
@@ -0,0 +1,24 @@
+package com.billing.pricing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rates the shared rate table is seeded with by the first instance to start, e.g.
+ * {@code billing.pricing.rates.gold=5200}. Materials not listed keep their built-in rate; once
+ * seeded, rates are changed through {@code /api/pricing/rates} and these settings are ignored.
+ */
+@Component
+@ConfigurationProperties(prefix = "billing.pricing")
+@Data
+public class PricingProperties {
+
+    private Map<String, BigDecimal> rates = new LinkedHashMap<>();
+
+    private BigDecimal defaultRate = MaterialRates.DEFAULT_OTHER_RATE;
+}
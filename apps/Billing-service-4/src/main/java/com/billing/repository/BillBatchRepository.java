@@ -0,0 +1,100 @@
+package com.billing.repository;
+
+import com.billing.entity.Bill;
+import com.billing.entity.BillItem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC batch inserts for bulk imports. Bill and BillItem use IDENTITY ids, which make Hibernate
+ * insert row by row; here each table gets one batched statement per chunk (a single multi-row
+ * INSERT on MySQL with rewriteBatchedStatements=true), and the new bill ids are read back by
+ * bill number through uk_bills_bill_number.
+ * <p>
+ * Rows written here bypass the persistence context; callers must not have the same bills loaded.
+ */
+@Repository
+public class BillBatchRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /** Inserts the bills and their items, and sets billId on each bill. Must run in a transaction. */
+    public void insertAll(List<Bill> bills) {
+        if (bills.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO bills (customer_id, vendor_id, bill_number, bill_date, subtotal, "
+                        + "tax_amount, discount_amount, total_amount, status, payment_method, notes, version, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)",
+                bills, bills.size(), (ps, bill) -> {
+                    ps.setObject(1, bill.getCustomerId());
+                    ps.setObject(2, bill.getVendorId());
+                    ps.setString(3, bill.getBillNumber());
+                    ps.setTimestamp(4, bill.getBillDate() != null ? Timestamp.valueOf(bill.getBillDate()) : null);
+                    ps.setBigDecimal(5, bill.getSubtotal());
+                    ps.setBigDecimal(6, bill.getTaxAmount());
+                    ps.setBigDecimal(7, bill.getDiscountAmount());
+                    ps.setBigDecimal(8, bill.getTotalAmount());
+                    ps.setString(9, bill.getStatus());
+                    ps.setString(10, bill.getPaymentMethod());
+                    ps.setString(11, bill.getNotes());
+                    ps.setTimestamp(12, now);
+                    ps.setTimestamp(13, now);
+                });
+        bills.forEach(bill -> {
+            bill.setVersion(0L);
+            bill.setCreatedAt(now.toLocalDateTime());
+            bill.setUpdatedAt(now.toLocalDateTime());
+        });
+
+        Map<String, Long> ids = findIdsByBillNumber(bills.stream().map(Bill::getBillNumber).toList());
+        List<BillItem> items = new ArrayList<>();
+        for (Bill bill : bills) {
+            bill.setBillId(ids.get(bill.getBillNumber()));
+            if (bill.getBillItems() != null) {
+                items.addAll(bill.getBillItems());
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO bill_items (bill_id, product_id, product_name, product_material, "
+                        + "product_weight, product_gm_per_weight, quantity, unit_price, total_price, description) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                items, items.size(), (ps, item) -> {
+                    ps.setLong(1, item.getBill().getBillId());
+                    ps.setObject(2, item.getProductId());
+                    ps.setString(3, item.getProductName());
+                    ps.setString(4, item.getProductMaterial());
+                    ps.setDouble(5, item.getProductWeight());
+                    ps.setDouble(6, item.getProductGmPerWeight());
+                    ps.setInt(7, item.getQuantity());
+                    ps.setBigDecimal(8, item.getUnitPrice());
+                    ps.setBigDecimal(9, item.getTotalPrice());
+                    ps.setString(10, item.getDescription());
+                });
+    }
+
+    private Map<String, Long> findIdsByBillNumber(List<String> billNumbers) {
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT bill_id, bill_number FROM bills WHERE bill_number IN (:billNumbers)",
+                new MapSqlParameterSource("billNumbers", billNumbers),
+                rs -> {
+                    ids.put(rs.getString("bill_number"), rs.getLong("bill_id"));
+                });
+        return ids;
+    }
+}
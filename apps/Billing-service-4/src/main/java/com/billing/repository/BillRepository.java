@@ -1,29 +1,45 @@
 package com.billing.repository;
 
 import com.billing.entity.Bill;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BillRepository extends JpaRepository<Bill, Long> {
     
+    // List queries fetch billItems in the same statement; convertToDTO reads every item
+    @EntityGraph(attributePaths = "billItems")
     List<Bill> findByCustomerId(Long customerId);
     
+    // Ids only: a limit on the billItems fetch join would be applied in memory, after reading every row
+    @Query("SELECT b.billId FROM Bill b WHERE b.customerId = :customerId ORDER BY b.billDate DESC, b.billId DESC")
+    List<Long> findRecentBillIdsByCustomerId(@Param("customerId") Long customerId, Limit limit);
+    
+    @EntityGraph(attributePaths = "billItems")
+    List<Bill> findByBillIdIn(Collection<Long> billIds);
+    
+    @EntityGraph(attributePaths = "billItems")
     List<Bill> findByVendorId(Long vendorId);
     
+    @EntityGraph(attributePaths = "billItems")
     List<Bill> findByStatus(String status);
     
     Optional<Bill> findByBillNumber(String billNumber);
     
+    @EntityGraph(attributePaths = "billItems")
     @Query("SELECT b FROM Bill b WHERE b.customerId = :customerId AND b.status = :status")
     List<Bill> findByCustomerIdAndStatus(@Param("customerId") Long customerId, @Param("status") String status);
     
+    @EntityGraph(attributePaths = "billItems")
     @Query("SELECT b FROM Bill b WHERE b.billDate BETWEEN :startDate AND :endDate")
     List<Bill> findBillsByDateRange(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.billing.repository;
+
+import com.billing.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+    
+    // Plain INSERT rather than save(): save() merges over an existing key instead of failing on it
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, bill_id, created_at) " +
+            "VALUES (:key, :requestHash, :billId, :createdAt)", nativeQuery = true)
+    int insertKey(@Param("key") String key,
+                  @Param("requestHash") String requestHash,
+                  @Param("billId") Long billId,
+                  @Param("createdAt") LocalDateTime createdAt);
+    
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.paymentId = :paymentId, k.response = :response WHERE k.idempotencyKey = :key")
+    int markCompleted(@Param("key") String key, @Param("paymentId") Long paymentId, @Param("response") String response);
+    
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,9 @@
+package com.billing.repository;
+
+import com.billing.entity.MaterialRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MaterialRateRepository extends JpaRepository<MaterialRate, String> {
+}
@@ -0,0 +1,24 @@
+package com.billing.repository;
+
+import com.billing.entity.MaterialRateVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MaterialRateVersionRepository extends JpaRepository<MaterialRateVersion, Long> {
+
+    // Polled by every instance, so it reads the one column instead of the rates
+    @Query("SELECT v.version FROM MaterialRateVersion v WHERE v.id = :id")
+    Optional<Long> findVersion(@Param("id") Long id);
+
+    // The row lock makes rate changes from different Billing instances apply one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM MaterialRateVersion v WHERE v.id = :id")
+    Optional<MaterialRateVersion> lockById(@Param("id") Long id);
+}
@@ -0,0 +1,89 @@
+package com.billing.repository;
+
+import com.billing.analytics.DailySales;
+import com.billing.analytics.MaterialSales;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The vendor_daily_sales and vendor_daily_material_sales aggregates (V5 migration). Changes are
+ * added to the existing row, or inserted as a new one; reads sum the rows of a date range through
+ * the primary keys, so their cost depends on the number of days, not of bills.
+ */
+@Repository
+public class VendorSalesRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Adds the change to its (vendor, day, status) row. Must run in a transaction. */
+    public void add(DailySales change) {
+        Date salesDate = Date.valueOf(change.salesDate());
+        Object[] delta = {change.billCount(), change.itemCount(), change.subtotal(), change.taxAmount(),
+                change.discountAmount(), change.totalAmount(), change.vendorId(), salesDate, change.status()};
+        String update = "UPDATE vendor_daily_sales SET bill_count = bill_count + ?, item_count = item_count + ?, "
+                + "subtotal = subtotal + ?, tax_amount = tax_amount + ?, discount_amount = discount_amount + ?, "
+                + "total_amount = total_amount + ? WHERE vendor_id = ? AND sales_date = ? AND status = ?";
+        if (jdbcTemplate.update(update, delta) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO vendor_daily_sales (vendor_id, sales_date, status, bill_count, item_count, "
+                            + "subtotal, tax_amount, discount_amount, total_amount) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    change.vendorId(), salesDate, change.status(), change.billCount(), change.itemCount(),
+                    change.subtotal(), change.taxAmount(), change.discountAmount(), change.totalAmount());
+        } catch (DuplicateKeyException e) {
+            // Another transaction inserted the row first; its insert has committed, so the update finds it now
+            jdbcTemplate.update(update, delta);
+        }
+    }
+
+    /** Adds the change to its (vendor, status, day, material) row. Must run in a transaction. */
+    public void add(MaterialSales change) {
+        Date salesDate = Date.valueOf(change.salesDate());
+        Object[] delta = {change.itemCount(), change.weight(), change.totalPrice(), change.vendorId(), change.status(),
+                salesDate, change.material()};
+        String update = "UPDATE vendor_daily_material_sales SET item_count = item_count + ?, weight = weight + ?, "
+                + "total_price = total_price + ? WHERE vendor_id = ? AND status = ? AND sales_date = ? AND material = ?";
+        if (jdbcTemplate.update(update, delta) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO vendor_daily_material_sales (vendor_id, status, sales_date, material, "
+                            + "item_count, weight, total_price) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    change.vendorId(), change.status(), salesDate, change.material(), change.itemCount(),
+                    change.weight(), change.totalPrice());
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(update, delta);
+        }
+    }
+
+    /** Totals per status of the vendor's bills dated from {@code from} to {@code to}, inclusive; salesDate is null. */
+    public List<DailySales> sumByStatus(long vendorId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT status, SUM(bill_count) AS bill_count, SUM(item_count) AS item_count, "
+                        + "SUM(subtotal) AS subtotal, SUM(tax_amount) AS tax_amount, "
+                        + "SUM(discount_amount) AS discount_amount, SUM(total_amount) AS total_amount "
+                        + "FROM vendor_daily_sales WHERE vendor_id = ? AND sales_date BETWEEN ? AND ? GROUP BY status",
+                (rs, rowNum) -> new DailySales(vendorId, null, rs.getString("status"), rs.getLong("bill_count"),
+                        rs.getLong("item_count"), rs.getBigDecimal("subtotal"), rs.getBigDecimal("tax_amount"),
+                        rs.getBigDecimal("discount_amount"), rs.getBigDecimal("total_amount")),
+                vendorId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /** Totals per material of the vendor's bills in one status, highest total price first; salesDate is null. */
+    public List<MaterialSales> sumByMaterial(long vendorId, String status, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT material, SUM(item_count) AS item_count, SUM(weight) AS weight, "
+                        + "SUM(total_price) AS total_price FROM vendor_daily_material_sales "
+                        + "WHERE vendor_id = ? AND status = ? AND sales_date BETWEEN ? AND ? "
+                        + "GROUP BY material ORDER BY total_price DESC, material",
+                (rs, rowNum) -> new MaterialSales(vendorId, status, null, rs.getString("material"),
+                        rs.getLong("item_count"), rs.getDouble("weight"), rs.getBigDecimal("total_price")),
+                vendorId, status, Date.valueOf(from), Date.valueOf(to));
+    }
+}
@@ -0,0 +1,300 @@
+package com.billing.service;
+
+import com.billing.analytics.VendorSalesAggregates;
+import com.billing.cache.ProductSnapshot;
+import com.billing.cache.ProductSnapshotCache;
+import com.billing.dto.BillDTO;
+import com.billing.dto.BillItemDTO;
+import com.billing.dto.BulkBillImportDTO;
+import com.billing.dto.BulkBillResultDTO;
+import com.billing.entity.Bill;
+import com.billing.feignclients.CustomerClient;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
+import com.billing.repository.BillBatchRepository;
+import feign.FeignException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Creates many bills in one request. Bills are read one at a time and handled in chunks of
+ * {@code billing.bulk.batch-size}: the remote checks of a chunk run in parallel on
+ * billLookupExecutor (one call per distinct customer, one product snapshot call per chunk, one
+ * stock reservation per bill), and the chunk is written in its own transaction with JDBC batch
+ * inserts through {@link BillBatchRepository}. A bill that fails its checks is reported and
+ * skipped; a chunk that fails to write is reported as failed and the import goes on.
+ */
+@Service
+@Slf4j
+public class BillBulkImportService {
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillBatchRepository billBatchRepository;
+
+    @Autowired
+    private CustomerClient customerClient;
+
+    @Autowired
+    private ProductSnapshotCache productSnapshotCache;
+
+    @Autowired
+    @Qualifier("billLookupExecutor")
+    private Executor billLookupExecutor;
+
+    @Autowired
+    private ReferenceNumberGenerator referenceNumberGenerator;
+
+    @Autowired
+    private StockReservations stockReservations;
+
+    @Autowired
+    private BillingEventOutbox billingEventOutbox;
+
+    @Autowired
+    private VendorSalesAggregates vendorSalesAggregates;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${billing.bulk.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Imports the bills in iteration order; the result has one entry per bill read. A bill the
+     * iterator cannot read is reported as failed and ends the import, since nothing after it can
+     * be trusted to line up with the request.
+     */
+    public BulkBillImportDTO importBills(Iterator<BillDTO> bills) {
+        long startNanos = System.nanoTime();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Customer checks are remembered for the whole import; most imports repeat a few customers
+        Map<Long, Optional<String>> customerErrors = new HashMap<>();
+        List<BulkBillResultDTO> results = new ArrayList<>();
+
+        List<BillDTO> chunk = new ArrayList<>(batchSize);
+        boolean readable = true;
+        while (readable) {
+            try {
+                if (bills.hasNext()) {
+                    chunk.add(bills.next());
+                } else {
+                    readable = false;
+                }
+            } catch (RuntimeException e) {
+                readable = false;
+                results.addAll(importChunk(results.size(), chunk, customerErrors, transactionTemplate));
+                chunk.clear();
+                results.add(BulkBillResultDTO.failed(results.size(), "Unreadable bill: " + e.getMessage()));
+            }
+            if (chunk.size() == batchSize || (!readable && !chunk.isEmpty())) {
+                results.addAll(importChunk(results.size(), chunk, customerErrors, transactionTemplate));
+                chunk.clear();
+            }
+        }
+
+        int created = (int) results.stream().filter(result -> "CREATED".equals(result.getStatus())).count();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        log.info("Bulk import created {} of {} bills in {} ms", created, results.size(), elapsedMillis);
+        return new BulkBillImportDTO(results.size(), created, results.size() - created, elapsedMillis, results);
+    }
+
+    private List<BulkBillResultDTO> importChunk(int firstIndex, List<BillDTO> chunk,
+                                                Map<Long, Optional<String>> customerErrors,
+                                                TransactionTemplate transactionTemplate) {
+        BulkBillResultDTO[] results = new BulkBillResultDTO[chunk.size()];
+
+        for (int i = 0; i < chunk.size(); i++) {
+            String error = validate(chunk.get(i));
+            if (error != null) {
+                results[i] = BulkBillResultDTO.failed(firstIndex + i, error);
+            }
+        }
+
+        checkCustomers(firstIndex, chunk, results, customerErrors);
+        Map<Long, ProductSnapshot> products;
+        try {
+            products = fetchProducts(chunk, results);
+        } catch (RuntimeException e) {
+            // Without prices nothing in the chunk can be billed
+            products = Collections.emptyMap();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (results[i] == null) {
+                    results[i] = BulkBillResultDTO.failed(firstIndex + i, "Could not resolve products: " + e.getMessage());
+                }
+            }
+        }
+
+        Map<Integer, Bill> bills = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            try {
+                bills.put(i, buildBill(chunk.get(i), products));
+            } catch (RuntimeException e) {
+                results[i] = BulkBillResultDTO.failed(firstIndex + i, e.getMessage());
+            }
+        }
+
+        reserveStock(chunk, bills, results, firstIndex);
+
+        if (!bills.isEmpty()) {
+            List<Bill> toWrite = new ArrayList<>(bills.values());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    billBatchRepository.insertAll(toWrite);
+                    billingEventOutbox.billsCreated(toWrite);
+                    vendorSalesAggregates.billsCreated(toWrite);
+                });
+                bills.forEach((i, bill) ->
+                        results[i] = BulkBillResultDTO.created(firstIndex + i, bill.getBillId(), bill.getBillNumber()));
+            } catch (RuntimeException e) {
+                log.error("Bulk import could not write bills {} to {}: {}", firstIndex, firstIndex + chunk.size() - 1,
+                        e.getMessage());
+                bills.forEach((i, bill) -> {
+                    stockReservations.release(bill.getBillNumber());
+                    results[i] = BulkBillResultDTO.failed(firstIndex + i, "Could not save bill: " + e.getMessage());
+                });
+            }
+        }
+        return List.of(results);
+    }
+
+    // The checks POST /create gets from @Valid, plus the service's own
+    private String validate(BillDTO billDTO) {
+        if (billDTO == null) {
+            return "Bill data cannot be null";
+        }
+        Set<ConstraintViolation<BillDTO>> violations = validator.validate(billDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+        }
+        try {
+            billService.validateBillData(billDTO);
+            return null;
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    private void checkCustomers(int firstIndex, List<BillDTO> chunk, BulkBillResultDTO[] results,
+                                Map<Long, Optional<String>> customerErrors) {
+        Map<Long, CompletableFuture<Optional<String>>> lookups = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Long customerId = results[i] == null ? chunk.get(i).getCustomerId() : null;
+            if (customerId != null && !customerErrors.containsKey(customerId)) {
+                lookups.computeIfAbsent(customerId, id ->
+                        CompletableFuture.supplyAsync(() -> checkCustomer(id), billLookupExecutor));
+            }
+        }
+        lookups.forEach((customerId, lookup) -> customerErrors.put(customerId, join(lookup)));
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                Optional<String> error = customerErrors.get(chunk.get(i).getCustomerId());
+                if (error.isPresent()) {
+                    results[i] = BulkBillResultDTO.failed(firstIndex + i, error.get());
+                }
+            }
+        }
+    }
+
+    private Optional<String> checkCustomer(Long customerId) {
+        try {
+            if (customerClient.getCustomerById(customerId) == null) {
+                return Optional.of("Customer not found with ID: " + customerId);
+            }
+            return Optional.empty();
+        } catch (FeignException.NotFound e) {
+            return Optional.of("Customer not found with ID: " + customerId);
+        }
+    }
+
+    private Map<Long, ProductSnapshot> fetchProducts(List<BillDTO> chunk, BulkBillResultDTO[] results) {
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (results[i] == null) {
+                chunk.get(i).getBillItems().stream()
+                        .map(BillItemDTO::getProductId)
+                        .forEach(productIds::add);
+            }
+        }
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        // Served from the local snapshot cache; misses are fetched in one batch call for the whole chunk
+        return productSnapshotCache.getProducts(productIds.stream().distinct().toList());
+    }
+
+    private Bill buildBill(BillDTO billDTO, Map<Long, ProductSnapshot> products) {
+        Bill bill = new Bill();
+        bill.setCustomerId(billDTO.getCustomerId());
+        bill.setVendorId(billDTO.getVendorId());
+        bill.setBillNumber(referenceNumberGenerator.nextBillNumber());
+        // Imports may carry the original bill date
+        bill.setBillDate(billDTO.getBillDate() != null ? billDTO.getBillDate() : LocalDateTime.now());
+        bill.setStatus("PENDING");
+        bill.setNotes(billDTO.getNotes());
+        billService.calculateBillTotals(bill, billDTO.getBillItems());
+        bill.setBillItems(billDTO.getBillItems().stream()
+                .map(itemDTO -> billService.createBillItem(itemDTO, bill, products.get(itemDTO.getProductId())))
+                .collect(Collectors.toList()));
+        return bill;
+    }
+
+    // One reservation per bill, keyed by its bill number as in createBill; bills short of stock are dropped
+    private void reserveStock(List<BillDTO> chunk, Map<Integer, Bill> bills, BulkBillResultDTO[] results,
+                              int firstIndex) {
+        Map<Integer, CompletableFuture<Optional<String>>> reservations = new LinkedHashMap<>();
+        bills.forEach((i, bill) -> reservations.put(i, CompletableFuture.supplyAsync(() -> {
+            stockReservations.reserve(bill.getBillNumber(), chunk.get(i).getBillItems());
+            return Optional.<String>empty();
+        }, billLookupExecutor)));
+        reservations.forEach((i, reservation) -> join(reservation).ifPresent(error -> {
+            bills.remove(i);
+            results[i] = BulkBillResultDTO.failed(firstIndex + i, error);
+        }));
+    }
+
+    private static Optional<String> join(CompletableFuture<Optional<String>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return Optional.of(cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.billing.service;
 
+import com.billing.analytics.VendorSalesAggregates;
+import com.billing.cache.ProductSnapshot;
+import com.billing.cache.ProductSnapshotCache;
 import com.billing.dto.BillDTO;
 import com.billing.dto.BillItemDTO;
-import com.billing.dto.CustomerDTO;
-import com.billing.dto.ProductDTO;
 import com.billing.entity.Bill;
 import com.billing.entity.BillItem;
 import com.billing.entity.Payment;
@@ -12,20 +13,37 @@ import com.billing.exception.CustomerNotFoundException;
 import com.billing.exception.InvalidBillDataException;
 import com.billing.exception.BillStatusException;
 import com.billing.feignclients.CustomerClient;
-import com.billing.feignclients.ProductClient;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
+import com.billing.pricing.BillTotals;
+import com.billing.pricing.BillTotalsCalculator;
 import com.billing.repository.BillItemRepository;
 import com.billing.repository.BillRepository;
 import com.billing.repository.PaymentRepository;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,7 +63,23 @@ public class BillService {
     private CustomerClient customerClient;
 
     @Autowired
-    private ProductClient productClient;
+    private ProductSnapshotCache productSnapshotCache;
+
+    @Autowired
+    @Qualifier("billLookupExecutor")
+    private Executor billLookupExecutor;
+
+    @Autowired
+    private ReferenceNumberGenerator referenceNumberGenerator;
+
+    @Autowired
+    private StockReservations stockReservations;
+
+    @Autowired
+    private BillingEventOutbox billingEventOutbox;
+
+    @Autowired
+    private VendorSalesAggregates vendorSalesAggregates;
 
     @Transactional
     public BillDTO createBill(BillDTO billDTO) {
@@ -54,33 +88,35 @@ public class BillService {
         // Validate input data
         validateBillData(billDTO);
         
-        // Validate customer exists
-        CustomerDTO customer = customerClient.getCustomerById(billDTO.getCustomerId());
-        if (customer == null) {
-            throw new CustomerNotFoundException("Customer not found with ID: " + billDTO.getCustomerId());
-        }
+        // Validate customer exists and resolve products in parallel
+        Map<Long, ProductSnapshot> products = resolveCustomerAndProducts(billDTO);
 
         Bill bill = new Bill();
         bill.setCustomerId(billDTO.getCustomerId());
         bill.setVendorId(billDTO.getVendorId());
-        bill.setBillNumber(generateBillNumber());
+        bill.setBillNumber(referenceNumberGenerator.nextBillNumber());
         bill.setBillDate(LocalDateTime.now());
         bill.setStatus("PENDING");
         bill.setNotes(billDTO.getNotes());
 
         // Calculate totals with jewellery-specific logic
         calculateBillTotals(bill, billDTO.getBillItems());
+
+        // Takes the stock in Product-service; given back if this transaction rolls back
+        stockReservations.reserve(bill.getBillNumber(), billDTO.getBillItems());
         
         Bill savedBill = billRepository.save(bill);
         
         // Save bill items
         if (billDTO.getBillItems() != null) {
             List<BillItem> billItems = billDTO.getBillItems().stream()
-                    .map(itemDTO -> createBillItem(itemDTO, savedBill))
+                    .map(itemDTO -> createBillItem(itemDTO, savedBill, products.get(itemDTO.getProductId())))
                     .collect(Collectors.toList());
             billItemRepository.saveAll(billItems);
             savedBill.setBillItems(billItems);
         }
+        billingEventOutbox.billCreated(savedBill);
+        vendorSalesAggregates.billCreated(savedBill);
 
         return convertToDTO(savedBill);
     }
@@ -117,6 +153,22 @@ public class BillService {
         return bills.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
+    // The customer's latest bills, newest first: one statement picks the ids, a second fetches them with their items
+    public List<BillDTO> getRecentBillsByCustomerId(Long customerId, int limit) {
+        log.info("Fetching the {} most recent bills for customer: {}", limit, customerId);
+        if (customerId == null || customerId <= 0) {
+            throw new InvalidBillDataException("Invalid customer ID: " + customerId);
+        }
+        
+        List<Long> billIds = billRepository.findRecentBillIdsByCustomerId(customerId, Limit.of(limit));
+        if (billIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Bill> bills = billRepository.findByBillIdIn(billIds).stream()
+                .collect(Collectors.toMap(Bill::getBillId, Function.identity()));
+        return billIds.stream().map(bills::get).map(this::convertToDTO).collect(Collectors.toList());
+    }
+
     public List<BillDTO> getBillsByVendorId(Long vendorId) {
         log.info("Fetching bills for vendor: {}", vendorId);
         if (vendorId == null || vendorId <= 0) {
@@ -159,8 +211,16 @@ public class BillService {
         // Check if status transition is valid
         validateStatusTransition(bill.getStatus(), status);
         
+        String previousStatus = bill.getStatus();
         bill.setStatus(status);
         Bill updatedBill = billRepository.save(bill);
+        vendorSalesAggregates.statusChanged(updatedBill, previousStatus);
+        if ("PAID".equals(status)) {
+            stockReservations.confirm(bill.getBillNumber());
+            billingEventOutbox.billPaid(updatedBill, null);
+        } else if ("CANCELLED".equals(status)) {
+            stockReservations.release(bill.getBillNumber());
+        }
         return convertToDTO(updatedBill);
     }
 
@@ -182,10 +242,16 @@ public class BillService {
             throw new BillStatusException("Cannot delete a paid bill with ID: " + billId);
         }
         
+        if (bill != null) {
+            vendorSalesAggregates.billDeleted(bill);
+        }
         billRepository.deleteById(billId);
+        if (bill != null) {
+            stockReservations.release(bill.getBillNumber());
+        }
     }
 
-    private void validateBillData(BillDTO billDTO) {
+    void validateBillData(BillDTO billDTO) {
         if (billDTO == null) {
             throw new InvalidBillDataException("Bill data cannot be null");
         }
@@ -220,75 +286,93 @@ public class BillService {
         }
     }
 
-    private String generateBillNumber() {
-        // Generate simple bill number: BILL-YYYYMMDD-XXXX
-        String datePrefix = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomSuffix = String.format("%04d", (int)(Math.random() * 10000));
-        return "BILL-" + datePrefix + "-" + randomSuffix;
+
+    void calculateBillTotals(Bill bill, List<BillItemDTO> items) {
+        BillTotals totals = BillTotalsCalculator.calculate(items);
+        bill.setSubtotal(totals.subtotal());
+        bill.setTaxAmount(totals.taxAmount());
+        bill.setDiscountAmount(totals.discountAmount());
+        bill.setTotalAmount(totals.totalAmount());
     }
 
-    private void calculateBillTotals(Bill bill, List<BillItemDTO> items) {
-        if (items == null || items.isEmpty()) {
-            bill.setSubtotal(BigDecimal.ZERO);
-            bill.setTaxAmount(BigDecimal.ZERO);
-            bill.setDiscountAmount(BigDecimal.ZERO);
-            bill.setTotalAmount(BigDecimal.ZERO);
-            return;
+    private Map<Long, ProductSnapshot> resolveCustomerAndProducts(BillDTO billDTO) {
+        // Completed by whichever lookup fails first, so the caller does not wait for the slower one.
+        // That one is not interrupted: it runs on billLookupExecutor until its Feign call returns,
+        // which the read timeout and circuit breaker of the client bound. A lookup still queued
+        // when the other fails is skipped.
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        
+        CompletableFuture<CustomerDTO> customerLookup = runLookup("customer", firstFailure,
+                () -> fetchCustomer(billDTO.getCustomerId()));
+        CompletableFuture<Map<Long, ProductSnapshot>> productLookup = runLookup("products", firstFailure,
+                () -> fetchProducts(billDTO.getBillItems()));
+        
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(customerLookup, productLookup), firstFailure).join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new InvalidBillDataException("Failed to resolve bill data: " + cause.getMessage(), cause);
         }
+        return productLookup.join();
+    }
 
-        BigDecimal subtotal = items.stream()
-                .map(item -> item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        bill.setSubtotal(subtotal.setScale(2, RoundingMode.HALF_UP));
-        
-        // Calculate tax (GST for jewellery - 3% for gold, 5% for other items)
-        BigDecimal taxRate = calculateJewelleryTaxRate(items);
-        bill.setTaxAmount(subtotal.multiply(taxRate).setScale(2, RoundingMode.HALF_UP));
-        
-        // Apply discount if any (jewellery business logic)
-        bill.setDiscountAmount(calculateJewelleryDiscount(subtotal, items));
-        
-        // Calculate total
-        bill.setTotalAmount(subtotal.add(bill.getTaxAmount()).subtract(bill.getDiscountAmount()).setScale(2, RoundingMode.HALF_UP));
+    private <T> CompletableFuture<T> runLookup(String name, CompletableFuture<Void> firstFailure, Supplier<T> lookup) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> {
+            if (firstFailure.isDone()) {
+                throw new CancellationException("Skipped " + name + " lookup after an earlier failure");
+            }
+            long startNanos = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                T result = lookup.get();
+                succeeded = true;
+                return result;
+            } finally {
+                log.info("Bill {} lookup {} in {} ms", name, succeeded ? "completed" : "failed",
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            }
+        }, billLookupExecutor);
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                firstFailure.completeExceptionally(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return future;
     }
 
-    private BigDecimal calculateJewelleryTaxRate(List<BillItemDTO> items) {
-        // Check if any item is gold (GST 3%) or other materials (GST 5%)
-        boolean hasGold = items.stream()
-                .anyMatch(item -> item.getProductMaterial() != null && 
-                        item.getProductMaterial().toLowerCase().contains("gold"));
-        
-        return hasGold ? new BigDecimal("0.03") : new BigDecimal("0.05");
+    private CustomerDTO fetchCustomer(Long customerId) {
+        CustomerDTO customer = customerClient.getCustomerById(customerId);
+        if (customer == null) {
+            throw new CustomerNotFoundException("Customer not found with ID: " + customerId);
+        }
+        return customer;
     }
 
-    private BigDecimal calculateJewelleryDiscount(BigDecimal subtotal, List<BillItemDTO> items) {
-        BigDecimal discount = BigDecimal.ZERO;
-        
-        // Volume discount for jewellery
-        int totalQuantity = items.stream().mapToInt(BillItemDTO::getQuantity).sum();
-        
-        if (totalQuantity >= 5) {
-            discount = subtotal.multiply(new BigDecimal("0.10")); // 10% discount for 5+ items
-        } else if (totalQuantity >= 3) {
-            discount = subtotal.multiply(new BigDecimal("0.05")); // 5% discount for 3+ items
+    private Map<Long, ProductSnapshot> fetchProducts(List<BillItemDTO> items) {
+        List<Long> productIds = items.stream()
+                .map(BillItemDTO::getProductId)
+                .filter(productId -> productId != null && productId > 0)
+                .distinct()
+                .collect(Collectors.toList());
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
         }
         
-        // Special discount for precious metals
-        boolean hasPreciousMetal = items.stream()
-                .anyMatch(item -> {
-                    String material = item.getProductMaterial() != null ? item.getProductMaterial().toLowerCase() : "";
-                    return material.contains("platinum") || material.contains("diamond");
-                });
+        // Served from the local snapshot cache; misses are fetched in one batch call
+        Map<Long, ProductSnapshot> productsById = productSnapshotCache.getProducts(productIds);
         
-        if (hasPreciousMetal) {
-            discount = discount.add(subtotal.multiply(new BigDecimal("0.02"))); // Additional 2% for precious metals
+        for (Long productId : productIds) {
+            if (!productsById.containsKey(productId)) {
+                throw new InvalidBillDataException("Product not found with ID: " + productId);
+            }
         }
-        
-        return discount.setScale(2, RoundingMode.HALF_UP);
+        return productsById;
     }
 
-    private BillItem createBillItem(BillItemDTO itemDTO, Bill bill) {
+    BillItem createBillItem(BillItemDTO itemDTO, Bill bill, ProductSnapshot snapshot) {
         if (itemDTO.getProductId() == null || itemDTO.getProductId() <= 0) {
             throw new InvalidBillDataException("Valid product ID is required for bill item");
         }
@@ -297,20 +381,20 @@ public class BillService {
             throw new InvalidBillDataException("Quantity must be greater than 0");
         }
         
-        // Get product details from Product service
-        ProductDTO product = productClient.getProductById(itemDTO.getProductId());
-        if (product == null) {
+        // Product details were fetched up front in one batch call
+        if (snapshot == null) {
             throw new InvalidBillDataException("Product not found with ID: " + itemDTO.getProductId());
         }
+        ProductDTO product = snapshot.product();
         
-        // Calculate unit price if not provided
+        // Use the snapshot's precomputed price if none was provided
         BigDecimal unitPrice = itemDTO.getUnitPrice();
         if (unitPrice == null || unitPrice.compareTo(BigDecimal.ZERO) <= 0) {
-            unitPrice = BigDecimal.valueOf(product.getUnitPrice());
+            unitPrice = snapshot.unitPrice();
         }
         
         if (unitPrice == null || unitPrice.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new InvalidBillDataException("Valid unit price is required for product: " + product.getProductId());
+            throw new InvalidBillDataException("Valid unit price is required for product: " + product.productId());
         }
         
         // Calculate total price
@@ -319,15 +403,15 @@ public class BillService {
         BillItem item = new BillItem();
         item.setBill(bill);
         item.setProductId(itemDTO.getProductId());
-        item.setProductName(product.getProductName());
-        item.setProductMaterial(product.getProductMaterial());
-        item.setProductWeight(product.getProductWeight());
-        item.setProductGmPerWeight(product.getProductGmPerWeight());
+        item.setProductName(snapshot.productName());
+        item.setProductMaterial(product.productMaterial());
+        item.setProductWeight(product.productWeight());
+        item.setProductGmPerWeight(product.productGmPerWeight());
         item.setQuantity(itemDTO.getQuantity());
         item.setUnitPrice(unitPrice.setScale(2, RoundingMode.HALF_UP));
         item.setTotalPrice(totalPrice);
         item.setDescription(itemDTO.getDescription() != null ? itemDTO.getDescription() : 
-                          product.getProductMaterial() + " jewellery item");
+                          product.productMaterial() + " jewellery item");
         return item;
     }
 
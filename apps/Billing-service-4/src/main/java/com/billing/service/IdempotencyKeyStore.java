@@ -0,0 +1,106 @@
+package com.billing.service;
+
+import com.billing.dto.PaymentDTO;
+import com.billing.entity.IdempotencyKey;
+import com.billing.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Idempotency keys of processed payments. The idempotency_keys table is the source of truth and
+ * holds the response each completed key returned; those responses are also kept in a bounded
+ * in-memory cache so retries are answered without touching the database.
+ */
+@Component
+@Slf4j
+public class IdempotencyKeyStore {
+
+    /** Response recorded for a key, with the hash of the request that produced it. */
+    public record StoredResponse(String requestHash, PaymentDTO payment) {
+    }
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Duration retention;
+    private final Cache<String, StoredResponse> responses;
+
+    public IdempotencyKeyStore(@Value("${billing.idempotency.cache-size:10000}") long cacheSize,
+                               @Value("${billing.idempotency.retention:24h}") Duration retention) {
+        this.retention = retention;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Inserts the key row inside the caller's transaction; an existing key fails with
+     * DataIntegrityViolationException on the primary key.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(String key, String requestHash, Long billId) {
+        idempotencyKeyRepository.insertKey(key, requestHash, billId, LocalDateTime.now());
+    }
+
+    /** Records the response in the caller's transaction, so it commits with the payment. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(String key, PaymentDTO response) {
+        try {
+            idempotencyKeyRepository.markCompleted(key, response.getPaymentId(), objectMapper.writeValueAsString(response));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize the response of Idempotency-Key " + key, e);
+        }
+    }
+
+    public StoredResponse getCached(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public void cache(String key, StoredResponse response) {
+        responses.put(key, response);
+    }
+
+    /** Committed key rows that already produced a payment. */
+    public Optional<IdempotencyKey> findCompleted(String key) {
+        return idempotencyKeyRepository.findById(key)
+                .filter(row -> row.getPaymentId() != null);
+    }
+
+    /** The response stored with a completed key row; null for rows completed before V8 added it. */
+    public PaymentDTO storedResponse(IdempotencyKey row) {
+        if (row.getResponse() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(row.getResponse(), PaymentDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read the stored response of Idempotency-Key " + row.getIdempotencyKey(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${billing.idempotency.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = idempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.billing.service;
+
+import com.billing.dto.PaymentDTO;
+import com.billing.entity.IdempotencyKey;
+import com.billing.exception.InvalidPaymentDataException;
+import com.billing.exception.PaymentConflictException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Payment processing for requests carrying an Idempotency-Key header. A retried request gets
+ * the response of the first one, as stored with the key, even if the payment has changed since;
+ * reusing a key for a different payment is rejected with 409.
+ */
+@Service
+@Slf4j
+public class IdempotentPaymentService {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    public record Result(PaymentDTO payment, boolean replayed) {
+    }
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    public Result processPayment(String idempotencyKey, PaymentDTO paymentDTO) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidPaymentDataException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        if (paymentDTO == null) {
+            throw new IllegalArgumentException("Payment data cannot be null");
+        }
+        String requestHash = requestHash(paymentDTO);
+
+        Optional<PaymentDTO> replay = replay(idempotencyKey, requestHash);
+        if (replay.isPresent()) {
+            log.info("Replaying payment {} for Idempotency-Key {}", replay.get().getPaymentId(), idempotencyKey);
+            return new Result(replay.get(), true);
+        }
+
+        try {
+            PaymentDTO payment = paymentService.processPayment(paymentDTO, idempotencyKey, requestHash);
+            idempotencyKeyStore.cache(idempotencyKey, new IdempotencyKeyStore.StoredResponse(requestHash, payment));
+            return new Result(payment, false);
+        } catch (DataIntegrityViolationException e) {
+            // Another request inserted the key first; answer with its payment once committed
+            log.info("Idempotency-Key {} was claimed by a concurrent request", idempotencyKey);
+            return replay(idempotencyKey, requestHash)
+                    .map(payment -> new Result(payment, true))
+                    .orElseThrow(() -> new PaymentConflictException(
+                            "A request with Idempotency-Key " + idempotencyKey + " is still in progress", e));
+        }
+    }
+
+    private Optional<PaymentDTO> replay(String idempotencyKey, String requestHash) {
+        IdempotencyKeyStore.StoredResponse stored = idempotencyKeyStore.getCached(idempotencyKey);
+        if (stored == null) {
+            Optional<IdempotencyKey> row = idempotencyKeyStore.findCompleted(idempotencyKey);
+            if (row.isEmpty()) {
+                return Optional.empty();
+            }
+            PaymentDTO payment = idempotencyKeyStore.storedResponse(row.get());
+            if (payment == null) {
+                // Completed before responses were stored; the payment as it is now is the closest answer
+                payment = paymentService.getPaymentById(row.get().getPaymentId());
+            }
+            stored = new IdempotencyKeyStore.StoredResponse(row.get().getRequestHash(), payment);
+            idempotencyKeyStore.cache(idempotencyKey, stored);
+        }
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new PaymentConflictException("Idempotency-Key " + idempotencyKey
+                    + " was already used for a different payment request");
+        }
+        return Optional.of(stored.payment());
+    }
+
+    static String requestHash(PaymentDTO paymentDTO) {
+        String canonical = paymentDTO.getBillId()
+                + "|" + paymentDTO.getCustomerId()
+                + "|" + (paymentDTO.getAmount() == null ? null : paymentDTO.getAmount().stripTrailingZeros().toPlainString())
+                + "|" + paymentDTO.getPaymentMethod()
+                + "|" + paymentDTO.getNotes();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.billing.service;
 
+import com.billing.analytics.VendorSalesAggregates;
 import com.billing.dto.PaymentDTO;
 import com.billing.entity.Bill;
 import com.billing.entity.Payment;
@@ -8,6 +9,9 @@ import com.billing.exception.PaymentNotFoundException;
 import com.billing.exception.InvalidPaymentDataException;
 import com.billing.exception.PaymentProcessingException;
 import com.billing.exception.RefundProcessingException;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
 import com.billing.repository.BillRepository;
 import com.billing.repository.PaymentRepository;
 import lombok.extern.slf4j.Slf4j;
@@ -30,8 +34,33 @@ public class PaymentService {
     @Autowired
     private BillRepository billRepository;
 
+    @Autowired
+    private ReferenceNumberGenerator referenceNumberGenerator;
+
+    @Autowired
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Autowired
+    private StockReservations stockReservations;
+
+    @Autowired
+    private BillingEventOutbox billingEventOutbox;
+
+    @Autowired
+    private VendorSalesAggregates vendorSalesAggregates;
+
     @Transactional
     public PaymentDTO processPayment(PaymentDTO paymentDTO) {
+        return processPayment(paymentDTO, null, null);
+    }
+
+    /**
+     * Processes a payment under an Idempotency-Key. The key row is inserted first, in the same
+     * transaction as the payment, so a second request with the same key fails on the primary key
+     * (see {@link IdempotentPaymentService}) and a failed payment releases the key again.
+     */
+    @Transactional
+    public PaymentDTO processPayment(PaymentDTO paymentDTO, String idempotencyKey, String requestHash) {
         // Validate input
         if (paymentDTO == null) {
             throw new IllegalArgumentException("Payment data cannot be null");
@@ -42,6 +71,10 @@ public class PaymentService {
         // Validate payment data
         validatePaymentData(paymentDTO);
         
+        if (idempotencyKey != null) {
+            idempotencyKeyStore.reserve(idempotencyKey, requestHash, paymentDTO.getBillId());
+        }
+        
         // Validate bill exists
         Bill bill = billRepository.findById(paymentDTO.getBillId())
                 .orElseThrow(() -> new BillNotFoundException("Bill not found with ID: " + paymentDTO.getBillId()));
@@ -57,12 +90,15 @@ public class PaymentService {
                 " does not match bill total " + bill.getTotalAmount());
         }
         
+        // Fails the payment if the bill's reservation expired and its stock has been sold since
+        stockReservations.confirm(bill.getBillNumber());
+        
         Payment payment = new Payment();
         payment.setBillId(paymentDTO.getBillId());
         payment.setCustomerId(paymentDTO.getCustomerId());
         payment.setAmount(paymentDTO.getAmount());
         payment.setPaymentMethod(paymentDTO.getPaymentMethod());
-        payment.setTransactionId(generateTransactionId());
+        payment.setTransactionId(referenceNumberGenerator.nextTransactionId());
         payment.setStatus("COMPLETED");
         payment.setPaymentDate(LocalDateTime.now());
         payment.setNotes(paymentDTO.getNotes());
@@ -71,11 +107,19 @@ public class PaymentService {
             Payment savedPayment = paymentRepository.save(payment);
             
             // Update bill status to PAID
+            String previousStatus = bill.getStatus();
             bill.setStatus("PAID");
             bill.setPaymentMethod(paymentDTO.getPaymentMethod());
             billRepository.save(bill);
+            vendorSalesAggregates.statusChanged(bill, previousStatus);
+            billingEventOutbox.billPaid(bill, savedPayment);
             
-            return convertToDTO(savedPayment);
+            PaymentDTO response = convertToDTO(savedPayment);
+            if (idempotencyKey != null) {
+                idempotencyKeyStore.complete(idempotencyKey, response);
+            }
+            
+            return response;
         } catch (Exception e) {
             log.error("Error processing payment: {}", e.getMessage());
             throw new PaymentProcessingException("Failed to process payment: " + e.getMessage(), e);
@@ -158,8 +202,11 @@ public class PaymentService {
             // Update bill status back to PENDING
             Bill bill = billRepository.findById(payment.getBillId())
                     .orElseThrow(() -> new BillNotFoundException("Bill not found with ID: " + payment.getBillId()));
+            String previousStatus = bill.getStatus();
             bill.setStatus("PENDING");
             billRepository.save(bill);
+            vendorSalesAggregates.statusChanged(bill, previousStatus);
+            billingEventOutbox.paymentRefunded(bill, updatedPayment);
             
             return convertToDTO(updatedPayment);
         } catch (Exception e) {
@@ -197,12 +244,6 @@ public class PaymentService {
         }
     }
 
-    private String generateTransactionId() {
-        // Generate simple transaction ID: TXN-YYYYMMDD-XXXX
-        String datePrefix = LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String randomSuffix = String.format("%04d", (int)(Math.random() * 10000));
-        return "TXN-" + datePrefix + "-" + randomSuffix;
-    }
 
     private PaymentDTO convertToDTO(Payment payment) {
         PaymentDTO dto = new PaymentDTO();
@@ -0,0 +1,75 @@
+package com.billing.service;
+
+import com.billing.analytics.DailySales;
+import com.billing.dto.MaterialSalesDTO;
+import com.billing.dto.VendorSalesSummaryDTO;
+import com.billing.exception.InvalidBillDataException;
+import com.billing.repository.VendorSalesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Vendor sales summaries, read from the daily aggregates kept by
+ * {@link com.billing.analytics.VendorSalesAggregates} rather than from bills and bill items.
+ */
+@Service
+@Slf4j
+public class VendorSalesService {
+
+    private static final DailySales NONE = new DailySales(0, null, null, 0, 0,
+            BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+
+    @Autowired
+    private VendorSalesRepository vendorSalesRepository;
+
+    @Value("${billing.analytics.max-range-days:3660}")
+    private long maxRangeDays;
+
+    /** Bills dated from {@code from} to {@code to}, both inclusive. */
+    @Transactional(readOnly = true)
+    public VendorSalesSummaryDTO getVendorSummary(Long vendorId, LocalDate from, LocalDate to) {
+        log.info("Fetching sales summary for vendor {} from {} to {}", vendorId, from, to);
+
+        if (vendorId == null || vendorId <= 0) {
+            throw new InvalidBillDataException("Invalid vendor ID: " + vendorId);
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new InvalidBillDataException("Invalid date range: " + from + " to " + to);
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidBillDataException("Date range cannot exceed " + maxRangeDays + " days");
+        }
+
+        Map<String, DailySales> byStatus = vendorSalesRepository.sumByStatus(vendorId, from, to).stream()
+                .collect(Collectors.toMap(DailySales::status, Function.identity()));
+        DailySales paid = byStatus.getOrDefault("PAID", NONE);
+        DailySales pending = byStatus.getOrDefault("PENDING", NONE);
+        DailySales cancelled = byStatus.getOrDefault("CANCELLED", NONE);
+
+        List<MaterialSalesDTO> materials = vendorSalesRepository.sumByMaterial(vendorId, "PAID", from, to).stream()
+                .filter(material -> material.itemCount() > 0)
+                .map(material -> new MaterialSalesDTO(material.material(), material.itemCount(), material.weight(),
+                        material.totalPrice()))
+                .collect(Collectors.toList());
+
+        BigDecimal averageBillValue = paid.billCount() > 0
+                ? paid.totalAmount().divide(BigDecimal.valueOf(paid.billCount()), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        return new VendorSalesSummaryDTO(vendorId, from, to,
+                paid.billCount(), paid.itemCount(), paid.totalAmount(), paid.taxAmount(), paid.discountAmount(),
+                averageBillValue, pending.billCount(), pending.totalAmount(), cancelled.billCount(), materials);
+    }
+}
@@ -0,0 +1,51 @@
+-- Billing schema as previously created by hibernate ddl-auto=update.
+-- IF NOT EXISTS lets existing databases baseline at version 0 and run this as a no-op.
+
+CREATE TABLE IF NOT EXISTS bills (
+    bill_id         BIGINT NOT NULL AUTO_INCREMENT,
+    customer_id     BIGINT,
+    vendor_id       BIGINT,
+    bill_number     VARCHAR(255),
+    bill_date       DATETIME(6),
+    subtotal        DECIMAL(38, 2),
+    tax_amount      DECIMAL(38, 2),
+    discount_amount DECIMAL(38, 2),
+    total_amount    DECIMAL(38, 2),
+    status          VARCHAR(255),
+    payment_method  VARCHAR(255),
+    notes           VARCHAR(255),
+    created_at      DATETIME(6),
+    updated_at      DATETIME(6),
+    PRIMARY KEY (bill_id)
+);
+
+CREATE TABLE IF NOT EXISTS bill_items (
+    bill_item_id          BIGINT NOT NULL AUTO_INCREMENT,
+    bill_id               BIGINT,
+    product_id            BIGINT,
+    product_name          VARCHAR(255),
+    product_material      VARCHAR(255),
+    product_weight        DOUBLE NOT NULL,
+    product_gm_per_weight DOUBLE NOT NULL,
+    quantity              INTEGER NOT NULL,
+    unit_price            DECIMAL(38, 2),
+    total_price           DECIMAL(38, 2),
+    description           VARCHAR(255),
+    PRIMARY KEY (bill_item_id),
+    CONSTRAINT fk_bill_items_bill FOREIGN KEY (bill_id) REFERENCES bills (bill_id)
+);
+
+CREATE TABLE IF NOT EXISTS payments (
+    payment_id     BIGINT NOT NULL AUTO_INCREMENT,
+    bill_id        BIGINT,
+    customer_id    BIGINT,
+    amount         DECIMAL(38, 2),
+    payment_method VARCHAR(255),
+    transaction_id VARCHAR(255),
+    status         VARCHAR(255),
+    payment_date   DATETIME(6),
+    notes          VARCHAR(255),
+    created_at     DATETIME(6),
+    updated_at     DATETIME(6),
+    PRIMARY KEY (payment_id)
+);
@@ -0,0 +1,51 @@
+-- Indexes for the BillRepository / BillItemRepository / PaymentRepository finders.
+
+-- Random 4-digit suffixes produced duplicate numbers before the unique indexes existed;
+-- keep the first row's number and make the others unique by appending their id.
+UPDATE bills SET bill_number = CONCAT(bill_number, '-', bill_id)
+WHERE bill_number IN (
+    SELECT bill_number FROM (
+        SELECT bill_number FROM bills GROUP BY bill_number HAVING COUNT(*) > 1
+    ) duplicated
+)
+AND bill_id NOT IN (
+    SELECT first_id FROM (
+        SELECT MIN(bill_id) AS first_id FROM bills GROUP BY bill_number
+    ) firsts
+);
+
+UPDATE payments SET transaction_id = CONCAT(transaction_id, '-', payment_id)
+WHERE transaction_id IN (
+    SELECT transaction_id FROM (
+        SELECT transaction_id FROM payments GROUP BY transaction_id HAVING COUNT(*) > 1
+    ) duplicated
+)
+AND payment_id NOT IN (
+    SELECT first_id FROM (
+        SELECT MIN(payment_id) AS first_id FROM payments GROUP BY transaction_id
+    ) firsts
+);
+
+-- findByBillNumber
+CREATE UNIQUE INDEX uk_bills_bill_number ON bills (bill_number);
+-- findByCustomerId (leading column), findByCustomerIdAndStatus
+CREATE INDEX idx_bills_customer_status ON bills (customer_id, status);
+-- findByVendorId
+CREATE INDEX idx_bills_vendor ON bills (vendor_id);
+-- findByStatus
+CREATE INDEX idx_bills_status ON bills (status);
+-- findBillsByDateRange
+CREATE INDEX idx_bills_bill_date ON bills (bill_date);
+
+-- findByBill_BillId and the billItems fetch use the index backing fk_bill_items_bill
+-- findByProductId
+CREATE INDEX idx_bill_items_product ON bill_items (product_id);
+
+-- findByTransactionId
+CREATE UNIQUE INDEX uk_payments_transaction_id ON payments (transaction_id);
+-- findByBillId
+CREATE INDEX idx_payments_bill ON payments (bill_id);
+-- findByCustomerId
+CREATE INDEX idx_payments_customer ON payments (customer_id);
+-- findByStatus
+CREATE INDEX idx_payments_status ON payments (status);
@@ -0,0 +1,14 @@
+-- Optimistic locking for concurrent payments on the same bill (Bill.version)
+ALTER TABLE bills ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Idempotency-Key of /api/payments/process; the row is inserted in the payment's transaction
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash    VARCHAR(64)  NOT NULL,
+    bill_id         BIGINT,
+    payment_id      BIGINT,
+    created_at      DATETIME(6)  NOT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,19 @@
+-- Transactional outbox: bill and payment state changes, written in the same transaction as the
+-- change and published by OutboxRelay in event_id order
+CREATE TABLE billing_outbox (
+    event_id     BIGINT         NOT NULL AUTO_INCREMENT,
+    event_type   VARCHAR(30)    NOT NULL,
+    occurred_at  DATETIME(6)    NOT NULL,
+    bill_id      BIGINT         NOT NULL,
+    bill_number  VARCHAR(255),
+    customer_id  BIGINT,
+    vendor_id    BIGINT,
+    bill_status  VARCHAR(255),
+    payment_id   BIGINT,
+    amount       DECIMAL(38, 2),
+    published_at DATETIME(6),
+    PRIMARY KEY (event_id)
+);
+
+-- OutboxRelay's unpublished batch, oldest first; also the purge of published rows
+CREATE INDEX idx_billing_outbox_unpublished ON billing_outbox (published_at, event_id);
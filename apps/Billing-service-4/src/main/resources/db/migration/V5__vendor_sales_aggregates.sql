@@ -0,0 +1,46 @@
+-- Daily sales per vendor and bill status, kept up to date by VendorSalesAggregates in the same
+-- transaction as every bill change, so vendor summaries never scan bills or bill_items
+CREATE TABLE vendor_daily_sales (
+    vendor_id       BIGINT         NOT NULL,
+    sales_date      DATE           NOT NULL,
+    status          VARCHAR(20)    NOT NULL,
+    bill_count      BIGINT         NOT NULL,
+    item_count      BIGINT         NOT NULL,
+    subtotal        DECIMAL(38, 2) NOT NULL,
+    tax_amount      DECIMAL(38, 2) NOT NULL,
+    discount_amount DECIMAL(38, 2) NOT NULL,
+    total_amount    DECIMAL(38, 2) NOT NULL,
+    CONSTRAINT pk_vendor_daily_sales PRIMARY KEY (vendor_id, sales_date, status)
+);
+
+-- Same, per product material; status comes before the date because summaries only read PAID rows
+CREATE TABLE vendor_daily_material_sales (
+    vendor_id   BIGINT         NOT NULL,
+    status      VARCHAR(20)    NOT NULL,
+    sales_date  DATE           NOT NULL,
+    material    VARCHAR(255)   NOT NULL,
+    item_count  BIGINT         NOT NULL,
+    weight      DOUBLE         NOT NULL,
+    total_price DECIMAL(38, 2) NOT NULL,
+    CONSTRAINT pk_vendor_daily_material_sales PRIMARY KEY (vendor_id, status, sales_date, material)
+);
+
+-- Backfill from the bills that already exist
+INSERT INTO vendor_daily_sales (vendor_id, sales_date, status, bill_count, item_count, subtotal, tax_amount,
+                                discount_amount, total_amount)
+SELECT b.vendor_id, CAST(b.bill_date AS DATE), b.status, COUNT(*),
+       COALESCE(SUM(i.item_count), 0),
+       COALESCE(SUM(b.subtotal), 0), COALESCE(SUM(b.tax_amount), 0), COALESCE(SUM(b.discount_amount), 0),
+       COALESCE(SUM(b.total_amount), 0)
+FROM bills b
+LEFT JOIN (SELECT bill_id, SUM(quantity) AS item_count FROM bill_items GROUP BY bill_id) i ON i.bill_id = b.bill_id
+WHERE b.vendor_id IS NOT NULL AND b.bill_date IS NOT NULL AND b.status IS NOT NULL
+GROUP BY b.vendor_id, CAST(b.bill_date AS DATE), b.status;
+
+INSERT INTO vendor_daily_material_sales (vendor_id, status, sales_date, material, item_count, weight, total_price)
+SELECT b.vendor_id, b.status, CAST(b.bill_date AS DATE), COALESCE(i.product_material, 'Unknown'), SUM(i.quantity),
+       SUM(i.product_weight * i.quantity), COALESCE(SUM(i.total_price), 0)
+FROM bills b
+JOIN bill_items i ON i.bill_id = b.bill_id
+WHERE b.vendor_id IS NOT NULL AND b.bill_date IS NOT NULL AND b.status IS NOT NULL
+GROUP BY b.vendor_id, b.status, CAST(b.bill_date AS DATE), COALESCE(i.product_material, 'Unknown');
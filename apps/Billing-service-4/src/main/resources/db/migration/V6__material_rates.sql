@@ -0,0 +1,20 @@
+-- Per-gram material rates every Billing instance prices from. The single material_rate_version row
+-- carries the version of the whole table and the rate of materials not listed; PricingEngine locks
+-- it, rewrites the rates and bumps the version in one transaction, and the other instances reload
+-- when they see a higher version
+CREATE TABLE material_rate_version (
+    id           BIGINT         NOT NULL,
+    version      BIGINT         NOT NULL,
+    default_rate DECIMAL(38, 2) NOT NULL,
+    updated_at   DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE material_rates (
+    material VARCHAR(100)   NOT NULL,
+    rate     DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (material)
+);
+
+-- Version 0: not written yet; the first instance to start seeds the rates from its configuration
+INSERT INTO material_rate_version (id, version, default_rate, updated_at) VALUES (1, 0, 100, CURRENT_TIMESTAMP);
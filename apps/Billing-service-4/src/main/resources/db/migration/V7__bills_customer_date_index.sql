@@ -0,0 +1,3 @@
+-- findRecentBillIdsByCustomerId: the customer's newest bills are read from the end of this
+-- index instead of sorting all of the customer's bills
+CREATE INDEX idx_bills_customer_date ON bills (customer_id, bill_date);
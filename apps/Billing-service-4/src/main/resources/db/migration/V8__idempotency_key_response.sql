@@ -0,0 +1,3 @@
+-- The response a completed Idempotency-Key returned, as JSON, so a retry replays it exactly even
+-- after the payment has been refunded; rows completed before this migration have none
+ALTER TABLE idempotency_keys ADD COLUMN response VARCHAR(2000);
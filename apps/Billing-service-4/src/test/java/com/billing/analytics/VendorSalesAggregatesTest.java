@@ -0,0 +1,174 @@
+package com.billing.analytics;
+
+import com.billing.cache.ProductSnapshot;
+import com.billing.cache.ProductSnapshotCache;
+import com.billing.dto.BillDTO;
+import com.billing.dto.BillItemDTO;
+import com.billing.dto.VendorSalesSummaryDTO;
+import com.billing.entity.Bill;
+import com.billing.exception.InvalidBillDataException;
+import com.billing.feignclients.CustomerClient;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
+import com.billing.repository.BillRepository;
+import com.billing.repository.VendorSalesRepository;
+import com.billing.service.BillService;
+import com.billing.service.VendorSalesService;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Creates, pays, cancels and deletes bills through BillService on H2 and checks that the vendor
+ * summary read from the daily aggregates matches a scan of the bills themselves.
+ */
+@DataJpaTest(properties = "billing.node-id=1")
+@Import({BillService.class, VendorSalesService.class, VendorSalesAggregates.class, VendorSalesRepository.class,
+        ReferenceNumberGenerator.class, VendorSalesAggregatesTest.Lookups.class})
+class VendorSalesAggregatesTest {
+
+    private static final long VENDOR_ID = 2L;
+
+    @TestConfiguration
+    static class Lookups {
+        @Bean
+        SyncTaskExecutor billLookupExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+
+    @MockitoBean
+    private CustomerClient customerClient;
+
+    @MockitoBean
+    private ProductSnapshotCache productSnapshotCache;
+
+    @MockitoBean
+    private StockReservations stockReservations;
+
+    @MockitoBean
+    private BillingEventOutbox billingEventOutbox;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private VendorSalesService vendorSalesService;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        when(customerClient.getCustomerById(anyLong())).thenReturn(new CustomerDTO(1L, "Asha", "Rao", null, null));
+        when(productSnapshotCache.getProducts(anyList())).thenReturn(Map.of(
+                1L, new ProductSnapshot(new ProductDTO(1L, "Gold", 10.0, 1.0, null, VENDOR_ID), new BigDecimal("6000.00"), 1L),
+                2L, new ProductSnapshot(new ProductDTO(2L, "Silver", 20.0, 1.0, null, VENDOR_ID), new BigDecimal("80.00"), 1L)));
+    }
+
+    @Test
+    void testSummary_FollowsCreatePayCancelAndDelete() {
+        // Arrange
+        List<BillDTO> bills = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bills.add(billService.createBill(bill(VENDOR_ID, 1 + i % 2, 3)));
+        }
+        billService.createBill(bill(9L, 4, 4));
+
+        // Act
+        billService.updateBillStatus(bills.get(0).getBillId(), "PAID");
+        billService.updateBillStatus(bills.get(1).getBillId(), "PAID");
+        billService.updateBillStatus(bills.get(2).getBillId(), "PAID");
+        billService.updateBillStatus(bills.get(2).getBillId(), "CANCELLED");
+        billService.deleteBill(bills.get(3).getBillId());
+        VendorSalesSummaryDTO summary = vendorSalesService.getVendorSummary(VENDOR_ID, today.minusDays(7), today);
+
+        // Assert: the same figures as a scan of the vendor's bills
+        List<Bill> paid = billRepository.findByVendorId(VENDOR_ID).stream()
+                .filter(bill -> "PAID".equals(bill.getStatus()))
+                .toList();
+        assertEquals(2, summary.getPaidBillCount());
+        assertEquals(0, sum(paid, Bill::getTotalAmount).compareTo(summary.getRevenue()));
+        assertEquals(0, sum(paid, Bill::getTaxAmount).compareTo(summary.getTaxAmount()));
+        assertEquals(paid.stream().flatMap(bill -> bill.getBillItems().stream()).mapToLong(item -> item.getQuantity()).sum(),
+                summary.getItemCount());
+        assertEquals(1, summary.getPendingBillCount());
+        assertEquals(0, billRepository.findById(bills.get(4).getBillId()).orElseThrow().getTotalAmount()
+                .compareTo(summary.getPendingAmount()));
+        assertEquals(1, summary.getCancelledBillCount());
+
+        // Gold sells for more than silver, so it comes first
+        assertEquals(List.of("Gold", "Silver"), summary.getMaterials().stream().map(m -> m.getMaterial()).toList());
+        assertEquals(3, summary.getMaterials().get(0).getItemCount());
+        assertEquals(30.0, summary.getMaterials().get(0).getWeight());
+        assertEquals(0, new BigDecimal("18000.00").compareTo(summary.getMaterials().get(0).getRevenue()));
+    }
+
+    @Test
+    void testSummary_OnlyCountsBillsInTheRange() {
+        // Arrange
+        billService.updateBillStatus(billService.createBill(bill(VENDOR_ID, 1, 1)).getBillId(), "PAID");
+
+        // Act
+        VendorSalesSummaryDTO before = vendorSalesService.getVendorSummary(VENDOR_ID, today.minusYears(1), today.minusDays(1));
+        VendorSalesSummaryDTO year = vendorSalesService.getVendorSummary(VENDOR_ID, today.minusYears(1), today);
+
+        // Assert
+        assertEquals(0, before.getPaidBillCount());
+        assertEquals(0, BigDecimal.ZERO.compareTo(before.getRevenue()));
+        assertTrue(before.getMaterials().isEmpty());
+        assertEquals(1, year.getPaidBillCount());
+        assertEquals(year.getRevenue(), year.getAverageBillValue());
+    }
+
+    @Test
+    void testSummary_InvalidRange() {
+        assertThrows(InvalidBillDataException.class,
+                () -> vendorSalesService.getVendorSummary(VENDOR_ID, today, today.minusDays(1)));
+        assertThrows(InvalidBillDataException.class,
+                () -> vendorSalesService.getVendorSummary(0L, today, today));
+    }
+
+    private static BigDecimal sum(List<Bill> bills, Function<Bill, BigDecimal> amount) {
+        return bills.stream().map(amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    // One gold ring (quantity goldQuantity) and one silver chain (quantity silverQuantity)
+    private static BillDTO bill(Long vendorId, int goldQuantity, int silverQuantity) {
+        BillDTO bill = new BillDTO();
+        bill.setCustomerId(1L);
+        bill.setVendorId(vendorId);
+        bill.setBillItems(List.of(item(1L, goldQuantity, "6000.00"), item(2L, silverQuantity, "80.00")));
+        return bill;
+    }
+
+    private static BillItemDTO item(Long productId, int quantity, String unitPrice) {
+        BillItemDTO item = new BillItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setUnitPrice(new BigDecimal(unitPrice));
+        return item;
+    }
+}
@@ -0,0 +1,186 @@
+package com.billing.cache;
+
+import com.billing.feignclients.ProductClient;
+import com.billing.pricing.MaterialRateStore;
+import com.billing.pricing.MaterialRates;
+import com.billing.pricing.PricingEngine;
+import com.billing.pricing.PricingProperties;
+import com.jewelshop.contracts.product.ProductChangeDTO;
+import com.jewelshop.contracts.product.ProductChangeFeedDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSnapshotCacheTest {
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private MaterialRateStore materialRateStore;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PricingEngine pricingEngine;
+    private ProductSnapshotCache productSnapshotCache;
+    private ProductChangeSubscriber productChangeSubscriber;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        pricingEngine = new PricingEngine(new PricingProperties(), materialRateStore);
+        productSnapshotCache = new ProductSnapshotCache(productClient, pricingEngine, meterRegistry, 100, Duration.ofMinutes(10));
+        productChangeSubscriber = new ProductChangeSubscriber(productClient, productSnapshotCache, 500);
+    }
+
+    @Test
+    void testGetProducts_LoadsMissesInOneBatchAndServesHitsLocally() {
+        // Arrange
+        when(productClient.getProductsByIds(anyList())).thenReturn(Arrays.asList(product(1L), product(2L)));
+
+        // Act
+        Map<Long, ProductSnapshot> first = productSnapshotCache.getProducts(Arrays.asList(1L, 2L));
+        Map<Long, ProductSnapshot> second = productSnapshotCache.getProducts(Arrays.asList(1L, 2L));
+
+        // Assert
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        verify(productClient, times(1)).getProductsByIds(anyList());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void testGetProducts_UnknownProductIsAbsent() {
+        // Arrange
+        when(productClient.getProductsByIds(anyList())).thenReturn(Arrays.asList(product(1L)));
+
+        // Act
+        Map<Long, ProductSnapshot> result = productSnapshotCache.getProducts(Arrays.asList(1L, 99L));
+
+        // Assert
+        assertEquals(1, result.size());
+        assertFalse(result.containsKey(99L));
+    }
+
+    @Test
+    void testGetProducts_UnitPriceComputedOnLoad() {
+        // Arrange
+        when(productClient.getProductsByIds(anyList())).thenReturn(Arrays.asList(product(1L)));
+
+        // Act
+        ProductSnapshot snapshot = productSnapshotCache.getProducts(Arrays.asList(1L)).get(1L);
+
+        // Assert: gold 5000/g x 2g x 1.0
+        assertEquals(new BigDecimal("10000.00"), snapshot.unitPrice());
+        assertEquals(pricingEngine.currentVersion(), snapshot.ratesVersion());
+    }
+
+    @Test
+    void testGetProducts_RepricedAfterRateChangeWithoutReload() {
+        // Arrange
+        when(productClient.getProductsByIds(anyList())).thenReturn(Arrays.asList(product(1L)));
+        productSnapshotCache.getProducts(Arrays.asList(1L));
+        when(materialRateStore.update(any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<MaterialRates>>getArgument(0).apply(pricingEngine.currentRates()));
+
+        // Act
+        pricingEngine.updateRate("Gold", new BigDecimal("5200"));
+        ProductSnapshot repriced = productSnapshotCache.getProducts(Arrays.asList(1L)).get(1L);
+        ProductSnapshot again = productSnapshotCache.getProducts(Arrays.asList(1L)).get(1L);
+
+        // Assert
+        assertEquals(new BigDecimal("10400.00"), repriced.unitPrice());
+        assertSame(repriced, again);
+        verify(productClient, times(1)).getProductsByIds(anyList());
+    }
+
+    @Test
+    void testSubscriber_EvictsChangedProducts() {
+        // Arrange: first sync establishes the cursor
+        when(productClient.getProductChanges(0, 500)).thenReturn(feed("epoch-1", 2, List.of()));
+        productChangeSubscriber.synchronize();
+
+        when(productClient.getProductsByIds(anyList())).thenReturn(Arrays.asList(product(1L), product(2L)));
+        productSnapshotCache.getProducts(Arrays.asList(1L, 2L));
+        when(productClient.getProductChanges(2, 500))
+                .thenReturn(feed("epoch-1", 3, List.of(new ProductChangeDTO(3, 1L, "UPDATED"))));
+
+        // Act
+        productChangeSubscriber.synchronize();
+
+        // Assert
+        assertEquals(1, productSnapshotCache.size());
+        when(productClient.getProductsByIds(List.of(1L))).thenReturn(Arrays.asList(product(1L)));
+        productSnapshotCache.getProducts(Arrays.asList(1L, 2L));
+        verify(productClient).getProductsByIds(List.of(1L));
+    }
+
+    @Test
+    void testSubscriber_IgnoresStockMovements() {
+        // Arrange
+        when(productClient.getProductChanges(0, 500)).thenReturn(feed("epoch-1", 2, List.of()));
+        productChangeSubscriber.synchronize();
+        when(productClient.getProductsByIds(anyList())).thenReturn(Arrays.asList(product(1L), product(2L)));
+        productSnapshotCache.getProducts(Arrays.asList(1L, 2L));
+        when(productClient.getProductChanges(2, 500)).thenReturn(feed("epoch-1", 4,
+                List.of(new ProductChangeDTO(3, 1L, "STOCK"), new ProductChangeDTO(4, 2L, "STOCK"))));
+        when(productClient.getProductChanges(4, 500)).thenReturn(feed("epoch-1", 4, List.of()));
+
+        // Act
+        productChangeSubscriber.synchronize();
+        productChangeSubscriber.synchronize();
+
+        // Assert: both snapshots kept and the cursor moved past the stock rows
+        assertEquals(2, productSnapshotCache.size());
+        verify(productClient).getProductChanges(4, 500);
+    }
+
+    @Test
+    void testSubscriber_FlushesCacheWhenProductServiceRestarted() {
+        // Arrange
+        when(productClient.getProductChanges(0, 500)).thenReturn(feed("epoch-1", 5, List.of()));
+        productChangeSubscriber.synchronize();
+        when(productClient.getProductsByIds(anyList())).thenReturn(Arrays.asList(product(1L), product(2L)));
+        productSnapshotCache.getProducts(Arrays.asList(1L, 2L));
+        when(productClient.getProductChanges(5, 500)).thenReturn(feed("epoch-2", 1, List.of()));
+
+        // Act
+        productChangeSubscriber.synchronize();
+
+        // Assert
+        assertEquals(0, productSnapshotCache.size());
+    }
+
+    @Test
+    void testPoll_KeepsRunningWhenProductServiceIsDown() {
+        // Arrange
+        when(productClient.getProductChanges(anyLong(), anyInt())).thenThrow(new RuntimeException("connection refused"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> productChangeSubscriber.poll());
+    }
+
+    private ProductDTO product(Long productId) {
+        return new ProductDTO(productId, "gold", 2.0, 1.0, null, null);
+    }
+
+    private ProductChangeFeedDTO feed(String epoch, long latestSequence, List<ProductChangeDTO> changes) {
+        return new ProductChangeFeedDTO(epoch, latestSequence, true, changes);
+    }
+}
@@ -2,6 +2,9 @@ package com.billing.controller;
 
 import com.billing.dto.BillDTO;
 import com.billing.dto.BillItemDTO;
+import com.billing.dto.BulkBillImportDTO;
+import com.billing.dto.BulkBillResultDTO;
+import com.billing.service.BillBulkImportService;
 import com.billing.service.BillService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,13 +15,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +37,9 @@ class BillControllerTest {
     @Mock
     private BillService billService;
 
+    @Mock
+    private BillBulkImportService billBulkImportService;
+
     @InjectMocks
     private BillController billController;
 
@@ -45,6 +55,7 @@ class BillControllerTest {
         objectMapper = new ObjectMapper();
         // Configure ObjectMapper to handle LocalDateTime
         objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
+        ReflectionTestUtils.setField(billController, "objectMapper", objectMapper);
 
         // Setup test data
         testItemDTO = new BillItemDTO();
@@ -83,6 +94,55 @@ class BillControllerTest {
         verify(billService).createBill(any(BillDTO.class));
     }
 
+    @Test
+    void testCreateBills_JsonArray() throws Exception {
+        // Arrange
+        List<Long> customerIds = drainBulkImport();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/bills/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testBillDTO, testBillDTO))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("CREATED"));
+
+        assertEquals(List.of(1L, 1L), customerIds);
+    }
+
+    @Test
+    void testCreateBills_NdjsonIsReadOneBillPerLine() throws Exception {
+        // Arrange
+        List<Long> customerIds = drainBulkImport();
+        BillDTO second = objectMapper.readValue(objectMapper.writeValueAsString(testBillDTO), BillDTO.class);
+        second.setCustomerId(2L);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/bills/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(objectMapper.writeValueAsString(testBillDTO) + "\n" + objectMapper.writeValueAsString(second) + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        assertEquals(List.of(1L, 2L), customerIds);
+    }
+
+    // Reads every bill handed to the bulk import and reports each one as created
+    private List<Long> drainBulkImport() {
+        List<Long> customerIds = new ArrayList<>();
+        when(billBulkImportService.importBills(any())).thenAnswer(invocation -> {
+            Iterator<BillDTO> bills = invocation.getArgument(0);
+            List<BulkBillResultDTO> results = new ArrayList<>();
+            while (bills.hasNext()) {
+                customerIds.add(bills.next().getCustomerId());
+                results.add(BulkBillResultDTO.created(results.size(), (long) results.size() + 1, "BILL-" + results.size()));
+            }
+            return new BulkBillImportDTO(results.size(), results.size(), 0, 1L, results);
+        });
+        return customerIds;
+    }
+
     @Test
     void testGetBillById_Success() throws Exception {
         // Arrange
@@ -125,6 +185,20 @@ class BillControllerTest {
         verify(billService).getBillsByCustomerId(1L);
     }
 
+    @Test
+    void testGetBillsByCustomerId_WithLimit_ClampedAndNewestOnly() throws Exception {
+        // Arrange
+        when(billService.getRecentBillsByCustomerId(1L, 100)).thenReturn(Arrays.asList(testBillDTO));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/bills/customer/1").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].billId").value(1));
+
+        verify(billService).getRecentBillsByCustomerId(1L, 100);
+        verify(billService, never()).getBillsByCustomerId(any());
+    }
+
     @Test
     void testGetBillsByVendorId_Success() throws Exception {
         // Arrange
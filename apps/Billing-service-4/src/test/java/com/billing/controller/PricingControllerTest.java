@@ -0,0 +1,97 @@
+package com.billing.controller;
+
+import com.billing.exception.GlobalExceptionHandler;
+import com.billing.pricing.MaterialRateStore;
+import com.billing.pricing.MaterialRates;
+import com.billing.pricing.PricingEngine;
+import com.billing.pricing.PricingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.function.UnaryOperator;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingControllerTest {
+
+    private final MaterialRateStore materialRateStore = mock(MaterialRateStore.class);
+
+    @Spy
+    private PricingEngine pricingEngine = new PricingEngine(new PricingProperties(), materialRateStore);
+
+    @InjectMocks
+    private PricingController pricingController;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        when(materialRateStore.update(any())).thenAnswer(invocation ->
+                invocation.<UnaryOperator<MaterialRates>>getArgument(0).apply(pricingEngine.currentRates()));
+        pricingEngine.load();
+        mockMvc = MockMvcBuilders.standaloneSetup(pricingController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void testGetRates() throws Exception {
+        mockMvc.perform(get("/api/pricing/rates"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.gold").value(5000))
+                .andExpect(jsonPath("$.defaultRate").value(100))
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @Test
+    void testUpdateRate() throws Exception {
+        mockMvc.perform(put("/api/pricing/rates/Gold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("5250.50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.gold").value(5250.50))
+                .andExpect(jsonPath("$.version").value(2));
+
+        verify(pricingEngine).updateRate("Gold", new BigDecimal("5250.50"));
+    }
+
+    @Test
+    void testReplaceRates() throws Exception {
+        mockMvc.perform(put("/api/pricing/rates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rates\":{\"gold\":6000,\"silver\":90},\"defaultRate\":120}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rates.gold").value(6000))
+                .andExpect(jsonPath("$.rates.platinum").doesNotExist())
+                .andExpect(jsonPath("$.defaultRate").value(120));
+    }
+
+    @Test
+    void testUpdateRate_InvalidRate() throws Exception {
+        mockMvc.perform(put("/api/pricing/rates/gold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Pricing Data"));
+    }
+
+    @Test
+    void testReplaceRates_EmptyBody() throws Exception {
+        mockMvc.perform(put("/api/pricing/rates")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rates\":{}}"))
+                .andExpect(status().isBadRequest());
+    }
+}
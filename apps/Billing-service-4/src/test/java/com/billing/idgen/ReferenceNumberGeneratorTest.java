@@ -0,0 +1,155 @@
+package com.billing.idgen;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceNumberGeneratorTest {
+
+    @Test
+    void testNextBillNumber_Format() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-08-29T10:15:30Z"));
+        ReferenceNumberGenerator generator = new ReferenceNumberGenerator(7, clock);
+
+        String billNumber = generator.nextBillNumber();
+        String transactionId = generator.nextTransactionId();
+
+        assertTrue(billNumber.matches("BILL-20240829-[0-9A-Z]{13}"), billNumber);
+        assertTrue(transactionId.matches("TXN-20240829-[0-9A-Z]{13}"), transactionId);
+    }
+
+    @Test
+    void testNextBillNumber_DatePrefixFollowsClock() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-08-29T23:59:59.999Z"));
+        ReferenceNumberGenerator generator = new ReferenceNumberGenerator(1, clock);
+
+        assertTrue(generator.nextBillNumber().startsWith("BILL-20240829-"));
+        clock.instant = Instant.parse("2024-08-30T00:00:00Z");
+        assertTrue(generator.nextBillNumber().startsWith("BILL-20240830-"));
+    }
+
+    @Test
+    void testNextId_MonotonicWhenSequenceOverflowsOrClockGoesBack() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-08-29T10:00:00Z"));
+        ReferenceNumberGenerator generator = new ReferenceNumberGenerator(1, clock);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.instant = clock.instant.minusSeconds(5);
+            }
+            long next = generator.nextId();
+            assertTrue(next > previous, "id went backwards at " + i);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testNextBillNumber_LexicalOrderMatchesIssueOrder() {
+        ReferenceNumberGenerator generator = new ReferenceNumberGenerator(3);
+
+        String previous = generator.nextBillNumber();
+        for (int i = 0; i < 1_000; i++) {
+            String next = generator.nextBillNumber();
+            assertTrue(next.compareTo(previous) > 0, next + " <= " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void testNextBillNumber_NoCollisionsAcrossNodesAndThreads() throws Exception {
+        int nodes = 4;
+        int threadsPerNode = 4;
+        int idsPerThread = 50_000;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(nodes * threadsPerNode);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int node = 0; node < nodes; node++) {
+                ReferenceNumberGenerator generator = new ReferenceNumberGenerator(node);
+                for (int t = 0; t < threadsPerNode; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < idsPerThread; i++) {
+                            seen.add(generator.nextBillNumber());
+                        }
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(nodes * threadsPerNode * idsPerThread, seen.size());
+    }
+
+    @Test
+    void testConstructor_RejectsOutOfRangeNodeId() {
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceNumberGenerator(1024));
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceNumberGenerator(-2, Clock.systemUTC()));
+    }
+
+    @Test
+    void testConstructor_UnsetNodeIdFailsStartUpOutsideDevAndTest() {
+        MockEnvironment production = new MockEnvironment();
+        production.setActiveProfiles("virtual-threads");
+
+        assertThrows(IllegalStateException.class, () -> new ReferenceNumberGenerator(-1, new MockEnvironment()));
+        assertThrows(IllegalStateException.class, () -> new ReferenceNumberGenerator(-1, production));
+        assertNotNull(new ReferenceNumberGenerator(5, production).nextBillNumber());
+    }
+
+    @Test
+    void testConstructor_UnsetNodeIdDerivedFromHostNameUnderDevOrTest() {
+        MockEnvironment dev = new MockEnvironment();
+        dev.setActiveProfiles("dev");
+        MockEnvironment test = new MockEnvironment();
+        test.setActiveProfiles("test", "virtual-threads");
+
+        assertNotNull(new ReferenceNumberGenerator(-1, dev).nextBillNumber());
+        assertNotNull(new ReferenceNumberGenerator(-1, test).nextBillNumber());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
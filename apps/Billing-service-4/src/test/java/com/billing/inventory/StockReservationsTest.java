@@ -0,0 +1,136 @@
+package com.billing.inventory;
+
+import com.billing.dto.BillItemDTO;
+import com.billing.exception.InsufficientStockException;
+import com.billing.feignclients.StockReservationClient;
+import com.jewelshop.contracts.product.StockReservationLineDTO;
+import com.jewelshop.contracts.product.StockReservationRequestDTO;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class StockReservationsTest {
+
+    private final StockReservationClient stockReservationClient = mock(StockReservationClient.class);
+    private final StockReservations stockReservations =
+            new StockReservations(stockReservationClient, true, Duration.ofMinutes(15));
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void testReserve_MergesItemsOfTheSameProductIntoOneLine() {
+        // Act
+        stockReservations.reserve("BILL-1", List.of(item(2L, 1), item(1L, 2), item(2L, 3)));
+
+        // Assert
+        verify(stockReservationClient).reserve(new StockReservationRequestDTO("BILL-1",
+                List.of(new StockReservationLineDTO(1L, 2), new StockReservationLineDTO(2L, 4)), 900L));
+    }
+
+    @Test
+    void testReserve_ConflictBecomesInsufficientStock() {
+        // Arrange
+        when(stockReservationClient.reserve(any())).thenThrow(status(409, "Insufficient stock for products: [1]"));
+
+        // Act & Assert
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> stockReservations.reserve("BILL-2", List.of(item(1L, 5))));
+        assertTrue(e.getMessage().contains("products: [1]"));
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty(), "nothing was reserved to release");
+    }
+
+    @Test
+    void testReserve_ReleasedOnlyWhenTheBillTransactionRollsBack() {
+        // Arrange
+        stockReservations.reserve("BILL-3", List.of(item(1L, 1)));
+
+        // Act
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        verify(stockReservationClient, never()).release(any());
+        stockReservations.reserve("BILL-4", List.of(item(1L, 1)));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // Assert
+        verify(stockReservationClient).release("BILL-4");
+        verify(stockReservationClient, times(1)).release(any());
+    }
+
+    @Test
+    void testConfirm_BillWithoutReservationIsIgnored() {
+        // Arrange
+        when(stockReservationClient.confirm("BILL-OLD")).thenThrow(status(404, "Reservation BILL-OLD not found"));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> stockReservations.confirm("BILL-OLD"));
+    }
+
+    @Test
+    void testRelease_FailureAfterCommitIsOnlyLogged() {
+        // Arrange
+        when(stockReservationClient.release("BILL-5")).thenThrow(status(503, "unavailable"));
+        stockReservations.release("BILL-5");
+
+        // Act & Assert
+        assertDoesNotThrow(() -> complete(TransactionSynchronization.STATUS_COMMITTED));
+        verify(stockReservationClient).release("BILL-5");
+    }
+
+    @Test
+    void testDisabled_NeverCallsProductService() {
+        // Arrange
+        StockReservations disabled = new StockReservations(stockReservationClient, false, Duration.ofMinutes(15));
+
+        // Act
+        disabled.reserve("BILL-6", List.of(item(1L, 1)));
+        disabled.confirm("BILL-6");
+        disabled.release("BILL-6");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        verifyNoInteractions(stockReservationClient);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static BillItemDTO item(Long productId, int quantity) {
+        BillItemDTO item = new BillItemDTO();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static FeignException status(int status, String body) {
+        Request request = Request.create(Request.HttpMethod.POST, "/api/products/reservations", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        Response response = Response.builder().status(status).reason("").request(request)
+                .headers(Map.of()).body(body, StandardCharsets.UTF_8).build();
+        return FeignException.errorStatus("StockReservationClient", response);
+    }
+}
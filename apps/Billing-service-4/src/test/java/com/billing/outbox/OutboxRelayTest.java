@@ -0,0 +1,190 @@
+package com.billing.outbox;
+
+import com.billing.config.BillingEventTransportConfig;
+import com.billing.entity.Bill;
+import com.billing.entity.Payment;
+import com.billing.repository.BillRepository;
+import com.billing.repository.OutboxEventRepository;
+import com.jewelshop.contracts.billing.BillingEventDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Writes outbox rows through BillingEventOutbox in committed (and rolled back) transactions on H2
+ * and relays them to the in-memory transport.
+ */
+@DataJpaTest(properties = "billing.outbox.batch-size=2")
+@Import({BillingEventOutbox.class, OutboxRelay.class, BillingEventTransportConfig.class, OutboxRelayTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private BillingEventOutbox billingEventOutbox;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @MockitoSpyBean
+    private InMemoryBillingEventTransport transport;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Bill bill;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        bill = new Bill();
+        bill.setCustomerId(1L);
+        bill.setVendorId(2L);
+        bill.setBillNumber("BILL-OUTBOX-1");
+        bill.setBillDate(LocalDateTime.now());
+        bill.setStatus("PENDING");
+        bill.setTotalAmount(new BigDecimal("1500.00"));
+        bill = billRepository.save(bill);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        billRepository.deleteAll();
+    }
+
+    @Test
+    void testRelay_PublishesCommittedEventsInOrderInBatches() {
+        // Arrange
+        List<BillingEventDTO> events = new ArrayList<>();
+        transport.subscribe(events::add);
+        inTransaction(() -> billingEventOutbox.billCreated(bill));
+        inTransaction(() -> billingEventOutbox.billPaid(bill, payment(7L)));
+        inTransaction(() -> billingEventOutbox.paymentRefunded(bill, payment(7L)));
+
+        // Act
+        int published = outboxRelay.relay();
+
+        // Assert
+        assertEquals(3, published);
+        verify(transport, times(2)).publish(anyList());
+        assertEquals(List.of("BILL_CREATED", "BILL_PAID", "PAYMENT_REFUNDED"), events.stream().map(BillingEventDTO::type).toList());
+        assertTrue(events.get(0).eventId() < events.get(1).eventId() && events.get(1).eventId() < events.get(2).eventId());
+        assertEquals("BILL-OUTBOX-1", events.get(1).billNumber());
+        assertEquals(7L, events.get(1).paymentId());
+        assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+        assertEquals(0, outboxRelay.relay(), "published events are not sent again");
+    }
+
+    @Test
+    void testRolledBackChange_LeavesNoEvent() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> inTransaction(() -> {
+            billingEventOutbox.billCreated(bill);
+            throw new IllegalStateException("bill could not be saved");
+        }));
+
+        // Assert
+        assertEquals(0, outboxEventRepository.count());
+        assertEquals(0, outboxRelay.relay());
+    }
+
+    @Test
+    void testOutsideTransaction_Rejected() {
+        assertThrows(Exception.class, () -> billingEventOutbox.billCreated(bill));
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void testTransportFailure_BatchIsOfferedAgainOnTheNextPoll() {
+        // Arrange
+        AtomicBoolean failing = new AtomicBoolean(true);
+        List<Long> delivered = new ArrayList<>();
+        transport.subscribe(event -> {
+            if (failing.get()) {
+                throw new IllegalStateException("broker unavailable");
+            }
+            delivered.add(event.eventId());
+        });
+        inTransaction(() -> billingEventOutbox.billCreated(bill));
+
+        // Act
+        outboxRelay.poll();
+        long pendingAfterFailure = outboxEventRepository.countByPublishedAtIsNull();
+        failing.set(false);
+        outboxRelay.poll();
+
+        // Assert
+        assertEquals(1, pendingAfterFailure);
+        assertEquals(1, delivered.size());
+        assertEquals(0, outboxEventRepository.countByPublishedAtIsNull());
+    }
+
+    @Test
+    void testPurge_DeletesOnlyPublishedEventsPastRetention() {
+        // Arrange
+        inTransaction(() -> billingEventOutbox.billCreated(bill));
+        outboxRelay.relay();
+        inTransaction(() -> billingEventOutbox.billPaid(bill, null));
+        outboxEventRepository.findAll().stream()
+                .filter(event -> event.getPublishedAt() != null)
+                .forEach(event -> {
+                    event.setPublishedAt(LocalDateTime.now().minusDays(8));
+                    outboxEventRepository.save(event);
+                });
+
+        // Act
+        outboxRelay.purgePublished();
+
+        // Assert
+        assertEquals(1, outboxEventRepository.count());
+        assertEquals("BILL_PAID", outboxEventRepository.findAll().get(0).getEventType());
+    }
+
+    private void inTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> work.run());
+    }
+
+    private static Payment payment(Long paymentId) {
+        Payment payment = new Payment();
+        payment.setPaymentId(paymentId);
+        payment.setAmount(new BigDecimal("1500.00"));
+        return payment;
+    }
+}
@@ -0,0 +1,83 @@
+package com.billing.pricing;
+
+import com.billing.dto.BillItemDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BillTotalsCalculatorTest {
+
+    @Test
+    void testCalculate_EmptyItems() {
+        assertSame(BillTotals.ZERO, BillTotalsCalculator.calculate(Collections.emptyList()));
+        assertSame(BillTotals.ZERO, BillTotalsCalculator.calculate(null));
+    }
+
+    @Test
+    void testCalculate_GoldTaxNoDiscount() {
+        BillTotals totals = BillTotalsCalculator.calculate(Arrays.asList(
+                item("White GOLD", 1, "10000.00"),
+                item("silver", 1, "500.00")));
+
+        assertEquals(new BigDecimal("10500.00"), totals.subtotal());
+        assertEquals(new BigDecimal("315.00"), totals.taxAmount());
+        assertEquals(new BigDecimal("0.00"), totals.discountAmount());
+        assertEquals(new BigDecimal("10815.00"), totals.totalAmount());
+    }
+
+    @Test
+    void testCalculate_VolumeDiscountThreePieces() {
+        BillTotals totals = BillTotalsCalculator.calculate(Arrays.asList(
+                item("silver", 2, "10000.00"),
+                item("silver", 1, "5000.00")));
+
+        assertEquals(new BigDecimal("15000.00"), totals.subtotal());
+        assertEquals(new BigDecimal("750.00"), totals.taxAmount());
+        assertEquals(new BigDecimal("750.00"), totals.discountAmount());
+        assertEquals(new BigDecimal("15000.00"), totals.totalAmount());
+    }
+
+    @Test
+    void testCalculate_VolumeAndPreciousMetalDiscount() {
+        BillTotals totals = BillTotalsCalculator.calculate(Arrays.asList(
+                item("Platinum", 3, "3000.33"),
+                item("pearl", 2, "999.99")));
+
+        // 5 pieces: 10% + 2% for platinum on 4000.32
+        assertEquals(new BigDecimal("4000.32"), totals.subtotal());
+        assertEquals(new BigDecimal("200.02"), totals.taxAmount());
+        assertEquals(new BigDecimal("480.04"), totals.discountAmount());
+        assertEquals(new BigDecimal("3720.30"), totals.totalAmount());
+    }
+
+    @Test
+    void testCalculate_MissingTotalPriceAndMaterial() {
+        BillItemDTO noPrice = item(null, 1, null);
+
+        BillTotals totals = BillTotalsCalculator.calculate(Arrays.asList(noPrice, item("diamond", 1, "100.00")));
+
+        assertEquals(new BigDecimal("100.00"), totals.subtotal());
+        assertEquals(new BigDecimal("5.00"), totals.taxAmount());
+        assertEquals(new BigDecimal("2.00"), totals.discountAmount());
+    }
+
+    @Test
+    void testContainsIgnoreCase() {
+        assertTrue(BillTotalsCalculator.containsIgnoreCase("Rose Gold", "gold"));
+        assertTrue(BillTotalsCalculator.containsIgnoreCase("DIAMOND", "diamond"));
+        assertFalse(BillTotalsCalculator.containsIgnoreCase("gol", "gold"));
+        assertFalse(BillTotalsCalculator.containsIgnoreCase("", "gold"));
+    }
+
+    private static BillItemDTO item(String material, int quantity, String totalPrice) {
+        BillItemDTO item = new BillItemDTO();
+        item.setProductMaterial(material);
+        item.setQuantity(quantity);
+        item.setTotalPrice(totalPrice != null ? new BigDecimal(totalPrice) : null);
+        return item;
+    }
+}
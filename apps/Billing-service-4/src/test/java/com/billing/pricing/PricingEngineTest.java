@@ -0,0 +1,140 @@
+package com.billing.pricing;
+
+import com.billing.cache.ProductSnapshot;
+import com.billing.exception.InvalidPricingDataException;
+import com.billing.repository.MaterialRateRepository;
+import com.jewelshop.contracts.product.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs engines of several Billing instances against one material_rates table on H2, created by
+ * the Flyway migrations.
+ */
+@DataJpaTest
+@Import(MaterialRateStore.class)
+class PricingEngineTest {
+
+    @Autowired
+    private MaterialRateStore materialRateStore;
+
+    @Autowired
+    private MaterialRateRepository materialRateRepository;
+
+    private PricingEngine pricingEngine;
+
+    @BeforeEach
+    void setUp() {
+        pricingEngine = startInstance(new PricingProperties());
+    }
+
+    @Test
+    void testSnapshot_DefaultRatesMatchFormerHardCodedTable() {
+        assertEquals(new BigDecimal("50000.00"), pricingEngine.snapshot(product("gold", 10.0, 1.0)).unitPrice());
+        assertEquals(new BigDecimal("800.00"), pricingEngine.snapshot(product("Silver", 10.0, 1.0)).unitPrice());
+        assertEquals(new BigDecimal("35000.00"), pricingEngine.snapshot(product("PLATINUM", 5.0, 2.0)).unitPrice());
+        assertEquals(new BigDecimal("1000.00"), pricingEngine.snapshot(product("copper", 10.0, 1.0)).unitPrice());
+    }
+
+    @Test
+    void testLoad_FirstInstanceSeedsTheTable() {
+        assertEquals(1, pricingEngine.currentVersion());
+        assertEquals(MaterialRates.DEFAULT_RATES.size(), materialRateRepository.count());
+        assertEquals(new BigDecimal("5000.00"), materialRateRepository.findById("gold").orElseThrow().getRate());
+    }
+
+    @Test
+    void testUpdateRate_BumpsVersionAndKeepsOtherRates() {
+        long before = pricingEngine.currentVersion();
+
+        MaterialRates rates = pricingEngine.updateRate("  Gold ", new BigDecimal("5200"));
+
+        assertEquals(before + 1, rates.getVersion());
+        assertEquals(new BigDecimal("5200.00"), rates.rateFor("GOLD"));
+        assertEquals(new BigDecimal("80.00"), rates.rateFor("silver"));
+        ProductSnapshot snapshot = pricingEngine.snapshot(product("gold", 1.0, 1.0));
+        assertEquals(new BigDecimal("5200.00"), snapshot.unitPrice());
+        assertEquals(rates.getVersion(), snapshot.ratesVersion());
+        assertEquals(new BigDecimal("5200.00"), materialRateStore.load().rateFor("gold"));
+    }
+
+    @Test
+    void testReplaceRates_UnlistedMaterialsUseDefaultRate() {
+        MaterialRates rates = pricingEngine.replaceRates(Map.of("gold", new BigDecimal("6000")), new BigDecimal("50"));
+
+        assertEquals(new BigDecimal("6000.00"), rates.rateFor("gold"));
+        assertEquals(new BigDecimal("50.00"), rates.rateFor("silver"));
+        assertEquals(1, materialRateRepository.count());
+        assertEquals(new BigDecimal("50.00"), materialRateStore.load().rateFor("silver"));
+    }
+
+    @Test
+    void testStartupRatesFromProperties_OnlySeedAnEmptyTable() {
+        PricingProperties properties = new PricingProperties();
+        properties.getRates().put("Gold", new BigDecimal("5100"));
+
+        MaterialRates rates = startInstance(properties).currentRates();
+
+        // The table was seeded by the instance started in setUp
+        assertEquals(new BigDecimal("5000.00"), rates.rateFor("gold"));
+        assertEquals(1, rates.getVersion());
+    }
+
+    @Test
+    void testChangeOnOneInstance_IsPickedUpByTheOthersOnRefresh() {
+        PricingEngine other = startInstance(new PricingProperties());
+
+        pricingEngine.updateRate("gold", new BigDecimal("5200"));
+        assertEquals(new BigDecimal("5000.00"), other.currentRates().rateFor("gold"));
+        other.refresh();
+
+        assertEquals(pricingEngine.currentVersion(), other.currentVersion());
+        assertEquals(new BigDecimal("10400.00"), other.snapshot(product("gold", 2.0, 1.0)).unitPrice());
+    }
+
+    @Test
+    void testChangeOnAStaleInstance_StartsFromTheStoredRates() {
+        PricingEngine stale = startInstance(new PricingProperties());
+        pricingEngine.updateRate("gold", new BigDecimal("5200"));
+
+        MaterialRates rates = stale.updateRate("silver", new BigDecimal("90"));
+
+        assertEquals(3, rates.getVersion());
+        assertEquals(new BigDecimal("5200.00"), rates.rateFor("gold"));
+        assertEquals(new BigDecimal("90.00"), rates.rateFor("silver"));
+        pricingEngine.refresh();
+        assertEquals(new BigDecimal("90.00"), pricingEngine.currentRates().rateFor("silver"));
+    }
+
+    @Test
+    void testInvalidRatesRejectedAndTableUnchanged() {
+        MaterialRates before = pricingEngine.currentRates();
+
+        assertThrows(InvalidPricingDataException.class, () -> pricingEngine.updateRate("gold", BigDecimal.ZERO));
+        assertThrows(InvalidPricingDataException.class, () -> pricingEngine.updateRate(" ", BigDecimal.ONE));
+        assertThrows(InvalidPricingDataException.class, () -> pricingEngine.updateRate("gold", new BigDecimal("5000.125")));
+        assertThrows(InvalidPricingDataException.class,
+                () -> pricingEngine.replaceRates(Map.of("gold", new BigDecimal("-1")), null));
+
+        assertSame(before, pricingEngine.currentRates());
+        assertEquals(before.getVersion(), materialRateStore.currentVersion());
+    }
+
+    private PricingEngine startInstance(PricingProperties properties) {
+        PricingEngine engine = new PricingEngine(properties, materialRateStore);
+        engine.load();
+        return engine;
+    }
+
+    private ProductDTO product(String material, double weight, double gmPerWeight) {
+        return new ProductDTO(1L, material, weight, gmPerWeight, null, null);
+    }
+}
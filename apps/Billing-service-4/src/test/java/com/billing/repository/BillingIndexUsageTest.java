@@ -0,0 +1,70 @@
+package com.billing.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Applies the Flyway migrations to H2 in MySQL mode and checks with EXPLAIN that every
+ * repository finder is answered from an index rather than a full table scan.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:billing_indexes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BillingIndexUsageTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest(name = "{0}")
+    @CsvSource(delimiter = '|', value = {
+            "BillRepository.findByCustomerId          | idx_bills_customer_status  | SELECT * FROM bills WHERE customer_id = 1",
+            "BillRepository.findByCustomerIdAndStatus | idx_bills_customer_status  | SELECT * FROM bills WHERE customer_id = 1 AND status = 'PENDING'",
+            "BillRepository.findByVendorId            | idx_bills_vendor           | SELECT * FROM bills WHERE vendor_id = 1",
+            "BillRepository.findByStatus              | idx_bills_status           | SELECT * FROM bills WHERE status = 'PENDING'",
+            "BillRepository.findByBillNumber          | uk_bills_bill_number       | SELECT * FROM bills WHERE bill_number = 'BILL-20240829-0001'",
+            "BillRepository.findBillsByDateRange      | idx_bills_bill_date        | SELECT * FROM bills WHERE bill_date BETWEEN '2024-08-01' AND '2024-08-31'",
+            "BillItemRepository.findByBill_BillId     | fk_bill_items_bill         | SELECT * FROM bill_items WHERE bill_id = 1",
+            "BillItemRepository.findByProductId       | idx_bill_items_product     | SELECT * FROM bill_items WHERE product_id = 1",
+            "PaymentRepository.findByBillId           | idx_payments_bill          | SELECT * FROM payments WHERE bill_id = 1",
+            "PaymentRepository.findByCustomerId       | idx_payments_customer      | SELECT * FROM payments WHERE customer_id = 1",
+            "PaymentRepository.findByStatus           | idx_payments_status        | SELECT * FROM payments WHERE status = 'COMPLETED'",
+            "PaymentRepository.findByTransactionId    | uk_payments_transaction_id | SELECT * FROM payments WHERE transaction_id = 'TXN-20240829-0001'",
+            "OutboxEventRepository.lockUnpublished    | idx_billing_outbox_unpublished | SELECT * FROM billing_outbox WHERE published_at IS NULL ORDER BY event_id LIMIT 100",
+            "VendorSalesRepository.sumByStatus        | primary_key                | SELECT status, SUM(total_amount) FROM vendor_daily_sales WHERE vendor_id = 1 AND sales_date BETWEEN '2024-01-01' AND '2024-12-31' GROUP BY status",
+            "VendorSalesRepository.sumByMaterial      | primary_key                | SELECT material, SUM(total_price) FROM vendor_daily_material_sales WHERE vendor_id = 1 AND status = 'PAID' AND sales_date BETWEEN '2024-01-01' AND '2024-12-31' GROUP BY material"
+    })
+    void testFinderUsesIndex(String finder, String expectedIndex, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+
+        assertNotNull(plan);
+        assertFalse(plan.contains("tableScan"), finder + " scans the table:\n" + plan);
+        assertTrue(plan.toLowerCase().contains(expectedIndex), finder + " does not use " + expectedIndex + ":\n" + plan);
+    }
+
+    @Test
+    void testBillNumberIsUnique() {
+        jdbcTemplate.update("INSERT INTO bills (bill_number, status) VALUES ('BILL-20240829-0001', 'PENDING')");
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update("INSERT INTO bills (bill_number, status) VALUES ('BILL-20240829-0001', 'PENDING')"));
+    }
+
+    @Test
+    void testTransactionIdIsUnique() {
+        jdbcTemplate.update("INSERT INTO payments (transaction_id, status) VALUES ('TXN-20240829-0001', 'COMPLETED')");
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                jdbcTemplate.update("INSERT INTO payments (transaction_id, status) VALUES ('TXN-20240829-0001', 'COMPLETED')"));
+    }
+}
@@ -0,0 +1,269 @@
+package com.billing.service;
+
+import com.billing.analytics.VendorSalesAggregates;
+import com.billing.cache.ProductSnapshot;
+import com.billing.cache.ProductSnapshotCache;
+import com.billing.config.BillLookupExecutorConfig;
+import com.billing.dto.BillDTO;
+import com.billing.dto.BillItemDTO;
+import com.billing.dto.BulkBillImportDTO;
+import com.billing.dto.BulkBillResultDTO;
+import com.billing.exception.InsufficientStockException;
+import com.billing.feignclients.CustomerClient;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
+import com.billing.repository.BillBatchRepository;
+import com.billing.repository.VendorSalesRepository;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs bulk imports against H2 with the remote calls mocked, each chunk committing for real, and
+ * compares them with creating the same bills one createBill call at a time.
+ */
+@DataJpaTest(properties = {"billing.bulk.batch-size=50", "billing.node-id=1"})
+@Import({BillService.class, BillBulkImportService.class, BillBatchRepository.class, BillingEventOutbox.class,
+        VendorSalesAggregates.class, VendorSalesRepository.class, ReferenceNumberGenerator.class,
+        BillLookupExecutorConfig.class, ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class BillBulkImportServiceTest {
+
+    // Round trip of each mocked remote call in the throughput comparison
+    private static final long REMOTE_LATENCY_MS = 5;
+
+    @MockitoBean
+    private CustomerClient customerClient;
+
+    @MockitoBean
+    private ProductSnapshotCache productSnapshotCache;
+
+    @MockitoBean
+    private StockReservations stockReservations;
+
+    @Autowired
+    private BillBulkImportService billBulkImportService;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile long remoteLatencyMs;
+
+    @BeforeEach
+    void setUp() {
+        remoteLatencyMs = 0;
+        when(customerClient.getCustomerById(anyLong())).thenAnswer(invocation -> {
+            pause();
+            Long customerId = invocation.getArgument(0);
+            return customerId == 404L ? null : new CustomerDTO(customerId, "Asha", "Rao", null, null);
+        });
+        when(productSnapshotCache.getProducts(anyList())).thenAnswer(invocation -> {
+            pause();
+            Collection<Long> productIds = invocation.getArgument(0);
+            return productIds.stream()
+                    .filter(productId -> productId < 100)
+                    .collect(Collectors.toMap(Function.identity(), productId -> new ProductSnapshot(
+                            new ProductDTO(productId, "Gold", 10.0, 1.0, null, 2L), new BigDecimal("6000.00"), 1L)));
+        });
+        doAnswer(invocation -> {
+            pause();
+            return null;
+        }).when(stockReservations).reserve(anyString(), anyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM billing_outbox");
+        jdbcTemplate.update("DELETE FROM vendor_daily_sales");
+        jdbcTemplate.update("DELETE FROM vendor_daily_material_sales");
+        jdbcTemplate.update("DELETE FROM bill_items");
+        jdbcTemplate.update("DELETE FROM bills");
+    }
+
+    @Test
+    void testImportBills_CreatesValidBillsAndReportsEachFailure() {
+        // Arrange
+        List<BillDTO> bills = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            bills.add(bill((long) (i % 7) + 1, 1L, 2L));
+        }
+        bills.set(3, bill(404L, 1L));      // unknown customer
+        bills.set(60, bill(1L, 999L));     // unknown product
+        bills.set(61, bill(1L));           // no items
+        bills.set(100, null);
+
+        // Act
+        BulkBillImportDTO result = billBulkImportService.importBills(bills.iterator());
+
+        // Assert
+        assertEquals(120, result.getReceived());
+        assertEquals(116, result.getCreated());
+        assertEquals(4, result.getFailed());
+        for (int i = 0; i < 120; i++) {
+            assertEquals(i, result.getResults().get(i).getIndex());
+        }
+        assertEquals("Customer not found with ID: 404", result.getResults().get(3).getError());
+        assertEquals("Product not found with ID: 999", result.getResults().get(60).getError());
+        assertEquals("billItems: Bill must contain at least one item", result.getResults().get(61).getError());
+        assertEquals("Bill data cannot be null", result.getResults().get(100).getError());
+
+        assertEquals(116, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bills", Integer.class));
+        assertEquals(232, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bill_items", Integer.class));
+        assertEquals(116, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM billing_outbox WHERE event_type = 'BILL_CREATED'", Integer.class));
+        assertEquals(116, jdbcTemplate.queryForObject(
+                "SELECT SUM(bill_count) FROM vendor_daily_sales WHERE status = 'PENDING'", Integer.class));
+
+        // The batch-written rows read back through JPA like any other bill
+        BulkBillResultDTO first = result.getResults().get(0);
+        BillDTO stored = billService.getBillsByCustomerId(1L).stream()
+                .filter(bill -> bill.getBillId().equals(first.getBillId()))
+                .findFirst().orElseThrow();
+        assertEquals(first.getBillNumber(), stored.getBillNumber());
+        assertEquals("PENDING", stored.getStatus());
+        assertEquals(2, stored.getBillItems().size());
+        assertEquals(0, new BigDecimal("12000.00").compareTo(stored.getSubtotal()));
+
+        // 7 distinct customers, checked once for the whole import; one product call per chunk of 50
+        verify(customerClient, times(8)).getCustomerById(anyLong());
+        verify(productSnapshotCache, times(3)).getProducts(anyList());
+        verify(stockReservations, times(116)).reserve(anyString(), anyList());
+    }
+
+    @Test
+    void testImportBills_InsufficientStockFailsOnlyThatBill() {
+        // Arrange
+        List<BillDTO> bills = List.of(bill(1L, 1L), bill(1L, 2L), bill(1L, 3L));
+        doThrow(new InsufficientStockException("Not enough stock", null))
+                .when(stockReservations).reserve(anyString(), argThat(items -> items.get(0).getProductId() == 2L));
+
+        // Act
+        BulkBillImportDTO result = billBulkImportService.importBills(bills.iterator());
+
+        // Assert
+        assertEquals(2, result.getCreated());
+        assertEquals("FAILED", result.getResults().get(1).getStatus());
+        assertEquals("Not enough stock", result.getResults().get(1).getError());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bills", Integer.class));
+    }
+
+    @Test
+    void testImportBills_UnreadableBillKeepsWhatWasReadAndStops() {
+        // Arrange: the second element cannot be parsed, so nothing after it is trusted
+        Iterator<BillDTO> bills = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public BillDTO next() {
+                if (read++ == 1) {
+                    throw new IllegalStateException("Unexpected character '}'");
+                }
+                return bill(1L, 1L);
+            }
+        };
+
+        // Act
+        BulkBillImportDTO result = billBulkImportService.importBills(bills);
+
+        // Assert
+        assertEquals(2, result.getReceived());
+        assertEquals("CREATED", result.getResults().get(0).getStatus());
+        assertEquals("Unreadable bill: Unexpected character '}'", result.getResults().get(1).getError());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bills", Integer.class));
+    }
+
+    @Test
+    void testImportBills_AtLeastTenTimesTheThroughputOfCreateBill() {
+        // Arrange: every customer, product and stock call takes REMOTE_LATENCY_MS
+        remoteLatencyMs = REMOTE_LATENCY_MS;
+        int singleBills = 50;
+        int bulkBills = 1000;
+
+        // Act
+        long singleStart = System.nanoTime();
+        for (int i = 0; i < singleBills; i++) {
+            billService.createBill(bill((long) (i % 20) + 1, 1L, 2L));
+        }
+        double singlePerSecond = singleBills / seconds(singleStart);
+
+        List<BillDTO> bills = new ArrayList<>();
+        for (int i = 0; i < bulkBills; i++) {
+            bills.add(bill((long) (i % 20) + 1, 1L, 2L));
+        }
+        long bulkStart = System.nanoTime();
+        BulkBillImportDTO result = billBulkImportService.importBills(bills.iterator());
+        double bulkPerSecond = bulkBills / seconds(bulkStart);
+
+        // Assert
+        log.info("createBill: {} bills/s, bulk import: {} bills/s ({}x)", Math.round(singlePerSecond),
+                Math.round(bulkPerSecond), Math.round(bulkPerSecond / singlePerSecond));
+        assertEquals(bulkBills, result.getCreated());
+        assertTrue(bulkPerSecond >= 10 * singlePerSecond,
+                "bulk import should be at least 10x faster per bill: " + Math.round(bulkPerSecond) + " vs "
+                        + Math.round(singlePerSecond) + " bills/s");
+    }
+
+    private void pause() throws InterruptedException {
+        if (remoteLatencyMs > 0) {
+            Thread.sleep(remoteLatencyMs);
+        }
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    private static BillDTO bill(Long customerId, Long... productIds) {
+        BillDTO bill = new BillDTO();
+        bill.setCustomerId(customerId);
+        bill.setVendorId(2L);
+        List<BillItemDTO> items = new ArrayList<>();
+        for (Long productId : productIds) {
+            BillItemDTO item = new BillItemDTO();
+            item.setProductId(productId);
+            item.setProductName("Gold Ring");
+            item.setProductMaterial("Gold");
+            item.setProductWeight(10.0);
+            item.setProductGmPerWeight(1.0);
+            item.setQuantity(1);
+            item.setUnitPrice(new BigDecimal("6000.00"));
+            item.setTotalPrice(new BigDecimal("6000.00"));
+            items.add(item);
+        }
+        bill.setBillItems(items);
+        return bill;
+    }
+}
@@ -0,0 +1,149 @@
+package com.billing.service;
+
+import com.billing.analytics.VendorSalesAggregates;
+import com.billing.cache.ProductSnapshotCache;
+import com.billing.dto.BillDTO;
+import com.billing.entity.Bill;
+import com.billing.entity.BillItem;
+import com.billing.feignclients.CustomerClient;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the bill list paths against H2 and counts the JDBC statements Hibernate prepares,
+ * so a lazy per-bill load of billItems shows up as a failure rather than in production.
+ */
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true", "billing.node-id=1"})
+@Import({BillService.class, ReferenceNumberGenerator.class})
+class BillServiceQueryCountTest {
+
+    private static final int BILLS = 30;
+    private static final int ITEMS_PER_BILL = 3;
+
+    @MockitoBean
+    private CustomerClient customerClient;
+
+    @MockitoBean
+    private ProductSnapshotCache productSnapshotCache;
+
+    @MockitoBean
+    private StockReservations stockReservations;
+
+    @MockitoBean
+    private BillingEventOutbox billingEventOutbox;
+
+    @MockitoBean
+    private VendorSalesAggregates vendorSalesAggregates;
+
+    @MockitoBean(name = "billLookupExecutor")
+    private Executor billLookupExecutor;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < BILLS; i++) {
+            Bill bill = new Bill();
+            bill.setCustomerId(1L);
+            bill.setVendorId(2L);
+            bill.setBillNumber("BILL-TEST-" + i);
+            bill.setBillDate(LocalDateTime.now());
+            bill.setStatus("PENDING");
+            bill.setTotalAmount(BigDecimal.TEN);
+            List<BillItem> items = new ArrayList<>();
+            for (int j = 0; j < ITEMS_PER_BILL; j++) {
+                BillItem item = new BillItem();
+                item.setBill(bill);
+                item.setProductId((long) j + 1);
+                item.setQuantity(1);
+                item.setUnitPrice(BigDecimal.ONE);
+                item.setTotalPrice(BigDecimal.ONE);
+                items.add(item);
+            }
+            bill.setBillItems(items);
+            entityManager.persist(bill);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testGetBillsByCustomerId_SingleStatement() {
+        List<BillDTO> bills = billService.getBillsByCustomerId(1L);
+
+        assertLoadedWithItems(bills);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetRecentBillsByCustomerId_ReadsOnlyTheLimitedBills() {
+        List<BillDTO> bills = billService.getRecentBillsByCustomerId(1L, 5);
+
+        assertEquals(5, bills.size());
+        bills.forEach(bill -> assertEquals(ITEMS_PER_BILL, bill.getBillItems().size()));
+        for (int i = 1; i < bills.size(); i++) {
+            assertTrue(bills.get(i - 1).getBillId() > bills.get(i).getBillId());
+        }
+        // The ids, then those bills with their items; neither statement reads the other 25 bills
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(5 + 5 * ITEMS_PER_BILL, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testGetRecentBillsByCustomerId_NoBills() {
+        assertTrue(billService.getRecentBillsByCustomerId(99L, 5).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetBillsByVendorId_SingleStatement() {
+        List<BillDTO> bills = billService.getBillsByVendorId(2L);
+
+        assertLoadedWithItems(bills);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testGetBillsByStatus_SingleStatement() {
+        List<BillDTO> bills = billService.getBillsByStatus("PENDING");
+
+        assertLoadedWithItems(bills);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void assertLoadedWithItems(List<BillDTO> bills) {
+        assertEquals(BILLS, bills.size());
+        bills.forEach(bill -> assertEquals(ITEMS_PER_BILL, bill.getBillItems().size()));
+    }
+}
@@ -1,31 +1,49 @@
 package com.billing.service;
 
+import com.billing.analytics.VendorSalesAggregates;
+import com.billing.cache.ProductSnapshot;
+import com.billing.cache.ProductSnapshotCache;
 import com.billing.dto.BillDTO;
 import com.billing.dto.BillItemDTO;
-import com.billing.dto.CustomerDTO;
-import com.billing.dto.ProductDTO;
 import com.billing.entity.Bill;
 import com.billing.entity.BillItem;
 import com.billing.exception.BillNotFoundException;
 import com.billing.exception.BillStatusException;
 import com.billing.exception.CustomerNotFoundException;
+import com.billing.exception.InsufficientStockException;
 import com.billing.exception.InvalidBillDataException;
 import com.billing.feignclients.CustomerClient;
-import com.billing.feignclients.ProductClient;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
+import com.billing.pricing.MaterialRateStore;
+import com.billing.pricing.PricingEngine;
+import com.billing.pricing.PricingProperties;
 import com.billing.repository.BillItemRepository;
 import com.billing.repository.BillRepository;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 // import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,7 +62,24 @@ class BillServiceTest {
     private CustomerClient customerClient;
 
     @Mock
-    private ProductClient productClient;
+    private ProductSnapshotCache productSnapshotCache;
+
+    @Mock
+    private StockReservations stockReservations;
+
+    @Mock
+    private BillingEventOutbox billingEventOutbox;
+
+    @Mock
+    private VendorSalesAggregates vendorSalesAggregates;
+
+    @Spy
+    private SyncTaskExecutor billLookupExecutor = new SyncTaskExecutor();
+
+    @Spy
+    private ReferenceNumberGenerator referenceNumberGenerator = new ReferenceNumberGenerator(1);
+
+    private final PricingEngine pricingEngine = new PricingEngine(new PricingProperties(), mock(MaterialRateStore.class));
 
     @InjectMocks
     private BillService billService;
@@ -58,16 +93,9 @@ class BillServiceTest {
     @BeforeEach
     void setUp() {
         // Setup test data
-        testCustomerDTO = new CustomerDTO();
-        testCustomerDTO.setCustomerId(1L);
-        testCustomerDTO.setFirstName("John");
-        testCustomerDTO.setLastName("Doe");
+        testCustomerDTO = new CustomerDTO(1L, "John", "Doe", null, null);
 
-        testProductDTO = new ProductDTO();
-        testProductDTO.setProductId(1L);
-        testProductDTO.setProductMaterial("gold");
-        testProductDTO.setProductWeight(10.0);
-        testProductDTO.setProductGmPerWeight(1.0);
+        testProductDTO = new ProductDTO(1L, "gold", 10.0, 1.0, null, null);
 
         BillItemDTO testItemDTO = new BillItemDTO();
         testItemDTO.setProductId(1L);
@@ -103,7 +131,7 @@ class BillServiceTest {
         // Arrange
         when(customerClient.getCustomerById(1L)).thenReturn(testCustomerDTO);
         when(billRepository.save(any(Bill.class))).thenReturn(testBill);
-        when(productClient.getProductById(1L)).thenReturn(testProductDTO);
+        when(productSnapshotCache.getProducts(Arrays.asList(1L))).thenReturn(Map.of(1L, snapshot(testProductDTO)));
         when(billItemRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBillItem));
 
         // Act
@@ -116,6 +144,141 @@ class BillServiceTest {
         verify(customerClient).getCustomerById(1L);
         verify(billRepository).save(any(Bill.class));
         verify(billItemRepository).saveAll(anyList());
+        verify(billingEventOutbox).billCreated(testBill);
+    }
+
+    @Test
+    void testCreateBill_FetchesProductsInSingleBatch() {
+        // Arrange
+        BillItemDTO sameProductAgain = new BillItemDTO();
+        sameProductAgain.setProductId(1L);
+        sameProductAgain.setQuantity(1);
+        sameProductAgain.setUnitPrice(BigDecimal.valueOf(5000.0));
+        sameProductAgain.setTotalPrice(BigDecimal.valueOf(5000.0));
+        BillItemDTO otherProduct = new BillItemDTO();
+        otherProduct.setProductId(2L);
+        otherProduct.setQuantity(1);
+        otherProduct.setUnitPrice(BigDecimal.valueOf(80.0));
+        otherProduct.setTotalPrice(BigDecimal.valueOf(80.0));
+        testBillDTO.setBillItems(Arrays.asList(testBillDTO.getBillItems().get(0), sameProductAgain, otherProduct));
+
+        ProductDTO secondProductDTO = new ProductDTO(2L, "silver", 0, 0, null, null);
+
+        when(customerClient.getCustomerById(1L)).thenReturn(testCustomerDTO);
+        when(billRepository.save(any(Bill.class))).thenReturn(testBill);
+        when(productSnapshotCache.getProducts(Arrays.asList(1L, 2L))).thenReturn(Map.of(1L, snapshot(testProductDTO), 2L, snapshot(secondProductDTO)));
+        when(billItemRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBillItem));
+
+        // Act
+        BillDTO result = billService.createBill(testBillDTO);
+
+        // Assert
+        assertNotNull(result);
+        assertEquals(3, result.getBillItems().size());
+        verify(productSnapshotCache, times(1)).getProducts(Arrays.asList(1L, 2L));
+    }
+
+    @Test
+    void testCreateBill_ReservesStockUnderTheBillNumber() {
+        // Arrange
+        when(customerClient.getCustomerById(1L)).thenReturn(testCustomerDTO);
+        when(billRepository.save(any(Bill.class))).thenReturn(testBill);
+        when(productSnapshotCache.getProducts(Arrays.asList(1L))).thenReturn(Map.of(1L, snapshot(testProductDTO)));
+        when(billItemRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBillItem));
+
+        // Act
+        billService.createBill(testBillDTO);
+
+        // Assert
+        ArgumentCaptor<Bill> saved = ArgumentCaptor.forClass(Bill.class);
+        verify(billRepository).save(saved.capture());
+        verify(stockReservations).reserve(saved.getValue().getBillNumber(), testBillDTO.getBillItems());
+    }
+
+    @Test
+    void testCreateBill_InsufficientStockSavesNothing() {
+        // Arrange
+        when(customerClient.getCustomerById(1L)).thenReturn(testCustomerDTO);
+        when(productSnapshotCache.getProducts(Arrays.asList(1L))).thenReturn(Map.of(1L, snapshot(testProductDTO)));
+        doThrow(new InsufficientStockException("Not enough stock")).when(stockReservations).reserve(anyString(), anyList());
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> billService.createBill(testBillDTO));
+        verify(billRepository, never()).save(any(Bill.class));
+        verify(billItemRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCreateBill_ProductNotFound() {
+        // Arrange
+        when(customerClient.getCustomerById(1L)).thenReturn(testCustomerDTO);
+        when(productSnapshotCache.getProducts(Arrays.asList(1L))).thenReturn(Map.of());
+
+        // Act & Assert
+        assertThrows(InvalidBillDataException.class, () -> {
+            billService.createBill(testBillDTO);
+        });
+        verify(billRepository, never()).save(any(Bill.class));
+        verify(billItemRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testCreateBill_LooksUpCustomerAndProductsInParallel() throws Exception {
+        // Arrange: each lookup waits for the other one to start, which only succeeds if they overlap
+        CountDownLatch customerStarted = new CountDownLatch(1);
+        CountDownLatch productsStarted = new CountDownLatch(1);
+        when(customerClient.getCustomerById(1L)).thenAnswer(invocation -> {
+            customerStarted.countDown();
+            assertTrue(productsStarted.await(5, TimeUnit.SECONDS));
+            return testCustomerDTO;
+        });
+        when(productSnapshotCache.getProducts(Arrays.asList(1L))).thenAnswer(invocation -> {
+            productsStarted.countDown();
+            assertTrue(customerStarted.await(5, TimeUnit.SECONDS));
+            return Map.of(1L, snapshot(testProductDTO));
+        });
+        when(billRepository.save(any(Bill.class))).thenReturn(testBill);
+        when(billItemRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBillItem));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(billService, "billLookupExecutor", pool);
+        try {
+            // Act
+            BillDTO result = billService.createBill(testBillDTO);
+
+            // Assert
+            assertNotNull(result);
+            verify(billRepository).save(any(Bill.class));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCreateBill_FailsFastWhenProductLookupFails() {
+        // Arrange: the customer lookup never finishes on its own
+        CountDownLatch releaseCustomer = new CountDownLatch(1);
+        when(customerClient.getCustomerById(1L)).thenAnswer(invocation -> {
+            releaseCustomer.await(30, TimeUnit.SECONDS);
+            return testCustomerDTO;
+        });
+        when(productSnapshotCache.getProducts(Arrays.asList(1L))).thenReturn(Map.of());
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        ReflectionTestUtils.setField(billService, "billLookupExecutor", pool);
+        try {
+            // Act & Assert
+            long start = System.nanoTime();
+            InvalidBillDataException ex = assertThrows(InvalidBillDataException.class, () -> {
+                billService.createBill(testBillDTO);
+            });
+            assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+            assertEquals("Product not found with ID: 1", ex.getMessage());
+            verify(billRepository, never()).save(any(Bill.class));
+        } finally {
+            releaseCustomer.countDown();
+            pool.shutdownNow();
+        }
     }
 
     @Test
@@ -252,6 +415,20 @@ class BillServiceTest {
         verify(billRepository).save(any(Bill.class));
     }
 
+    @Test
+    void testUpdateBillStatus_CancelledReleasesStock() {
+        // Arrange
+        when(billRepository.findById(1L)).thenReturn(Optional.of(testBill));
+        when(billRepository.save(any(Bill.class))).thenReturn(testBill);
+
+        // Act
+        billService.updateBillStatus(1L, "CANCELLED");
+
+        // Assert
+        verify(stockReservations).release("BILL-20240829-0001");
+        verify(stockReservations, never()).confirm(anyString());
+    }
+
     @Test
     void testDeleteBill_Success() {
         // Arrange
@@ -266,6 +443,7 @@ class BillServiceTest {
         verify(billRepository).existsById(1L);
         verify(billRepository).findById(1L);
         verify(billRepository).deleteById(1L);
+        verify(stockReservations).release("BILL-20240829-0001");
     }
 
     @Test
@@ -296,7 +474,7 @@ class BillServiceTest {
         testBillDTO.setBillItems(Arrays.asList(goldItem));
 
         when(customerClient.getCustomerById(1L)).thenReturn(testCustomerDTO);
-        when(productClient.getProductById(1L)).thenReturn(testProductDTO);
+        when(productSnapshotCache.getProducts(Arrays.asList(1L))).thenReturn(Map.of(1L, snapshot(testProductDTO)));
         when(billRepository.save(any(Bill.class))).thenReturn(testBill);
         when(billItemRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBillItem));
 
@@ -330,8 +508,8 @@ class BillServiceTest {
         testBillDTO.setBillItems(Arrays.asList(item1, item2));
 
         when(customerClient.getCustomerById(1L)).thenReturn(testCustomerDTO);
-        when(productClient.getProductById(1L)).thenReturn(testProductDTO);
-        when(productClient.getProductById(2L)).thenReturn(testProductDTO);
+        ProductDTO secondProductDTO = new ProductDTO(2L, "silver", 15.0, 1.0, null, null);
+        when(productSnapshotCache.getProducts(Arrays.asList(1L, 2L))).thenReturn(Map.of(1L, snapshot(testProductDTO), 2L, snapshot(secondProductDTO)));
         when(billRepository.save(any(Bill.class))).thenReturn(testBill);
         when(billItemRepository.saveAll(anyList())).thenReturn(Arrays.asList(testBillItem));
 
@@ -345,4 +523,8 @@ class BillServiceTest {
         // Should have discount (5% of 15000 = 750)
         assertEquals(0, result.getDiscountAmount().compareTo(BigDecimal.valueOf(750.0)));
     }
-} 
\ No newline at end of file
+
+    private ProductSnapshot snapshot(ProductDTO product) {
+        return pricingEngine.snapshot(product);
+    }
+}
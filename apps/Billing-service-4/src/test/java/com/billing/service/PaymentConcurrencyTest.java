@@ -0,0 +1,233 @@
+package com.billing.service;
+
+import com.billing.analytics.VendorSalesAggregates;
+import com.billing.dto.PaymentDTO;
+import com.billing.entity.Bill;
+import com.billing.exception.PaymentConflictException;
+import com.billing.exception.PaymentProcessingException;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
+import com.billing.repository.BillRepository;
+import com.billing.repository.IdempotencyKeyRepository;
+import com.billing.repository.OutboxEventRepository;
+import com.billing.repository.PaymentRepository;
+import com.billing.repository.VendorSalesRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires hundreds of payments for one bill in parallel against H2, each in its own committed
+ * transaction, and checks that exactly one Payment row is written however they interleave.
+ */
+@DataJpaTest(properties = "billing.node-id=1")
+@Import({PaymentService.class, IdempotentPaymentService.class, IdempotencyKeyStore.class, ReferenceNumberGenerator.class,
+        BillingEventOutbox.class, VendorSalesAggregates.class, VendorSalesRepository.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentConcurrencyTest {
+
+    private static final int REQUESTS = 300;
+    private static final int THREADS = 32;
+
+    @MockitoBean
+    private StockReservations stockReservations;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private IdempotentPaymentService idempotentPaymentService;
+
+    @Autowired
+    private BillRepository billRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Bill bill;
+
+    @BeforeEach
+    void setUp() {
+        bill = new Bill();
+        bill.setCustomerId(1L);
+        bill.setVendorId(2L);
+        bill.setBillNumber("BILL-CONCURRENT-1");
+        bill.setBillDate(LocalDateTime.now());
+        bill.setStatus("PENDING");
+        bill.setTotalAmount(new BigDecimal("1500.00"));
+        bill = billRepository.save(bill);
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyKeyRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM vendor_daily_sales");
+        paymentRepository.deleteAll();
+        billRepository.deleteAll();
+    }
+
+    @Test
+    void testProcessPayment_SameKeyInParallel_OnePaymentAndSameResponse() throws Exception {
+        List<Object> outcomes = runInParallel(i -> idempotentPaymentService.processPayment("retry-key", payment()).payment());
+
+        Set<Long> paymentIds = ConcurrentHashMap.newKeySet();
+        for (Object outcome : outcomes) {
+            if (outcome instanceof PaymentDTO payment) {
+                paymentIds.add(payment.getPaymentId());
+            } else {
+                // only a retry racing the first request may be turned away, and then with 409
+                assertInstanceOf(PaymentConflictException.class, outcome);
+            }
+        }
+
+        assertEquals(1, paymentRepository.count());
+        assertEquals(Set.of(paymentRepository.findAll().get(0).getPaymentId()), paymentIds);
+        assertEquals(1, idempotencyKeyRepository.count());
+        assertEquals("PAID", billRepository.findById(bill.getBillId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testProcessPayment_DistinctKeysInParallel_OnePayment() throws Exception {
+        List<Object> outcomes = runInParallel(i -> idempotentPaymentService.processPayment("key-" + i, payment()).payment());
+
+        assertSingleWinner(outcomes);
+        assertEquals(1, idempotencyKeyRepository.count());
+    }
+
+    @Test
+    void testProcessPayment_WithoutKeyInParallel_OnePayment() throws Exception {
+        List<Object> outcomes = runInParallel(i -> paymentService.processPayment(payment()));
+
+        assertSingleWinner(outcomes);
+    }
+
+    @Test
+    void testProcessPayment_KeyReusedForDifferentRequest_Conflict() {
+        idempotentPaymentService.processPayment("reused-key", payment());
+
+        PaymentDTO other = payment();
+        other.setPaymentMethod("CASH");
+
+        assertThrows(PaymentConflictException.class, () -> idempotentPaymentService.processPayment("reused-key", other));
+        assertEquals(1, paymentRepository.count());
+    }
+
+    @Test
+    void testProcessPayment_KeyRowReplaysTheFirstResponseAfterARefund() {
+        PaymentDTO first = idempotentPaymentService.processPayment("refunded-key", payment()).payment();
+        paymentService.refundPayment(first.getPaymentId(), "Returned");
+
+        // What a replay reads once the in-memory entry has expired
+        PaymentDTO stored = idempotencyKeyStore.storedResponse(idempotencyKeyStore.findCompleted("refunded-key").orElseThrow());
+
+        assertEquals("REFUNDED", paymentService.getPaymentById(first.getPaymentId()).getStatus());
+        assertEquals("COMPLETED", stored.getStatus());
+        assertEquals(first.getPaymentId(), stored.getPaymentId());
+        assertEquals(first.getTransactionId(), stored.getTransactionId());
+        assertEquals(0, first.getAmount().compareTo(stored.getAmount()));
+        assertEquals(first.getPaymentDate(), stored.getPaymentDate());
+    }
+
+    private void assertSingleWinner(List<Object> outcomes) {
+        int succeeded = 0;
+        for (Object outcome : outcomes) {
+            if (outcome instanceof PaymentDTO) {
+                succeeded++;
+            } else {
+                // losers see the bill already paid, or lose the optimistic lock on it
+                assertTrue(outcome instanceof PaymentProcessingException
+                                || outcome instanceof PaymentConflictException
+                                || outcome instanceof ConcurrencyFailureException,
+                        "Unexpected failure: " + outcome);
+            }
+        }
+        assertEquals(1, succeeded);
+        assertEquals(1, paymentRepository.count());
+        assertEquals("PAID", billRepository.findById(bill.getBillId()).orElseThrow().getStatus());
+        // the BILL_PAID event commits or rolls back with its payment
+        assertEquals(1, outboxEventRepository.count());
+        assertEquals("BILL_PAID", outboxEventRepository.findAll().get(0).getEventType());
+        // and so does the move of the bill from the vendor's PENDING sales (never added here, hence -1) to PAID
+        assertEquals(List.of(1L, -1L), jdbcTemplate.queryForList(
+                "SELECT bill_count FROM vendor_daily_sales ORDER BY status", Long.class));
+    }
+
+    private PaymentDTO payment() {
+        PaymentDTO payment = new PaymentDTO();
+        payment.setBillId(bill.getBillId());
+        payment.setCustomerId(1L);
+        payment.setAmount(new BigDecimal("1500.00"));
+        payment.setPaymentMethod("CARD");
+        return payment;
+    }
+
+    private interface Attempt {
+        Object run(int index) throws Exception;
+    }
+
+    private List<Object> runInParallel(Attempt attempt) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Object> outcomes = new ArrayList<>();
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                int index = i;
+                Callable<Object> task = () -> {
+                    start.await();
+                    return attempt.run(index);
+                };
+                futures.add(pool.submit(task));
+            }
+            start.countDown();
+            for (Future<Object> future : futures) {
+                try {
+                    outcomes.add(future.get());
+                } catch (ExecutionException e) {
+                    outcomes.add(e.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return outcomes;
+    }
+}
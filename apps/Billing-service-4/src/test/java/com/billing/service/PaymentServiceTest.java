@@ -1,13 +1,18 @@
 package com.billing.service;
 
+import com.billing.analytics.VendorSalesAggregates;
 import com.billing.dto.PaymentDTO;
 import com.billing.entity.Bill;
 import com.billing.entity.Payment;
 import com.billing.exception.BillNotFoundException;
 import com.billing.exception.PaymentNotFoundException;
+import com.billing.exception.InsufficientStockException;
 import com.billing.exception.InvalidPaymentDataException;
 import com.billing.exception.PaymentProcessingException;
 import com.billing.exception.RefundProcessingException;
+import com.billing.idgen.ReferenceNumberGenerator;
+import com.billing.inventory.StockReservations;
+import com.billing.outbox.BillingEventOutbox;
 import com.billing.repository.BillRepository;
 import com.billing.repository.PaymentRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -36,6 +42,18 @@ class PaymentServiceTest {
     @Mock
     private BillRepository billRepository;
 
+    @Mock
+    private StockReservations stockReservations;
+
+    @Mock
+    private BillingEventOutbox billingEventOutbox;
+
+    @Mock
+    private VendorSalesAggregates vendorSalesAggregates;
+
+    @Spy
+    private ReferenceNumberGenerator referenceNumberGenerator = new ReferenceNumberGenerator(1);
+
     @InjectMocks
     private PaymentService paymentService;
 
@@ -64,6 +82,7 @@ class PaymentServiceTest {
 
         testBill = new Bill();
         testBill.setBillId(1L);
+        testBill.setBillNumber("BILL-20240829-0001");
         testBill.setCustomerId(1L);
         testBill.setStatus("PENDING");
         testBill.setTotalAmount(BigDecimal.valueOf(10300.0));
@@ -86,6 +105,21 @@ class PaymentServiceTest {
         verify(billRepository).findById(1L);
         verify(paymentRepository).save(any(Payment.class));
         verify(billRepository).save(any(Bill.class));
+        verify(stockReservations).confirm("BILL-20240829-0001");
+        verify(billingEventOutbox).billPaid(testBill, testPayment);
+    }
+
+    @Test
+    void testProcessPayment_StockNoLongerAvailable() {
+        // Arrange
+        when(billRepository.findById(1L)).thenReturn(Optional.of(testBill));
+        doThrow(new InsufficientStockException("Stock of bill BILL-20240829-0001 is no longer available"))
+                .when(stockReservations).confirm("BILL-20240829-0001");
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> paymentService.processPayment(testPaymentDTO));
+        verify(paymentRepository, never()).save(any(Payment.class));
+        verify(billRepository, never()).save(any(Bill.class));
     }
 
     @Test
@@ -256,6 +290,7 @@ class PaymentServiceTest {
         verify(paymentRepository).save(any(Payment.class));
         verify(billRepository).findById(1L);
         verify(billRepository).save(any(Bill.class));
+        verify(billingEventOutbox).paymentRefunded(testBill, testPayment);
     }
 
     @Test
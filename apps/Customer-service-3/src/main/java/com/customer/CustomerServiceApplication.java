@@ -1,15 +1,28 @@
 package com.customer;
 
+import java.util.Map;
+
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
+import com.jewelshop.contracts.loadbalancer.HealthAwareLoadBalancerConfiguration;
+
 @SpringBootApplication
 @EnableFeignClients
+@LoadBalancerClients(defaultConfiguration = HealthAwareLoadBalancerConfiguration.class)
 public class CustomerServiceApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(CustomerServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(CustomerServiceApplication.class);
+		// The catalogue listings may be shown a few minutes stale while Product-service is down;
+		// single products and stock may not. application.properties can override these
+		application.setDefaultProperties(Map.of(
+				"contracts.resilience.clients.Product-service.fallback-cache-size", "1000",
+				"contracts.resilience.clients.Product-service.fallback-cache-methods",
+				"getAllProducts,getProductsPage,getProductsByVendor"));
+		application.run(args);
 	}
 
 }
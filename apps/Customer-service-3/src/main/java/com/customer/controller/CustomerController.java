@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,19 +13,32 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.customer.dto.ProductDTO;
+import com.customer.dto.CustomerDashboardDTO;
 import com.customer.entity.Customer;
+import com.customer.exception.CustomerNotFoundException;
+import com.customer.service.CustomerDashboardService;
 import com.customer.service.CustomerService;
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.customer.CustomerContract;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+import com.jewelshop.contracts.verify.ServesContract;
 
 @RestController
-@RequestMapping("/api/customers")
+@RequestMapping(CustomerContract.BASE_PATH)
+@ServesContract(CustomerContract.class)
 public class CustomerController {
 
 	@Autowired
 	private CustomerService customerService;
 	
+	@Autowired
+	private CustomerDashboardService customerDashboardService;
+	
 	@PostMapping("/addCustomer")
 	public ResponseEntity<Customer> addCustomer(@RequestBody Customer customer){
 		Customer newCustomer=customerService.addCustomer(customer);
@@ -39,6 +53,28 @@ public class CustomerController {
 				:ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customer not found");
 	}
 	
+	@PostMapping("/batch")
+	public ResponseEntity<?> getCustomersByIds(@RequestBody List<Long> customerIds){
+		if(customerIds.size()>1000) {
+			return ResponseEntity.badRequest().body("At most 1000 customer ids per call");
+		}
+		List<CustomerDTO> customers=customerService.getCustomersByIds(customerIds);
+		return ResponseEntity.ok(customers);
+	}
+	
+	// Profile, products, recent bills and recent feedback in one round-trip; 200 with the missing
+	// sections listed in "unavailable" when Product, Billing or Feedback does not answer in time
+	@GetMapping("/{customerId}/dashboard")
+	public ResponseEntity<?> getDashboard(@PathVariable Long customerId){
+		try {
+			CustomerDashboardDTO dashboard=customerDashboardService.getDashboard(customerId);
+			return ResponseEntity.ok(dashboard);
+		}
+		catch(CustomerNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customer not found");
+		}
+	}
+	
 	@PutMapping("/{customerId}")
 	public ResponseEntity<?> updateCustomer(@PathVariable Long customerId, @RequestBody Customer customer){
 		customer.setCustomerId(customerId);
@@ -48,7 +84,7 @@ public class CustomerController {
 				:ResponseEntity.status(HttpStatus.NOT_FOUND).body("Customer details-null");
 	}
 	
-	@GetMapping("/product/{productId}") // Null is returned
+	@GetMapping("/product/{productId}")
 	public ResponseEntity<ProductDTO> viewProductById(@PathVariable Long productId){
 		ProductDTO product= customerService.viewProductById(productId);
 		return ResponseEntity.ok(product);
@@ -59,8 +95,21 @@ public class CustomerController {
 		List<ProductDTO> productList= customerService.viewAllProducts();
 		return ResponseEntity.ok(productList);
 	}
+
+	@GetMapping("/products/page")
+	public ResponseEntity<KeysetPage<ProductDTO>> viewProductsPage(@RequestParam(required = false) Long after,
+			@RequestParam(defaultValue = "100") int limit) {
+		KeysetPage<ProductDTO> page = customerService.viewProductsPage(after, Math.max(1, Math.min(limit, 1000)));
+		return ResponseEntity.ok(page);
+	}
+
+	@GetMapping(value = "/products/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+		StreamingResponseBody body = outputStream -> customerService.streamAllProducts(outputStream);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
 	
-	@GetMapping("/products/vendor/{vendorId}") // Null is returned
+	@GetMapping("/products/vendor/{vendorId}")
 	public ResponseEntity<List<ProductDTO>> viewProductsByVendor(@PathVariable Long vendorId){
 		List<ProductDTO> products=customerService.viewProductsByVendor(vendorId);
 		return ResponseEntity.ok(products);
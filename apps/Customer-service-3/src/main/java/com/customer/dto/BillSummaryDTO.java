@@ -0,0 +1,8 @@
+package com.customer.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BillSummaryDTO(Long billId, String billNumber, LocalDateTime billDate, BigDecimal totalAmount,
+		String status) {
+}
@@ -0,0 +1,14 @@
+package com.customer.dto;
+
+import java.util.List;
+
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+
+/**
+ * Everything the storefront home screen shows for a customer. A section whose service failed or
+ * timed out is null and named in {@code unavailable}; the others are still filled in.
+ */
+public record CustomerDashboardDTO(CustomerDTO customer, List<ProductDTO> products, List<BillSummaryDTO> recentBills,
+		List<FeedbackSummaryDTO> recentFeedback, List<String> unavailable) {
+}
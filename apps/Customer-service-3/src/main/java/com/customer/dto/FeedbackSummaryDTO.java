@@ -0,0 +1,5 @@
+package com.customer.dto;
+
+public record FeedbackSummaryDTO(Long feedbackId, Long productId, String productName, String feedback,
+		Integer rating) {
+}
@@ -1,10 +0,0 @@
-package com.customer.dto;
-
-import lombok.Getter;
-
-public class ProductDTO {
-	
-	@Getter
-	private Long productId;
-
-}
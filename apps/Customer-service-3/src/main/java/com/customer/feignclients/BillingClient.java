@@ -0,0 +1,20 @@
+package com.customer.feignclients;
+
+import java.util.List;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.customer.dto.BillSummaryDTO;
+import com.jewelshop.contracts.ServiceNames;
+
+// Billing has no shared contract; only the bill fields the dashboard shows are decoded
+@FeignClient(name = ServiceNames.BILLING)
+public interface BillingClient {
+
+	@GetMapping("/api/bills/customer/{customerId}")
+	List<BillSummaryDTO> getBillsByCustomerId(@PathVariable("customerId") Long customerId, @RequestParam("limit") int limit);
+
+}
@@ -0,0 +1,20 @@
+package com.customer.feignclients;
+
+import java.util.List;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.customer.dto.FeedbackSummaryDTO;
+import com.jewelshop.contracts.ServiceNames;
+
+// Feedback has no shared contract; only the fields the dashboard shows are decoded
+@FeignClient(name = ServiceNames.FEEDBACK)
+public interface FeedbackClient {
+
+	@GetMapping("/api/feedback/customer/{customerId}")
+	List<FeedbackSummaryDTO> getFeedbackByCustomerId(@PathVariable("customerId") Long customerId, @RequestParam("limit") int limit);
+
+}
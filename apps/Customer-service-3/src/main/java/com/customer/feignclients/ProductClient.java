@@ -1,23 +1,18 @@
 package com.customer.feignclients;
 
-import java.util.List;
-
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
-import com.customer.dto.ProductDTO;
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.product.ProductContract;
+
+import feign.Response;
+
+@FeignClient(name = ServiceNames.PRODUCT)
+public interface ProductClient extends ProductContract {
 
-@FeignClient(name="product-service")
-public interface ProductClient {
-	
-	@GetMapping("/api/products/{productId}")
-	ProductDTO getProductById(@PathVariable Long productId);
-	
-	@GetMapping("/api/products/vendor/{vendorId}")
-	List<ProductDTO> getProductsByVendor(@PathVariable Long vendorId);
-	
-	@GetMapping("/api/products/getAll")
-	List<ProductDTO> getAllProducts();
+	// Raw response so the NDJSON body can be relayed without decoding it
+	@GetMapping(BASE_PATH + "/stream")
+	Response streamAllProducts();
 
 }
@@ -0,0 +1,142 @@
+package com.customer.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.stereotype.Service;
+
+import com.customer.dto.BillSummaryDTO;
+import com.customer.dto.CustomerDashboardDTO;
+import com.customer.dto.FeedbackSummaryDTO;
+import com.customer.entity.Customer;
+import com.customer.exception.CustomerNotFoundException;
+import com.customer.feignclients.BillingClient;
+import com.customer.feignclients.FeedbackClient;
+import com.customer.feignclients.ProductClient;
+import com.customer.repository.CustomerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jewelshop.contracts.product.ProductDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the storefront home screen in one call. The profile is read locally; products, recent
+ * bills and recent feedback are fetched from their services in parallel on the application task
+ * executor, each with its own timeout. Billing and Feedback are asked for only the newest
+ * {@code recent} rows, so a long history is never downloaded to show five entries. A section that fails or times out is left out and named in
+ * {@code unavailable} instead of failing the whole response.
+ * <p>
+ * Complete dashboards are cached for {@code cache-ttl}; partial ones are not, so the next request
+ * tries the missing service again.
+ */
+@Service
+@Slf4j
+public class CustomerDashboardService {
+
+	static final String PRODUCTS = "products";
+	static final String BILLS = "bills";
+	static final String FEEDBACK = "feedback";
+
+	private final CustomerRepository customerRepo;
+	private final ProductClient productClient;
+	private final BillingClient billingClient;
+	private final FeedbackClient feedbackClient;
+	private final Executor executor;
+	private final int productLimit;
+	private final int recentLimit;
+	private final Duration productsTimeout;
+	private final Duration billsTimeout;
+	private final Duration feedbackTimeout;
+	private final Cache<Long, CustomerDashboardDTO> dashboards;
+
+	public CustomerDashboardService(CustomerRepository customerRepo,
+			ProductClient productClient,
+			BillingClient billingClient,
+			FeedbackClient feedbackClient,
+			@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor,
+			@Value("${customer.dashboard.products:12}") int productLimit,
+			@Value("${customer.dashboard.recent:5}") int recentLimit,
+			@Value("${customer.dashboard.products-timeout:800ms}") Duration productsTimeout,
+			@Value("${customer.dashboard.bills-timeout:1s}") Duration billsTimeout,
+			@Value("${customer.dashboard.feedback-timeout:1s}") Duration feedbackTimeout,
+			@Value("${customer.dashboard.cache-ttl:10s}") Duration cacheTtl,
+			@Value("${customer.dashboard.cache-max-size:10000}") long cacheMaxSize) {
+		this.customerRepo = customerRepo;
+		this.productClient = productClient;
+		this.billingClient = billingClient;
+		this.feedbackClient = feedbackClient;
+		this.executor = executor;
+		this.productLimit = productLimit;
+		this.recentLimit = recentLimit;
+		this.productsTimeout = productsTimeout;
+		this.billsTimeout = billsTimeout;
+		this.feedbackTimeout = feedbackTimeout;
+		this.dashboards = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterWrite(cacheTtl).build();
+	}
+
+	public CustomerDashboardDTO getDashboard(Long customerId) {
+		CustomerDashboardDTO cached = dashboards.getIfPresent(customerId);
+		if (cached != null) {
+			return cached;
+		}
+		Customer customer = customerRepo.findById(customerId)
+				.orElseThrow(() -> new CustomerNotFoundException("Customer with " + customerId + " is not found"));
+
+		CompletableFuture<List<ProductDTO>> products = leg(PRODUCTS, customerId, productsTimeout,
+				() -> productClient.getProductsPage(null, productLimit).items());
+		CompletableFuture<List<BillSummaryDTO>> bills = leg(BILLS, customerId, billsTimeout,
+				() -> billingClient.getBillsByCustomerId(customerId, recentLimit));
+		CompletableFuture<List<FeedbackSummaryDTO>> feedback = leg(FEEDBACK, customerId, feedbackTimeout,
+				() -> feedbackClient.getFeedbackByCustomerId(customerId, recentLimit));
+		CompletableFuture.allOf(products, bills, feedback).join();
+
+		List<String> unavailable = new ArrayList<>();
+		if (products.join() == null) {
+			unavailable.add(PRODUCTS);
+		}
+		if (bills.join() == null) {
+			unavailable.add(BILLS);
+		}
+		if (feedback.join() == null) {
+			unavailable.add(FEEDBACK);
+		}
+		CustomerDashboardDTO dashboard = new CustomerDashboardDTO(CustomerService.toDTO(customer), products.join(),
+				bills.join(), feedback.join(), unavailable);
+		if (unavailable.isEmpty()) {
+			dashboards.put(customerId, dashboard);
+		}
+		return dashboard;
+	}
+
+	/** Drops the cached dashboard after the customer's own details change. */
+	public void evict(Long customerId) {
+		dashboards.invalidate(customerId);
+	}
+
+	// Completes with null when the call fails or outlives its timeout; a timed-out call is not
+	// interrupted and finishes on its own, bounded by the Feign read timeout
+	private <T> CompletableFuture<T> leg(String name, Long customerId, Duration timeout, Supplier<T> call) {
+		return CompletableFuture.supplyAsync(call, executor)
+				.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+				.exceptionally(e -> {
+					Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+					if (cause instanceof TimeoutException) {
+						log.warn("Dashboard {} of customer {} timed out after {}", name, customerId, timeout);
+					} else {
+						log.warn("Dashboard {} of customer {} failed: {}", name, customerId, cause.toString());
+					}
+					return null;
+				});
+	}
+}
@@ -1,15 +1,23 @@
 package com.customer.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.customer.repository.CustomerRepository;
-import com.customer.dto.ProductDTO;
 import com.customer.entity.Customer;
 import com.customer.exception.CustomerNotFoundException;
 import com.customer.feignclients.ProductClient;
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+
+import feign.Response;
 
 @Service
 public class CustomerService {
@@ -20,6 +28,9 @@ public class CustomerService {
 	@Autowired
 	private ProductClient productClient;
 	
+	@Autowired
+	private CustomerDashboardService customerDashboardService;
+	
 	
 	public Customer addCustomer(Customer customer) {
 		return customerRepo.save(customer);
@@ -30,9 +41,23 @@ public class CustomerService {
 				.orElseThrow(()-> new CustomerNotFoundException("Customer with "+customerId+" is not found"));
 	}
 	
+	// Public details only, without the password; unknown ids are skipped
+	public List<CustomerDTO> getCustomersByIds(List<Long> customerIds) {
+		return customerRepo.findAllById(customerIds).stream()
+				.map(CustomerService::toDTO)
+				.collect(Collectors.toList());
+	}
+	
+	static CustomerDTO toDTO(Customer customer) {
+		return new CustomerDTO(customer.getCustomerId(), customer.getFirstName(),
+				customer.getLastName(), customer.getEmailId(), customer.getPhoneNo());
+	}
+	
 	public Customer updateCustomer(Customer customer) {
 		if(customerRepo.existsById(customer.getCustomerId())) {
-			return customerRepo.save(customer);
+			Customer saved=customerRepo.save(customer);
+			customerDashboardService.evict(customer.getCustomerId());
+			return saved;
 		}
 		else {
 			throw new CustomerNotFoundException("Customer with "+customer.getCustomerId()+" is not found");
@@ -42,6 +67,7 @@ public class CustomerService {
 	public void deleteCustomer(Long customerId) {
 		if(customerRepo.existsById(customerId)) {
 			customerRepo.deleteById(customerId);
+			customerDashboardService.evict(customerId);
 		}
 		else {
 			throw new CustomerNotFoundException("Customer with "+customerId+" is not found");
@@ -55,6 +81,17 @@ public class CustomerService {
 	public List<ProductDTO> viewAllProducts(){
 		return productClient.getAllProducts();
 	}
+
+	public KeysetPage<ProductDTO> viewProductsPage(Long after, int limit) {
+		return productClient.getProductsPage(after, limit);
+	}
+
+	public void streamAllProducts(OutputStream outputStream) throws IOException {
+		try (Response response = productClient.streamAllProducts();
+				InputStream body = response.body().asInputStream()) {
+			body.transferTo(outputStream);
+		}
+	}
 	
 	public List<ProductDTO> viewProductsByVendor(Long vendorId){
 		return productClient.getProductsByVendor(vendorId);
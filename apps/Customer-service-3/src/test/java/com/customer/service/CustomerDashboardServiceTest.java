@@ -0,0 +1,176 @@
+package com.customer.service;
+
+import com.customer.dto.BillSummaryDTO;
+import com.customer.dto.CustomerDashboardDTO;
+import com.customer.dto.FeedbackSummaryDTO;
+import com.customer.entity.Customer;
+import com.customer.exception.CustomerNotFoundException;
+import com.customer.feignclients.BillingClient;
+import com.customer.feignclients.FeedbackClient;
+import com.customer.feignclients.ProductClient;
+import com.customer.repository.CustomerRepository;
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.product.ProductDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CustomerDashboardServiceTest {
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final ProductClient productClient = mock(ProductClient.class);
+    private final BillingClient billingClient = mock(BillingClient.class);
+    private final FeedbackClient feedbackClient = mock(FeedbackClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private CustomerDashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = new CustomerDashboardService(customerRepository, productClient, billingClient, feedbackClient,
+                executor, 12, 3, Duration.ofMillis(500), Duration.ofMillis(500), Duration.ofMillis(500),
+                Duration.ofSeconds(10), 100);
+
+        Customer customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setFirstName("John");
+        customer.setLastName("Doe");
+        customer.setPassword("password123");
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+        when(productClient.getProductsPage(isNull(), eq(12)))
+                .thenReturn(new KeysetPage<>(List.of(new ProductDTO(10L, "Gold", 12.5, 1.0, null, 7L)), 10L));
+        when(billingClient.getBillsByCustomerId(1L, 3)).thenReturn(LongStream.of(5, 4, 3)
+                .mapToObj(day -> new BillSummaryDTO(day, "BILL-" + day, LocalDateTime.of(2024, 1, (int) day, 10, 0),
+                        BigDecimal.TEN, "PAID"))
+                .collect(Collectors.toList()));
+        when(feedbackClient.getFeedbackByCustomerId(1L, 3)).thenReturn(LongStream.of(5, 4, 3)
+                .mapToObj(id -> new FeedbackSummaryDTO(id, 10L, "Gold Ring", "Lovely", 5))
+                .collect(Collectors.toList()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testGetDashboard_AllSectionsAsksForOnlyTheRecentRows() {
+        // Act
+        CustomerDashboardDTO dashboard = dashboardService.getDashboard(1L);
+
+        // Assert
+        assertEquals("John", dashboard.customer().firstName());
+        assertEquals(1, dashboard.products().size());
+        assertEquals(List.of(5L, 4L, 3L), dashboard.recentBills().stream().map(BillSummaryDTO::billId).toList());
+        assertEquals(List.of(5L, 4L, 3L),
+                dashboard.recentFeedback().stream().map(FeedbackSummaryDTO::feedbackId).toList());
+        assertTrue(dashboard.unavailable().isEmpty());
+        verify(billingClient).getBillsByCustomerId(1L, 3);
+        verify(feedbackClient).getFeedbackByCustomerId(1L, 3);
+    }
+
+    @Test
+    void testGetDashboard_LegsRunInParallel() {
+        // Arrange
+        stubSlow(300);
+
+        // Act
+        long start = System.nanoTime();
+        CustomerDashboardDTO dashboard = dashboardService.getDashboard(1L);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert: three 300 ms calls one after another would take 900 ms
+        assertTrue(dashboard.unavailable().isEmpty());
+        assertTrue(millis < 600, "dashboard took " + millis + " ms");
+    }
+
+    @Test
+    void testGetDashboard_SlowOrFailingLegLeavesPartialResponse() {
+        // Arrange
+        when(billingClient.getBillsByCustomerId(1L, 3)).thenAnswer(invocation -> {
+            Thread.sleep(2000);
+            return List.of();
+        });
+        when(feedbackClient.getFeedbackByCustomerId(1L, 3)).thenThrow(new IllegalStateException("Feedback-service down"));
+
+        // Act
+        long start = System.nanoTime();
+        CustomerDashboardDTO dashboard = dashboardService.getDashboard(1L);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertEquals(List.of("bills", "feedback"), dashboard.unavailable());
+        assertNull(dashboard.recentBills());
+        assertNull(dashboard.recentFeedback());
+        assertEquals(1, dashboard.products().size());
+        assertEquals("Doe", dashboard.customer().lastName());
+        assertTrue(millis < 1500, "dashboard waited " + millis + " ms for the slow leg");
+    }
+
+    @Test
+    void testGetDashboard_CompleteResponseIsCachedUntilEvicted() {
+        // Act
+        CustomerDashboardDTO first = dashboardService.getDashboard(1L);
+        CustomerDashboardDTO second = dashboardService.getDashboard(1L);
+
+        // Assert
+        assertSame(first, second);
+        verify(billingClient, times(1)).getBillsByCustomerId(1L, 3);
+
+        dashboardService.evict(1L);
+        dashboardService.getDashboard(1L);
+        verify(billingClient, times(2)).getBillsByCustomerId(1L, 3);
+    }
+
+    @Test
+    void testGetDashboard_PartialResponseIsNotCached() {
+        // Arrange
+        when(feedbackClient.getFeedbackByCustomerId(1L, 3))
+                .thenThrow(new IllegalStateException("Feedback-service down"))
+                .thenReturn(List.of());
+
+        // Act
+        CustomerDashboardDTO first = dashboardService.getDashboard(1L);
+        CustomerDashboardDTO second = dashboardService.getDashboard(1L);
+
+        // Assert
+        assertEquals(List.of("feedback"), first.unavailable());
+        assertTrue(second.unavailable().isEmpty());
+        assertTrue(second.recentFeedback().isEmpty());
+    }
+
+    @Test
+    void testGetDashboard_UnknownCustomerCallsNoService() {
+        // Act & Assert
+        assertThrows(CustomerNotFoundException.class, () -> dashboardService.getDashboard(2L));
+        verifyNoInteractions(productClient, billingClient, feedbackClient);
+    }
+
+    private void stubSlow(long millis) {
+        when(productClient.getProductsPage(isNull(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return new KeysetPage<>(List.<ProductDTO>of(), null);
+        });
+        when(billingClient.getBillsByCustomerId(1L, 3)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return List.of();
+        });
+        when(feedbackClient.getFeedbackByCustomerId(1L, 3)).thenAnswer(invocation -> {
+            Thread.sleep(millis);
+            return List.of();
+        });
+    }
+}
@@ -1,10 +1,12 @@
 package com.customer.service;
 
-import com.customer.dto.ProductDTO;
 import com.customer.entity.Customer;
 import com.customer.exception.CustomerNotFoundException;
 import com.customer.feignclients.ProductClient;
 import com.customer.repository.CustomerRepository;
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,7 +14,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import feign.Request;
+import feign.Response;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +37,9 @@ class CustomerServiceTest {
     @Mock
     private ProductClient productClient;
 
+    @Mock
+    private CustomerDashboardService customerDashboardService;
+
     @InjectMocks
     private CustomerService customerService;
 
@@ -46,8 +57,7 @@ class CustomerServiceTest {
         testCustomer.setPhoneNo("1234567890");
         testCustomer.setPassword("password123");
 
-        testProductDTO = new ProductDTO();
-        // ProductDTO only has productId field in Customer service
+        testProductDTO = new ProductDTO(1L, "Gold", 0, 0, null, 1L);
     }
 
     @Test
@@ -81,6 +91,18 @@ class CustomerServiceTest {
         verify(customerRepository).findById(1L);
     }
 
+    @Test
+    void testGetCustomersByIds_LeavesOutPasswordAndUnknownIds() {
+        // Arrange
+        when(customerRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(testCustomer));
+
+        // Act
+        List<CustomerDTO> result = customerService.getCustomersByIds(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(List.of(new CustomerDTO(1L, "John", "Doe", "john.doe@example.com", "1234567890")), result);
+    }
+
     @Test
     void testGetCustomerById_NotFound() {
         // Arrange
@@ -140,6 +162,7 @@ class CustomerServiceTest {
         // Assert
         verify(customerRepository).existsById(1L);
         verify(customerRepository).deleteById(1L);
+        verify(customerDashboardService).evict(1L);
     }
 
     @Test
@@ -165,14 +188,14 @@ class CustomerServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals(1L, result.getProductId());
+        assertEquals(1L, result.productId());
         verify(productClient).getProductById(1L);
     }
 
     @Test
     void testViewAllProducts_Success() {
         // Arrange
-        ProductDTO product2 = new ProductDTO();
+        ProductDTO product2 = new ProductDTO(2L, "Silver", 0, 0, null, 1L);
         
         List<ProductDTO> products = Arrays.asList(testProductDTO, product2);
         when(productClient.getAllProducts()).thenReturn(products);
@@ -186,10 +209,45 @@ class CustomerServiceTest {
         verify(productClient).getAllProducts();
     }
 
+    @Test
+    void testViewProductsPage_PassesCursorThrough() {
+        // Arrange
+        KeysetPage<ProductDTO> page = new KeysetPage<>(Arrays.asList(testProductDTO), 42L);
+        when(productClient.getProductsPage(10L, 1)).thenReturn(page);
+
+        // Act
+        KeysetPage<ProductDTO> result = customerService.viewProductsPage(10L, 1);
+
+        // Assert
+        assertEquals(1, result.items().size());
+        assertEquals(42L, result.nextCursor());
+        verify(productClient, never()).getAllProducts();
+    }
+
+    @Test
+    void testStreamAllProducts_RelaysBody() throws Exception {
+        // Arrange
+        String ndjson = "{\"productId\":1}\n{\"productId\":2}\n";
+        Response response = Response.builder()
+                .status(200)
+                .request(Request.create(Request.HttpMethod.GET, "/api/products/stream",
+                        Collections.emptyMap(), null, StandardCharsets.UTF_8, null))
+                .body(ndjson, StandardCharsets.UTF_8)
+                .build();
+        when(productClient.streamAllProducts()).thenReturn(response);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        customerService.streamAllProducts(out);
+
+        // Assert
+        assertEquals(ndjson, out.toString(StandardCharsets.UTF_8));
+    }
+
     @Test
     void testViewProductsByVendor_Success() {
         // Arrange
-        ProductDTO product2 = new ProductDTO();
+        ProductDTO product2 = new ProductDTO(2L, "Silver", 0, 0, null, 1L);
         
         List<ProductDTO> products = Arrays.asList(testProductDTO, product2);
         when(productClient.getProductsByVendor(1L)).thenReturn(products);
@@ -2,10 +2,16 @@ package com.feedback;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.jewelshop.contracts.loadbalancer.HealthAwareLoadBalancerConfiguration;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
+@LoadBalancerClients(defaultConfiguration = HealthAwareLoadBalancerConfiguration.class)
 public class FeedbackService5Application {
 
 	public static void main(String[] args) {
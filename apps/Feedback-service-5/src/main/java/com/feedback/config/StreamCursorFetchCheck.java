@@ -0,0 +1,42 @@
+package com.feedback.config;
+
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Start-up check for the feedback export. {@code FeedbackRepository.streamAll()} sets a fetch
+ * size, but on MySQL that only opens a server-side cursor when the URL carries
+ * {@code useCursorFetch=true}; otherwise all feedback is loaded before {@code GET /stream} writes.
+ */
+@Component
+@Slf4j
+public class StreamCursorFetchCheck {
+
+	private static final Pattern CURSOR_FETCH = Pattern.compile("[?&]useCursorFetch=true(&|$)",
+			Pattern.CASE_INSENSITIVE);
+
+	private final String url;
+
+	public StreamCursorFetchCheck(@Value("${spring.datasource.url:}") String url) {
+		this.url = url;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void check() {
+		if (missesCursorFetch(url)) {
+			log.warn("spring.datasource.url has no useCursorFetch=true: /api/feedback/stream will buffer all feedback "
+					+ "in memory before writing the first row");
+		}
+	}
+
+	// Other drivers stream with the fetch size alone
+	static boolean missesCursorFetch(String url) {
+		return url.startsWith("jdbc:mysql:") && !CURSOR_FETCH.matcher(url).find();
+	}
+}
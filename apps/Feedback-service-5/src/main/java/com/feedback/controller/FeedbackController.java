@@ -1,18 +1,31 @@
 package com.feedback.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.feedback.dto.FeedbackSearchResult;
+import com.feedback.dto.ProductRatingDTO;
 import com.feedback.entity.Feedback;
+import com.feedback.exception.FeedbackException;
 import com.feedback.service.FeedbackService;
+import com.jewelshop.contracts.KeysetPage;
 
 @RestController
 @RequestMapping("/api/feedback")
@@ -20,19 +33,29 @@ public class FeedbackController {
 	
 	@Autowired
 	private FeedbackService feedbackService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
 	
 	
 	//add feedback
 	@PostMapping("/add")
-	public ResponseEntity<Feedback> addFeedback(@RequestBody Feedback feedback)  {
-	      Feedback addedfeedback = feedbackService.addFeedback(feedback);
-	      return ResponseEntity.ok(addedfeedback);
-	       
+	public ResponseEntity<?> addFeedback(@RequestBody Feedback feedback)  {
+	      try {
+	    	  Feedback addedfeedback = feedbackService.addFeedback(feedback);
+	    	  return ResponseEntity.ok(addedfeedback);
+	      } catch (FeedbackException e) {
+	    	  return ResponseEntity.badRequest().body(e.getMessage());
+	      }
 	}
 
-    // Get feedback by customer ID
+    // Get feedback by customer ID; with a limit, only the newest that many (at most 100)
       @GetMapping("/customer/{customerId}")
-      public ResponseEntity<List<Feedback>> getFeedbackByCustomerId(@PathVariable Long customerId ){
+      public ResponseEntity<List<Feedback>> getFeedbackByCustomerId(@PathVariable Long customerId,
+    		  @RequestParam(required = false) Integer limit) {
+    	  if (limit != null) {
+    		  return ResponseEntity.ok(feedbackService.getRecentFeedbackByCustomerId(customerId, Math.max(1, Math.min(limit, 100))));
+    	  }
     	  List<Feedback> feedbackList=feedbackService.getFeedBackByCustomerId(customerId);
     	  return ResponseEntity.ok(feedbackList);
       }
@@ -41,4 +64,55 @@ public class FeedbackController {
       public ResponseEntity<List<Feedback>> getAllfeedback(){
     	  return ResponseEntity.ok(feedbackService.getAllFeedback());
       }
-}
\ No newline at end of file
+
+      @GetMapping("/page")
+      public ResponseEntity<KeysetPage<Feedback>> getPage(@RequestParam(required = false) Long after,
+    		  @RequestParam(defaultValue = "100") int limit) {
+    	  return ResponseEntity.ok(feedbackService.getFeedbackPage(after, Math.max(1, Math.min(limit, 1000))));
+      }
+
+      // Full-text search over feedback text and product name; offset + limit stay within the first 10000 hits
+      @GetMapping("/search")
+      public ResponseEntity<FeedbackSearchResult> search(@RequestParam String q,
+    		  @RequestParam(defaultValue = "0") int offset, @RequestParam(defaultValue = "20") int limit) {
+    	  if (q.isBlank()) {
+    		  return ResponseEntity.badRequest().build();
+    	  }
+    	  int pageSize = Math.max(1, Math.min(limit, 100));
+    	  return ResponseEntity.ok(feedbackService.searchFeedback(q, Math.max(0, Math.min(offset, 10000 - pageSize)), pageSize));
+      }
+
+      // Rating aggregates of many products in one call (body: JSON array of product IDs, at most 1000)
+      @PostMapping("/ratings")
+      public ResponseEntity<List<ProductRatingDTO>> getProductRatings(@RequestBody List<Long> productIds) {
+    	  if (productIds.size() > 1000) {
+    		  return ResponseEntity.badRequest().build();
+    	  }
+    	  return ResponseEntity.ok(feedbackService.getProductRatings(productIds));
+      }
+
+      @GetMapping("/ratings/top")
+      public ResponseEntity<List<ProductRatingDTO>> getMostRatedProducts(@RequestParam(defaultValue = "10") int limit) {
+    	  return ResponseEntity.ok(feedbackService.getMostRatedProducts(Math.max(1, Math.min(limit, 100))));
+      }
+
+      @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+      public ResponseEntity<StreamingResponseBody> streamAll() {
+    	  StreamingResponseBody body = outputStream -> writeNdjson(outputStream);
+    	  return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+      }
+
+      private void writeNdjson(OutputStream outputStream) throws IOException {
+    	  try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+    		  generator.setRootValueSeparator(null);
+    		  feedbackService.streamAllFeedback(feedback -> {
+    			  try {
+    				  generator.writeObject(feedback);
+    				  generator.writeRaw('\n');
+    			  } catch (IOException e) {
+    				  throw new UncheckedIOException(e);
+    			  }
+    		  });
+    	  }
+      }
+}
@@ -0,0 +1,23 @@
+package com.feedback.dto;
+
+import java.util.List;
+
+import com.feedback.entity.Feedback;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedbackSearchResult {
+
+	private String query;
+	// Number of matching feedback entries; results holds the page from offset, best match first
+	private long total;
+	private int offset;
+	private int limit;
+	private List<Feedback> results;
+
+}
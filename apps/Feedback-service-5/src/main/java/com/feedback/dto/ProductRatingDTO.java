@@ -0,0 +1,21 @@
+package com.feedback.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductRatingDTO {
+
+	private Long productId;
+	private long feedbackCount;
+	// Mean of the ratings to two decimals; 0 when the product has none
+	private double averageRating;
+	// Number of ratings per star, 1 to 5
+	private Map<Integer, Long> histogram;
+
+}
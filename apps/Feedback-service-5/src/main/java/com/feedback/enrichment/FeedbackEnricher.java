@@ -0,0 +1,263 @@
+package com.feedback.enrichment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.feedback.entity.Feedback;
+import com.feedback.entity.FeedbackEnrichment;
+import com.feedback.feignclient.CustomerClient;
+import com.feedback.feignclient.ProductClient;
+import com.feedback.repository.FeedbackEnrichmentRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.search.FeedbackSearchIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fills in the customer and product names of queued feedback in the background, so saving
+ * feedback never waits for Customer or Product. Each batch goes through three steps, and no
+ * transaction or row lock is held while the other services are called:
+ * <ol>
+ * <li>claim: lock the due entries, push their {@code nextAttemptAt} past {@code claim-timeout} so
+ * no other instance takes them, and commit</li>
+ * <li>look up: one batch call per service for the names not already cached, through the Feign
+ * clients' circuit breakers and timeouts</li>
+ * <li>write back: a second short transaction sets the names and removes or reschedules the entries</li>
+ * </ol>
+ * An instance that dies between claim and write-back leaves its entries to be taken again once the
+ * claim times out.
+ * <p>
+ * A feedback whose lookups failed stays queued and is retried after {@code retry-delay}, doubling
+ * each time; after {@code max-attempts} it keeps the names it was submitted with. Names the other
+ * service does not know are cached as unknown, and the feedback keeps its own. A product name the
+ * customer typed is never replaced; the product is looked up only when none was given.
+ */
+@Component
+@Slf4j
+public class FeedbackEnricher {
+
+	private final FeedbackRepository feedbackRepository;
+	private final FeedbackEnrichmentRepository feedbackEnrichmentRepository;
+	private final CustomerClient customerClient;
+	private final ProductClient productClient;
+	private final FeedbackSearchIndex feedbackSearchIndex;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private final int maxAttempts;
+	private final Duration retryDelay;
+	private final Duration claimTimeout;
+	// Empty for IDs the other service does not know
+	private final Cache<Long, Optional<String>> customerNames;
+	private final Cache<Long, Optional<String>> productNames;
+
+	public FeedbackEnricher(FeedbackRepository feedbackRepository,
+			FeedbackEnrichmentRepository feedbackEnrichmentRepository,
+			CustomerClient customerClient,
+			ProductClient productClient,
+			FeedbackSearchIndex feedbackSearchIndex,
+			PlatformTransactionManager transactionManager,
+			@Value("${feedback.enrichment.batch-size:100}") int batchSize,
+			@Value("${feedback.enrichment.max-attempts:10}") int maxAttempts,
+			@Value("${feedback.enrichment.retry-delay:30s}") Duration retryDelay,
+			@Value("${feedback.enrichment.claim-timeout:60s}") Duration claimTimeout,
+			@Value("${feedback.enrichment.cache-ttl:10m}") Duration cacheTtl,
+			@Value("${feedback.enrichment.cache-max-size:10000}") long cacheMaxSize) {
+		this.feedbackRepository = feedbackRepository;
+		this.feedbackEnrichmentRepository = feedbackEnrichmentRepository;
+		this.customerClient = customerClient;
+		this.productClient = productClient;
+		this.feedbackSearchIndex = feedbackSearchIndex;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = batchSize;
+		this.maxAttempts = maxAttempts;
+		this.retryDelay = retryDelay;
+		this.claimTimeout = claimTimeout;
+		this.customerNames = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterWrite(cacheTtl).build();
+		this.productNames = Caffeine.newBuilder().maximumSize(cacheMaxSize).expireAfterWrite(cacheTtl).build();
+	}
+
+	/** Whether saved feedback has anything to look up, and so needs queueing. */
+	public static boolean needsEnrichment(Feedback feedback) {
+		return feedback.getCustomerId() != null || needsProductName(feedback);
+	}
+
+	private static boolean needsProductName(Feedback feedback) {
+		return feedback.getProductId() != null
+				&& (feedback.getProductName() == null || feedback.getProductName().isBlank());
+	}
+
+	@Scheduled(fixedDelayString = "${feedback.enrichment.poll-interval-ms:1000}")
+	public void poll() {
+		try {
+			enrich();
+		} catch (Exception e) {
+			log.warn("Could not enrich feedback, retrying on the next poll: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Works through the due queue entries a batch at a time.
+	 *
+	 * @return the number of entries taken, whether or not their lookups succeeded
+	 */
+	public int enrich() {
+		int total = 0;
+		int taken;
+		do {
+			List<Claim> claims = transactionTemplate.execute(status -> claimBatch());
+			taken = claims.size();
+			if (taken == 0) {
+				break;
+			}
+			Map<Long, Optional<String>> customers = lookUp(idsOf(claims, Claim::customerId), customerNames,
+					customerClient::getCustomersByIds, CustomerDTO::customerId, FeedbackEnricher::customerName, "customer");
+			Map<Long, Optional<String>> products = lookUp(idsOf(claims, Claim::productId), productNames,
+					productClient::getProductsByIds, ProductDTO::productId, FeedbackEnricher::productName, "product");
+			List<Feedback> enriched = transactionTemplate.execute(status -> writeBack(claims, customers, products));
+			// Committed, so the search index can pick up the new names
+			enriched.forEach(feedbackSearchIndex::indexAsync);
+			total += taken;
+		} while (taken == batchSize);
+		return total;
+	}
+
+	// What one claimed entry needs looked up; productId is null when the feedback has its own product name
+	private record Claim(Long feedbackId, Long customerId, Long productId) {
+	}
+
+	private List<Claim> claimBatch() {
+		LocalDateTime now = LocalDateTime.now();
+		List<FeedbackEnrichment> batch = feedbackEnrichmentRepository.lockDue(now, Limit.of(batchSize));
+		if (batch.isEmpty()) {
+			return List.of();
+		}
+		Map<Long, Feedback> feedbacks = feedbackRepository.findAllById(
+				batch.stream().map(FeedbackEnrichment::getFeedbackId).collect(Collectors.toList())).stream()
+				.collect(Collectors.toMap(Feedback::getFeedbackId, Function.identity()));
+		List<Claim> claims = new ArrayList<>();
+		for (FeedbackEnrichment entry : batch) {
+			Feedback feedback = feedbacks.get(entry.getFeedbackId());
+			if (feedback == null) {
+				feedbackEnrichmentRepository.delete(entry);
+				continue;
+			}
+			entry.setNextAttemptAt(now.plus(claimTimeout));
+			claims.add(new Claim(feedback.getFeedbackId(), feedback.getCustomerId(),
+					needsProductName(feedback) ? feedback.getProductId() : null));
+		}
+		return claims;
+	}
+
+	private List<Feedback> writeBack(List<Claim> claims, Map<Long, Optional<String>> customers,
+			Map<Long, Optional<String>> products) {
+		LocalDateTime now = LocalDateTime.now();
+		List<Long> ids = claims.stream().map(Claim::feedbackId).collect(Collectors.toList());
+		Map<Long, FeedbackEnrichment> entries = feedbackEnrichmentRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(FeedbackEnrichment::getFeedbackId, Function.identity()));
+		Map<Long, Feedback> feedbacks = feedbackRepository.findAllById(ids).stream()
+				.collect(Collectors.toMap(Feedback::getFeedbackId, Function.identity()));
+		List<Feedback> enriched = new ArrayList<>();
+		for (Claim claim : claims) {
+			FeedbackEnrichment entry = entries.get(claim.feedbackId());
+			Feedback feedback = feedbacks.get(claim.feedbackId());
+			if (entry == null) {
+				// Finished by another instance after our claim timed out, or the feedback was deleted
+				continue;
+			}
+			if (feedback == null) {
+				feedbackEnrichmentRepository.delete(entry);
+				continue;
+			}
+			boolean done = true;
+			boolean changed = false;
+			if (claim.customerId() != null) {
+				Optional<String> name = customers.get(claim.customerId());
+				done = name != null;
+				if (name != null && name.isPresent() && claim.customerId().equals(feedback.getCustomerId())) {
+					feedback.setCustomerName(name.get());
+					changed = true;
+				}
+			}
+			if (claim.productId() != null) {
+				Optional<String> name = products.get(claim.productId());
+				done &= name != null;
+				// Re-checked: the customer may have named the product while it was being looked up
+				if (name != null && name.isPresent() && claim.productId().equals(feedback.getProductId())
+						&& needsProductName(feedback)) {
+					feedback.setProductName(name.get());
+					changed = true;
+				}
+			}
+			if (changed) {
+				enriched.add(feedback);
+			}
+			if (done) {
+				feedbackEnrichmentRepository.delete(entry);
+			} else if (entry.getAttempts() + 1 >= maxAttempts) {
+				log.warn("Giving up on the names of feedback {} after {} attempts", entry.getFeedbackId(), maxAttempts);
+				feedbackEnrichmentRepository.delete(entry);
+			} else {
+				entry.setAttempts(entry.getAttempts() + 1);
+				entry.setNextAttemptAt(now.plus(retryDelay.multipliedBy(1L << Math.min(entry.getAttempts() - 1, 10))));
+			}
+		}
+		return enriched;
+	}
+
+	// Cached names plus one batch call for the rest; on failure the rest are left out and retried later
+	private <T> Map<Long, Optional<String>> lookUp(Set<Long> ids, Cache<Long, Optional<String>> cache,
+			Function<List<Long>, List<T>> fetch, Function<T, Long> idOf, Function<T, String> nameOf, String kind) {
+		Map<Long, Optional<String>> names = new HashMap<>(cache.getAllPresent(ids));
+		List<Long> missing = ids.stream().filter(id -> !names.containsKey(id)).collect(Collectors.toList());
+		if (missing.isEmpty()) {
+			return names;
+		}
+		try {
+			Map<Long, Optional<String>> fetched = new HashMap<>();
+			missing.forEach(id -> fetched.put(id, Optional.empty()));
+			for (T found : fetch.apply(missing)) {
+				fetched.put(idOf.apply(found), Optional.ofNullable(nameOf.apply(found)));
+			}
+			cache.putAll(fetched);
+			names.putAll(fetched);
+		} catch (RuntimeException e) {
+			log.warn("Could not look up {} {} names, retrying later: {}", missing.size(), kind, e.getMessage());
+		}
+		return names;
+	}
+
+	private static Set<Long> idsOf(List<Claim> claims, Function<Claim, Long> id) {
+		return claims.stream().map(id).filter(Objects::nonNull).collect(Collectors.toSet());
+	}
+
+	private static String customerName(CustomerDTO customer) {
+		return Stream.of(customer.firstName(), customer.lastName()).filter(Objects::nonNull)
+				.collect(Collectors.joining(" "));
+	}
+
+	// Products have no name of their own; the same label as on bills
+	private static String productName(ProductDTO product) {
+		return product.productMaterial() + " Jewelry (" + product.productWeight() + "g)";
+	}
+}
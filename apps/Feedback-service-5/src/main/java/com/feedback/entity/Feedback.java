@@ -1,11 +1,20 @@
 package com.feedback.entity;
 
+import java.time.LocalDateTime;
+
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
 
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_feedback_updated_at", columnList = "updatedAt, feedbackId"),
+		@Index(name = "idx_feedback_customer", columnList = "customerId, feedbackId") })
 public class Feedback {
 
 	@Id
@@ -15,6 +24,17 @@ public class Feedback {
 	private String customerName;
 	private String productName;
 	private String feedback;
+	// Optional 1-5 star rating of the product; counted in ProductRating
+	private Long productId;
+	private Integer rating;
+	// Set on every insert and update, including enrichment; the search index catch-up scans by it
+	private LocalDateTime updatedAt;
+
+	@PrePersist
+	@PreUpdate
+	void touch() {
+		updatedAt = LocalDateTime.now();
+	}
 	
 	public Long getFeedbackId() {
 		return feedbackId;
@@ -46,6 +66,24 @@ public class Feedback {
 	public void setFeedback(String feedback) {
 		this.feedback = feedback;
 	}
+	public Long getProductId() {
+		return productId;
+	}
+	public void setProductId(Long productId) {
+		this.productId = productId;
+	}
+	public Integer getRating() {
+		return rating;
+	}
+	public void setRating(Integer rating) {
+		this.rating = rating;
+	}
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+	public void setUpdatedAt(LocalDateTime updatedAt) {
+		this.updatedAt = updatedAt;
+	}
 	
 	
 	
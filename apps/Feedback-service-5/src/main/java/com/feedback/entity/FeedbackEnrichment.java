@@ -0,0 +1,29 @@
+package com.feedback.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Queue of feedback whose customer or product name is still to be looked up. The row is written
+ * with the feedback and deleted once the names are filled in or the lookups have given up.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_feedback_enrichment_due", columnList = "nextAttemptAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedbackEnrichment {
+
+	@Id
+	private Long feedbackId;
+	private int attempts;
+	private LocalDateTime nextAttemptAt;
+
+}
@@ -0,0 +1,32 @@
+package com.feedback.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Running totals of the ratings given to one product, one row per product. Only changed by the
+ * single-statement upsert in ProductRatingRepository, so concurrent feedback never loses a count.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_product_rating_count", columnList = "feedbackCount"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductRating {
+
+	@Id
+	private Long productId;
+	private long feedbackCount;
+	private long ratingSum;
+	private long oneStar;
+	private long twoStars;
+	private long threeStars;
+	private long fourStars;
+	private long fiveStars;
+
+}
@@ -1,15 +1,11 @@
 package com.feedback.feignclient;
 
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
-import com.feedback.dto.CustomerDTO;
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.customer.CustomerContract;
 
-@FeignClient(name = "customer-service")
-public interface CustomerClient {
-
-	@GetMapping("/api/customers/{customerId}")
-	CustomerDTO getCustomerById(@PathVariable("customerId") Long customerId);
+@FeignClient(name = ServiceNames.CUSTOMER)
+public interface CustomerClient extends CustomerContract {
 
 }
@@ -1,15 +1,11 @@
 package com.feedback.feignclient;
 
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
-import com.feedback.dto.ProductDTO;
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.product.ProductContract;
 
-@FeignClient(name = "product-service")
-public interface ProductClient {
-
-	@GetMapping("/api/products/{productId}")
-	ProductDTO getProductById(@PathVariable("productId") Long productId);
+@FeignClient(name = ServiceNames.PRODUCT)
+public interface ProductClient extends ProductContract {
 
 }
@@ -0,0 +1,24 @@
+package com.feedback.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.feedback.entity.FeedbackEnrichment;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface FeedbackEnrichmentRepository extends JpaRepository<FeedbackEnrichment, Long> {
+
+	// Held only while FeedbackEnricher claims the batch, so a second instance cannot claim the same rows
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT e FROM FeedbackEnrichment e WHERE e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.feedbackId")
+	List<FeedbackEnrichment> lockDue(@Param("now") LocalDateTime now, Limit limit);
+}
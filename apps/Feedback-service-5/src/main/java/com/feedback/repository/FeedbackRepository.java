@@ -1,13 +1,38 @@
 package com.feedback.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.feedback.entity.Feedback;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface FeedbackRepository extends JpaRepository<Feedback, Long> {
 	List<Feedback> findByCustomerId(Long customerId);
-} 
\ No newline at end of file
+
+	// Newest first, read backwards along idx_feedback_customer
+	List<Feedback> findByCustomerIdOrderByFeedbackIdDesc(Long customerId, Limit limit);
+
+	List<Feedback> findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(Long feedbackId, Limit limit);
+
+	// Keyset over (updatedAt, feedbackId), the order of idx_feedback_updated_at
+	@Query("SELECT f FROM Feedback f WHERE f.updatedAt > :since OR (f.updatedAt = :since AND f.feedbackId > :afterId)"
+			+ " ORDER BY f.updatedAt, f.feedbackId")
+	List<Feedback> findUpdatedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Limit limit);
+
+	@Query("SELECT f FROM Feedback f ORDER BY f.feedbackId")
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<Feedback> streamAll();
+}
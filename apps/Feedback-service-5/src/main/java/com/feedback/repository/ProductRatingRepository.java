@@ -0,0 +1,30 @@
+package com.feedback.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.feedback.entity.ProductRating;
+
+@Repository
+public interface ProductRatingRepository extends JpaRepository<ProductRating, Long> {
+
+	// One INSERT ... ON DUPLICATE KEY UPDATE on MySQL: the first rating creates the row, later ones
+	// add to it under its row lock, so concurrent ratings of a product are all counted
+	@Modifying
+	@Query("INSERT INTO ProductRating (productId, feedbackCount, ratingSum, oneStar, twoStars, threeStars, fourStars, fiveStars) "
+			+ "VALUES (:productId, 1, :rating, CASE WHEN :rating = 1 THEN 1 ELSE 0 END, CASE WHEN :rating = 2 THEN 1 ELSE 0 END, "
+			+ "CASE WHEN :rating = 3 THEN 1 ELSE 0 END, CASE WHEN :rating = 4 THEN 1 ELSE 0 END, CASE WHEN :rating = 5 THEN 1 ELSE 0 END) "
+			+ "ON CONFLICT (productId) DO UPDATE SET feedbackCount = feedbackCount + 1, ratingSum = ratingSum + excluded.ratingSum, "
+			+ "oneStar = oneStar + excluded.oneStar, twoStars = twoStars + excluded.twoStars, "
+			+ "threeStars = threeStars + excluded.threeStars, fourStars = fourStars + excluded.fourStars, "
+			+ "fiveStars = fiveStars + excluded.fiveStars")
+	int addRating(@Param("productId") Long productId, @Param("rating") int rating);
+
+	List<ProductRating> findByOrderByFeedbackCountDescRatingSumDesc(Limit limit);
+}
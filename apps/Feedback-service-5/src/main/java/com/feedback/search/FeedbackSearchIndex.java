@@ -0,0 +1,238 @@
+package com.feedback.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.feedback.entity.Feedback;
+import com.feedback.repository.FeedbackRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lucene index of the feedback text and product name, kept on local disk. FeedbackService hands
+ * every saved feedback to {@link #indexAsync}, which indexes it on a single background thread, so
+ * submissions never wait for Lucene; it becomes searchable once the queue has drained.
+ * <p>
+ * A catch-up scan picks up feedback saved or enriched through other instances. It reads by
+ * {@code updatedAt} from the latest one it has seen, stored in the index commit, minus
+ * {@code catch-up-overlap}: a row is stamped before its transaction commits, so one that commits
+ * late, or on an instance whose clock is behind, can carry an earlier time than rows already
+ * scanned. A new or deleted index is filled by a scan of every feedback by ID instead. Re-indexing
+ * a feedback replaces its document, so reading rows twice is harmless.
+ */
+@Component
+@Slf4j
+public class FeedbackSearchIndex {
+
+	static final String ID = "feedbackId";
+	static final String FEEDBACK = "feedback";
+	static final String PRODUCT_NAME = "productName";
+	private static final String SCANNED_UP_TO = "scannedUpTo";
+
+	private final FeedbackRepository feedbackRepository;
+	private final int catchUpBatchSize;
+	private final Duration catchUpOverlap;
+	private final Analyzer analyzer = new StandardAnalyzer();
+	private final Directory directory;
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+	private final ExecutorService indexer = Executors.newSingleThreadExecutor(task -> new Thread(task, "feedback-indexer"));
+	private final AtomicInteger queued = new AtomicInteger();
+	// Latest updatedAt read by a catch-up scan; null until the index has been filled
+	private volatile LocalDateTime scannedUpTo;
+
+	public FeedbackSearchIndex(FeedbackRepository feedbackRepository,
+			@Value("${feedback.search.index-dir:data/feedback-index}") Path indexDir,
+			@Value("${feedback.search.catch-up-batch-size:500}") int catchUpBatchSize,
+			@Value("${feedback.search.catch-up-overlap:1m}") Duration catchUpOverlap) throws IOException {
+		this.feedbackRepository = feedbackRepository;
+		this.catchUpBatchSize = catchUpBatchSize;
+		this.catchUpOverlap = catchUpOverlap;
+		directory = FSDirectory.open(indexDir);
+		writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+				.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+		searcherManager = new SearcherManager(writer, null);
+		Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+		if (commitData != null) {
+			for (Map.Entry<String, String> entry : commitData) {
+				// An index written before updatedAt existed has none, and is filled again
+				if (SCANNED_UP_TO.equals(entry.getKey())) {
+					scannedUpTo = LocalDateTime.parse(entry.getValue());
+				}
+			}
+		}
+	}
+
+	public void indexAsync(Feedback feedback) {
+		queued.incrementAndGet();
+		indexer.execute(() -> {
+			try {
+				writer.updateDocument(new Term(ID, feedback.getFeedbackId().toString()), toDocument(feedback));
+			} catch (IOException e) {
+				log.warn("Could not index feedback {}", feedback.getFeedbackId(), e);
+			} finally {
+				// Refresh and commit once per burst rather than once per feedback
+				if (queued.decrementAndGet() == 0) {
+					publish();
+				}
+			}
+		});
+	}
+
+	/** Indexes feedback saved or changed since the last scan, a batch at a time. */
+	@Scheduled(fixedDelayString = "${feedback.search.catch-up-ms:5000}")
+	public synchronized void catchUp() {
+		if (scannedUpTo == null) {
+			fill();
+			return;
+		}
+		LocalDateTime since = scannedUpTo.minus(catchUpOverlap);
+		long afterId = 0;
+		List<Feedback> batch;
+		do {
+			batch = feedbackRepository.findUpdatedSince(since, afterId, Limit.of(catchUpBatchSize));
+			index(batch);
+			if (!batch.isEmpty()) {
+				Feedback last = batch.get(batch.size() - 1);
+				since = last.getUpdatedAt();
+				afterId = last.getFeedbackId();
+				if (since.isAfter(scannedUpTo)) {
+					scannedUpTo = since;
+				}
+				publish();
+			}
+		} while (batch.size() == catchUpBatchSize);
+	}
+
+	// Indexes every feedback in ID order; rows changed while it runs are read again by the next scan,
+	// which starts an overlap before the time this one started
+	private void fill() {
+		LocalDateTime startedAt = LocalDateTime.now();
+		long lastId = 0;
+		List<Feedback> batch;
+		do {
+			batch = feedbackRepository.findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(lastId, Limit.of(catchUpBatchSize));
+			index(batch);
+			if (!batch.isEmpty()) {
+				lastId = batch.get(batch.size() - 1).getFeedbackId();
+				publish();
+			}
+		} while (batch.size() == catchUpBatchSize);
+		scannedUpTo = startedAt;
+		publish();
+	}
+
+	private void index(List<Feedback> batch) {
+		try {
+			for (Feedback feedback : batch) {
+				writer.updateDocument(new Term(ID, feedback.getFeedbackId().toString()), toDocument(feedback));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Matches the words of {@code text} in the feedback text or product name; every word must match.
+	 * Supports {@code "quoted phrases"}, {@code prefix*}, {@code -excluded} and {@code a | b}.
+	 */
+	public Hits search(String text, int offset, int limit) {
+		SimpleQueryParser parser = new SimpleQueryParser(analyzer, Map.of(FEEDBACK, 1f, PRODUCT_NAME, 2f));
+		parser.setDefaultOperator(BooleanClause.Occur.MUST);
+		Query query = parser.parse(text);
+		try {
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				TopDocs topDocs = searcher.search(query, offset + limit);
+				long total = topDocs.totalHits.relation == TotalHits.Relation.EQUAL_TO
+						? topDocs.totalHits.value
+						: searcher.count(query);
+				List<Long> feedbackIds = new ArrayList<>();
+				ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+				for (int i = offset; i < scoreDocs.length; i++) {
+					feedbackIds.add(Long.valueOf(searcher.storedFields().document(scoreDocs[i].doc, Set.of(ID)).get(ID)));
+				}
+				return new Hits(total, feedbackIds);
+			} finally {
+				searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@PreDestroy
+	public void close() throws IOException, InterruptedException {
+		indexer.shutdown();
+		indexer.awaitTermination(10, TimeUnit.SECONDS);
+		publish();
+		searcherManager.close();
+		writer.close();
+		directory.close();
+	}
+
+	// Makes the indexed feedback searchable and durable
+	private synchronized void publish() {
+		try {
+			searcherManager.maybeRefresh();
+			LocalDateTime upTo = scannedUpTo;
+			writer.setLiveCommitData(upTo == null ? Map.<String, String>of().entrySet()
+					: Map.of(SCANNED_UP_TO, upTo.toString()).entrySet());
+			writer.commit();
+		} catch (IOException e) {
+			log.warn("Could not commit the feedback search index", e);
+		}
+	}
+
+	private Document toDocument(Feedback feedback) {
+		Document document = new Document();
+		document.add(new StringField(ID, feedback.getFeedbackId().toString(), Field.Store.YES));
+		if (feedback.getFeedback() != null) {
+			document.add(new TextField(FEEDBACK, feedback.getFeedback(), Field.Store.NO));
+		}
+		if (feedback.getProductName() != null) {
+			document.add(new TextField(PRODUCT_NAME, feedback.getProductName(), Field.Store.NO));
+		}
+		return document;
+	}
+
+	/** IDs of one page of matches, best first, and the number of matches in all. */
+	public record Hits(long total, List<Long> feedbackIds) {
+	}
+}
@@ -1,61 +1,177 @@
 package com.feedback.service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import com.feedback.repository.FeedbackEnrichmentRepository;
 import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.ProductRatingRepository;
+import com.feedback.search.FeedbackSearchIndex;
+import com.feedback.dto.FeedbackSearchResult;
+import com.feedback.dto.ProductRatingDTO;
+import com.feedback.enrichment.FeedbackEnricher;
 import com.feedback.entity.Feedback;
+import com.feedback.entity.FeedbackEnrichment;
+import com.feedback.entity.ProductRating;
 import com.feedback.exception.FeedbackException;
-// import com.feedback.feignclient.CustomerClient;
-// import com.feedback.feignclient.ProductClient;
+import com.jewelshop.contracts.KeysetPage;
 
 @Service
 public class FeedbackService {
 	
 	@Autowired
 	private FeedbackRepository feedbackRepository;
+
+	@Autowired
+	private ProductRatingRepository productRatingRepository;
+
+	@Autowired
+	private FeedbackEnrichmentRepository feedbackEnrichmentRepository;
+
+	@Autowired
+	private FeedbackSearchIndex feedbackSearchIndex;
+
+	@PersistenceContext
+	private EntityManager entityManager;
 	
-	// @Autowired
-	// private ProductClient productClient;
-	
-	// @Autowired
-	// private CustomerClient customerClient;
-	
+	// The feedback, its rating and its place in the enrichment queue are saved together or not at all.
+	// Customer and product names are looked up later by FeedbackEnricher, so no remote call is made here
+	@Transactional
 	public Feedback addFeedback(Feedback feedback) {
-		
-//		CustomerDTO customer=customerClient.getCustomerById(feedback.getCustomerId());
-//		if(customer == null) {
-//			throw new RuntimeException("Customer not found");
-//		}
-		
-//		ProductDTO product=productClient.getProductById(productId);
-//		if(product==null){
-//			throw new RuntimeException("Product not found");
-//		}
-//		Feedback feedback= new Feedback();
-//		feedback.setCustomerId(customerId);
-//		feedback.setCustomerName(customer.getFirstName()+" "+customer.getLastName());
-//		feedback.setProductName(product.getProductName);
-//		feedback.setFeedback(feedbackContent);
-		return feedbackRepository.save(feedback);
+		if (feedback.getRating() != null) {
+			if (feedback.getRating() < 1 || feedback.getRating() > 5) {
+				throw new FeedbackException("Rating must be between 1 and 5");
+			}
+			if (feedback.getProductId() == null) {
+				throw new FeedbackException("A rating needs a productId");
+			}
+		}
+		Feedback savedFeedback = feedbackRepository.save(feedback);
+		if (savedFeedback.getRating() != null) {
+			productRatingRepository.addRating(savedFeedback.getProductId(), savedFeedback.getRating());
+		}
+		if (FeedbackEnricher.needsEnrichment(savedFeedback)) {
+			feedbackEnrichmentRepository.save(new FeedbackEnrichment(savedFeedback.getFeedbackId(), 0, LocalDateTime.now()));
+		}
+		indexAfterCommit(savedFeedback);
+		return savedFeedback;
+	}
+
+	/** Ratings of the given products in the order asked for; products nobody rated have a count of 0. */
+	@Transactional(readOnly = true)
+	public List<ProductRatingDTO> getProductRatings(List<Long> productIds) {
+		List<Long> distinctIds = productIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+		Map<Long, ProductRating> ratings = productRatingRepository.findAllById(distinctIds).stream()
+				.collect(Collectors.toMap(ProductRating::getProductId, Function.identity()));
+		return distinctIds.stream()
+				.map(productId -> toRatingDTO(ratings.getOrDefault(productId, new ProductRating(productId, 0, 0, 0, 0, 0, 0, 0))))
+				.collect(Collectors.toList());
+	}
+
+	/** Products with the most ratings, the better rated first among equals. */
+	@Transactional(readOnly = true)
+	public List<ProductRatingDTO> getMostRatedProducts(int limit) {
+		return productRatingRepository.findByOrderByFeedbackCountDescRatingSumDesc(Limit.of(limit)).stream()
+				.map(this::toRatingDTO)
+				.collect(Collectors.toList());
+	}
+
+	public FeedbackSearchResult searchFeedback(String query, int offset, int limit) {
+		FeedbackSearchIndex.Hits hits = feedbackSearchIndex.search(query, offset, limit);
+		// The index only holds IDs; rows are read back in the order of the hits
+		Map<Long, Feedback> byId = feedbackRepository.findAllById(hits.feedbackIds()).stream()
+				.collect(Collectors.toMap(Feedback::getFeedbackId, Function.identity()));
+		List<Feedback> results = hits.feedbackIds().stream()
+				.map(byId::get)
+				.filter(Objects::nonNull)
+				.collect(Collectors.toList());
+		return new FeedbackSearchResult(query, hits.total(), offset, limit, results);
 	}
 	
+	// Empty for a customer without feedback; Customer-service's dashboard reads this on every visit
 	public List<Feedback> getFeedBackByCustomerId(Long customerId){
-		List<Feedback> feedbackList=feedbackRepository.findByCustomerId(customerId);
-		if(feedbackList.isEmpty()) {
-			throw new FeedbackException("List is empty");
-		}
-		return feedbackList;
+		return feedbackRepository.findByCustomerId(customerId);
+	}
+
+	// The customer's latest feedback, newest first
+	public List<Feedback> getRecentFeedbackByCustomerId(Long customerId, int limit) {
+		return feedbackRepository.findByCustomerIdOrderByFeedbackIdDesc(customerId, Limit.of(limit));
 	}
 
 	public List<Feedback> getAllFeedback(){
 		return feedbackRepository.findAll();
 	}
+
+	public KeysetPage<Feedback> getFeedbackPage(Long after, int limit) {
+		// Read one extra row to learn whether another page follows
+		List<Feedback> rows = feedbackRepository.findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(
+				after == null ? 0L : after, Limit.of(limit + 1));
+		if (rows.size() <= limit) {
+			return new KeysetPage<>(rows, null);
+		}
+		List<Feedback> page = rows.subList(0, limit);
+		return new KeysetPage<>(page, page.get(limit - 1).getFeedbackId());
+	}
+
+	@Transactional(readOnly = true)
+	public void streamAllFeedback(Consumer<Feedback> consumer) {
+		try (Stream<Feedback> feedbacks = feedbackRepository.streamAll()) {
+			feedbacks.forEach(feedback -> {
+				consumer.accept(feedback);
+				entityManager.detach(feedback);
+			});
+		}
+	}
 	
 	public Feedback getFeedbackById(Long feedbackId) {
 		return feedbackRepository.findById(feedbackId)
 				.orElseThrow(()-> new FeedbackException("Feedback noyt found"));
 	}
+
+	private ProductRatingDTO toRatingDTO(ProductRating rating) {
+		double average = rating.getFeedbackCount() == 0 ? 0
+				: BigDecimal.valueOf(rating.getRatingSum())
+						.divide(BigDecimal.valueOf(rating.getFeedbackCount()), 2, RoundingMode.HALF_UP)
+						.doubleValue();
+		Map<Integer, Long> histogram = new LinkedHashMap<>();
+		histogram.put(1, rating.getOneStar());
+		histogram.put(2, rating.getTwoStars());
+		histogram.put(3, rating.getThreeStars());
+		histogram.put(4, rating.getFourStars());
+		histogram.put(5, rating.getFiveStars());
+		return new ProductRatingDTO(rating.getProductId(), rating.getFeedbackCount(), average, histogram);
+	}
+
+	// Only committed feedback is indexed; outside a transaction the row is already committed
+	private void indexAfterCommit(Feedback feedback) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			feedbackSearchIndex.indexAsync(feedback);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				feedbackSearchIndex.indexAsync(feedback);
+			}
+		});
+	}
 }
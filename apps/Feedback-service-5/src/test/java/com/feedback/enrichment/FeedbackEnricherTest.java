@@ -0,0 +1,220 @@
+package com.feedback.enrichment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.feedback.entity.Feedback;
+import com.feedback.entity.FeedbackEnrichment;
+import com.feedback.feignclient.CustomerClient;
+import com.feedback.feignclient.ProductClient;
+import com.feedback.repository.FeedbackEnrichmentRepository;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.search.FeedbackSearchIndex;
+import com.feedback.service.FeedbackService;
+import com.jewelshop.contracts.customer.CustomerDTO;
+import com.jewelshop.contracts.product.ProductDTO;
+
+/**
+ * Submits feedback through FeedbackService on H2 with Customer and Product mocked, then runs the
+ * enricher by hand. The enricher and its name caches are shared by the tests, so each uses its own
+ * customers and products.
+ */
+@DataJpaTest(properties = "feedback.enrichment.poll-interval-ms=3600000")
+@Import({ FeedbackService.class, FeedbackEnricher.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FeedbackEnricherTest {
+
+	private static final Logger log = LoggerFactory.getLogger(FeedbackEnricherTest.class);
+
+	@MockitoBean
+	private CustomerClient customerClient;
+
+	@MockitoBean
+	private ProductClient productClient;
+
+	@MockitoBean
+	private FeedbackSearchIndex feedbackSearchIndex;
+
+	@Autowired
+	private FeedbackService feedbackService;
+
+	@Autowired
+	private FeedbackEnricher feedbackEnricher;
+
+	@Autowired
+	private FeedbackRepository feedbackRepository;
+
+	@Autowired
+	private FeedbackEnrichmentRepository feedbackEnrichmentRepository;
+
+	@AfterEach
+	void tearDown() {
+		feedbackEnrichmentRepository.deleteAll();
+		feedbackRepository.deleteAll();
+	}
+
+	@Test
+	void testEnrich_OneBatchCallPerServiceThenServedFromCache() {
+		stubCustomersAndProducts();
+		Long first = feedbackService.addFeedback(feedback(1L, 10L)).getFeedbackId();
+		Long second = feedbackService.addFeedback(feedback(1L, 11L)).getFeedbackId();
+		Long third = feedbackService.addFeedback(feedback(2L, 10L)).getFeedbackId();
+
+		assertEquals(3, feedbackEnricher.enrich());
+
+		assertNames(first, "Asha Rao", "Gold Jewelry (12.5g)");
+		assertNames(second, "Asha Rao", "Silver Jewelry (40.0g)");
+		assertNames(third, "Ravi Iyer", "Gold Jewelry (12.5g)");
+		assertEquals(0, feedbackEnrichmentRepository.count());
+		verify(customerClient).getCustomersByIds(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(1L, 2L))));
+		verify(productClient).getProductsByIds(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of(10L, 11L))));
+		// Indexed once when saved and once more with the names
+		verify(feedbackSearchIndex, times(6)).indexAsync(any(Feedback.class));
+
+		Long fourth = feedbackService.addFeedback(feedback(2L, 11L)).getFeedbackId();
+		feedbackEnricher.enrich();
+
+		assertNames(fourth, "Ravi Iyer", "Silver Jewelry (40.0g)");
+		verifyNoMoreInteractions(customerClient, productClient);
+	}
+
+	@Test
+	void testEnrich_CustomerServiceDownRetriesLaterKeepingProductName() {
+		stubCustomersAndProducts();
+		when(customerClient.getCustomersByIds(anyList())).thenThrow(new IllegalStateException("Customer-service timed out"));
+		Feedback submitted = feedback(3L, 12L);
+		submitted.setCustomerName("as typed");
+		Long feedbackId = feedbackService.addFeedback(submitted).getFeedbackId();
+
+		feedbackEnricher.enrich();
+
+		assertNames(feedbackId, "as typed", "Platinum Jewelry (8.0g)");
+		FeedbackEnrichment entry = feedbackEnrichmentRepository.findById(feedbackId).orElseThrow();
+		assertEquals(1, entry.getAttempts());
+		assertTrue(entry.getNextAttemptAt().isAfter(LocalDateTime.now()));
+		assertEquals(0, feedbackEnricher.enrich(), "not due again before the retry delay");
+
+		// The retry delay has passed and Customer-service is back
+		entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+		feedbackEnrichmentRepository.save(entry);
+		doReturn(List.of(new CustomerDTO(3L, "Meera", "Das", null, null))).when(customerClient).getCustomersByIds(anyList());
+		feedbackEnricher.enrich();
+
+		assertNames(feedbackId, "Meera Das", "Platinum Jewelry (8.0g)");
+		assertEquals(0, feedbackEnrichmentRepository.count());
+		verify(productClient, times(1)).getProductsByIds(anyList());
+	}
+
+	@Test
+	void testEnrich_UnknownProductKeepsSubmittedName() {
+		stubCustomersAndProducts();
+		Feedback submitted = feedback(4L, 99L);
+		submitted.setProductName("Anklet");
+		Long feedbackId = feedbackService.addFeedback(submitted).getFeedbackId();
+
+		feedbackEnricher.enrich();
+
+		assertNames(feedbackId, "Kiran", "Anklet");
+		assertEquals(0, feedbackEnrichmentRepository.count());
+	}
+
+	@Test
+	void testEnrich_SubmittedProductNameIsNeverReplaced() {
+		stubCustomersAndProducts();
+		Feedback submitted = feedback(6L, 15L);
+		submitted.setProductName("Mangalsutra");
+		Long feedbackId = feedbackService.addFeedback(submitted).getFeedbackId();
+
+		feedbackEnricher.enrich();
+
+		assertNames(feedbackId, "Lata Menon", "Mangalsutra");
+		verify(productClient, never()).getProductsByIds(argThat(ids -> ids.contains(15L)));
+	}
+
+	@Test
+	void testEnrich_LooksUpOutsideTheTransactionWithTheBatchClaimed() {
+		stubCustomersAndProducts();
+		Long feedbackId = feedbackService.addFeedback(feedback(7L, null)).getFeedbackId();
+		AtomicBoolean inTransaction = new AtomicBoolean(true);
+		AtomicReference<LocalDateTime> claimedUntil = new AtomicReference<>();
+		when(customerClient.getCustomersByIds(argThat(ids -> ids.contains(7L)))).thenAnswer(invocation -> {
+			inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+			claimedUntil.set(feedbackEnrichmentRepository.findById(feedbackId).orElseThrow().getNextAttemptAt());
+			return List.of(new CustomerDTO(7L, "Arjun", "Nair", null, null));
+		});
+
+		feedbackEnricher.enrich();
+
+		assertFalse(inTransaction.get(), "Customer-service was called inside the claim transaction");
+		assertTrue(claimedUntil.get().isAfter(LocalDateTime.now()), "the batch was not claimed before the call");
+		assertNames(feedbackId, "Arjun Nair", null);
+		assertEquals(0, feedbackEnrichmentRepository.count());
+	}
+
+	@Test
+	void testAddFeedback_DoesNotWaitForSlowServices() {
+		when(customerClient.getCustomersByIds(anyList())).thenAnswer(invocation -> {
+			Thread.sleep(2000);
+			return List.of();
+		});
+		feedbackService.addFeedback(feedback(5L, 13L));
+
+		int submissions = 200;
+		long start = System.nanoTime();
+		for (int i = 0; i < submissions; i++) {
+			feedbackService.addFeedback(feedback(5L, 13L));
+		}
+		double millis = (System.nanoTime() - start) / 1_000_000.0 / submissions;
+
+		log.info("addFeedback with Customer-service taking 2 s: {} ms per submission", String.format("%.2f", millis));
+		verifyNoInteractions(customerClient, productClient);
+		assertEquals(submissions + 1, feedbackEnrichmentRepository.count());
+		assertTrue(millis < 100, "addFeedback took " + millis + " ms");
+	}
+
+	// Like the batch endpoints, answers only for the IDs asked for
+	private void stubCustomersAndProducts() {
+		List<CustomerDTO> customers = List.of(new CustomerDTO(1L, "Asha", "Rao", null, null),
+				new CustomerDTO(2L, "Ravi", "Iyer", null, null), new CustomerDTO(4L, "Kiran", null, null, null),
+				new CustomerDTO(6L, "Lata", "Menon", null, null));
+		List<ProductDTO> products = List.of(new ProductDTO(10L, "Gold", 12.5, 1.0, null, 7L),
+				new ProductDTO(11L, "Silver", 40.0, 1.0, null, 7L), new ProductDTO(12L, "Platinum", 8.0, 1.0, null, 7L),
+				new ProductDTO(15L, "Gold", 30.0, 1.0, null, 7L));
+		lenient().when(customerClient.getCustomersByIds(anyList())).thenAnswer(invocation -> customers.stream()
+				.filter(customer -> invocation.<List<Long>>getArgument(0).contains(customer.customerId())).toList());
+		lenient().when(productClient.getProductsByIds(anyList())).thenAnswer(invocation -> products.stream()
+				.filter(product -> invocation.<List<Long>>getArgument(0).contains(product.productId())).toList());
+	}
+
+	private void assertNames(Long feedbackId, String customerName, String productName) {
+		Feedback feedback = feedbackRepository.findById(feedbackId).orElseThrow();
+		assertEquals(customerName, feedback.getCustomerName());
+		assertEquals(productName, feedback.getProductName());
+	}
+
+	private static Feedback feedback(Long customerId, Long productId) {
+		Feedback feedback = new Feedback();
+		feedback.setCustomerId(customerId);
+		feedback.setProductId(productId);
+		feedback.setFeedback("Lovely finish");
+		return feedback;
+	}
+}
@@ -0,0 +1,161 @@
+package com.feedback.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+
+import com.feedback.entity.Feedback;
+import com.feedback.repository.FeedbackRepository;
+
+class FeedbackSearchIndexTest {
+
+	@TempDir
+	Path indexDir;
+
+	private final FeedbackRepository feedbackRepository = mock(FeedbackRepository.class);
+	private final List<Feedback> table = new ArrayList<>();
+	private FeedbackSearchIndex index;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		when(feedbackRepository.findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(anyLong(), any(Limit.class)))
+				.thenAnswer(invocation -> table.stream()
+						.filter(feedback -> feedback.getFeedbackId() > invocation.getArgument(0, Long.class))
+						.sorted(Comparator.comparing(Feedback::getFeedbackId))
+						.limit(invocation.getArgument(1, Limit.class).max())
+						.toList());
+		when(feedbackRepository.findUpdatedSince(any(LocalDateTime.class), anyLong(), any(Limit.class)))
+				.thenAnswer(invocation -> {
+					LocalDateTime since = invocation.getArgument(0, LocalDateTime.class);
+					long afterId = invocation.getArgument(1, Long.class);
+					return table.stream()
+							.filter(feedback -> feedback.getUpdatedAt().isAfter(since)
+									|| feedback.getUpdatedAt().equals(since) && feedback.getFeedbackId() > afterId)
+							.sorted(Comparator.comparing(Feedback::getUpdatedAt).thenComparing(Feedback::getFeedbackId))
+							.limit(invocation.getArgument(2, Limit.class).max())
+							.toList();
+				});
+		table.add(feedback(1L, "Gold Ring", "The clasp broke after a week"));
+		table.add(feedback(2L, "Silver Chain", "Lovely chain, fast delivery"));
+		table.add(feedback(3L, "Gold Chain", "Delivery was late and the box was broken"));
+		index = new FeedbackSearchIndex(feedbackRepository, indexDir, 2, Duration.ofMinutes(1));
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		index.close();
+	}
+
+	@Test
+	void testCatchUp_IndexesTextAndProductName() {
+		index.catchUp();
+
+		assertEquals(List.of(1L, 3L), sorted(index.search("broke*", 0, 10).feedbackIds()));
+		assertEquals(List.of(2L, 3L), sorted(index.search("chain", 0, 10).feedbackIds()));
+		// Every word must match, in either field
+		assertEquals(List.of(3L), index.search("gold delivery", 0, 10).feedbackIds());
+		assertEquals(List.of(1L), index.search("\"clasp broke\"", 0, 10).feedbackIds());
+		assertTrue(index.search("refund", 0, 10).feedbackIds().isEmpty());
+	}
+
+	@Test
+	void testSearch_PagesThroughAllMatches() {
+		index.catchUp();
+
+		FeedbackSearchIndex.Hits first = index.search("delivery | clasp", 0, 2);
+		FeedbackSearchIndex.Hits second = index.search("delivery | clasp", 2, 2);
+
+		assertEquals(3, first.total());
+		assertEquals(2, first.feedbackIds().size());
+		assertEquals(1, second.feedbackIds().size());
+		assertFalse(first.feedbackIds().contains(second.feedbackIds().get(0)));
+	}
+
+	@Test
+	void testIndexAsync_SearchableOnceTheQueueDrains() throws Exception {
+		index.indexAsync(feedback(10L, "Platinum Band", "Scratched on arrival"));
+
+		long deadline = System.currentTimeMillis() + 5000;
+		while (index.search("scratched", 0, 10).total() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(List.of(10L), index.search("scratched", 0, 10).feedbackIds());
+		verifyNoInteractions(feedbackRepository);
+	}
+
+	@Test
+	void testCatchUp_ResumesFromTheStoredTimeOnReopen() throws Exception {
+		index.catchUp();
+		index.close();
+		table.add(feedback(4L, "Gold Ring", "Stone fell out", LocalDateTime.now()));
+
+		index = new FeedbackSearchIndex(feedbackRepository, indexDir, 2, Duration.ofMinutes(1));
+		index.catchUp();
+
+		// Filled once by ID, then read by updatedAt
+		verify(feedbackRepository, times(2)).findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(anyLong(), any(Limit.class));
+		verify(feedbackRepository).findUpdatedSince(any(LocalDateTime.class), eq(0L), any(Limit.class));
+		assertEquals(List.of(4L), index.search("stone", 0, 10).feedbackIds());
+		assertEquals(2, index.search("ring", 0, 10).total());
+	}
+
+	@Test
+	void testCatchUp_FindsARowThatCommitsAfterOneWithAHigherId() {
+		index.catchUp();
+		LocalDateTime now = LocalDateTime.now();
+		table.add(feedback(5L, "Pearl Necklace", "Knotted strand", now.plusSeconds(2)));
+		index.catchUp();
+
+		// Stamped before 5 but committed after the scan that saw 5
+		table.add(feedback(4L, "Ruby Pendant", "Chain too short", now.plusSeconds(1)));
+		index.catchUp();
+
+		assertEquals(List.of(5L), index.search("knotted", 0, 10).feedbackIds());
+		assertEquals(List.of(4L), index.search("ruby", 0, 10).feedbackIds());
+	}
+
+	@Test
+	void testCatchUp_ReindexesFeedbackEnrichedElsewhere() {
+		Feedback unnamed = feedback(6L, null, "Arrived a day early");
+		table.add(unnamed);
+		index.catchUp();
+		assertTrue(index.search("emerald", 0, 10).feedbackIds().isEmpty());
+
+		unnamed.setProductName("Emerald Earrings");
+		unnamed.setUpdatedAt(LocalDateTime.now().plusSeconds(1));
+		index.catchUp();
+
+		assertEquals(List.of(6L), index.search("emerald", 0, 10).feedbackIds());
+	}
+
+	private static List<Long> sorted(List<Long> ids) {
+		return ids.stream().sorted().toList();
+	}
+
+	private static Feedback feedback(Long feedbackId, String productName, String text) {
+		return feedback(feedbackId, productName, text, LocalDateTime.now().minusMinutes(10));
+	}
+
+	private static Feedback feedback(Long feedbackId, String productName, String text, LocalDateTime updatedAt) {
+		Feedback feedback = new Feedback();
+		feedback.setFeedbackId(feedbackId);
+		feedback.setCustomerId(1L);
+		feedback.setProductName(productName);
+		feedback.setFeedback(text);
+		feedback.setUpdatedAt(updatedAt);
+		return feedback;
+	}
+}
@@ -0,0 +1,116 @@
+package com.feedback.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import com.feedback.entity.Feedback;
+import com.feedback.repository.FeedbackRepository;
+import com.jewelshop.contracts.KeysetPage;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class FeedbackServiceTest {
+
+	@Mock
+	private FeedbackRepository feedbackRepository;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@InjectMocks
+	private FeedbackService feedbackService;
+
+	@Test
+	void testGetRecentFeedbackByCustomerId_LimitsInTheQuery() {
+		// Arrange
+		when(feedbackRepository.findByCustomerIdOrderByFeedbackIdDesc(7L, Limit.of(5)))
+				.thenReturn(Arrays.asList(feedback(9L), feedback(4L)));
+
+		// Act
+		List<Feedback> recent = feedbackService.getRecentFeedbackByCustomerId(7L, 5);
+
+		// Assert
+		assertEquals(Arrays.asList(9L, 4L), recent.stream().map(Feedback::getFeedbackId).toList());
+		verify(feedbackRepository, never()).findByCustomerId(7L);
+	}
+
+	@Test
+	void testGetFeedbackPage_HasNextPage() {
+		// Arrange
+		when(feedbackRepository.findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(0L, Limit.of(3)))
+				.thenReturn(Arrays.asList(feedback(1L), feedback(2L), feedback(3L)));
+
+		// Act
+		KeysetPage<Feedback> page = feedbackService.getFeedbackPage(null, 2);
+
+		// Assert
+		assertEquals(Arrays.asList(1L, 2L), page.items().stream().map(Feedback::getFeedbackId).toList());
+		assertEquals(2L, page.nextCursor());
+	}
+
+	@Test
+	void testGetFeedbackPage_ResumesAfterTheCursor() {
+		// Arrange
+		when(feedbackRepository.findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(2L, Limit.of(3)))
+				.thenReturn(Arrays.asList(feedback(3L)));
+
+		// Act
+		KeysetPage<Feedback> page = feedbackService.getFeedbackPage(2L, 2);
+
+		// Assert
+		assertEquals(Arrays.asList(3L), page.items().stream().map(Feedback::getFeedbackId).toList());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void testGetFeedbackPage_ExactlyFullLastPage() {
+		// Arrange
+		when(feedbackRepository.findByFeedbackIdGreaterThanOrderByFeedbackIdAsc(0L, Limit.of(3)))
+				.thenReturn(Arrays.asList(feedback(1L), feedback(2L)));
+
+		// Act
+		KeysetPage<Feedback> page = feedbackService.getFeedbackPage(0L, 2);
+
+		// Assert
+		assertEquals(2, page.items().size());
+		assertNull(page.nextCursor());
+	}
+
+	@Test
+	void testStreamAllFeedback_DetachesEachRow() {
+		// Arrange
+		Feedback first = feedback(1L);
+		Feedback second = feedback(2L);
+		when(feedbackRepository.streamAll()).thenReturn(Stream.of(first, second));
+		List<Long> seen = new ArrayList<>();
+
+		// Act
+		feedbackService.streamAllFeedback(feedback -> seen.add(feedback.getFeedbackId()));
+
+		// Assert
+		assertEquals(Arrays.asList(1L, 2L), seen);
+		verify(entityManager).detach(first);
+		verify(entityManager).detach(second);
+		verify(feedbackRepository, never()).findAll();
+	}
+
+	private static Feedback feedback(Long feedbackId) {
+		Feedback feedback = new Feedback();
+		feedback.setFeedbackId(feedbackId);
+		feedback.setFeedback("Feedback " + feedbackId);
+		return feedback;
+	}
+}
@@ -0,0 +1,144 @@
+package com.feedback.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.feedback.dto.ProductRatingDTO;
+import com.feedback.entity.Feedback;
+import com.feedback.exception.FeedbackException;
+import com.feedback.repository.FeedbackRepository;
+import com.feedback.repository.ProductRatingRepository;
+import com.feedback.search.FeedbackSearchIndex;
+
+/**
+ * Adds rated feedback through FeedbackService on H2, each call in its own transaction, and reads
+ * the product aggregates back.
+ */
+@DataJpaTest
+@Import(FeedbackService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRatingTest {
+
+	@MockitoBean
+	private FeedbackSearchIndex feedbackSearchIndex;
+
+	@Autowired
+	private FeedbackService feedbackService;
+
+	@Autowired
+	private FeedbackRepository feedbackRepository;
+
+	@Autowired
+	private ProductRatingRepository productRatingRepository;
+
+	@AfterEach
+	void tearDown() {
+		feedbackRepository.deleteAll();
+		productRatingRepository.deleteAll();
+	}
+
+	@Test
+	void testGetProductRatings_CountMeanAndHistogramInRequestOrder() {
+		for (int rating : new int[] { 5, 4, 4, 1 }) {
+			feedbackService.addFeedback(feedback(10L, rating));
+		}
+		feedbackService.addFeedback(feedback(20L, 3));
+		feedbackService.addFeedback(feedback(null, null));
+
+		List<ProductRatingDTO> ratings = feedbackService.getProductRatings(List.of(20L, 10L, 99L, 10L));
+
+		assertEquals(List.of(20L, 10L, 99L), ratings.stream().map(ProductRatingDTO::getProductId).toList());
+		assertEquals(4, ratings.get(1).getFeedbackCount());
+		assertEquals(3.5, ratings.get(1).getAverageRating());
+		assertEquals(Map.of(1, 1L, 2, 0L, 3, 0L, 4, 2L, 5, 1L), ratings.get(1).getHistogram());
+		assertEquals(3.0, ratings.get(0).getAverageRating());
+		assertEquals(0, ratings.get(2).getFeedbackCount());
+		assertEquals(0.0, ratings.get(2).getAverageRating());
+		verify(feedbackSearchIndex, times(6)).indexAsync(any(Feedback.class));
+	}
+
+	@Test
+	void testAddFeedback_InvalidRatingSavesNothing() {
+		assertThrows(FeedbackException.class, () -> feedbackService.addFeedback(feedback(10L, 6)));
+		assertThrows(FeedbackException.class, () -> feedbackService.addFeedback(feedback(null, 4)));
+
+		assertEquals(0, feedbackRepository.count());
+		assertEquals(0, productRatingRepository.count());
+		verifyNoInteractions(feedbackSearchIndex);
+	}
+
+	@Test
+	void testAddFeedback_ConcurrentRatingsAreAllCounted() throws Exception {
+		// H2 runs the upsert as a MERGE, which unlike MySQL's ON DUPLICATE KEY UPDATE fails if two
+		// transactions create the same row at once; the race is on adding to an existing row
+		feedbackService.addFeedback(feedback(30L, 5));
+		int threads = 8;
+		int perThread = 25;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int rating = t % 5 + 1;
+			tasks.add(() -> {
+				for (int i = 0; i < perThread; i++) {
+					feedbackService.addFeedback(feedback(30L, rating));
+				}
+				return null;
+			});
+		}
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		ProductRatingDTO rating = feedbackService.getProductRatings(List.of(30L)).get(0);
+		assertEquals(threads * perThread + 1, rating.getFeedbackCount());
+		assertEquals(threads * perThread + 1, feedbackRepository.count());
+		// Threads rate 1-5 then 1-3: two threads each gave 1, 2 and 3, one each 4 and 5
+		assertEquals(Map.of(1, 50L, 2, 50L, 3, 50L, 4, 25L, 5, 26L), rating.getHistogram());
+		assertEquals(2.64, rating.getAverageRating());
+	}
+
+	@Test
+	void testGetMostRatedProducts_ByCountThenRating() {
+		feedbackService.addFeedback(feedback(1L, 2));
+		feedbackService.addFeedback(feedback(2L, 5));
+		feedbackService.addFeedback(feedback(2L, 4));
+		feedbackService.addFeedback(feedback(3L, 1));
+		feedbackService.addFeedback(feedback(3L, 2));
+
+		List<ProductRatingDTO> top = feedbackService.getMostRatedProducts(2);
+
+		assertEquals(List.of(2L, 3L), top.stream().map(ProductRatingDTO::getProductId).toList());
+	}
+
+	private static Feedback feedback(Long productId, Integer rating) {
+		Feedback feedback = new Feedback();
+		feedback.setCustomerId(1L);
+		feedback.setProductName("Gold Ring");
+		feedback.setFeedback("Rated " + rating);
+		feedback.setProductId(productId);
+		feedback.setRating(rating);
+		return feedback;
+	}
+}
@@ -0,0 +1,36 @@
+package com.product.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read caches of ProductService. Keys start with the product change-log sequence, so
+ * a write makes every earlier entry unreachable even before the eviction runs.
+ */
+@Configuration
+@EnableCaching
+public class ProductCacheConfig {
+
+	public static final String PRODUCT_BY_ID = "productById";
+	public static final String ALL_PRODUCTS = "allProducts";
+	public static final String PRODUCTS_BY_VENDOR = "productsByVendor";
+
+	@Bean
+	public CacheManager cacheManager(@Value("${product.cache.max-size:10000}") long maxSize,
+			@Value("${product.cache.ttl:10m}") Duration ttl) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager(PRODUCT_BY_ID, ALL_PRODUCTS, PRODUCTS_BY_VENDOR);
+		cacheManager.setCaffeine(Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl));
+		cacheManager.setAllowNullValues(false);
+		return cacheManager;
+	}
+}
@@ -0,0 +1,42 @@
+package com.product.config;
+
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warns at start-up when {@code GET /stream} cannot stream. MySQL Connector/J only honours the
+ * fetch size of {@code ProductRepository.streamAll()} with {@code useCursorFetch=true}; without it
+ * the whole catalogue is read into memory before the first line is written.
+ */
+@Component
+@Slf4j
+public class StreamCursorFetchCheck {
+
+	private static final Pattern CURSOR_FETCH = Pattern.compile("[?&]useCursorFetch=true(&|$)",
+			Pattern.CASE_INSENSITIVE);
+
+	private final String url;
+
+	public StreamCursorFetchCheck(@Value("${spring.datasource.url:}") String url) {
+		this.url = url;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void check() {
+		if (missesCursorFetch(url)) {
+			log.warn("spring.datasource.url has no useCursorFetch=true: /api/products/stream will buffer every product "
+					+ "in memory before writing the first one");
+		}
+	}
+
+	// Only MySQL needs the flag; H2 and other drivers stream with the fetch size alone
+	static boolean missesCursorFetch(String url) {
+		return url.startsWith("jdbc:mysql:") && !CURSOR_FETCH.matcher(url).find();
+	}
+}
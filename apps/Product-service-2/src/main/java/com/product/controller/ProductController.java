@@ -1,24 +1,54 @@
 package com.product.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.product.ProductContract;
+import com.jewelshop.contracts.product.ProductDTO;
+import com.jewelshop.contracts.verify.ServesContract;
+import com.product.dto.ProductChangeFeed;
+import com.product.dto.ProductSearchQuery;
+import com.product.dto.ProductSearchResult;
 import com.product.entity.Product;
+import com.product.event.ProductChangeLog;
+import com.product.exception.InsufficientStockException;
 import com.product.exception.ProductNotFoundException;
+import com.product.search.ProductSearchIndex;
 import com.product.service.ProductService;
 
 @RestController
-@RequestMapping("/api/products")
+@RequestMapping(ProductContract.BASE_PATH)
+@ServesContract(ProductContract.class)
 @CrossOrigin(origins = "http://localhost:5173")
 public class ProductController {
 
 	@Autowired
 	private ProductService productService;
 
+	@Autowired
+	private ProductChangeLog productChangeLog;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	@PostMapping("/addProduct")
 	public ResponseEntity<?> addProduct(@RequestBody Product product) {
 		Product newProduct = productService.addProduct(product);
@@ -38,27 +68,92 @@ public class ProductController {
 		}
 	}
 
+	@PostMapping("/{productId}/stock")
+	public ResponseEntity<?> adjustStock(@PathVariable Long productId, @RequestParam int delta) {
+		try {
+			Product product = productService.adjustStock(productId, delta);
+			return ResponseEntity.ok(product);
+		} catch (ProductNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product with id: " + productId + " not found");
+		} catch (InsufficientStockException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+	}
+
+	@GetMapping("/{productId}/stock")
+	public ResponseEntity<?> getProductStock(@PathVariable Long productId) {
+		try {
+			return ResponseEntity.ok(productService.getProductStock(productId));
+		} catch (ProductNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product with id: " + productId + " not found");
+		}
+	}
+
 	@GetMapping("/getAll")
-	public ResponseEntity<List<Product>> getAll() {
-		List<Product> productList = productService.getAllProducts();
-		return ResponseEntity.ok(productList);
+	public ResponseEntity<List<ProductDTO>> getAll(WebRequest request) {
+		if (request.checkNotModified(catalogueETag())) {
+			return null;
+		}
+		List<ProductDTO> productList = productService.getAllProducts();
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(productList);
+	}
+
+	@GetMapping("/page")
+	public ResponseEntity<KeysetPage<Product>> getPage(@RequestParam(required = false) Long after,
+			@RequestParam(defaultValue = "100") int limit) {
+		KeysetPage<Product> page = productService.getProductsPage(after, Math.max(1, Math.min(limit, 1000)));
+		return ResponseEntity.ok(page);
+	}
+
+	@GetMapping("/search")
+	public ResponseEntity<ProductSearchResult> search(ProductSearchQuery query) {
+		query.setOffset(Math.max(0, query.getOffset()));
+		query.setLimit(Math.max(1, Math.min(query.getLimit(), 100)));
+		return ResponseEntity.ok(productSearchIndex.search(query));
+	}
+
+	@GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamAll() {
+		StreamingResponseBody body = outputStream -> writeNdjson(outputStream);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
 	}
 
 	@GetMapping("/{productId}")
-	public ResponseEntity<?> getProductById(@PathVariable Long productId) {
-		Product product = productService.getProductById(productId);
+	public ResponseEntity<?> getProductById(@PathVariable Long productId, WebRequest request) {
+		if (request.checkNotModified(catalogueETag())) {
+			return null;
+		}
+		ProductDTO product = productService.getProductById(productId);
 		if (product != null) {
-			return ResponseEntity.ok(product);
+			return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(product);
 		}
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Product not found");
 	}
 
-	@GetMapping("/vendor/{vendorId}")
-	public ResponseEntity<List<Product>> getProductsByVendor(@PathVariable Long vendorId) {
-		List<Product> products = productService.getProductsByVendor(vendorId);
+	@PostMapping("/batch")
+	public ResponseEntity<?> getProductsByIds(@RequestBody List<Long> productIds) {
+		if (productIds.size() > 1000) {
+			return ResponseEntity.badRequest().body("At most 1000 product ids per call");
+		}
+		List<ProductDTO> products = productService.getProductsByIds(productIds);
 		return ResponseEntity.ok(products);
 	}
 
+	@GetMapping("/changes")
+	public ResponseEntity<ProductChangeFeed> getChanges(@RequestParam(defaultValue = "0") long after,
+			@RequestParam(defaultValue = "500") int limit) {
+		return ResponseEntity.ok(productChangeLog.changesSince(after, Math.max(1, Math.min(limit, 5000))));
+	}
+
+	@GetMapping("/vendor/{vendorId}")
+	public ResponseEntity<List<ProductDTO>> getProductsByVendor(@PathVariable Long vendorId, WebRequest request) {
+		if (request.checkNotModified(catalogueETag())) {
+			return null;
+		}
+		List<ProductDTO> products = productService.getProductsByVendor(vendorId);
+		return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(products);
+	}
+
 	@DeleteMapping("/{productId}")
 	public ResponseEntity<String> deleteProduct(@PathVariable Long productId) {
 		try {
@@ -70,4 +165,28 @@ public class ProductController {
 
 	}
 
+	/**
+	 * Strong ETag shared by the catalogue read endpoints: the catalogue version, read from the
+	 * database on each request, so every instance hands out the same ETag once a change has
+	 * committed. Stock movements do not change it. Taken before the read, so a response never
+	 * carries a newer version than its data.
+	 */
+	private String catalogueETag() {
+		return productChangeLog.getEpoch() + "-" + productChangeLog.getCatalogueVersion();
+	}
+
+	private void writeNdjson(OutputStream outputStream) throws IOException {
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+			generator.setRootValueSeparator(null);
+			productService.streamAllProducts(product -> {
+				try {
+					generator.writeObject(product);
+					generator.writeRaw('\n');
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		}
+	}
+
 }
@@ -0,0 +1,80 @@
+package com.product.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.jewelshop.contracts.product.ProductContract;
+import com.jewelshop.contracts.product.StockReservationContract;
+import com.jewelshop.contracts.product.StockReservationDTO;
+import com.jewelshop.contracts.product.StockReservationLineDTO;
+import com.jewelshop.contracts.product.StockReservationRequestDTO;
+import com.jewelshop.contracts.verify.ServesContract;
+import com.product.exception.InsufficientStockException;
+import com.product.exception.ReservationNotFoundException;
+import com.product.service.StockReservationService;
+
+@RestController
+@RequestMapping(ProductContract.BASE_PATH)
+@ServesContract(StockReservationContract.class)
+@CrossOrigin(origins = "http://localhost:5173")
+public class StockReservationController {
+
+	@Autowired
+	private StockReservationService stockReservationService;
+
+	@PostMapping("/reservations")
+	public ResponseEntity<?> reserve(@RequestBody StockReservationRequestDTO request) {
+		try {
+			return ResponseEntity.ok(stockReservationService.reserve(request));
+		} catch (InsufficientStockException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (DataIntegrityViolationException e) {
+			// A concurrent request with the same key won; answer with its reservation
+			return getReservation(request.reservationKey());
+		}
+	}
+
+	@PostMapping("/{productId}/reservations")
+	public ResponseEntity<?> reserveProduct(@PathVariable Long productId, @RequestParam String reservationKey,
+			@RequestParam int quantity, @RequestParam(required = false) Long holdSeconds) {
+		return reserve(new StockReservationRequestDTO(reservationKey,
+				List.of(new StockReservationLineDTO(productId, quantity)), holdSeconds));
+	}
+
+	@GetMapping("/reservations/{reservationKey}")
+	public ResponseEntity<?> getReservation(@PathVariable String reservationKey) {
+		try {
+			StockReservationDTO reservation = stockReservationService.getReservation(reservationKey);
+			return ResponseEntity.ok(reservation);
+		} catch (ReservationNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+		}
+	}
+
+	@PostMapping("/reservations/{reservationKey}/confirm")
+	public ResponseEntity<?> confirm(@PathVariable String reservationKey) {
+		try {
+			return ResponseEntity.ok(stockReservationService.confirm(reservationKey));
+		} catch (ReservationNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+		} catch (InsufficientStockException | IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+		}
+	}
+
+	@PostMapping("/reservations/{reservationKey}/release")
+	public ResponseEntity<?> release(@PathVariable String reservationKey) {
+		try {
+			return ResponseEntity.ok(stockReservationService.release(reservationKey));
+		} catch (ReservationNotFoundException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+		}
+	}
+}
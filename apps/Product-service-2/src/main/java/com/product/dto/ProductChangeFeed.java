@@ -0,0 +1,23 @@
+package com.product.dto;
+
+import java.util.List;
+
+import com.product.event.ProductChangeEvent;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeFeed {
+
+	// Identifies the log; it is shared by all instances and kept in the database, so it does not change
+	private String epoch;
+	private long latestSequence;
+	// False when changes after the requested sequence were already dropped from the log
+	private boolean complete;
+	private List<ProductChangeEvent> changes;
+
+}
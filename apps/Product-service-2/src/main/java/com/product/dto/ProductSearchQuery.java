@@ -0,0 +1,28 @@
+package com.product.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of a catalogue search, bound from the query string. Values of one filter are
+ * alternatives (gold or silver); different filters must all match.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchQuery {
+
+	// Case-insensitive
+	private List<String> material;
+	private List<Long> vendorId;
+	// Inclusive bounds in grams
+	private Double minWeight;
+	private Double maxWeight;
+	private Boolean inStock;
+	private int offset;
+	private int limit = 20;
+
+}
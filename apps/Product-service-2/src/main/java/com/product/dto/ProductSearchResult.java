@@ -0,0 +1,26 @@
+package com.product.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.product.entity.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSearchResult {
+
+	// Number of matching products; products holds the page from offset
+	private int total;
+	private int offset;
+	private int limit;
+	private List<Product> products;
+	// Facet name (material, vendorId, weight, inStock) to value to count. Each facet is counted
+	// with every filter except its own, so the other values of a filtered facet still show
+	private Map<String, Map<String, Integer>> facets;
+
+}
@@ -1,43 +0,0 @@
-package com.product.dto;
-
-public class VendorDTO {
-	
-	private Long vendorID;
-	private String name;
-	private String mailId;
-	private String phoneNo;
-	private String password;
-	
-	public Long getVendorID() {
-		return vendorID;
-	}
-	public void setVendorID(Long vendorID) {
-		this.vendorID = vendorID;
-	}
-	public String getName() {
-		return name;
-	}
-	public void setName(String name) {
-		this.name = name;
-	}
-	public String getMailId() {
-		return mailId;
-	}
-	public void setMailId(String mailId) {
-		this.mailId = mailId;
-	}
-	public String getPhoneNo() {
-		return phoneNo;
-	}
-	public void setPhoneNo(String phoneNo) {
-		this.phoneNo = phoneNo;
-	}
-	public String getPassword() {
-		return password;
-	}
-	public void setPassword(String password) {
-		this.password = password;
-	}
-	
-
-}
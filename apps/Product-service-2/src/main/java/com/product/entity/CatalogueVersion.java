@@ -0,0 +1,27 @@
+package com.product.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single row counting catalogue changes, bumped in the transaction of each one. Every Product
+ * instance reads the same value, so it versions the shared catalogue caches and ETags.
+ */
+@Entity
+@Table(name = "catalogue_version")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogueVersion {
+
+	public static final int ID = 1;
+
+	@Id
+	private Integer id;
+	private long version;
+
+}
@@ -0,0 +1,38 @@
+package com.product.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.product.event.ProductChangeType;
+
+/**
+ * One row of the product change feed, written in the transaction of the change it records. The
+ * ID is the feed's sequence and is shared by every Product instance.
+ */
+@Entity
+@Table(name = "product_change", indexes = @Index(name = "idx_product_change_occurred_at", columnList = "occurredAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChange {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long changeId;
+	private Long productId;
+	@Enumerated(EnumType.STRING)
+	private ProductChangeType type;
+	private Instant occurredAt;
+
+}
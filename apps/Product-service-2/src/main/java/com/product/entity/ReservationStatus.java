@@ -0,0 +1,12 @@
+package com.product.entity;
+
+public enum ReservationStatus {
+	// Stock taken, given back at expiresAt unless confirmed
+	PENDING,
+	// Sold
+	CONFIRMED,
+	// Given back on request
+	RELEASED,
+	// Given back by the expiry job
+	EXPIRED
+}
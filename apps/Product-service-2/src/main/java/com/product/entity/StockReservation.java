@@ -0,0 +1,43 @@
+package com.product.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One product line of a reservation; all lines of a reservation share its key and move between
+ * statuses together. The quantity has already been taken off {@link Product#getProductQuantity()}
+ * while the line is PENDING or CONFIRMED.
+ */
+@Entity
+@Table(name = "stock_reservation",
+		uniqueConstraints = @UniqueConstraint(name = "uk_stock_reservation_key_product", columnNames = { "reservationKey", "productId" }),
+		indexes = @Index(name = "idx_stock_reservation_status_expires", columnList = "status, expiresAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservation {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long reservationId;
+	private String reservationKey;
+	private Long productId;
+	private int quantity;
+	@Enumerated(EnumType.STRING)
+	private ReservationStatus status;
+	private Instant createdAt;
+	private Instant expiresAt;
+
+}
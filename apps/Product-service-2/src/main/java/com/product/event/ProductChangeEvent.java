@@ -0,0 +1,19 @@
+package com.product.event;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeEvent {
+
+	private long sequence;
+	private Long productId;
+	private ProductChangeType type;
+	private Instant occurredAt;
+
+}
@@ -0,0 +1,168 @@
+package com.product.event;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.product.dto.ProductChangeFeed;
+import com.product.entity.CatalogueVersion;
+import com.product.entity.ProductChange;
+import com.product.repository.CatalogueVersionRepository;
+import com.product.repository.ProductChangeRepository;
+
+/**
+ * Journal of product changes in the {@code product_change} table, shared by every Product
+ * instance. Subscribers such as the billing product cache poll it with the last sequence they
+ * have seen and drop the affected entries.
+ * <p>
+ * A change is written in the transaction of the change itself, so it is visible exactly when the
+ * change is. IDs are handed out before commit, so a later ID can become visible before an earlier
+ * one: each instance keeps {@link #getLatestSequence()} at the highest ID below which every row is
+ * visible, and the feed never returns rows above it. An ID still missing after {@code gap-timeout}
+ * (a rolled-back write) is skipped.
+ * <p>
+ * The catalogue caches and ETags are versioned by {@link #getCatalogueVersion()} instead: a row of
+ * {@code catalogue_version} that every change but a {@link ProductChangeType#STOCK} movement bumps in
+ * its own transaction. It is read from the database, so every instance sees the same version as
+ * soon as the change commits, without waiting for its watermark.
+ */
+@Component
+public class ProductChangeLog {
+
+	// The log lives in the database and survives restarts, so sequences never start over
+	static final String EPOCH = "product_change";
+
+	private static final int REFRESH_BATCH_SIZE = 1000;
+
+	private final ProductChangeRepository productChangeRepository;
+	private final CatalogueVersionRepository catalogueVersionRepository;
+	private final Duration gapTimeout;
+	private final Duration retention;
+	private volatile long latestSequence = -1;
+
+	public ProductChangeLog(ProductChangeRepository productChangeRepository,
+			CatalogueVersionRepository catalogueVersionRepository,
+			@Value("${product.change-log.gap-timeout:10s}") Duration gapTimeout,
+			@Value("${product.change-log.retention:7d}") Duration retention) {
+		this.productChangeRepository = productChangeRepository;
+		this.catalogueVersionRepository = catalogueVersionRepository;
+		this.gapTimeout = gapTimeout;
+		this.retention = retention;
+	}
+
+	/**
+	 * Creates the version row on first start; it carries on from the last catalogue change, so it
+	 * never goes back to an ETag handed out before it existed.
+	 */
+	@PostConstruct
+	void createCatalogueVersion() {
+		if (catalogueVersionRepository.existsById(CatalogueVersion.ID)) {
+			return;
+		}
+		Long latest = productChangeRepository.findLatestChangeIdExcept(ProductChangeType.STOCK);
+		try {
+			catalogueVersionRepository.save(new CatalogueVersion(CatalogueVersion.ID, latest != null ? latest : 0));
+		} catch (DataIntegrityViolationException e) {
+			// Another instance starting at the same time created it
+		}
+	}
+
+	/** Records a change in the caller's transaction; this instance sees it as soon as that commits. */
+	@Transactional
+	public void publish(Long productId, ProductChangeType type) {
+		productChangeRepository.save(new ProductChange(null, productId, type, Instant.now()));
+		if (type != ProductChangeType.STOCK) {
+			catalogueVersionRepository.increment(CatalogueVersion.ID);
+		}
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			refresh();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				refresh();
+			}
+		});
+	}
+
+	/** Picks up changes committed by any instance. */
+	@Scheduled(fixedDelayString = "${product.change-log.poll-ms:1000}")
+	public synchronized void refresh() {
+		long latest = latestSequence;
+		if (latest < 0) {
+			// Rows older than the gap timeout are settled, whatever gaps they leave; without any, start
+			// below the oldest row, since the ones before it were purged
+			Long settled = productChangeRepository.findLatestChangeIdBefore(Instant.now().minus(gapTimeout));
+			Long oldest = productChangeRepository.findOldestChangeId();
+			latest = settled != null ? settled : oldest != null ? oldest - 1 : 0;
+		}
+		List<ProductChange> newer;
+		do {
+			newer = productChangeRepository.findByChangeIdGreaterThanOrderByChangeIdAsc(latest, Limit.of(REFRESH_BATCH_SIZE));
+			Instant settledBefore = Instant.now().minus(gapTimeout);
+			for (ProductChange change : newer) {
+				if (change.getChangeId() != latest + 1 && change.getOccurredAt().isAfter(settledBefore)) {
+					// An earlier ID may still commit; wait for it
+					latestSequence = latest;
+					return;
+				}
+				latest = change.getChangeId();
+			}
+		} while (newer.size() == REFRESH_BATCH_SIZE);
+		latestSequence = latest;
+	}
+
+	public ProductChangeFeed changesSince(long afterSequence, int limit) {
+		long latest = getLatestSequence();
+		Long oldest = productChangeRepository.findOldestChangeId();
+		long oldestRetained = oldest != null ? oldest : latest + 1;
+		// A cursor ahead of this instance's watermark came from an instance that has seen more of the
+		// shared log; nothing is missing, it only has to wait for this one to catch up
+		boolean complete = afterSequence >= oldestRetained - 1;
+
+		List<ProductChangeEvent> changes = List.of();
+		if (complete && afterSequence < latest) {
+			changes = productChangeRepository.findByChangeIdBetweenOrderByChangeIdAsc(afterSequence + 1, latest,
+					Limit.of(limit)).stream()
+					.map(change -> new ProductChangeEvent(change.getChangeId(), change.getProductId(), change.getType(),
+							change.getOccurredAt()))
+					.toList();
+		}
+		return new ProductChangeFeed(EPOCH, latest, complete, changes);
+	}
+
+	/** Drops changes older than {@code retention}; a subscriber further behind gets an incomplete feed. */
+	@Scheduled(fixedDelayString = "${product.change-log.purge-ms:3600000}")
+	public void purge() {
+		productChangeRepository.deleteOlderThan(Instant.now().minus(retention));
+	}
+
+	public String getEpoch() {
+		return EPOCH;
+	}
+
+	public long getLatestSequence() {
+		if (latestSequence < 0) {
+			refresh();
+		}
+		return latestSequence;
+	}
+
+	/** One primary-key read; 0 until the version row exists. */
+	public long getCatalogueVersion() {
+		Long version = catalogueVersionRepository.findVersion(CatalogueVersion.ID);
+		return version != null ? version : 0;
+	}
+}
@@ -0,0 +1,9 @@
+package com.product.event;
+
+public enum ProductChangeType {
+	CREATED,
+	UPDATED,
+	DELETED,
+	// Only the quantity moved: the search index follows it, the catalogue version and subscribers do not
+	STOCK
+}
@@ -0,0 +1,17 @@
+package com.product.exception;
+
+import java.util.List;
+
+public class InsufficientStockException extends RuntimeException {
+
+	private final List<Long> productIds;
+
+	public InsufficientStockException(List<Long> productIds) {
+		super("Insufficient stock for products: " + productIds);
+		this.productIds = productIds;
+	}
+
+	public List<Long> getProductIds() {
+		return productIds;
+	}
+}
@@ -0,0 +1,8 @@
+package com.product.exception;
+
+public class ReservationNotFoundException extends RuntimeException {
+
+	public ReservationNotFoundException(String reservationKey) {
+		super("Reservation " + reservationKey + " not found");
+	}
+}
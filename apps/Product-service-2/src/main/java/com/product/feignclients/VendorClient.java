@@ -1,18 +1,11 @@
 package com.product.feignclients;
 
 import org.springframework.cloud.openfeign.FeignClient;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
 
-import com.product.dto.VendorDTO;
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.vendor.VendorContract;
 
-@FeignClient(name="vendor-service")
-public interface VendorClient {
-	
-	@GetMapping("/api/vendors/{vendorId}")
-	VendorDTO getVendorById(@PathVariable Long vendorId);
-	
-	
-	
+@FeignClient(name = ServiceNames.VENDOR)
+public interface VendorClient extends VendorContract {
 
 }
@@ -0,0 +1,20 @@
+package com.product.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.product.entity.CatalogueVersion;
+
+public interface CatalogueVersionRepository extends JpaRepository<CatalogueVersion, Integer> {
+
+	// Read past the persistence context, so a version bumped in this transaction is seen
+	@Query("SELECT v.version FROM CatalogueVersion v WHERE v.id = :id")
+	Long findVersion(@Param("id") Integer id);
+
+	// Holds the row lock until commit, so concurrent catalogue writes take turns
+	@Modifying
+	@Query("UPDATE CatalogueVersion v SET v.version = v.version + 1 WHERE v.id = :id")
+	int increment(@Param("id") Integer id);
+}
@@ -0,0 +1,35 @@
+package com.product.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.product.entity.ProductChange;
+import com.product.event.ProductChangeType;
+
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+	List<ProductChange> findByChangeIdGreaterThanOrderByChangeIdAsc(Long changeId, Limit limit);
+
+	List<ProductChange> findByChangeIdBetweenOrderByChangeIdAsc(Long from, Long to, Limit limit);
+
+	@Query("SELECT MIN(c.changeId) FROM ProductChange c")
+	Long findOldestChangeId();
+
+	@Query("SELECT MAX(c.changeId) FROM ProductChange c WHERE c.occurredAt < :before")
+	Long findLatestChangeIdBefore(@Param("before") Instant before);
+
+	@Query("SELECT MAX(c.changeId) FROM ProductChange c WHERE c.type <> :excluded")
+	Long findLatestChangeIdExcept(@Param("excluded") ProductChangeType excluded);
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM ProductChange c WHERE c.occurredAt < :before")
+	int deleteOlderThan(@Param("before") Instant before);
+}
@@ -1,9 +1,49 @@
 package com.product.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import com.product.entity.Product;
 
+import jakarta.persistence.QueryHint;
+
 public interface ProductRepository extends JpaRepository<Product, Long> {
 	List<Product> findByVendorId(Long vendorId);
-} 
\ No newline at end of file
+
+	List<Product> findByProductIdGreaterThanOrderByProductIdAsc(Long productId, Limit limit);
+
+	@Query("SELECT p FROM Product p ORDER BY p.productId")
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<Product> streamAll();
+
+	// Stock changes are single conditional UPDATEs: the row lock serializes concurrent buyers and
+	// the condition is re-checked under it, so the quantity can never go below zero
+
+	@Modifying
+	@Query("UPDATE Product p SET p.productQuantity = p.productQuantity - :quantity "
+			+ "WHERE p.productId = :productId AND p.productQuantity >= :quantity")
+	int decrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+	@Modifying
+	@Query("UPDATE Product p SET p.productQuantity = p.productQuantity + :quantity WHERE p.productId = :productId")
+	int incrementStock(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+	// Commits on its own when called outside a transaction; clears the persistence context so the
+	// product can be read back with its new quantity
+	@Transactional
+	@Modifying(clearAutomatically = true)
+	@Query("UPDATE Product p SET p.productQuantity = p.productQuantity + :delta "
+			+ "WHERE p.productId = :productId AND p.productQuantity + :delta >= 0")
+	int adjustStock(@Param("productId") Long productId, @Param("delta") int delta);
+}
@@ -0,0 +1,34 @@
+package com.product.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.product.entity.ReservationStatus;
+import com.product.entity.StockReservation;
+
+import jakarta.persistence.LockModeType;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+	List<StockReservation> findByReservationKeyOrderByProductIdAsc(String reservationKey);
+
+	// Serializes confirm and release of one reservation
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT r FROM StockReservation r WHERE r.reservationKey = :reservationKey ORDER BY r.productId")
+	List<StockReservation> lockByReservationKey(@Param("reservationKey") String reservationKey);
+
+	List<StockReservation> findByStatusAndExpiresAtBefore(ReservationStatus status, Instant now, Limit limit);
+
+	// Succeeds for exactly one caller when confirm, release and the expiry job race for the same line
+	@Modifying
+	@Query("UPDATE StockReservation r SET r.status = :to WHERE r.reservationId = :reservationId AND r.status = :from")
+	int transition(@Param("reservationId") Long reservationId, @Param("from") ReservationStatus from,
+			@Param("to") ReservationStatus to);
+}
@@ -0,0 +1,388 @@
+package com.product.search;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.product.dto.ProductChangeFeed;
+import com.product.dto.ProductSearchQuery;
+import com.product.dto.ProductSearchResult;
+import com.product.entity.Product;
+import com.product.event.ProductChangeEvent;
+import com.product.event.ProductChangeLog;
+import com.product.repository.ProductRepository;
+
+/**
+ * In-memory inverted index of the catalogue for faceted search. Every product gets an ordinal,
+ * and each material, vendor, weight bucket and the in-stock flag keeps the set of ordinals it
+ * matches, so a query and its facet counts are a few bit set operations and never read MySQL.
+ * <p>
+ * The index follows {@link ProductChangeLog}, which is kept in the database, so it sees writes made
+ * through any Product instance: a background refresh applies the changes published since the last
+ * one, re-reading only the products they name. Searches answer from the current segment and never
+ * wait for it; only the first search, or one made when no refresh has finished for
+ * {@code max-lag}, refreshes inline. It is rebuilt from the database on the first refresh, when the log has
+ * already dropped changes the index has not seen, when deleted products have left more unused
+ * ordinals than there are products, and every {@code rebuild-interval}, which also repairs any
+ * change the log skipped as rolled back.
+ */
+@Component
+public class ProductSearchIndex {
+
+	public static final String MATERIAL = "material";
+	public static final String VENDOR = "vendorId";
+	public static final String WEIGHT = "weight";
+	public static final String IN_STOCK = "inStock";
+
+	private static final int CHANGE_BATCH_SIZE = 5000;
+
+	private final ProductRepository productRepository;
+	private final ProductChangeLog productChangeLog;
+	private final double[] weightBounds;
+	private final int rebuildPageSize;
+	private final long rebuildIntervalNanos;
+	private final long maxLagNanos;
+
+	// Searches read under the read lock; changes are applied under the write lock, and a rebuild
+	// swaps in a new segment under it. Only refresh() changes the index, one caller at a time
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private volatile Segment segment;
+	// When refresh() last caught up with the log
+	private volatile long refreshedAt;
+
+	/**
+	 * @param weightBounds ascending lower bounds of the weight buckets in grams; the last bucket
+	 *                     has no upper bound and lighter products than the first bound go in the first
+	 */
+	public ProductSearchIndex(ProductRepository productRepository, ProductChangeLog productChangeLog,
+			@Value("${product.search.weight-buckets:0,2,5,10,20,50}") double[] weightBounds,
+			@Value("${product.search.rebuild-page-size:1000}") int rebuildPageSize,
+			@Value("${product.search.rebuild-interval:1h}") Duration rebuildInterval,
+			@Value("${product.search.max-lag:5s}") Duration maxLag) {
+		if (weightBounds.length == 0) {
+			throw new IllegalArgumentException("At least one weight bucket is required");
+		}
+		for (int i = 1; i < weightBounds.length; i++) {
+			if (weightBounds[i] <= weightBounds[i - 1]) {
+				throw new IllegalArgumentException("Weight buckets must be in ascending order");
+			}
+		}
+		this.productRepository = productRepository;
+		this.productChangeLog = productChangeLog;
+		this.weightBounds = weightBounds.clone();
+		this.rebuildPageSize = rebuildPageSize;
+		this.rebuildIntervalNanos = rebuildInterval.toNanos();
+		this.maxLagNanos = maxLag.toNanos();
+	}
+
+	public ProductSearchResult search(ProductSearchQuery query) {
+		// A stalled scheduler or a failing refresh shows up as lag; searches then wait for one themselves
+		if (segment == null || System.nanoTime() - refreshedAt > maxLagNanos) {
+			refresh();
+		}
+		lock.readLock().lock();
+		try {
+			return segment.search(query);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Applies every change published so far, rebuilding the index if it cannot follow the log. */
+	@Scheduled(fixedDelayString = "${product.search.refresh-ms:1000}")
+	public synchronized void refresh() {
+		if (segment == null || segment.hasTooManyGaps() || System.nanoTime() - segment.builtAt >= rebuildIntervalNanos) {
+			rebuild();
+		}
+		while (segment.sequence < productChangeLog.getLatestSequence()) {
+			ProductChangeFeed feed = productChangeLog.changesSince(segment.sequence, CHANGE_BATCH_SIZE);
+			if (!feed.isComplete()) {
+				rebuild();
+			} else if (feed.getChanges().isEmpty()) {
+				break;
+			} else {
+				apply(feed.getChanges());
+			}
+		}
+		refreshedAt = System.nanoTime();
+	}
+
+	private void apply(List<ProductChangeEvent> changes) {
+		Set<Long> productIds = new LinkedHashSet<>();
+		changes.stream().map(ProductChangeEvent::getProductId).filter(Objects::nonNull).forEach(productIds::add);
+		// Read after the changes were published, so the rows are at least as new as the last change
+		Map<Long, Product> products = new HashMap<>();
+		productRepository.findAllById(productIds).forEach(product -> products.put(product.getProductId(), product));
+
+		lock.writeLock().lock();
+		try {
+			for (Long productId : productIds) {
+				Product product = products.get(productId);
+				if (product != null) {
+					segment.put(product);
+				} else {
+					segment.remove(productId);
+				}
+			}
+			segment.sequence = changes.get(changes.size() - 1).getSequence();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void rebuild() {
+		// Taken before the first read: changes after it are applied again once the rebuild is in,
+		// which only re-reads products that may already be current
+		Segment rebuilt = new Segment(productChangeLog.getLatestSequence());
+		List<Product> page;
+		Long after = 0L;
+		do {
+			page = productRepository.findByProductIdGreaterThanOrderByProductIdAsc(after, Limit.of(rebuildPageSize));
+			page.forEach(rebuilt::put);
+			if (!page.isEmpty()) {
+				after = page.get(page.size() - 1).getProductId();
+			}
+		} while (page.size() == rebuildPageSize);
+
+		lock.writeLock().lock();
+		try {
+			segment = rebuilt;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private int weightBucket(double weight) {
+		int bucket = 0;
+		while (bucket + 1 < weightBounds.length && weight >= weightBounds[bucket + 1]) {
+			bucket++;
+		}
+		return bucket;
+	}
+
+	private String weightLabel(int bucket) {
+		String lower = BigDecimal.valueOf(weightBounds[bucket]).stripTrailingZeros().toPlainString();
+		if (bucket + 1 == weightBounds.length) {
+			return lower + "+";
+		}
+		return lower + "-" + BigDecimal.valueOf(weightBounds[bucket + 1]).stripTrailingZeros().toPlainString();
+	}
+
+	private class Segment {
+
+		// Last change of the log reflected in the index
+		private volatile long sequence;
+		private final long builtAt = System.nanoTime();
+
+		// By ordinal; ordinals of deleted products stay unused until the next rebuild
+		private final List<Product> products = new ArrayList<>();
+		private final Map<Long, Integer> ordinals = new HashMap<>();
+		private final BitSet live = new BitSet();
+		private final BitSet inStock = new BitSet();
+		private final Map<String, BitSet> materials = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private final Map<Long, BitSet> vendors = new TreeMap<>();
+		private final BitSet[] weights = new BitSet[weightBounds.length];
+
+		Segment(long sequence) {
+			this.sequence = sequence;
+			for (int i = 0; i < weights.length; i++) {
+				weights[i] = new BitSet();
+			}
+		}
+
+		void put(Product product) {
+			Integer ordinal = ordinals.get(product.getProductId());
+			if (ordinal != null) {
+				unindex(ordinal);
+			} else {
+				ordinal = products.size();
+				products.add(null);
+				ordinals.put(product.getProductId(), ordinal);
+			}
+			products.set(ordinal, product);
+			live.set(ordinal);
+			if (product.getProductQuantity() > 0) {
+				inStock.set(ordinal);
+			}
+			if (product.getProductMaterial() != null) {
+				materials.computeIfAbsent(product.getProductMaterial(), material -> new BitSet()).set(ordinal);
+			}
+			if (product.getVendorId() != null) {
+				vendors.computeIfAbsent(product.getVendorId(), vendorId -> new BitSet()).set(ordinal);
+			}
+			weights[weightBucket(product.getProductWeight())].set(ordinal);
+		}
+
+		void remove(Long productId) {
+			Integer ordinal = ordinals.remove(productId);
+			if (ordinal != null) {
+				unindex(ordinal);
+				products.set(ordinal, null);
+			}
+		}
+
+		boolean hasTooManyGaps() {
+			return products.size() - ordinals.size() > Math.max(ordinals.size(), 1024);
+		}
+
+		private void unindex(int ordinal) {
+			Product product = products.get(ordinal);
+			live.clear(ordinal);
+			inStock.clear(ordinal);
+			clear(materials, product.getProductMaterial(), ordinal);
+			clear(vendors, product.getVendorId(), ordinal);
+			weights[weightBucket(product.getProductWeight())].clear(ordinal);
+		}
+
+		// Empty postings are dropped, so a value no product has any more leaves the facets
+		private <K> void clear(Map<K, BitSet> postings, K value, int ordinal) {
+			if (value == null) {
+				return;
+			}
+			BitSet posting = postings.get(value);
+			if (posting != null) {
+				posting.clear(ordinal);
+				if (posting.isEmpty()) {
+					postings.remove(value);
+				}
+			}
+		}
+
+		ProductSearchResult search(ProductSearchQuery query) {
+			BitSet byMaterial = anyOf(materials, query.getMaterial());
+			BitSet byVendor = anyOf(vendors, query.getVendorId());
+			BitSet byWeight = weightBetween(query.getMinWeight(), query.getMaxWeight());
+			BitSet byStock = query.getInStock() == null ? null : stock(query.getInStock());
+
+			BitSet matches = allOf(live, byMaterial, byVendor, byWeight, byStock);
+			List<Product> page = new ArrayList<>();
+			int skipped = 0;
+			for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && page.size() < query.getLimit();
+					ordinal = matches.nextSetBit(ordinal + 1)) {
+				if (skipped < query.getOffset()) {
+					skipped++;
+				} else {
+					page.add(products.get(ordinal));
+				}
+			}
+
+			Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+			facets.put(MATERIAL, count(materials, allOf(null, byVendor, byWeight, byStock)));
+			facets.put(VENDOR, count(vendors, allOf(null, byMaterial, byWeight, byStock)));
+			Map<String, BitSet> weightPostings = new LinkedHashMap<>();
+			for (int i = 0; i < weights.length; i++) {
+				weightPostings.put(weightLabel(i), weights[i]);
+			}
+			facets.put(WEIGHT, count(weightPostings, allOf(null, byMaterial, byVendor, byStock)));
+			Map<Boolean, BitSet> stockPostings = new LinkedHashMap<>();
+			stockPostings.put(true, inStock);
+			stockPostings.put(false, stock(false));
+			facets.put(IN_STOCK, count(stockPostings, allOf(null, byMaterial, byVendor, byWeight)));
+
+			return new ProductSearchResult(matches.cardinality(), query.getOffset(), query.getLimit(), page, facets);
+		}
+
+		private BitSet stock(boolean available) {
+			if (available) {
+				return inStock;
+			}
+			BitSet outOfStock = (BitSet) live.clone();
+			outOfStock.andNot(inStock);
+			return outOfStock;
+		}
+
+		// Null when the filter is not set
+		private <K> BitSet anyOf(Map<K, BitSet> postings, List<K> values) {
+			if (values == null || values.isEmpty()) {
+				return null;
+			}
+			BitSet union = new BitSet();
+			for (K value : values) {
+				BitSet posting = value != null ? postings.get(value) : null;
+				if (posting != null) {
+					union.or(posting);
+				}
+			}
+			return union;
+		}
+
+		// Buckets inside the range are taken whole; only those across one of its ends are checked per product
+		private BitSet weightBetween(Double minWeight, Double maxWeight) {
+			if (minWeight == null && maxWeight == null) {
+				return null;
+			}
+			double min = minWeight != null ? minWeight : Double.NEGATIVE_INFINITY;
+			double max = maxWeight != null ? maxWeight : Double.POSITIVE_INFINITY;
+			BitSet range = new BitSet();
+			for (int i = 0; i < weights.length; i++) {
+				double lower = i == 0 ? Double.NEGATIVE_INFINITY : weightBounds[i];
+				double upper = i + 1 == weights.length ? Double.POSITIVE_INFINITY : weightBounds[i + 1];
+				if (upper <= min || lower > max) {
+					continue;
+				}
+				if (lower >= min && upper <= max) {
+					range.or(weights[i]);
+					continue;
+				}
+				for (int ordinal = weights[i].nextSetBit(0); ordinal >= 0; ordinal = weights[i].nextSetBit(ordinal + 1)) {
+					double weight = products.get(ordinal).getProductWeight();
+					if (weight >= min && weight <= max) {
+						range.set(ordinal);
+					}
+				}
+			}
+			return range;
+		}
+
+		// Intersection of the filters that are set; null when none is and base is null
+		private BitSet allOf(BitSet base, BitSet... filters) {
+			BitSet result = base != null ? (BitSet) base.clone() : null;
+			for (BitSet filter : filters) {
+				if (filter == null) {
+					continue;
+				}
+				if (result == null) {
+					result = (BitSet) filter.clone();
+				} else {
+					result.and(filter);
+				}
+			}
+			return result;
+		}
+
+		// Postings only hold live products, so without a filter the count is the posting's size
+		private <K> Map<String, Integer> count(Map<K, BitSet> postings, BitSet filter) {
+			Map<String, Integer> counts = new LinkedHashMap<>();
+			postings.forEach((value, posting) -> {
+				int count;
+				if (filter == null) {
+					count = posting.cardinality();
+				} else {
+					BitSet matching = (BitSet) posting.clone();
+					matching.and(filter);
+					count = matching.cardinality();
+				}
+				if (count > 0) {
+					counts.put(String.valueOf(value), count);
+				}
+			});
+			return counts;
+		}
+	}
+}
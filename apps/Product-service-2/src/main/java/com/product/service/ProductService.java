@@ -1,55 +1,164 @@
 package com.product.service;
 
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import com.product.config.ProductCacheConfig;
 import com.product.repository.ProductRepository;
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.product.ProductDTO;
+import com.jewelshop.contracts.product.ProductStockDTO;
+import com.product.event.ProductChangeLog;
+import com.product.event.ProductChangeType;
 import com.product.entity.Product;
+import com.product.exception.InsufficientStockException;
 import com.product.exception.ProductNotFoundException;
 // import com.product.feignclients.VendorClient;
 
 @Service
 public class ProductService {
 
+	// The shared catalogue_version row, so every instance moves to a new version once a write on any
+	// of them commits; stock movements do not count, the cached DTOs carry no quantity. Read before the
+	// lookup runs: a row loaded while a write commits is cached under the old version
+	private static final String CATALOGUE_VERSION = "@productChangeLog.catalogueVersion";
+
 	@Autowired
 	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductChangeLog productChangeLog;
+
+	@PersistenceContext
+	private EntityManager entityManager;
 	
 	// @Autowired
 	// private VendorClient vendorClient;
 
+	// Each write and its change row commit together
+	@Transactional
+	@CacheEvict(cacheNames = { ProductCacheConfig.PRODUCT_BY_ID, ProductCacheConfig.ALL_PRODUCTS,
+			ProductCacheConfig.PRODUCTS_BY_VENDOR }, allEntries = true)
 	public Product addProduct(Product product) {
-		return productRepository.save(product);
+		Product savedProduct = productRepository.save(product);
+		if (savedProduct != null) {
+			productChangeLog.publish(savedProduct.getProductId(), ProductChangeType.CREATED);
+		}
+		return savedProduct;
 	}
 
+	@Transactional
+	@CacheEvict(cacheNames = { ProductCacheConfig.PRODUCT_BY_ID, ProductCacheConfig.ALL_PRODUCTS,
+			ProductCacheConfig.PRODUCTS_BY_VENDOR }, allEntries = true)
 	public Product updateProduct(Long productId, Product productDetails) {
 		Product product = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException());
 		product.setProductMaterial(productDetails.getProductMaterial());
 		product.setProductWeight(productDetails.getProductWeight());
 		product.setProductGmPerWeight(productDetails.getProductGmPerWeight());
-		product.setProductQuantity(productDetails.getProductQuantity());
-		return productRepository.save(product);
+		// Quantity is left alone: writing back a value read earlier would undo concurrent
+		// reservations, so stock only moves through adjustStock and StockReservationService
+		Product savedProduct = productRepository.save(product);
+		productChangeLog.publish(productId, ProductChangeType.UPDATED);
+		return savedProduct;
 	}
 
-	public Product getProductById(Long productId) {
+	/**
+	 * Adds {@code delta} (negative to take stock out) in one conditional UPDATE; fails rather than
+	 * going below zero. The catalogue caches hold no quantity, so they are left alone.
+	 */
+	@Transactional
+	public Product adjustStock(Long productId, int delta) {
+		if (productRepository.adjustStock(productId, delta) == 0) {
+			if (!productRepository.existsById(productId)) {
+				throw new ProductNotFoundException();
+			}
+			throw new InsufficientStockException(List.of(productId));
+		}
+		productChangeLog.publish(productId, ProductChangeType.STOCK);
+		return productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException());
+	}
+
+	// Never cached: stock moves with every sale
+	public ProductStockDTO getProductStock(Long productId) {
+		Product product = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException());
+		return new ProductStockDTO(product.getProductId(), product.getProductQuantity());
+	}
+
+	// The caches hold immutable DTOs, never the managed entities, so no caller can change a cached product
+	@Cacheable(cacheNames = ProductCacheConfig.PRODUCT_BY_ID, key = CATALOGUE_VERSION + " + ':' + #productId")
+	public ProductDTO getProductById(Long productId) {
 		Product product = productRepository.findById(productId).orElseThrow(() -> new ProductNotFoundException());
-		return product;
+		return toDTO(product);
 	}
 
-	public List<Product> getAllProducts() {
-		return productRepository.findAll();
+	@Cacheable(cacheNames = ProductCacheConfig.ALL_PRODUCTS, key = CATALOGUE_VERSION)
+	public List<ProductDTO> getAllProducts() {
+		return toDTOs(productRepository.findAll());
 	}
 
-	public List<Product> getProductsByVendor(Long vendorId) {
-		return productRepository.findByVendorId(vendorId);
+	public KeysetPage<Product> getProductsPage(Long after, int limit) {
+		// Read one extra row to learn whether another page follows
+		List<Product> rows = productRepository.findByProductIdGreaterThanOrderByProductIdAsc(
+				after == null ? 0L : after, Limit.of(limit + 1));
+		if (rows.size() <= limit) {
+			return new KeysetPage<>(rows, null);
+		}
+		List<Product> page = rows.subList(0, limit);
+		return new KeysetPage<>(page, page.get(limit - 1).getProductId());
 	}
 
+	@Transactional(readOnly = true)
+	public void streamAllProducts(Consumer<Product> consumer) {
+		try (Stream<Product> products = productRepository.streamAll()) {
+			products.forEach(product -> {
+				consumer.accept(product);
+				// Keep the persistence context from growing with the catalogue
+				entityManager.detach(product);
+			});
+		}
+	}
+
+	public List<ProductDTO> getProductsByIds(List<Long> productIds) {
+		if (productIds == null || productIds.isEmpty()) {
+			return List.of();
+		}
+		return toDTOs(productRepository.findAllById(productIds));
+	}
+
+	@Cacheable(cacheNames = ProductCacheConfig.PRODUCTS_BY_VENDOR, key = CATALOGUE_VERSION + " + ':' + #vendorId")
+	public List<ProductDTO> getProductsByVendor(Long vendorId) {
+		return toDTOs(productRepository.findByVendorId(vendorId));
+	}
+
+	@Transactional
+	@CacheEvict(cacheNames = { ProductCacheConfig.PRODUCT_BY_ID, ProductCacheConfig.ALL_PRODUCTS,
+			ProductCacheConfig.PRODUCTS_BY_VENDOR }, allEntries = true)
 	public void deleteProduct(Long productId) {
 		if (productRepository.existsById(productId)) {
 			productRepository.deleteById(productId);
+			productChangeLog.publish(productId, ProductChangeType.DELETED);
 		} else {
 			throw new ProductNotFoundException();
 		}
 	}
+
+	public static ProductDTO toDTO(Product product) {
+		return new ProductDTO(product.getProductId(), product.getProductMaterial(), product.getProductWeight(),
+				product.getProductGmPerWeight(), product.getProductUrl(), product.getVendorId());
+	}
+
+	private static List<ProductDTO> toDTOs(List<Product> products) {
+		return products.stream().map(ProductService::toDTO).toList();
+	}
 }
@@ -0,0 +1,232 @@
+package com.product.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.jewelshop.contracts.product.StockReservationDTO;
+import com.jewelshop.contracts.product.StockReservationLineDTO;
+import com.jewelshop.contracts.product.StockReservationRequestDTO;
+import com.product.entity.ReservationStatus;
+import com.product.entity.StockReservation;
+import com.product.event.ProductChangeLog;
+import com.product.event.ProductChangeType;
+import com.product.exception.InsufficientStockException;
+import com.product.exception.ReservationNotFoundException;
+import com.product.repository.ProductRepository;
+import com.product.repository.StockReservationRepository;
+
+/**
+ * Takes and returns stock for reservations. Every stock change is one conditional UPDATE of the
+ * product row ({@link ProductRepository#decrementStock}), so concurrent buyers of the last items
+ * queue on the row lock instead of all reading the same quantity and overselling it. Products are
+ * always decremented in ascending id order, so two multi-line reservations cannot deadlock.
+ */
+@Service
+public class StockReservationService {
+
+	private static final int EXPIRY_BATCH_SIZE = 500;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private StockReservationRepository stockReservationRepository;
+
+	@Autowired
+	private ProductChangeLog productChangeLog;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${product.reservations.hold:30m}")
+	private Duration defaultHold;
+
+	/**
+	 * Takes the stock of every line or, if any product is missing or short, none of it. A key that
+	 * was reserved before returns that reservation unchanged, so callers can retry safely.
+	 */
+	@Transactional
+	public StockReservationDTO reserve(StockReservationRequestDTO request) {
+		if (request == null || request.reservationKey() == null || request.reservationKey().isBlank()
+				|| request.lines() == null || request.lines().isEmpty()) {
+			throw new IllegalArgumentException("A reservation needs a key and at least one line");
+		}
+		List<StockReservation> existing = stockReservationRepository
+				.findByReservationKeyOrderByProductIdAsc(request.reservationKey());
+		if (!existing.isEmpty()) {
+			return toDTO(existing);
+		}
+
+		Map<Long, Integer> quantities = new TreeMap<>();
+		for (StockReservationLineDTO line : request.lines()) {
+			if (line.productId() == null || line.quantity() <= 0) {
+				throw new IllegalArgumentException("Every line needs a product and a positive quantity");
+			}
+			quantities.merge(line.productId(), line.quantity(), Integer::sum);
+		}
+
+		// Keep going after the first shortage so the caller learns every product that is short
+		List<Long> shortages = new ArrayList<>();
+		for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+			if (productRepository.decrementStock(entry.getKey(), entry.getValue()) == 0) {
+				shortages.add(entry.getKey());
+			}
+		}
+		if (!shortages.isEmpty()) {
+			// Rolls back the decrements that did succeed
+			throw new InsufficientStockException(shortages);
+		}
+
+		Instant now = Instant.now();
+		Instant expiresAt = now.plus(request.holdSeconds() != null && request.holdSeconds() > 0
+				? Duration.ofSeconds(request.holdSeconds())
+				: defaultHold);
+		List<StockReservation> reservations = new ArrayList<>();
+		for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+			reservations.add(new StockReservation(null, request.reservationKey(), entry.getKey(), entry.getValue(),
+					ReservationStatus.PENDING, now, expiresAt));
+		}
+		List<StockReservation> saved = stockReservationRepository.saveAll(reservations);
+		publish(quantities.keySet());
+		return toDTO(saved);
+	}
+
+	@Transactional(readOnly = true)
+	public StockReservationDTO getReservation(String reservationKey) {
+		List<StockReservation> reservations = stockReservationRepository
+				.findByReservationKeyOrderByProductIdAsc(reservationKey);
+		if (reservations.isEmpty()) {
+			throw new ReservationNotFoundException(reservationKey);
+		}
+		return toDTO(reservations);
+	}
+
+	/**
+	 * Marks the stock as sold. Lines the expiry job already gave back are taken again if the stock
+	 * is still there; otherwise nothing is confirmed and {@link InsufficientStockException} names
+	 * the short products. A released reservation cannot be confirmed.
+	 */
+	@Transactional
+	public StockReservationDTO confirm(String reservationKey) {
+		List<StockReservation> reservations = lock(reservationKey);
+		List<Long> shortages = new ArrayList<>();
+		Set<Long> retaken = new TreeSet<>();
+		for (StockReservation reservation : reservations) {
+			switch (reservation.getStatus()) {
+			case CONFIRMED:
+				break;
+			case PENDING:
+				reservation.setStatus(ReservationStatus.CONFIRMED);
+				break;
+			case EXPIRED:
+				if (productRepository.decrementStock(reservation.getProductId(), reservation.getQuantity()) == 0) {
+					shortages.add(reservation.getProductId());
+				} else {
+					reservation.setStatus(ReservationStatus.CONFIRMED);
+					retaken.add(reservation.getProductId());
+				}
+				break;
+			case RELEASED:
+				throw new IllegalStateException("Reservation " + reservationKey + " was released");
+			}
+		}
+		if (!shortages.isEmpty()) {
+			throw new InsufficientStockException(shortages);
+		}
+		publish(retaken);
+		return toDTO(reservations);
+	}
+
+	/** Gives the stock back, whether the reservation was still pending or already confirmed. */
+	@Transactional
+	public StockReservationDTO release(String reservationKey) {
+		List<StockReservation> reservations = lock(reservationKey);
+		Set<Long> returned = new TreeSet<>();
+		for (StockReservation reservation : reservations) {
+			if (reservation.getStatus() == ReservationStatus.PENDING
+					|| reservation.getStatus() == ReservationStatus.CONFIRMED) {
+				productRepository.incrementStock(reservation.getProductId(), reservation.getQuantity());
+				reservation.setStatus(ReservationStatus.RELEASED);
+				returned.add(reservation.getProductId());
+			}
+		}
+		publish(returned);
+		return toDTO(reservations);
+	}
+
+	/**
+	 * Gives back the stock of PENDING lines past their expiry. Each line is expired in its own short
+	 * transaction, and only if it is still PENDING then, so a confirm or release racing with the
+	 * job wins or loses cleanly instead of returning the stock twice.
+	 *
+	 * @return the number of lines expired
+	 */
+	@Scheduled(fixedDelayString = "${product.reservations.expiry-poll-ms:30000}")
+	public int expireOverdue() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		int expired = 0;
+		List<StockReservation> overdue;
+		do {
+			overdue = stockReservationRepository.findByStatusAndExpiresAtBefore(ReservationStatus.PENDING,
+					Instant.now(), Limit.of(EXPIRY_BATCH_SIZE));
+			for (StockReservation reservation : overdue) {
+				Boolean done = transactionTemplate.execute(status -> {
+					if (stockReservationRepository.transition(reservation.getReservationId(),
+							ReservationStatus.PENDING, ReservationStatus.EXPIRED) == 0) {
+						return false;
+					}
+					productRepository.incrementStock(reservation.getProductId(), reservation.getQuantity());
+					publish(Set.of(reservation.getProductId()));
+					return true;
+				});
+				if (Boolean.TRUE.equals(done)) {
+					expired++;
+				}
+			}
+		} while (overdue.size() == EXPIRY_BATCH_SIZE);
+		return expired;
+	}
+
+	private List<StockReservation> lock(String reservationKey) {
+		List<StockReservation> reservations = stockReservationRepository.lockByReservationKey(reservationKey);
+		if (reservations.isEmpty()) {
+			throw new ReservationNotFoundException(reservationKey);
+		}
+		return reservations;
+	}
+
+	// STOCK rows keep the search index's in-stock facet current without moving the catalogue version
+	private void publish(Set<Long> productIds) {
+		productIds.forEach(productId -> productChangeLog.publish(productId, ProductChangeType.STOCK));
+	}
+
+	private static StockReservationDTO toDTO(List<StockReservation> reservations) {
+		StockReservation first = reservations.get(0);
+		List<StockReservationLineDTO> lines = reservations.stream()
+				.map(reservation -> new StockReservationLineDTO(reservation.getProductId(), reservation.getQuantity()))
+				.toList();
+		return new StockReservationDTO(first.getReservationKey(), status(reservations).name(), first.getExpiresAt(),
+				lines);
+	}
+
+	// Lines only diverge while the expiry job is part-way through a reservation, or when it expired
+	// some lines before the rest were released; report the first status in declaration order
+	private static ReservationStatus status(List<StockReservation> reservations) {
+		return reservations.stream().map(StockReservation::getStatus).min(Enum::compareTo).orElseThrow();
+	}
+}
@@ -0,0 +1,24 @@
+package com.product.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamCursorFetchCheckTest {
+
+    @Test
+    void testMissesCursorFetch_MySqlUrlWithoutTheFlag() {
+        assertTrue(StreamCursorFetchCheck.missesCursorFetch("jdbc:mysql://localhost:3306/JewelShopApp"));
+        assertTrue(StreamCursorFetchCheck.missesCursorFetch("jdbc:mysql://localhost:3306/JewelShopApp?useCursorFetch=false"));
+        assertTrue(StreamCursorFetchCheck.missesCursorFetch("jdbc:mysql://localhost:3306/JewelShopApp?xuseCursorFetch=true"));
+    }
+
+    @Test
+    void testMissesCursorFetch_FlagSetOrNotMySql() {
+        assertFalse(StreamCursorFetchCheck.missesCursorFetch("jdbc:mysql://localhost:3306/JewelShopApp?useCursorFetch=true"));
+        assertFalse(StreamCursorFetchCheck.missesCursorFetch(
+                "jdbc:mysql://localhost:3306/JewelShopApp?rewriteBatchedStatements=true&useCursorFetch=true&useSSL=false"));
+        assertFalse(StreamCursorFetchCheck.missesCursorFetch("jdbc:h2:mem:testdb"));
+        assertFalse(StreamCursorFetchCheck.missesCursorFetch(""));
+    }
+}
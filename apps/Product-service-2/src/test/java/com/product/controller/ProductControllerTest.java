@@ -0,0 +1,179 @@
+package com.product.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jewelshop.contracts.product.ProductStockDTO;
+import com.product.dto.ProductSearchQuery;
+import com.product.dto.ProductSearchResult;
+import com.product.entity.Product;
+import com.product.event.ProductChangeLog;
+import com.product.search.ProductSearchIndex;
+import com.product.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ProductChangeLog productChangeLog;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ProductController productController;
+
+    private MockMvc mockMvc;
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(productController).build();
+        lenient().when(productChangeLog.getEpoch()).thenReturn("product_change");
+        lenient().when(productChangeLog.getCatalogueVersion()).thenReturn(0L);
+        testProduct = new Product();
+        testProduct.setProductId(1L);
+        testProduct.setProductMaterial("gold");
+        testProduct.setVendorId(7L);
+    }
+
+    @Test
+    void testGetAll_ReturnsStrongETag() throws Exception {
+        when(productService.getAllProducts()).thenReturn(List.of(ProductService.toDTO(testProduct)));
+
+        String etag = mockMvc.perform(get("/api/products/getAll"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(jsonPath("$[0].productId").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("\"") && !etag.startsWith("W/"), etag);
+    }
+
+    @Test
+    void testGetAll_MatchingETag_NotModifiedWithoutLookup() throws Exception {
+        when(productService.getAllProducts()).thenReturn(List.of(ProductService.toDTO(testProduct)));
+        String etag = mockMvc.perform(get("/api/products/getAll"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/products/getAll").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).getAllProducts();
+    }
+
+    @Test
+    void testGetProductById_ETagChangesWithCatalogue() throws Exception {
+        when(productService.getProductById(1L)).thenReturn(ProductService.toDTO(testProduct));
+        String etag = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // A catalogue change committed on any instance
+        when(productChangeLog.getCatalogueVersion()).thenReturn(1L);
+
+        String newEtag = mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productMaterial").value("gold"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    void testGetProductsByVendor_MatchingETag_NotModified() throws Exception {
+        when(productService.getProductsByVendor(7L)).thenReturn(List.of(ProductService.toDTO(testProduct)));
+        String etag = mockMvc.perform(get("/api/products/vendor/7"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/products/vendor/7").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(productService, times(1)).getProductsByVendor(7L);
+    }
+
+    @Test
+    void testGetProductsByIds_ReturnsDTOs() throws Exception {
+        testProduct.setProductQuantity(4);
+        when(productService.getProductsByIds(List.of(1L))).thenReturn(List.of(ProductService.toDTO(testProduct)));
+
+        mockMvc.perform(post("/api/products/batch").contentType(MediaType.APPLICATION_JSON).content("[1]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(1))
+                .andExpect(jsonPath("$[0].vendorId").value(7))
+                .andExpect(jsonPath("$[0].productQuantity").doesNotExist());
+    }
+
+    @Test
+    void testGetProductsByIds_MoreThan1000Ids_BadRequest() throws Exception {
+        String ids = objectMapper.writeValueAsString(LongStream.rangeClosed(1, 1001).boxed().toList());
+
+        mockMvc.perform(post("/api/products/batch").contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    void testGetProductStock_ReadsTheCurrentQuantity() throws Exception {
+        when(productService.getProductStock(1L)).thenReturn(new ProductStockDTO(1L, 4));
+
+        mockMvc.perform(get("/api/products/1/stock"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.productQuantity").value(4));
+
+        verifyNoInteractions(productChangeLog);
+    }
+
+    @Test
+    void testSearch_BindsFiltersAndCapsLimit() throws Exception {
+        ArgumentCaptor<ProductSearchQuery> query = ArgumentCaptor.forClass(ProductSearchQuery.class);
+        when(productSearchIndex.search(query.capture())).thenReturn(new ProductSearchResult(1, 0, 100,
+                List.of(testProduct), Map.of(ProductSearchIndex.MATERIAL, Map.of("gold", 1))));
+
+        mockMvc.perform(get("/api/products/search?material=gold&material=silver&vendorId=7&minWeight=2.5"
+                        + "&inStock=true&limit=5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.products[0].productId").value(1))
+                .andExpect(jsonPath("$.facets.material.gold").value(1));
+
+        assertEquals(List.of("gold", "silver"), query.getValue().getMaterial());
+        assertEquals(List.of(7L), query.getValue().getVendorId());
+        assertEquals(2.5, query.getValue().getMinWeight());
+        assertNull(query.getValue().getMaxWeight());
+        assertTrue(query.getValue().getInStock());
+        assertEquals(100, query.getValue().getLimit());
+        verifyNoInteractions(productService);
+    }
+}
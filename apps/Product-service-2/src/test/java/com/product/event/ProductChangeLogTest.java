@@ -0,0 +1,243 @@
+package com.product.event;
+
+import com.product.dto.ProductChangeFeed;
+import com.product.entity.ProductChange;
+import com.product.repository.CatalogueVersionRepository;
+import com.product.repository.ProductChangeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the log against H2 with every publish in its own committed transaction, as ProductService
+ * does. Sequences are compared to the one read at the start of each test, since the table is
+ * shared with the other tests of the context.
+ */
+@DataJpaTest
+@Import(ProductChangeLog.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductChangeLogTest {
+
+    @Autowired
+    private ProductChangeLog changeLog;
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+
+    @Autowired
+    private CatalogueVersionRepository catalogueVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        // Let the shared instance pass every row first, or the deleted ones would look like a gap
+        changeLog.refresh();
+        productChangeRepository.deleteAll();
+    }
+
+    @Test
+    void testChangesSince_ReturnsChangesAfterCursor() {
+        // Arrange
+        long start = changeLog.getLatestSequence();
+        changeLog.publish(1L, ProductChangeType.UPDATED);
+        changeLog.publish(2L, ProductChangeType.DELETED);
+        changeLog.publish(3L, ProductChangeType.UPDATED);
+
+        // Act
+        ProductChangeFeed feed = changeLog.changesSince(start + 1, 500);
+
+        // Assert
+        assertTrue(feed.isComplete());
+        assertEquals(start + 3, feed.getLatestSequence());
+        assertEquals(2, feed.getChanges().size());
+        assertEquals(2L, feed.getChanges().get(0).getProductId());
+        assertEquals(ProductChangeType.DELETED, feed.getChanges().get(0).getType());
+        assertEquals(3L, feed.getChanges().get(1).getProductId());
+    }
+
+    @Test
+    void testChangesSince_RespectsLimit() {
+        // Arrange
+        long start = changeLog.getLatestSequence();
+        for (long productId = 1; productId <= 10; productId++) {
+            changeLog.publish(productId, ProductChangeType.UPDATED);
+        }
+
+        // Act
+        ProductChangeFeed feed = changeLog.changesSince(start, 4);
+
+        // Assert
+        assertTrue(feed.isComplete());
+        assertEquals(4, feed.getChanges().size());
+        assertEquals(start + 4, feed.getChanges().get(3).getSequence());
+        assertEquals(start + 10, feed.getLatestSequence());
+    }
+
+    @Test
+    void testChangesSince_SeenByAnotherInstance() {
+        // Arrange
+        changeLog.publish(4L, ProductChangeType.UPDATED);
+        long start = changeLog.getLatestSequence();
+        ProductChangeLog otherInstance = new ProductChangeLog(productChangeRepository, catalogueVersionRepository,
+                Duration.ofSeconds(10), Duration.ofDays(7));
+        otherInstance.getLatestSequence();
+
+        // Act
+        changeLog.publish(5L, ProductChangeType.UPDATED);
+        otherInstance.refresh();
+
+        // Assert
+        assertEquals(start + 1, otherInstance.getLatestSequence());
+        assertEquals(5L, otherInstance.changesSince(start, 500).getChanges().get(0).getProductId());
+        assertEquals(changeLog.getEpoch(), otherInstance.getEpoch());
+    }
+
+    @Test
+    void testCatalogueVersion_MovesWithCatalogueChangesOnly() {
+        // Arrange
+        long start = changeLog.getLatestSequence();
+        long version = changeLog.getCatalogueVersion();
+        ProductChangeLog otherInstance = new ProductChangeLog(productChangeRepository, catalogueVersionRepository,
+                Duration.ofSeconds(10), Duration.ofDays(7));
+
+        // Act
+        changeLog.publish(1L, ProductChangeType.UPDATED);
+        changeLog.publish(1L, ProductChangeType.STOCK);
+        changeLog.publish(2L, ProductChangeType.STOCK);
+
+        // Assert: the feed still carries the stock rows for the search index, and the other
+        // instance sees the new version without refreshing
+        assertEquals(version + 1, changeLog.getCatalogueVersion());
+        assertEquals(version + 1, otherInstance.getCatalogueVersion());
+        assertEquals(3, changeLog.changesSince(start, 500).getChanges().size());
+        changeLog.publish(3L, ProductChangeType.CREATED);
+        assertEquals(version + 2, otherInstance.getCatalogueVersion());
+    }
+
+    @Test
+    void testCreateCatalogueVersion_CarriesOnFromTheLastCatalogueChange() {
+        // Arrange: a log written before the version row existed
+        catalogueVersionRepository.deleteAll();
+        long updated = productChangeRepository.save(new ProductChange(null, 1L, ProductChangeType.UPDATED, Instant.now()))
+                .getChangeId();
+        productChangeRepository.save(new ProductChange(null, 1L, ProductChangeType.STOCK, Instant.now()));
+
+        // Act
+        changeLog.createCatalogueVersion();
+        changeLog.createCatalogueVersion();
+
+        // Assert
+        assertEquals(updated, changeLog.getCatalogueVersion());
+    }
+
+    @Test
+    void testChangesSince_IncompleteWhenCursorFellOutOfLog() {
+        // Arrange
+        long start = changeLog.getLatestSequence();
+        changeLog.publish(1L, ProductChangeType.UPDATED);
+        changeLog.publish(2L, ProductChangeType.UPDATED);
+        new ProductChangeLog(productChangeRepository, catalogueVersionRepository, Duration.ofSeconds(10), Duration.ZERO)
+                .purge();
+        changeLog.publish(3L, ProductChangeType.UPDATED);
+
+        // Act & Assert
+        assertFalse(changeLog.changesSince(start, 500).isComplete());
+        assertTrue(changeLog.changesSince(start + 2, 500).isComplete());
+        assertTrue(changeLog.changesSince(start + 3, 500).getChanges().isEmpty());
+    }
+
+    @Test
+    void testChangesSince_CompleteAndEmptyForCursorAheadOfWatermark() {
+        // Arrange: another instance already served the change this one has not picked up yet
+        changeLog.publish(1L, ProductChangeType.UPDATED);
+        long start = changeLog.getLatestSequence();
+        ProductChangeLog lagging = new ProductChangeLog(productChangeRepository, catalogueVersionRepository,
+                Duration.ofSeconds(10), Duration.ofDays(7));
+        lagging.getLatestSequence();
+        changeLog.publish(2L, ProductChangeType.UPDATED);
+
+        // Act
+        ProductChangeFeed feed = lagging.changesSince(start + 1, 500);
+
+        // Assert
+        assertTrue(feed.isComplete());
+        assertTrue(feed.getChanges().isEmpty());
+        assertEquals(start, feed.getLatestSequence());
+    }
+
+    @Test
+    void testRefresh_WaitsForEarlierChangeStillCommitting() throws Exception {
+        // Arrange: a write takes the next sequence and is still running when a later one commits. A
+        // stock movement, since catalogue writes take turns on the catalogue_version row
+        long start = changeLog.getLatestSequence();
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CompletableFuture<Void> slowWrite = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeLog.publish(1L, ProductChangeType.STOCK);
+            published.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(published.await(10, TimeUnit.SECONDS));
+
+        // Act
+        changeLog.publish(2L, ProductChangeType.UPDATED);
+        long whileRunning = changeLog.getLatestSequence();
+        boolean heldBack = changeLog.changesSince(start, 500).getChanges().isEmpty();
+        commit.countDown();
+        slowWrite.get(10, TimeUnit.SECONDS);
+
+        // Assert: the later change is held back until the earlier one is visible, so none is skipped
+        assertEquals(start, whileRunning);
+        assertTrue(heldBack);
+        assertEquals(start + 2, changeLog.getLatestSequence());
+        assertEquals(2, changeLog.changesSince(start, 500).getChanges().size());
+    }
+
+    @Test
+    @DirtiesContext // the rolled-back sequence would hold the shared instance back for its gap timeout
+    void testRefresh_SkipsRolledBackSequenceAfterGapTimeout() throws Exception {
+        // Arrange: writes go through the shared instance, which runs them in transactions
+        this.changeLog.publish(4L, ProductChangeType.UPDATED);
+        ProductChangeLog changeLog = new ProductChangeLog(productChangeRepository, catalogueVersionRepository,
+                Duration.ofMillis(300), Duration.ofDays(7));
+        long start = changeLog.getLatestSequence();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            this.changeLog.publish(1L, ProductChangeType.UPDATED);
+            status.setRollbackOnly();
+        });
+        this.changeLog.publish(2L, ProductChangeType.UPDATED);
+
+        // Act
+        long beforeTimeout = changeLog.getLatestSequence();
+        Thread.sleep(400);
+        changeLog.refresh();
+
+        // Assert
+        assertEquals(start, beforeTimeout);
+        assertEquals(start + 2, changeLog.getLatestSequence());
+        assertEquals(2L, changeLog.changesSince(start, 500).getChanges().get(0).getProductId());
+    }
+}
@@ -0,0 +1,268 @@
+package com.product.search;
+
+import com.product.dto.ProductChangeFeed;
+import com.product.dto.ProductSearchQuery;
+import com.product.dto.ProductSearchResult;
+import com.product.entity.Product;
+import com.product.event.ProductChangeEvent;
+import com.product.event.ProductChangeLog;
+import com.product.event.ProductChangeType;
+import com.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the index over a catalogue held by a mocked repository, changing it the way ProductService
+ * does: write the row, then publish the change. The change log is a list behind a mock.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexTest.class);
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductChangeLog productChangeLog;
+
+    private final TreeMap<Long, Product> catalogue = new TreeMap<>();
+    private final List<ProductChangeEvent> published = new ArrayList<>();
+    private long oldestRetained = 1;
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(productChangeLog.getLatestSequence()).thenAnswer(invocation -> (long) published.size());
+        lenient().when(productChangeLog.changesSince(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0, Long.class);
+            boolean complete = after >= oldestRetained - 1;
+            List<ProductChangeEvent> changes = complete ? published.stream().filter(event -> event.getSequence() > after)
+                    .limit(invocation.getArgument(1, Integer.class)).toList() : List.of();
+            return new ProductChangeFeed("product_change", published.size(), complete, changes);
+        });
+        index = new ProductSearchIndex(productRepository, productChangeLog, new double[] {0, 2, 5, 10, 20, 50}, 2, Duration.ofHours(1), Duration.ofHours(1));
+        lenient().when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> catalogue.tailMap(invocation.getArgument(0, Long.class), false).values()
+                        .stream().limit(invocation.getArgument(1, Limit.class).max()).toList());
+        lenient().when(productRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<Product> found = new ArrayList<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(productId -> {
+                if (catalogue.containsKey(productId)) {
+                    found.add(catalogue.get(productId));
+                }
+            });
+            return found;
+        });
+
+        catalogue.put(1L, product(1L, "Gold", 7L, 4.5, 3));
+        catalogue.put(2L, product(2L, "gold", 8L, 12.0, 0));
+        catalogue.put(3L, product(3L, "Silver", 7L, 25.0, 10));
+        catalogue.put(4L, product(4L, "Silver", 8L, 1.5, 2));
+        catalogue.put(5L, product(5L, "Platinum", 7L, 60.0, 1));
+    }
+
+    @Test
+    void testSearch_FiltersAndCountsEachFacetWithoutItsOwnFilter() {
+        ProductSearchQuery query = new ProductSearchQuery();
+        query.setMaterial(List.of("GOLD"));
+        query.setInStock(true);
+
+        ProductSearchResult result = index.search(query);
+
+        assertEquals(1, result.getTotal());
+        assertEquals(List.of(1L), ids(result));
+        Map<String, Map<String, Integer>> facets = result.getFacets();
+        // Materials are counted over in-stock products only, ignoring the material filter
+        assertEquals(Map.of("Gold", 1, "Platinum", 1, "Silver", 2), facets.get(ProductSearchIndex.MATERIAL));
+        assertEquals(Map.of("7", 1), facets.get(ProductSearchIndex.VENDOR));
+        assertEquals(Map.of("2-5", 1), facets.get(ProductSearchIndex.WEIGHT));
+        assertEquals(Map.of("true", 1, "false", 1), facets.get(ProductSearchIndex.IN_STOCK));
+    }
+
+    @Test
+    void testSearch_WeightRangeChecksProductsInBucketsAcrossItsEnds() {
+        ProductSearchQuery query = new ProductSearchQuery();
+        query.setMinWeight(4.0);
+        query.setMaxWeight(25.0);
+
+        ProductSearchResult result = index.search(query);
+
+        assertEquals(List.of(1L, 2L, 3L), ids(result));
+        assertEquals(Map.of("0-2", 1, "2-5", 1, "10-20", 1, "20-50", 1, "50+", 1),
+                result.getFacets().get(ProductSearchIndex.WEIGHT));
+        assertEquals(Map.of("Gold", 2, "Silver", 1), result.getFacets().get(ProductSearchIndex.MATERIAL));
+    }
+
+    @Test
+    void testSearch_PagesInProductIdOrder() {
+        ProductSearchQuery query = new ProductSearchQuery();
+        query.setVendorId(List.of(7L, 8L));
+        query.setOffset(1);
+        query.setLimit(2);
+
+        ProductSearchResult result = index.search(query);
+
+        assertEquals(5, result.getTotal());
+        assertEquals(List.of(2L, 3L), ids(result));
+    }
+
+    @Test
+    void testRefresh_AppliesPublishedChangesWithoutRebuilding() {
+        index.search(new ProductSearchQuery());
+        verify(productRepository, times(3)).findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class));
+
+        catalogue.put(6L, product(6L, "Gold", 9L, 3.0, 5));
+        publish(6L, ProductChangeType.CREATED);
+        catalogue.put(1L, product(1L, "Rose Gold", 7L, 4.5, 0));
+        publish(1L, ProductChangeType.UPDATED);
+        catalogue.remove(4L);
+        publish(4L, ProductChangeType.DELETED);
+        index.refresh();
+        ProductSearchQuery query = new ProductSearchQuery();
+        query.setMaterial(List.of("gold"));
+        ProductSearchResult result = index.search(query);
+
+        assertEquals(List.of(2L, 6L), ids(result));
+        // The value keeps the spelling it was first indexed with
+        assertEquals(Map.of("Gold", 2, "Platinum", 1, "Rose Gold", 1, "Silver", 1),
+                result.getFacets().get(ProductSearchIndex.MATERIAL));
+        assertEquals(Map.of("8", 1, "9", 1), result.getFacets().get(ProductSearchIndex.VENDOR));
+        verify(productRepository, times(3)).findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class));
+        verify(productRepository).findAllById(anyIterable());
+    }
+
+    @Test
+    void testSearch_AnswersFromTheCurrentSegmentWithoutReadingTheLog() {
+        index.search(new ProductSearchQuery());
+        clearInvocations(productChangeLog, productRepository);
+
+        catalogue.put(6L, product(6L, "Gold", 9L, 3.0, 5));
+        publish(6L, ProductChangeType.CREATED);
+        ProductSearchResult result = index.search(new ProductSearchQuery());
+
+        // The change waits for the next refresh
+        assertEquals(5, result.getTotal());
+        verifyNoInteractions(productChangeLog, productRepository);
+    }
+
+    @Test
+    void testSearch_RefreshesInlineOnceTheLagPassesTheLimit() throws InterruptedException {
+        index = new ProductSearchIndex(productRepository, productChangeLog, new double[] {0, 10}, 100, Duration.ofHours(1),
+                Duration.ofMillis(100));
+        index.search(new ProductSearchQuery());
+
+        catalogue.put(6L, product(6L, "Gold", 9L, 3.0, 5));
+        publish(6L, ProductChangeType.CREATED);
+        long beforeLimit = index.search(new ProductSearchQuery()).getTotal();
+        Thread.sleep(150);
+
+        assertEquals(5, beforeLimit);
+        assertEquals(6, index.search(new ProductSearchQuery()).getTotal());
+    }
+
+    @Test
+    void testRefresh_RebuildsWhenTheLogDroppedUnseenChanges() {
+        index = new ProductSearchIndex(productRepository, productChangeLog, new double[] {0, 10}, 100, Duration.ofHours(1), Duration.ofHours(1));
+        index.refresh();
+
+        for (long productId = 6; productId <= 9; productId++) {
+            catalogue.put(productId, product(productId, "Gold", 7L, 1.0, 1));
+            publish(productId, ProductChangeType.CREATED);
+        }
+        // The log has purged all but the last two
+        oldestRetained = 3;
+        index.refresh();
+        ProductSearchResult result = index.search(new ProductSearchQuery());
+
+        assertEquals(9, result.getTotal());
+        assertEquals(Map.of("0-10", 6, "10+", 3), result.getFacets().get(ProductSearchIndex.WEIGHT));
+        verify(productRepository, times(2)).findByProductIdGreaterThanOrderByProductIdAsc(anyLong(), any(Limit.class));
+        verify(productRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void testRefresh_RebuildsOnScheduleToPickUpChangesTheLogMissed() throws InterruptedException {
+        index = new ProductSearchIndex(productRepository, productChangeLog, new double[] {0, 10}, 100,
+                Duration.ofSeconds(1), Duration.ofHours(1));
+        index.refresh();
+
+        // Written without a change the index sees, as when the log skipped it as rolled back
+        catalogue.put(6L, product(6L, "Gold", 7L, 1.0, 1));
+        index.refresh();
+        long beforeRebuild = index.search(new ProductSearchQuery()).getTotal();
+        Thread.sleep(1100);
+        index.refresh();
+
+        assertEquals(5, beforeRebuild);
+        assertEquals(6, index.search(new ProductSearchQuery()).getTotal());
+    }
+
+    @Test
+    void testSearch_FullCatalogueTakesMilliseconds() {
+        catalogue.clear();
+        String[] materials = {"Gold", "Silver", "Platinum", "Rose Gold", "White Gold", "Diamond"};
+        for (long productId = 1; productId <= 100_000; productId++) {
+            catalogue.put(productId, product(productId, materials[(int) (productId % materials.length)],
+                    productId % 200, (productId % 700) / 10.0, (int) (productId % 4)));
+        }
+        index = new ProductSearchIndex(productRepository, productChangeLog, new double[] {0, 2, 5, 10, 20, 50}, 1000, Duration.ofHours(1), Duration.ofHours(1));
+        index.refresh();
+        ProductSearchQuery query = new ProductSearchQuery();
+        query.setMaterial(List.of("Gold", "Platinum"));
+        query.setMinWeight(3.0);
+        query.setMaxWeight(30.0);
+        query.setInStock(true);
+        for (int i = 0; i < 20; i++) {
+            index.search(query);
+        }
+
+        int searches = 200;
+        long start = System.nanoTime();
+        ProductSearchResult result = null;
+        for (int i = 0; i < searches; i++) {
+            result = index.search(query);
+        }
+        double millis = (System.nanoTime() - start) / 1_000_000.0 / searches;
+
+        log.info("Faceted search over {} products: {} matches, {} ms per search", catalogue.size(),
+                result.getTotal(), String.format("%.2f", millis));
+        assertEquals(catalogue.values().stream()
+                .filter(p -> p.getProductMaterial().equals("Gold") || p.getProductMaterial().equals("Platinum"))
+                .filter(p -> p.getProductWeight() >= 3.0 && p.getProductWeight() <= 30.0)
+                .filter(p -> p.getProductQuantity() > 0)
+                .count(), result.getTotal());
+        assertEquals(result.getTotal(), result.getFacets().get(ProductSearchIndex.VENDOR).values().stream()
+                .mapToInt(Integer::intValue).sum());
+        assertTrue(millis < 50, "search took " + millis + " ms");
+    }
+
+    private void publish(Long productId, ProductChangeType type) {
+        published.add(new ProductChangeEvent(published.size() + 1, productId, type, Instant.now()));
+    }
+
+    private static List<Long> ids(ProductSearchResult result) {
+        return result.getProducts().stream().map(Product::getProductId).toList();
+    }
+
+    private static Product product(Long productId, String material, Long vendorId, double weight, int quantity) {
+        return new Product(productId, material, weight, 1.0, quantity, null, vendorId);
+    }
+}
@@ -0,0 +1,140 @@
+package com.product.service;
+
+import com.jewelshop.contracts.product.ProductDTO;
+import com.product.config.ProductCacheConfig;
+import com.product.entity.Product;
+import com.product.event.ProductChangeLog;
+import com.product.repository.CatalogueVersionRepository;
+import com.product.repository.ProductChangeRepository;
+import com.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs ProductService behind the real cache proxy to check what is cached and
+ * which writes evict it.
+ */
+@SpringBootTest(classes = { ProductCacheConfig.class, ProductService.class, ProductChangeLog.class },
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ProductServiceCacheTest {
+
+    @MockitoBean
+    private ProductRepository productRepository;
+
+    @MockitoBean
+    private ProductChangeRepository productChangeRepository;
+
+    @MockitoBean
+    private CatalogueVersionRepository catalogueVersionRepository;
+
+    @MockitoBean
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Product testProduct;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        testProduct = new Product();
+        testProduct.setProductId(1L);
+        testProduct.setProductMaterial("gold");
+        testProduct.setVendorId(7L);
+    }
+
+    @Test
+    void testGetProductById_SecondReadServedFromCache() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+
+        productService.getProductById(1L);
+        ProductDTO cached = productService.getProductById(1L);
+
+        assertEquals("gold", cached.productMaterial());
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testGetProductById_CachesACopyNotTheEntity() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        productService.getProductById(1L);
+
+        // A later change to the loaded entity, e.g. by a write in progress, does not reach the cache
+        testProduct.setProductMaterial("silver");
+        ProductDTO cached = productService.getProductById(1L);
+
+        assertEquals("gold", cached.productMaterial());
+        verify(productRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testUpdateProduct_EvictsCachedReads() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.findAll()).thenReturn(List.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        productService.getProductById(1L);
+        productService.getAllProducts();
+
+        productService.updateProduct(1L, testProduct);
+        productService.getProductById(1L);
+        productService.getAllProducts();
+
+        // one read before the update, one inside it, one after
+        verify(productRepository, times(3)).findById(1L);
+        verify(productRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testAdjustStock_KeepsCachedReads() {
+        when(productRepository.findByVendorId(7L)).thenReturn(List.of(testProduct));
+        when(productRepository.adjustStock(1L, -1)).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        productService.getProductsByVendor(7L);
+
+        productService.adjustStock(1L, -1);
+        productService.getProductsByVendor(7L);
+
+        verify(productRepository, times(1)).findByVendorId(7L);
+    }
+
+    @Test
+    void testAddProduct_EvictsListCaches() {
+        when(productRepository.findByVendorId(7L)).thenReturn(List.of(testProduct));
+        when(productRepository.save(any(Product.class))).thenReturn(testProduct);
+        productService.getProductsByVendor(7L);
+        productService.getProductsByVendor(7L);
+
+        productService.addProduct(testProduct);
+        productService.getProductsByVendor(7L);
+
+        verify(productRepository, times(2)).findByVendorId(7L);
+    }
+
+    @Test
+    void testDeleteProduct_EvictsCachedProduct() {
+        when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+        when(productRepository.existsById(1L)).thenReturn(true);
+        productService.getProductById(1L);
+
+        productService.deleteProduct(1L);
+        productService.getProductById(1L);
+
+        verify(productRepository, times(2)).findById(1L);
+    }
+}
@@ -1,7 +1,11 @@
 package com.product.service;
 
-import com.product.dto.VendorDTO;
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.product.ProductDTO;
+import com.jewelshop.contracts.vendor.VendorDTO;
 import com.product.entity.Product;
+import com.product.event.ProductChangeLog;
+import com.product.event.ProductChangeType;
 import com.product.exception.ProductNotFoundException;
 import com.product.feignclients.VendorClient;
 import com.product.repository.ProductRepository;
@@ -11,10 +15,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import jakarta.persistence.EntityManager;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,6 +37,12 @@ class ProductServiceTest {
     @Mock
     private VendorClient vendorClient;
 
+    @Mock
+    private ProductChangeLog productChangeLog;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private ProductService productService;
 
@@ -47,11 +61,7 @@ class ProductServiceTest {
         testProduct.setProductUrl("http://example.com/product1");
         testProduct.setVendorId(1L);
 
-        testVendorDTO = new VendorDTO();
-        testVendorDTO.setVendorID(1L);
-        testVendorDTO.setName("Gold Jewellers");
-        testVendorDTO.setMailId("info@goldjewellers.com");
-        testVendorDTO.setPhoneNo("1234567890");
+        testVendorDTO = new VendorDTO(1L, "Gold Jewellers", "info@goldjewellers.com", "1234567890");
     }
 
     @Test
@@ -76,12 +86,12 @@ class ProductServiceTest {
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
 
         // Act
-        Product result = productService.getProductById(1L);
+        ProductDTO result = productService.getProductById(1L);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1L, result.getProductId());
-        assertEquals("gold", result.getProductMaterial());
+        assertEquals(1L, result.productId());
+        assertEquals("gold", result.productMaterial());
         verify(productRepository).findById(1L);
     }
 
@@ -113,13 +123,13 @@ class ProductServiceTest {
         when(productRepository.findAll()).thenReturn(products);
 
         // Act
-        List<Product> result = productService.getAllProducts();
+        List<ProductDTO> result = productService.getAllProducts();
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals("gold", result.get(0).getProductMaterial());
-        assertEquals("silver", result.get(1).getProductMaterial());
+        assertEquals("gold", result.get(0).productMaterial());
+        assertEquals("silver", result.get(1).productMaterial());
         verify(productRepository).findAll();
     }
 
@@ -139,16 +149,96 @@ class ProductServiceTest {
         when(productRepository.findByVendorId(1L)).thenReturn(products);
 
         // Act
-        List<Product> result = productService.getProductsByVendor(1L);
+        List<ProductDTO> result = productService.getProductsByVendor(1L);
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        assertEquals(1L, result.get(0).getVendorId());
-        assertEquals(1L, result.get(1).getVendorId());
+        assertEquals(1L, result.get(0).vendorId());
+        assertEquals(1L, result.get(1).vendorId());
         verify(productRepository).findByVendorId(1L);
     }
 
+    @Test
+    void testGetProductsByIds_Success() {
+        // Arrange
+        Product product2 = new Product();
+        product2.setProductId(2L);
+        product2.setProductMaterial("silver");
+        product2.setVendorId(1L);
+
+        List<Long> ids = Arrays.asList(1L, 2L);
+        when(productRepository.findAllById(ids)).thenReturn(Arrays.asList(testProduct, product2));
+
+        // Act
+        List<ProductDTO> result = productService.getProductsByIds(ids);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(productRepository).findAllById(ids);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetProductsByIds_EmptyList() {
+        // Act
+        List<ProductDTO> result = productService.getProductsByIds(Arrays.asList());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(productRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void testGetProductsPage_HasNextPage() {
+        // Arrange
+        Product product2 = new Product();
+        product2.setProductId(2L);
+        Product product3 = new Product();
+        product3.setProductId(3L);
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(0L, Limit.of(3)))
+                .thenReturn(Arrays.asList(testProduct, product2, product3));
+
+        // Act
+        KeysetPage<Product> page = productService.getProductsPage(null, 2);
+
+        // Assert
+        assertEquals(2, page.items().size());
+        assertEquals(2L, page.nextCursor());
+    }
+
+    @Test
+    void testGetProductsPage_LastPage() {
+        // Arrange
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(0L, Limit.of(3)))
+                .thenReturn(Arrays.asList(testProduct));
+
+        // Act
+        KeysetPage<Product> page = productService.getProductsPage(0L, 2);
+
+        // Assert
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testStreamAllProducts_DetachesEachRow() {
+        // Arrange
+        Product product2 = new Product();
+        product2.setProductId(2L);
+        when(productRepository.streamAll()).thenReturn(Stream.of(testProduct, product2));
+        List<Long> seen = new ArrayList<>();
+
+        // Act
+        productService.streamAllProducts(product -> seen.add(product.getProductId()));
+
+        // Assert
+        assertEquals(Arrays.asList(1L, 2L), seen);
+        verify(entityManager).detach(testProduct);
+        verify(entityManager).detach(product2);
+        verify(productRepository, never()).findAll();
+    }
+
     @Test
     void testUpdateProduct_Success() {
         // Arrange
@@ -162,7 +252,7 @@ class ProductServiceTest {
         updatedProduct.setVendorId(1L);
 
         when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
-        when(productRepository.save(any(Product.class))).thenReturn(updatedProduct);
+        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         Product result = productService.updateProduct(1L, updatedProduct);
@@ -171,9 +261,10 @@ class ProductServiceTest {
         assertNotNull(result);
         assertEquals("white gold", result.getProductMaterial());
         assertEquals(12.0, result.getProductWeight());
-        assertEquals(7, result.getProductQuantity());
+        assertEquals(5, result.getProductQuantity(), "quantity only changes through stock adjustments");
         verify(productRepository).findById(1L);
         verify(productRepository).save(any(Product.class));
+        verify(productChangeLog).publish(1L, ProductChangeType.UPDATED);
     }
 
     @Test
@@ -201,6 +292,7 @@ class ProductServiceTest {
         // Assert
         verify(productRepository).existsById(1L);
         verify(productRepository).deleteById(1L);
+        verify(productChangeLog).publish(1L, ProductChangeType.DELETED);
     }
 
     @Test
@@ -222,7 +314,7 @@ class ProductServiceTest {
         when(productRepository.findAll()).thenReturn(Arrays.asList());
 
         // Act
-        List<Product> result = productService.getAllProducts();
+        List<ProductDTO> result = productService.getAllProducts();
 
         // Assert
         assertNotNull(result);
@@ -236,7 +328,7 @@ class ProductServiceTest {
         when(productRepository.findByVendorId(1L)).thenReturn(Arrays.asList());
 
         // Act
-        List<Product> result = productService.getProductsByVendor(1L);
+        List<ProductDTO> result = productService.getProductsByVendor(1L);
 
         // Assert
         assertNotNull(result);
@@ -0,0 +1,169 @@
+package com.product.service;
+
+import com.jewelshop.contracts.product.StockReservationLineDTO;
+import com.jewelshop.contracts.product.StockReservationRequestDTO;
+import com.product.entity.Product;
+import com.product.event.ProductChangeLog;
+import com.product.exception.InsufficientStockException;
+import com.product.repository.ProductRepository;
+import com.product.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A flash sale against H2: a thousand buyers race for the hundred units of one SKU, each in its
+ * own transaction. Exactly a hundred must get one, and the quantity must end at zero.
+ * <p>
+ * For comparison the same race is run through the read-check-write that updateProduct used to
+ * do; its oversell is logged, not asserted, since how many updates are lost depends on timing.
+ */
+@DataJpaTest
+@Import({StockReservationService.class, ProductChangeLog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationContentionTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationContentionTest.class);
+
+    private static final int STOCK = 100;
+    private static final int BUYERS = 1000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long productId;
+    private long elapsedNanos;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setProductMaterial("gold");
+        product.setProductQuantity(STOCK);
+        productId = productRepository.save(product).getProductId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testReserve_HotSkuIsNeverOversold() throws Exception {
+        // Act
+        List<Outcome> outcomes = race(buyer -> () -> {
+            stockReservationService.reserve(new StockReservationRequestDTO("BILL-" + buyer,
+                    List.of(new StockReservationLineDTO(productId, 1)), null));
+            return true;
+        });
+
+        // Assert
+        long sold = outcomes.stream().filter(outcome -> outcome.sold).count();
+        long soldOut = outcomes.stream().filter(outcome -> outcome.soldOut).count();
+        report("conditional decrement", outcomes);
+        assertEquals(STOCK, sold);
+        assertEquals(BUYERS - STOCK, soldOut, "every other buyer should be told the SKU is sold out");
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getProductQuantity());
+        assertEquals(STOCK, stockReservationRepository.count());
+    }
+
+    @Test
+    void testReadModifyWrite_ForComparison() throws Exception {
+        // Act: the pattern the conditional UPDATE replaces
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Outcome> outcomes = race(buyer -> () -> transactionTemplate.execute(status -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            if (product.getProductQuantity() < 1) {
+                throw new InsufficientStockException(List.of(productId));
+            }
+            product.setProductQuantity(product.getProductQuantity() - 1);
+            productRepository.save(product);
+            return true;
+        }));
+
+        // Assert: nothing about the outcome, only that the race ran
+        report("read-modify-write", outcomes);
+        assertEquals(BUYERS, outcomes.size());
+    }
+
+    private List<Outcome> race(BuyerFactory buyers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Outcome>> futures = new ArrayList<>();
+            for (int buyer = 0; buyer < BUYERS; buyer++) {
+                Callable<Boolean> purchase = buyers.create(buyer);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long startNanos = System.nanoTime();
+                    boolean sold = false;
+                    boolean soldOut = false;
+                    try {
+                        sold = purchase.call();
+                    } catch (InsufficientStockException e) {
+                        soldOut = true;
+                    } catch (Exception e) {
+                        log.debug("Purchase failed", e);
+                    }
+                    return new Outcome(sold, soldOut, System.nanoTime() - startNanos);
+                }));
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            List<Outcome> outcomes = new ArrayList<>();
+            for (Future<Outcome> future : futures) {
+                outcomes.add(future.get());
+            }
+            elapsedNanos = System.nanoTime() - startNanos;
+            return outcomes;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void report(String approach, List<Outcome> outcomes) {
+        long sold = outcomes.stream().filter(outcome -> outcome.sold).count();
+        long[] latencies = outcomes.stream().mapToLong(outcome -> outcome.nanos).sorted().toArray();
+        int remaining = productRepository.findById(productId).orElseThrow().getProductQuantity();
+        log.info("{}: {} buyers, {} sold of {} in stock, {} left, oversold by {}; {} purchases/s, p50 {} ms, p99 {} ms",
+                approach, outcomes.size(), sold, STOCK, remaining, Math.max(0, sold - STOCK + remaining),
+                outcomes.size() * 1_000_000_000L / Math.max(1, elapsedNanos),
+                latencies[latencies.length / 2] / 1_000_000, latencies[latencies.length * 99 / 100] / 1_000_000);
+    }
+
+    private interface BuyerFactory {
+        Callable<Boolean> create(int buyer);
+    }
+
+    private record Outcome(boolean sold, boolean soldOut, long nanos) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.product.service;
+
+import com.jewelshop.contracts.product.StockReservationDTO;
+import com.jewelshop.contracts.product.StockReservationLineDTO;
+import com.jewelshop.contracts.product.StockReservationRequestDTO;
+import com.product.entity.Product;
+import com.product.entity.StockReservation;
+import com.product.event.ProductChangeLog;
+import com.product.exception.InsufficientStockException;
+import com.product.exception.ReservationNotFoundException;
+import com.product.repository.ProductRepository;
+import com.product.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs StockReservationService against H2 with every call in its own committed transaction, as in
+ * production, so rollbacks and after-commit change events behave for real.
+ */
+@DataJpaTest
+@Import({StockReservationService.class, ProductChangeLog.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductChangeLog productChangeLog;
+
+    private Long ringId;
+    private Long chainId;
+
+    @BeforeEach
+    void setUp() {
+        ringId = saveProduct("gold", 5);
+        chainId = saveProduct("silver", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testReserve_TakesStockAndMergesLinesOfTheSameProduct() {
+        // Arrange
+        long sequenceBefore = productChangeLog.getLatestSequence();
+        long catalogueBefore = productChangeLog.getCatalogueVersion();
+
+        // Act
+        StockReservationDTO reservation = stockReservationService.reserve(request("BILL-1",
+                new StockReservationLineDTO(ringId, 2), new StockReservationLineDTO(chainId, 1),
+                new StockReservationLineDTO(ringId, 1)));
+
+        // Assert
+        assertEquals("PENDING", reservation.status());
+        assertEquals(List.of(new StockReservationLineDTO(ringId, 3), new StockReservationLineDTO(chainId, 1)),
+                reservation.lines());
+        assertTrue(reservation.expiresAt().isAfter(Instant.now()));
+        assertEquals(2, quantity(ringId));
+        assertEquals(1, quantity(chainId));
+        assertEquals(sequenceBefore + 2, productChangeLog.getLatestSequence());
+        assertEquals(catalogueBefore, productChangeLog.getCatalogueVersion(), "stock does not version the catalogue");
+    }
+
+    @Test
+    void testReserve_ShortProductRollsBackEveryLine() {
+        // Act
+        InsufficientStockException e = assertThrows(InsufficientStockException.class,
+                () -> stockReservationService.reserve(request("BILL-2",
+                        new StockReservationLineDTO(ringId, 1), new StockReservationLineDTO(chainId, 3),
+                        new StockReservationLineDTO(999L, 1))));
+
+        // Assert
+        assertEquals(List.of(chainId, 999L), e.getProductIds());
+        assertEquals(5, quantity(ringId));
+        assertEquals(2, quantity(chainId));
+        assertEquals(0, stockReservationRepository.count());
+    }
+
+    @Test
+    void testReserve_RetriedKeyReturnsFirstReservationWithoutTakingStockAgain() {
+        // Arrange
+        stockReservationService.reserve(request("BILL-3", new StockReservationLineDTO(ringId, 2)));
+
+        // Act
+        StockReservationDTO retried = stockReservationService.reserve(request("BILL-3",
+                new StockReservationLineDTO(ringId, 4)));
+
+        // Assert
+        assertEquals(List.of(new StockReservationLineDTO(ringId, 2)), retried.lines());
+        assertEquals(3, quantity(ringId));
+    }
+
+    @Test
+    void testConfirm_KeepsStockTakenAndIsIdempotent() {
+        // Arrange
+        stockReservationService.reserve(request("BILL-4", new StockReservationLineDTO(ringId, 2)));
+
+        // Act
+        stockReservationService.confirm("BILL-4");
+        StockReservationDTO confirmed = stockReservationService.confirm("BILL-4");
+
+        // Assert
+        assertEquals("CONFIRMED", confirmed.status());
+        assertEquals(3, quantity(ringId));
+    }
+
+    @Test
+    void testRelease_ReturnsStockOnceAndBlocksLaterConfirm() {
+        // Arrange
+        stockReservationService.reserve(request("BILL-5", new StockReservationLineDTO(ringId, 2)));
+        stockReservationService.confirm("BILL-5");
+
+        // Act
+        stockReservationService.release("BILL-5");
+        StockReservationDTO released = stockReservationService.release("BILL-5");
+
+        // Assert
+        assertEquals("RELEASED", released.status());
+        assertEquals(5, quantity(ringId));
+        assertThrows(IllegalStateException.class, () -> stockReservationService.confirm("BILL-5"));
+    }
+
+    @Test
+    void testExpireOverdue_ReturnsStockOfPendingReservationsPastTheirHold() {
+        // Arrange
+        stockReservationService.reserve(request("BILL-6", new StockReservationLineDTO(ringId, 2)));
+        stockReservationService.reserve(request("BILL-7", new StockReservationLineDTO(ringId, 1)));
+        stockReservationService.reserve(request("BILL-8", new StockReservationLineDTO(chainId, 1)));
+        stockReservationService.confirm("BILL-8");
+        backdate("BILL-6");
+        backdate("BILL-8");
+
+        // Act
+        int expired = stockReservationService.expireOverdue();
+
+        // Assert
+        assertEquals(1, expired);
+        assertEquals("EXPIRED", stockReservationService.getReservation("BILL-6").status());
+        assertEquals("PENDING", stockReservationService.getReservation("BILL-7").status());
+        assertEquals(4, quantity(ringId));
+        assertEquals(1, quantity(chainId));
+    }
+
+    @Test
+    void testConfirm_ExpiredReservationTakesStockAgainWhileAvailable() {
+        // Arrange
+        stockReservationService.reserve(request("BILL-9", new StockReservationLineDTO(chainId, 2)));
+        backdate("BILL-9");
+        stockReservationService.expireOverdue();
+
+        // Act
+        StockReservationDTO confirmed = stockReservationService.confirm("BILL-9");
+
+        // Assert
+        assertEquals("CONFIRMED", confirmed.status());
+        assertEquals(0, quantity(chainId));
+    }
+
+    @Test
+    void testConfirm_ExpiredReservationWhoseStockWasSoldFails() {
+        // Arrange
+        stockReservationService.reserve(request("BILL-10", new StockReservationLineDTO(chainId, 2)));
+        backdate("BILL-10");
+        stockReservationService.expireOverdue();
+        stockReservationService.reserve(request("BILL-11", new StockReservationLineDTO(chainId, 1)));
+
+        // Act & Assert
+        assertThrows(InsufficientStockException.class, () -> stockReservationService.confirm("BILL-10"));
+        assertEquals("EXPIRED", stockReservationService.getReservation("BILL-10").status());
+        assertEquals(1, quantity(chainId));
+    }
+
+    @Test
+    void testUnknownKey_NotFound() {
+        assertThrows(ReservationNotFoundException.class, () -> stockReservationService.confirm("NOPE"));
+        assertThrows(ReservationNotFoundException.class, () -> stockReservationService.release("NOPE"));
+        assertThrows(ReservationNotFoundException.class, () -> stockReservationService.getReservation("NOPE"));
+    }
+
+    private Long saveProduct(String material, int quantity) {
+        Product product = new Product();
+        product.setProductMaterial(material);
+        product.setProductQuantity(quantity);
+        return productRepository.save(product).getProductId();
+    }
+
+    private int quantity(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getProductQuantity();
+    }
+
+    private void backdate(String reservationKey) {
+        List<StockReservation> reservations = stockReservationRepository.findByReservationKeyOrderByProductIdAsc(reservationKey);
+        reservations.forEach(reservation -> reservation.setExpiresAt(Instant.now().minusSeconds(1)));
+        stockReservationRepository.saveAll(reservations);
+    }
+
+    private static StockReservationRequestDTO request(String reservationKey, StockReservationLineDTO... lines) {
+        return new StockReservationRequestDTO(reservationKey, List.of(lines), null);
+    }
+}
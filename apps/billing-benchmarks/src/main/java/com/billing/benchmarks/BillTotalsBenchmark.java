@@ -0,0 +1,79 @@
+package com.billing.benchmarks;
+
+import com.billing.dto.BillItemDTO;
+import com.billing.pricing.BillTotals;
+import com.billing.pricing.BillTotalsCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bill totals (subtotal, GST, discounts) for invoices of 1 to 1,000 lines: the single-pass
+ * {@link BillTotalsCalculator} against the multi-pass code it replaced ({@link LegacyBillTotals}).
+ * Setup fails if the two ever disagree, so a faster but wrong calculator cannot "win".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BillTotalsBenchmark {
+
+    // Materials as they arrive from the Product service, in mixed case; gold sits late so
+    // the "any gold" scan cannot stop early on most invoices
+    private static final String[] MATERIALS = {
+            "Silver", "silver", "Pearl", "Ruby", "EMERALD", "Sterling Silver", "Platinum", "Rose Gold"
+    };
+
+    @Param({"1", "10", "100", "1000"})
+    int lines;
+
+    List<BillItemDTO> items;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            BillItemDTO item = new BillItemDTO();
+            item.setProductId((long) i + 1);
+            item.setProductMaterial(MATERIALS[random.nextInt(MATERIALS.length)]);
+            item.setQuantity(1 + random.nextInt(3));
+            BigDecimal unitPrice = BigDecimal.valueOf(100 + random.nextInt(100_000), 2);
+            item.setUnitPrice(unitPrice);
+            item.setTotalPrice(unitPrice.multiply(BigDecimal.valueOf(item.getQuantity())));
+            items.add(item);
+        }
+
+        BillTotals expected = LegacyBillTotals.calculate(items);
+        BillTotals actual = BillTotalsCalculator.calculate(items);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Calculators disagree for " + lines + " lines: " + expected + " vs " + actual);
+        }
+    }
+
+    @Benchmark
+    public BillTotals legacyMultiPass() {
+        return LegacyBillTotals.calculate(items);
+    }
+
+    @Benchmark
+    public BillTotals singlePass() {
+        return BillTotalsCalculator.calculate(items);
+    }
+}
@@ -0,0 +1,70 @@
+package com.billing.benchmarks;
+
+import com.billing.dto.BillItemDTO;
+import com.billing.pricing.BillTotals;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Verbatim copy of the multi-pass totals code BillService used before
+ * {@link com.billing.pricing.BillTotalsCalculator}; kept only as the benchmark baseline.
+ */
+final class LegacyBillTotals {
+
+    private LegacyBillTotals() {
+    }
+
+    static BillTotals calculate(List<BillItemDTO> items) {
+        if (items == null || items.isEmpty()) {
+            return BillTotals.ZERO;
+        }
+
+        BigDecimal subtotal = items.stream()
+                .map(item -> item.getTotalPrice() != null ? item.getTotalPrice() : BigDecimal.ZERO)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        BigDecimal taxRate = calculateJewelleryTaxRate(items);
+        BigDecimal taxAmount = subtotal.multiply(taxRate).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal discountAmount = calculateJewelleryDiscount(subtotal, items);
+
+        return new BillTotals(
+                subtotal.setScale(2, RoundingMode.HALF_UP),
+                taxAmount,
+                discountAmount,
+                subtotal.add(taxAmount).subtract(discountAmount).setScale(2, RoundingMode.HALF_UP));
+    }
+
+    private static BigDecimal calculateJewelleryTaxRate(List<BillItemDTO> items) {
+        boolean hasGold = items.stream()
+                .anyMatch(item -> item.getProductMaterial() != null &&
+                        item.getProductMaterial().toLowerCase().contains("gold"));
+
+        return hasGold ? new BigDecimal("0.03") : new BigDecimal("0.05");
+    }
+
+    private static BigDecimal calculateJewelleryDiscount(BigDecimal subtotal, List<BillItemDTO> items) {
+        BigDecimal discount = BigDecimal.ZERO;
+
+        int totalQuantity = items.stream().mapToInt(BillItemDTO::getQuantity).sum();
+
+        if (totalQuantity >= 5) {
+            discount = subtotal.multiply(new BigDecimal("0.10"));
+        } else if (totalQuantity >= 3) {
+            discount = subtotal.multiply(new BigDecimal("0.05"));
+        }
+
+        boolean hasPreciousMetal = items.stream()
+                .anyMatch(item -> {
+                    String material = item.getProductMaterial() != null ? item.getProductMaterial().toLowerCase() : "";
+                    return material.contains("platinum") || material.contains("diamond");
+                });
+
+        if (hasPreciousMetal) {
+            discount = discount.add(subtotal.multiply(new BigDecimal("0.02")));
+        }
+
+        return discount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
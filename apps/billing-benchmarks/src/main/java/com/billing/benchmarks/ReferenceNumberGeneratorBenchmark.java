@@ -0,0 +1,130 @@
+package com.billing.benchmarks;
+
+import com.billing.idgen.ReferenceNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link ReferenceNumberGenerator} under contention, plus a single-shot run that
+ * issues several million ids from concurrently running "nodes" and fails on any duplicate.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReferenceNumberGeneratorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedGenerator {
+        final ReferenceNumberGenerator generator = new ReferenceNumberGenerator(1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(1)
+    public String billNumberSingleThread(SharedGenerator state) {
+        return state.generator.nextBillNumber();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    public String billNumberFourThreads(SharedGenerator state) {
+        return state.generator.nextBillNumber();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(4)
+    public long rawIdFourThreads(SharedGenerator state) {
+        return state.generator.nextId();
+    }
+
+    @State(Scope.Benchmark)
+    public static class Cluster {
+        @Param({"4"})
+        int nodes;
+
+        @Param({"2"})
+        int threadsPerNode;
+
+        @Param({"1000000"})
+        int idsPerThread;
+
+        ReferenceNumberGenerator[] generators;
+        long[][] issued;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            generators = new ReferenceNumberGenerator[nodes];
+            for (int node = 0; node < nodes; node++) {
+                generators[node] = new ReferenceNumberGenerator(node);
+            }
+            issued = new long[nodes * threadsPerNode][idsPerThread];
+        }
+    }
+
+    /**
+     * Issues nodes x threadsPerNode x idsPerThread ids concurrently and checks that all of them
+     * are distinct. The reported time covers generation only; ids/s = total ids / score.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public int collisionFreeAcrossNodes(Cluster cluster) throws InterruptedException {
+        int workers = cluster.nodes * cluster.threadsPerNode;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            ReferenceNumberGenerator generator = cluster.generators[w % cluster.nodes];
+            long[] out = cluster.issued[w];
+            threads[w] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < out.length; i++) {
+                    out[i] = generator.nextId();
+                }
+            });
+            threads[w].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        long[] all = new long[workers * cluster.idsPerThread];
+        for (int w = 0; w < workers; w++) {
+            System.arraycopy(cluster.issued[w], 0, all, w * cluster.idsPerThread, cluster.idsPerThread);
+        }
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                throw new IllegalStateException("Duplicate id " + all[i]);
+            }
+        }
+        return all.length;
+    }
+}
@@ -0,0 +1,21 @@
+package com.api_gateway.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the gateway's single shared proxy client; Gateway MVC picks up any
+ * ClientHttpRequestFactory bean for its RestClient.
+ */
+@Configuration
+@EnableConfigurationProperties(RouteHttpClientProperties.class)
+public class GatewayHttpClientConfig {
+
+	@Bean
+	public RouteAwareClientHttpRequestFactory routeAwareClientHttpRequestFactory(RouteHttpClientProperties properties,
+			MeterRegistry meterRegistry) {
+		return new RouteAwareClientHttpRequestFactory(properties, meterRegistry);
+	}
+}
@@ -0,0 +1,272 @@
+package com.api_gateway.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Request factory behind the gateway's proxy RestClient. Each route gets its own pooled
+ * HttpClient with the timeouts and connection limits of {@link RouteHttpClientProperties}, so a
+ * slow upstream can hold at most its own pool's worth of request threads; further requests to
+ * it fail after {@code acquire-timeout} instead of queueing behind it.
+ * <p>
+ * Publishes per route: {@code gateway.route.requests} (latency until the upstream response is
+ * fully relayed, with histogram buckets), {@code gateway.route.in-flight} and
+ * {@code gateway.route.connections} (pool leased/pending/available).
+ */
+public class RouteAwareClientHttpRequestFactory implements ClientHttpRequestFactory, DisposableBean {
+
+	static final String DEFAULT_ROUTE = "default";
+
+	private final RouteHttpClientProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<String, RouteClient> clients = new ConcurrentHashMap<>();
+
+	public RouteAwareClientHttpRequestFactory(RouteHttpClientProperties properties, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+		RouteClient client = clients.computeIfAbsent(currentRouteId(), this::createClient);
+		return new MeteredRequest(client, client.requestFactory.createRequest(uri, httpMethod));
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		for (RouteClient client : clients.values()) {
+			client.httpClient.close();
+		}
+		clients.clear();
+	}
+
+	/** The gateway proxies on the servlet thread, so the matched route is on the current request. */
+	private static String currentRouteId() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		Object routeId = attributes != null
+				? attributes.getAttribute(MvcUtils.GATEWAY_ROUTE_ID_ATTR, RequestAttributes.SCOPE_REQUEST)
+				: null;
+		return routeId != null ? routeId.toString() : DEFAULT_ROUTE;
+	}
+
+	private RouteClient createClient(String routeId) {
+		RouteHttpClientProperties.Settings settings = properties.forRoute(routeId);
+
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(settings.getMaxConnections())
+				.setMaxConnPerRoute(settings.getMaxConnectionsPerUpstream())
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(Timeout.of(settings.getConnectTimeout()))
+						.setSocketTimeout(Timeout.of(settings.getReadTimeout()))
+						.build())
+				.build();
+
+		// A proxy must pass redirects, compressed bodies and cookies through untouched, and must
+		// not replay requests on its own
+		CloseableHttpClient httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectionRequestTimeout(Timeout.of(settings.getAcquireTimeout()))
+						.setResponseTimeout(Timeout.of(settings.getReadTimeout()))
+						.build())
+				.disableRedirectHandling()
+				.disableContentCompression()
+				.disableCookieManagement()
+				.disableAutomaticRetries()
+				.evictExpiredConnections()
+				.evictIdleConnections(TimeValue.ofSeconds(30))
+				.build();
+
+		RouteClient client = new RouteClient(routeId, httpClient, new HttpComponentsClientHttpRequestFactory(httpClient));
+
+		Tags tags = Tags.of("route", routeId);
+		Gauge.builder("gateway.route.in-flight", client.inFlight, AtomicInteger::get)
+				.tags(tags)
+				.description("Proxied requests awaiting or streaming an upstream response")
+				.register(meterRegistry);
+		Gauge.builder("gateway.route.connections", connectionManager, m -> m.getTotalStats().getLeased())
+				.tags(tags.and("state", "leased"))
+				.register(meterRegistry);
+		Gauge.builder("gateway.route.connections", connectionManager, m -> m.getTotalStats().getPending())
+				.tags(tags.and("state", "pending"))
+				.register(meterRegistry);
+		Gauge.builder("gateway.route.connections", connectionManager, m -> m.getTotalStats().getAvailable())
+				.tags(tags.and("state", "available"))
+				.register(meterRegistry);
+		return client;
+	}
+
+	private void record(RouteClient client, HttpMethod method, String status, long startNanos) {
+		Timer.builder("gateway.route.requests")
+				.tags("route", client.routeId, "method", method.name(), "status", status)
+				.description("Latency of proxied requests, until the upstream response is fully relayed")
+				.publishPercentileHistogram()
+				.register(meterRegistry)
+				.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static final class RouteClient {
+		private final String routeId;
+		private final CloseableHttpClient httpClient;
+		private final HttpComponentsClientHttpRequestFactory requestFactory;
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private RouteClient(String routeId, CloseableHttpClient httpClient,
+				HttpComponentsClientHttpRequestFactory requestFactory) {
+			this.routeId = routeId;
+			this.httpClient = httpClient;
+			this.requestFactory = requestFactory;
+		}
+	}
+
+	/** Times the exchange from execute() until the response is closed, keeping bodies streamed. */
+	private final class MeteredRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+		private final RouteClient client;
+		private final ClientHttpRequest delegate;
+
+		private MeteredRequest(RouteClient client, ClientHttpRequest delegate) {
+			this.client = client;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public ClientHttpResponse execute() throws IOException {
+			long start = System.nanoTime();
+			client.inFlight.incrementAndGet();
+			try {
+				return new MeteredResponse(client, getMethod(), start, delegate.execute());
+			} catch (IOException | RuntimeException e) {
+				client.inFlight.decrementAndGet();
+				record(client, getMethod(), "IO_ERROR", start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void setBody(Body body) {
+			if (delegate instanceof StreamingHttpOutputMessage streaming) {
+				streaming.setBody(body);
+			} else {
+				try {
+					body.writeTo(delegate.getBody());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+
+		@Override
+		public OutputStream getBody() throws IOException {
+			return delegate.getBody();
+		}
+
+		@Override
+		public HttpMethod getMethod() {
+			return delegate.getMethod();
+		}
+
+		@Override
+		public URI getURI() {
+			return delegate.getURI();
+		}
+
+		@Override
+		public Map<String, Object> getAttributes() {
+			return delegate.getAttributes();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+	}
+
+	private final class MeteredResponse implements ClientHttpResponse {
+
+		private final RouteClient client;
+		private final HttpMethod method;
+		private final long start;
+		private final ClientHttpResponse delegate;
+		private boolean closed;
+
+		private MeteredResponse(RouteClient client, HttpMethod method, long start, ClientHttpResponse delegate) {
+			this.client = client;
+			this.method = method;
+			this.start = start;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() throws IOException {
+			return delegate.getStatusCode();
+		}
+
+		@Override
+		public String getStatusText() throws IOException {
+			return delegate.getStatusText();
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			return delegate.getBody();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public void close() {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			String status;
+			try {
+				status = String.valueOf(delegate.getStatusCode().value());
+			} catch (IOException e) {
+				status = "IO_ERROR";
+			}
+			try {
+				delegate.close();
+			} finally {
+				client.inFlight.decrementAndGet();
+				record(client, method, status, start);
+			}
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.api_gateway.http;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Connection pool and timeout settings of the proxy HTTP client, per gateway route.
+ * Unset route values fall back to {@code gateway.http-client.defaults.*}.
+ */
+@ConfigurationProperties(prefix = "gateway.http-client")
+public class RouteHttpClientProperties {
+
+	private final Settings defaults = Settings.builtInDefaults();
+
+	private final Map<String, Settings> routes = new LinkedHashMap<>();
+
+	public Settings getDefaults() {
+		return defaults;
+	}
+
+	public Map<String, Settings> getRoutes() {
+		return routes;
+	}
+
+	public Settings forRoute(String routeId) {
+		Settings route = routes.get(routeId);
+		return route == null ? defaults : route.withFallback(defaults);
+	}
+
+	public static class Settings {
+
+		/** Time to establish the TCP connection to the upstream instance. */
+		private Duration connectTimeout;
+
+		/** Maximum wait for response data from the upstream instance. */
+		private Duration readTimeout;
+
+		/** Maximum wait for a free pooled connection before the request is rejected. */
+		private Duration acquireTimeout;
+
+		/** Pooled connections for the whole route, across all upstream instances. */
+		private Integer maxConnections;
+
+		/** Pooled connections to any single upstream instance (host:port). */
+		private Integer maxConnectionsPerUpstream;
+
+		static Settings builtInDefaults() {
+			Settings settings = new Settings();
+			settings.connectTimeout = Duration.ofSeconds(2);
+			settings.readTimeout = Duration.ofSeconds(30);
+			settings.acquireTimeout = Duration.ofSeconds(1);
+			settings.maxConnections = 100;
+			settings.maxConnectionsPerUpstream = 50;
+			return settings;
+		}
+
+		Settings withFallback(Settings fallback) {
+			Settings merged = new Settings();
+			merged.connectTimeout = connectTimeout != null ? connectTimeout : fallback.connectTimeout;
+			merged.readTimeout = readTimeout != null ? readTimeout : fallback.readTimeout;
+			merged.acquireTimeout = acquireTimeout != null ? acquireTimeout : fallback.acquireTimeout;
+			merged.maxConnections = maxConnections != null ? maxConnections : fallback.maxConnections;
+			merged.maxConnectionsPerUpstream = maxConnectionsPerUpstream != null
+					? maxConnectionsPerUpstream : fallback.maxConnectionsPerUpstream;
+			return merged;
+		}
+
+		public Duration getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public void setConnectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public Duration getReadTimeout() {
+			return readTimeout;
+		}
+
+		public void setReadTimeout(Duration readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public Duration getAcquireTimeout() {
+			return acquireTimeout;
+		}
+
+		public void setAcquireTimeout(Duration acquireTimeout) {
+			this.acquireTimeout = acquireTimeout;
+		}
+
+		public Integer getMaxConnections() {
+			return maxConnections;
+		}
+
+		public void setMaxConnections(Integer maxConnections) {
+			this.maxConnections = maxConnections;
+		}
+
+		public Integer getMaxConnectionsPerUpstream() {
+			return maxConnectionsPerUpstream;
+		}
+
+		public void setMaxConnectionsPerUpstream(Integer maxConnectionsPerUpstream) {
+			this.maxConnectionsPerUpstream = maxConnectionsPerUpstream;
+		}
+	}
+}
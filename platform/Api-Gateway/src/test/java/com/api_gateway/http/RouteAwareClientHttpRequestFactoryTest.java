@@ -0,0 +1,135 @@
+package com.api_gateway.http;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteAwareClientHttpRequestFactoryTest {
+
+	private HttpServer upstream;
+	private SimpleMeterRegistry meterRegistry;
+	private RouteAwareClientHttpRequestFactory factory;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.createContext("/ok", exchange -> {
+			byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		});
+		upstream.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(1000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			exchange.sendResponseHeaders(204, -1);
+			exchange.close();
+		});
+		upstream.setExecutor(Executors.newCachedThreadPool());
+		upstream.start();
+
+		RouteHttpClientProperties properties = new RouteHttpClientProperties();
+		RouteHttpClientProperties.Settings slowRoute = new RouteHttpClientProperties.Settings();
+		slowRoute.setReadTimeout(Duration.ofMillis(200));
+		properties.getRoutes().put("slow-route", slowRoute);
+		RouteHttpClientProperties.Settings smallRoute = new RouteHttpClientProperties.Settings();
+		smallRoute.setMaxConnections(1);
+		smallRoute.setAcquireTimeout(Duration.ofMillis(100));
+		properties.getRoutes().put("small-route", smallRoute);
+
+		meterRegistry = new SimpleMeterRegistry();
+		factory = new RouteAwareClientHttpRequestFactory(properties, meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		RequestContextHolder.resetRequestAttributes();
+		factory.destroy();
+		upstream.stop(0);
+	}
+
+	@Test
+	void testReadTimeout_AppliesPerRoute() throws IOException {
+		onRoute("slow-route");
+		assertThrows(IOException.class, () -> factory.createRequest(uri("/slow"), HttpMethod.GET).execute());
+
+		onRoute("other-route");
+		try (ClientHttpResponse response = factory.createRequest(uri("/slow"), HttpMethod.GET).execute()) {
+			assertEquals(204, response.getStatusCode().value());
+		}
+	}
+
+	@Test
+	void testMaxConnections_ExhaustedPoolFailsFast() throws IOException {
+		onRoute("small-route");
+		try (ClientHttpResponse held = factory.createRequest(uri("/ok"), HttpMethod.GET).execute()) {
+			assertEquals(200, held.getStatusCode().value());
+
+			long start = System.nanoTime();
+			assertThrows(IOException.class, () -> factory.createRequest(uri("/ok"), HttpMethod.GET).execute());
+			assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 900);
+		}
+
+		// released connection is reused
+		try (ClientHttpResponse response = factory.createRequest(uri("/ok"), HttpMethod.GET).execute()) {
+			assertEquals(200, response.getStatusCode().value());
+		}
+	}
+
+	@Test
+	void testMetrics_RecordedPerRoute() throws IOException {
+		onRoute("small-route");
+		ClientHttpResponse response = factory.createRequest(uri("/ok"), HttpMethod.GET).execute();
+		assertEquals(1.0, meterRegistry.get("gateway.route.in-flight").tag("route", "small-route").gauge().value());
+		assertEquals(1.0, meterRegistry.get("gateway.route.connections")
+				.tags("route", "small-route", "state", "leased").gauge().value());
+		response.getBody().readAllBytes();
+		response.close();
+
+		assertEquals(0.0, meterRegistry.get("gateway.route.in-flight").tag("route", "small-route").gauge().value());
+		assertEquals(1, meterRegistry.get("gateway.route.requests")
+				.tags("route", "small-route", "method", "GET", "status", "200").timer().count());
+	}
+
+	@Test
+	void testRequestOutsideGatewayRoute_UsesDefaultPool() throws IOException {
+		try (ClientHttpResponse response = factory.createRequest(uri("/ok"), HttpMethod.GET).execute()) {
+			assertEquals(200, response.getStatusCode().value());
+		}
+
+		assertEquals(1, meterRegistry.get("gateway.route.requests")
+				.tag("route", RouteAwareClientHttpRequestFactory.DEFAULT_ROUTE).timer().count());
+	}
+
+	private void onRoute(String routeId) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(MvcUtils.GATEWAY_ROUTE_ID_ATTR, routeId);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://127.0.0.1:" + upstream.getAddress().getPort() + path);
+	}
+}
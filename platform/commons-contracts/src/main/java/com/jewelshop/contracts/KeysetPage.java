@@ -0,0 +1,9 @@
+package com.jewelshop.contracts;
+
+import java.util.List;
+
+/**
+ * @param nextCursor pass as "after" to fetch the next page; null on the last page
+ */
+public record KeysetPage<T>(List<T> items, Long nextCursor) {
+}
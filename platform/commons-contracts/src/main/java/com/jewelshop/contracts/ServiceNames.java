@@ -0,0 +1,17 @@
+package com.jewelshop.contracts;
+
+/**
+ * {@code spring.application.name} of each service, i.e. the id it registers with in Eureka and
+ * the name to give its {@code @FeignClient}.
+ */
+public final class ServiceNames {
+
+	public static final String VENDOR = "Vendor-Service";
+	public static final String PRODUCT = "Product-service";
+	public static final String CUSTOMER = "Customer-service";
+	public static final String BILLING = "Billing-service";
+	public static final String FEEDBACK = "Feedback-service";
+
+	private ServiceNames() {
+	}
+}
@@ -0,0 +1,17 @@
+package com.jewelshop.contracts.billing;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * A bill or payment state change published by {@link com.jewelshop.contracts.ServiceNames#BILLING}.
+ * Delivery is at least once and in {@code eventId} order; consumers should skip ids they have seen.
+ *
+ * @param type          BILL_CREATED, BILL_PAID or PAYMENT_REFUNDED
+ * @param billStatus    the bill's status after the change
+ * @param paymentId     null for BILL_CREATED, and for BILL_PAID when the status was set without a payment
+ * @param amount        the bill total for BILL_CREATED, otherwise the amount paid or refunded
+ */
+public record BillingEventDTO(long eventId, String type, Instant occurredAt, Long billId, String billNumber,
+		Long customerId, Long vendorId, String billStatus, Long paymentId, BigDecimal amount) {
+}
@@ -0,0 +1,25 @@
+package com.jewelshop.contracts.customer;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.jewelshop.contracts.ServiceNames;
+
+/**
+ * Read API of {@link ServiceNames#CUSTOMER}, for {@code @FeignClient(name = ServiceNames.CUSTOMER)}.
+ */
+public interface CustomerContract {
+
+	String BASE_PATH = "/api/customers";
+
+	@GetMapping(BASE_PATH + "/{customerId}")
+	CustomerDTO getCustomerById(@PathVariable("customerId") Long customerId);
+
+	// Unknown ids are left out; the order is not guaranteed
+	@PostMapping(BASE_PATH + "/batch")
+	List<CustomerDTO> getCustomersByIds(@RequestBody List<Long> customerIds);
+}
@@ -0,0 +1,4 @@
+package com.jewelshop.contracts.customer;
+
+public record CustomerDTO(Long customerId, String firstName, String lastName, String emailId, String phoneNo) {
+}
@@ -0,0 +1,30 @@
+package com.jewelshop.contracts.jackson;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * Adds Jackson's Blackbird module to the application's {@code ObjectMapper}, which Spring MVC and
+ * the Feign decoders share. Blackbird replaces reflective getter, setter and constructor calls
+ * with generated lambdas the JIT can inline; see {@code platform/contracts-benchmarks} for what it
+ * buys on the contract DTOs. Turn it off with {@code contracts.jackson.blackbird=false}.
+ */
+@AutoConfiguration(before = JacksonAutoConfiguration.class)
+@ConditionalOnClass({ ObjectMapper.class, BlackbirdModule.class })
+@ConditionalOnProperty(prefix = "contracts.jackson", name = "blackbird", matchIfMissing = true)
+public class ContractsJacksonAutoConfiguration {
+
+	// Picked up by JacksonAutoConfiguration like every other Module bean
+	@Bean
+	@ConditionalOnMissingBean
+	public BlackbirdModule blackbirdModule() {
+		return new BlackbirdModule();
+	}
+}
@@ -0,0 +1,39 @@
+package com.jewelshop.contracts.loadbalancer;
+
+import java.time.Duration;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Instance list for every load-balanced call of a service, enabled with
+ * {@code @LoadBalancerClients(defaultConfiguration = HealthAwareLoadBalancerConfiguration.class)}.
+ * <p>
+ * The list is fetched from discovery every {@code spring.cloud.loadbalancer.health-check.refetch-instances-interval}
+ * and each instance's {@code /actuator/health} is probed every {@code spring.cloud.loadbalancer.health-check.interval};
+ * calls are balanced over the cached healthy instances only, so neither a registry lookup nor a
+ * dead instance is on the request path. Defaults come from {@link LoadBalancerDefaultsEnvironmentPostProcessor}.
+ * <p>
+ * Deliberately not a {@code @Configuration}: Spring Cloud instantiates it in each client's child context.
+ */
+public class HealthAwareLoadBalancerConfiguration {
+
+	@Bean
+	public ServiceInstanceListSupplier healthAwareServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+		return ServiceInstanceListSupplier.builder()
+				.withBlockingDiscoveryClient()
+				.withBlockingHealthChecks(healthCheckClient())
+				.build(context);
+	}
+
+	// A probe that hangs must not hold up the next round of checks
+	private static RestClient healthCheckClient() {
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		requestFactory.setConnectTimeout(Duration.ofSeconds(1));
+		requestFactory.setReadTimeout(Duration.ofSeconds(2));
+		return RestClient.builder().requestFactory(requestFactory).build();
+	}
+}
@@ -0,0 +1,26 @@
+package com.jewelshop.contracts.loadbalancer;
+
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Health-check defaults for {@link HealthAwareLoadBalancerConfiguration}, added with the lowest
+ * precedence so any service property overrides them. Spring Cloud's own defaults never refetch
+ * the instance list and probe only every 25 seconds.
+ */
+public class LoadBalancerDefaultsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+	static final String PROPERTY_SOURCE_NAME = "commonsContractsLoadBalancerDefaults";
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(
+				"spring.cloud.loadbalancer.health-check.interval", "5s",
+				"spring.cloud.loadbalancer.health-check.refetch-instances", "true",
+				"spring.cloud.loadbalancer.health-check.refetch-instances-interval", "15s")));
+	}
+}
@@ -0,0 +1,7 @@
+package com.jewelshop.contracts.product;
+
+/**
+ * @param type CREATED, UPDATED or DELETED for catalogue changes, STOCK when only the quantity moved
+ */
+public record ProductChangeDTO(long sequence, Long productId, String type) {
+}
@@ -0,0 +1,10 @@
+package com.jewelshop.contracts.product;
+
+import java.util.List;
+
+/**
+ * @param epoch    identifies the log; a new epoch means earlier sequences are meaningless
+ * @param complete false when changes after the requested sequence were already dropped from the log
+ */
+public record ProductChangeFeedDTO(String epoch, long latestSequence, boolean complete, List<ProductChangeDTO> changes) {
+}
@@ -0,0 +1,46 @@
+package com.jewelshop.contracts.product;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.ServiceNames;
+
+/**
+ * Read API of {@link ServiceNames#PRODUCT}. Clients extend it with
+ * {@code @FeignClient(name = ServiceNames.PRODUCT)}; the Product service's controller carries
+ * {@code @ServesContract(ProductContract.class)} and is checked against it at start-up.
+ */
+public interface ProductContract {
+
+	String BASE_PATH = "/api/products";
+
+	@GetMapping(BASE_PATH + "/{productId}")
+	ProductDTO getProductById(@PathVariable("productId") Long productId);
+
+	// Read from the database on every call, never from a cache
+	@GetMapping(BASE_PATH + "/{productId}/stock")
+	ProductStockDTO getProductStock(@PathVariable("productId") Long productId);
+
+	@GetMapping(BASE_PATH + "/getAll")
+	List<ProductDTO> getAllProducts();
+
+	@GetMapping(BASE_PATH + "/vendor/{vendorId}")
+	List<ProductDTO> getProductsByVendor(@PathVariable("vendorId") Long vendorId);
+
+	@GetMapping(BASE_PATH + "/page")
+	KeysetPage<ProductDTO> getProductsPage(@RequestParam(value = "after", required = false) Long after,
+			@RequestParam("limit") int limit);
+
+	// Unknown ids are left out; the order is not guaranteed
+	@PostMapping(BASE_PATH + "/batch")
+	List<ProductDTO> getProductsByIds(@RequestBody List<Long> productIds);
+
+	@GetMapping(BASE_PATH + "/changes")
+	ProductChangeFeedDTO getProductChanges(@RequestParam("after") long after, @RequestParam("limit") int limit);
+}
@@ -0,0 +1,9 @@
+package com.jewelshop.contracts.product;
+
+/**
+ * Catalogue view of a product. Stock is left out: it moves with every sale, while this view is
+ * cached and versioned by catalogue changes only; read it with {@link ProductContract#getProductStock}.
+ */
+public record ProductDTO(Long productId, String productMaterial, double productWeight, double productGmPerWeight,
+		String productUrl, Long vendorId) {
+}
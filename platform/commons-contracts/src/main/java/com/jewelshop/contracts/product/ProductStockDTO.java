@@ -0,0 +1,4 @@
+package com.jewelshop.contracts.product;
+
+public record ProductStockDTO(Long productId, int productQuantity) {
+}
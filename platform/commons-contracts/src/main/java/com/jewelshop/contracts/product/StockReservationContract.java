@@ -0,0 +1,39 @@
+package com.jewelshop.contracts.product;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import com.jewelshop.contracts.ServiceNames;
+
+/**
+ * Stock reservations of {@link ServiceNames#PRODUCT}. Reserving takes the stock at once and all-or-nothing
+ * (409 naming the short products otherwise); a PENDING reservation gives it back when it expires unless
+ * it is confirmed first. Confirm and release are idempotent; both answer 404 for an unknown key.
+ */
+public interface StockReservationContract {
+
+	String BASE_PATH = ProductContract.BASE_PATH + "/reservations";
+
+	@PostMapping(BASE_PATH)
+	StockReservationDTO reserve(@RequestBody StockReservationRequestDTO request);
+
+	// Single-line form of reserve
+	@PostMapping(ProductContract.BASE_PATH + "/{productId}/reservations")
+	StockReservationDTO reserveProduct(@PathVariable("productId") Long productId,
+			@RequestParam("reservationKey") String reservationKey, @RequestParam("quantity") int quantity,
+			@RequestParam(value = "holdSeconds", required = false) Long holdSeconds);
+
+	@GetMapping(BASE_PATH + "/{reservationKey}")
+	StockReservationDTO getReservation(@PathVariable("reservationKey") String reservationKey);
+
+	// Marks the stock as sold; a reservation that already expired is taken again if the stock is still there
+	@PostMapping(BASE_PATH + "/{reservationKey}/confirm")
+	StockReservationDTO confirm(@PathVariable("reservationKey") String reservationKey);
+
+	// Returns the stock, whether the reservation was still pending or already confirmed
+	@PostMapping(BASE_PATH + "/{reservationKey}/release")
+	StockReservationDTO release(@PathVariable("reservationKey") String reservationKey);
+}
@@ -0,0 +1,13 @@
+package com.jewelshop.contracts.product;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @param status    PENDING (stock held until {@code expiresAt}), CONFIRMED (sold), RELEASED or EXPIRED
+ *                  (stock returned)
+ * @param expiresAt only meaningful while PENDING
+ */
+public record StockReservationDTO(String reservationKey, String status, Instant expiresAt,
+		List<StockReservationLineDTO> lines) {
+}
@@ -0,0 +1,4 @@
+package com.jewelshop.contracts.product;
+
+public record StockReservationLineDTO(Long productId, int quantity) {
+}
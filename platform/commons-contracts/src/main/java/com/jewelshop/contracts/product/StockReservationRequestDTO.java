@@ -0,0 +1,12 @@
+package com.jewelshop.contracts.product;
+
+import java.util.List;
+
+/**
+ * @param reservationKey caller's id for the reservation (Billing uses the bill number); a key is
+ *                       reserved at most once, so a retried request returns the first reservation
+ * @param lines          may name a product more than once; quantities are added up
+ * @param holdSeconds    how long a PENDING reservation holds the stock; null for the service default
+ */
+public record StockReservationRequestDTO(String reservationKey, List<StockReservationLineDTO> lines, Long holdSeconds) {
+}
@@ -0,0 +1,25 @@
+package com.jewelshop.contracts.resilience;
+
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * Feign timeout defaults, added with the lowest precedence so any service property overrides them.
+ * Without them a Feign call waits 60 seconds for an answer, far longer than the breaker's
+ * slow-call threshold, and holds its bulkhead slot and the caller's thread all that time.
+ */
+public class FeignDefaultsEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+	static final String PROPERTY_SOURCE_NAME = "commonsContractsFeignDefaults";
+
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		environment.getPropertySources().addLast(new MapPropertySource(PROPERTY_SOURCE_NAME, Map.of(
+				"spring.cloud.openfeign.client.config.default.connect-timeout", "2000",
+				"spring.cloud.openfeign.client.config.default.read-timeout", "5000")));
+	}
+}
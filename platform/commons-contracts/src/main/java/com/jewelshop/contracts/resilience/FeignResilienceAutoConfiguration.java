@@ -0,0 +1,67 @@
+package com.jewelshop.contracts.resilience;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.annotation.Bean;
+
+import feign.Capability;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Puts a circuit breaker, a bulkhead, optional hedging and a last-known-good fallback in front of
+ * every {@code @FeignClient} of a service that has OpenFeign; turn it off with
+ * {@code contracts.resilience.enabled=false}. Metrics go to the service's {@link MeterRegistry}
+ * (Actuator), or nowhere without one.
+ */
+@AutoConfiguration
+@ConditionalOnClass({ FeignClient.class, Capability.class })
+@ConditionalOnProperty(prefix = "contracts.resilience", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(FeignResilienceProperties.class)
+public class FeignResilienceAutoConfiguration {
+
+	private static final Log log = LogFactory.getLog(FeignResilienceAutoConfiguration.class);
+
+	// resilience4j.circuitbreaker.state / .calls / .failure.rate, tagged with the Feign client name
+	@Bean
+	@ConditionalOnMissingBean(name = "feignCircuitBreakerRegistry")
+	public CircuitBreakerRegistry feignCircuitBreakerRegistry(ObjectProvider<MeterRegistry> meterRegistry) {
+		CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+		registry.getEventPublisher().onEntryAdded(added -> added.getAddedEntry().getEventPublisher()
+				.onStateTransition(event -> log.warn("Circuit breaker " + event.getCircuitBreakerName() + ": "
+						+ event.getStateTransition())));
+		meterRegistry.ifAvailable(meters -> TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meters));
+		return registry;
+	}
+
+	// resilience4j.bulkhead.available.concurrent.calls / .max.allowed.concurrent.calls
+	@Bean
+	@ConditionalOnMissingBean(name = "feignBulkheadRegistry")
+	public BulkheadRegistry feignBulkheadRegistry(ObjectProvider<MeterRegistry> meterRegistry) {
+		BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+		meterRegistry.ifAvailable(meters -> TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meters));
+		return registry;
+	}
+
+	// Applied by Spring Cloud OpenFeign to every @FeignClient
+	@Bean
+	@ConditionalOnMissingBean
+	public ResilientFeignCapability resilientFeignCapability(FeignResilienceProperties properties,
+			CircuitBreakerRegistry feignCircuitBreakerRegistry,
+			BulkheadRegistry feignBulkheadRegistry,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return new ResilientFeignCapability(properties, feignCircuitBreakerRegistry, feignBulkheadRegistry,
+				meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+	}
+}
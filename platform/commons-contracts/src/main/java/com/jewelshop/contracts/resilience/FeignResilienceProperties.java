@@ -0,0 +1,269 @@
+package com.jewelshop.contracts.resilience;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+
+/**
+ * Circuit breaker, bulkhead, hedging and fallback-cache settings of the Feign clients, e.g.
+ * {@code contracts.resilience.clients.Customer-service.max-concurrent-calls=50}. The map key is the
+ * {@code @FeignClient} name (matched case-insensitively); unset values fall back to
+ * {@code contracts.resilience.defaults.*}.
+ */
+@ConfigurationProperties(prefix = "contracts.resilience")
+public class FeignResilienceProperties {
+
+	private Settings defaults = Settings.builtInDefaults();
+
+	private Map<String, Settings> clients = new LinkedHashMap<>();
+
+	public Settings forClient(String clientName) {
+		for (Map.Entry<String, Settings> client : clients.entrySet()) {
+			if (client.getKey().equalsIgnoreCase(clientName)) {
+				return client.getValue().withFallback(defaults);
+			}
+		}
+		return defaults;
+	}
+
+	public Settings getDefaults() {
+		return defaults;
+	}
+
+	public void setDefaults(Settings defaults) {
+		this.defaults = defaults;
+	}
+
+	public Map<String, Settings> getClients() {
+		return clients;
+	}
+
+	public void setClients(Map<String, Settings> clients) {
+		this.clients = clients;
+	}
+
+	public static class Settings {
+
+		/** Percentage of failed calls in the sliding window that opens the breaker. */
+		private Float failureRateThreshold;
+
+		/** Calls slower than this count as slow, even when they succeed. */
+		private Duration slowCallDurationThreshold;
+
+		/** Percentage of slow calls in the sliding window that opens the breaker. */
+		private Float slowCallRateThreshold;
+
+		/** Number of most recent calls the failure and slow-call rates are computed over. */
+		private Integer slidingWindowSize;
+
+		/** Calls needed in the window before the breaker may open. */
+		private Integer minimumNumberOfCalls;
+
+		/** How long an open breaker rejects calls before letting trial calls through. */
+		private Duration waitDurationInOpenState;
+
+		/** Trial calls allowed while half-open. */
+		private Integer permittedCallsInHalfOpenState;
+
+		/** Bulkhead: calls to this client in flight at once, hedged attempts included. */
+		private Integer maxConcurrentCalls;
+
+		/** Bulkhead: how long a call waits for a free slot before it is rejected. */
+		private Duration maxWaitDuration;
+
+		/** Send a second attempt of a GET when the first has not answered after {@code hedge-delay}. */
+		private Boolean hedgingEnabled;
+
+		private Duration hedgeDelay;
+
+		/**
+		 * Last successful GET responses kept to answer calls while the upstream is failing; 0 (the
+		 * default) disables. Only worth it for browse-style reads that may be served a little stale.
+		 */
+		private Integer fallbackCacheSize;
+
+		private Duration fallbackCacheTtl;
+
+		/** Client methods, by name, whose responses the fallback cache keeps; empty means every GET. */
+		private List<String> fallbackCacheMethods;
+
+		static Settings builtInDefaults() {
+			Settings settings = new Settings();
+			settings.failureRateThreshold = 50f;
+			settings.slowCallDurationThreshold = Duration.ofSeconds(2);
+			settings.slowCallRateThreshold = 80f;
+			settings.slidingWindowSize = 20;
+			settings.minimumNumberOfCalls = 10;
+			settings.waitDurationInOpenState = Duration.ofSeconds(10);
+			settings.permittedCallsInHalfOpenState = 3;
+			settings.maxConcurrentCalls = 25;
+			settings.maxWaitDuration = Duration.ofMillis(100);
+			settings.hedgingEnabled = false;
+			settings.hedgeDelay = Duration.ofMillis(300);
+			settings.fallbackCacheSize = 0;
+			settings.fallbackCacheTtl = Duration.ofMinutes(10);
+			settings.fallbackCacheMethods = List.of();
+			return settings;
+		}
+
+		Settings withFallback(Settings fallback) {
+			Settings merged = new Settings();
+			merged.failureRateThreshold = failureRateThreshold != null ? failureRateThreshold : fallback.failureRateThreshold;
+			merged.slowCallDurationThreshold = slowCallDurationThreshold != null
+					? slowCallDurationThreshold : fallback.slowCallDurationThreshold;
+			merged.slowCallRateThreshold = slowCallRateThreshold != null ? slowCallRateThreshold : fallback.slowCallRateThreshold;
+			merged.slidingWindowSize = slidingWindowSize != null ? slidingWindowSize : fallback.slidingWindowSize;
+			merged.minimumNumberOfCalls = minimumNumberOfCalls != null ? minimumNumberOfCalls : fallback.minimumNumberOfCalls;
+			merged.waitDurationInOpenState = waitDurationInOpenState != null
+					? waitDurationInOpenState : fallback.waitDurationInOpenState;
+			merged.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState != null
+					? permittedCallsInHalfOpenState : fallback.permittedCallsInHalfOpenState;
+			merged.maxConcurrentCalls = maxConcurrentCalls != null ? maxConcurrentCalls : fallback.maxConcurrentCalls;
+			merged.maxWaitDuration = maxWaitDuration != null ? maxWaitDuration : fallback.maxWaitDuration;
+			merged.hedgingEnabled = hedgingEnabled != null ? hedgingEnabled : fallback.hedgingEnabled;
+			merged.hedgeDelay = hedgeDelay != null ? hedgeDelay : fallback.hedgeDelay;
+			merged.fallbackCacheSize = fallbackCacheSize != null ? fallbackCacheSize : fallback.fallbackCacheSize;
+			merged.fallbackCacheTtl = fallbackCacheTtl != null ? fallbackCacheTtl : fallback.fallbackCacheTtl;
+			merged.fallbackCacheMethods = fallbackCacheMethods != null ? fallbackCacheMethods : fallback.fallbackCacheMethods;
+			return merged;
+		}
+
+		CircuitBreakerConfig toCircuitBreakerConfig() {
+			return CircuitBreakerConfig.custom()
+					.slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+					.slidingWindowSize(slidingWindowSize)
+					.minimumNumberOfCalls(minimumNumberOfCalls)
+					.failureRateThreshold(failureRateThreshold)
+					.slowCallDurationThreshold(slowCallDurationThreshold)
+					.slowCallRateThreshold(slowCallRateThreshold)
+					.waitDurationInOpenState(waitDurationInOpenState)
+					.permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+					.build();
+		}
+
+		BulkheadConfig toBulkheadConfig() {
+			return BulkheadConfig.custom()
+					.maxConcurrentCalls(maxConcurrentCalls)
+					.maxWaitDuration(maxWaitDuration)
+					.build();
+		}
+
+		public Float getFailureRateThreshold() {
+			return failureRateThreshold;
+		}
+
+		public void setFailureRateThreshold(Float failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+		}
+
+		public Duration getSlowCallDurationThreshold() {
+			return slowCallDurationThreshold;
+		}
+
+		public void setSlowCallDurationThreshold(Duration slowCallDurationThreshold) {
+			this.slowCallDurationThreshold = slowCallDurationThreshold;
+		}
+
+		public Float getSlowCallRateThreshold() {
+			return slowCallRateThreshold;
+		}
+
+		public void setSlowCallRateThreshold(Float slowCallRateThreshold) {
+			this.slowCallRateThreshold = slowCallRateThreshold;
+		}
+
+		public Integer getSlidingWindowSize() {
+			return slidingWindowSize;
+		}
+
+		public void setSlidingWindowSize(Integer slidingWindowSize) {
+			this.slidingWindowSize = slidingWindowSize;
+		}
+
+		public Integer getMinimumNumberOfCalls() {
+			return minimumNumberOfCalls;
+		}
+
+		public void setMinimumNumberOfCalls(Integer minimumNumberOfCalls) {
+			this.minimumNumberOfCalls = minimumNumberOfCalls;
+		}
+
+		public Duration getWaitDurationInOpenState() {
+			return waitDurationInOpenState;
+		}
+
+		public void setWaitDurationInOpenState(Duration waitDurationInOpenState) {
+			this.waitDurationInOpenState = waitDurationInOpenState;
+		}
+
+		public Integer getPermittedCallsInHalfOpenState() {
+			return permittedCallsInHalfOpenState;
+		}
+
+		public void setPermittedCallsInHalfOpenState(Integer permittedCallsInHalfOpenState) {
+			this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+		}
+
+		public Integer getMaxConcurrentCalls() {
+			return maxConcurrentCalls;
+		}
+
+		public void setMaxConcurrentCalls(Integer maxConcurrentCalls) {
+			this.maxConcurrentCalls = maxConcurrentCalls;
+		}
+
+		public Duration getMaxWaitDuration() {
+			return maxWaitDuration;
+		}
+
+		public void setMaxWaitDuration(Duration maxWaitDuration) {
+			this.maxWaitDuration = maxWaitDuration;
+		}
+
+		public Boolean getHedgingEnabled() {
+			return hedgingEnabled;
+		}
+
+		public void setHedgingEnabled(Boolean hedgingEnabled) {
+			this.hedgingEnabled = hedgingEnabled;
+		}
+
+		public Duration getHedgeDelay() {
+			return hedgeDelay;
+		}
+
+		public void setHedgeDelay(Duration hedgeDelay) {
+			this.hedgeDelay = hedgeDelay;
+		}
+
+		public Integer getFallbackCacheSize() {
+			return fallbackCacheSize;
+		}
+
+		public void setFallbackCacheSize(Integer fallbackCacheSize) {
+			this.fallbackCacheSize = fallbackCacheSize;
+		}
+
+		public Duration getFallbackCacheTtl() {
+			return fallbackCacheTtl;
+		}
+
+		public void setFallbackCacheTtl(Duration fallbackCacheTtl) {
+			this.fallbackCacheTtl = fallbackCacheTtl;
+		}
+
+		public List<String> getFallbackCacheMethods() {
+			return fallbackCacheMethods;
+		}
+
+		public void setFallbackCacheMethods(List<String> fallbackCacheMethods) {
+			this.fallbackCacheMethods = fallbackCacheMethods;
+		}
+	}
+}
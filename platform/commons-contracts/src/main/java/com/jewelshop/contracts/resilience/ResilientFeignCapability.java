@@ -0,0 +1,77 @@
+package com.jewelshop.contracts.resilience;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import feign.Capability;
+import feign.InvocationHandlerFactory;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Feign capability, picked up by every {@code @FeignClient} in the service, that puts a
+ * {@link ResilientInvocationHandler} in front of each client. Breakers and bulkheads are named
+ * after the client, so all proxies of one upstream share them; settings come from
+ * {@link FeignResilienceProperties#forClient(String)}.
+ */
+public class ResilientFeignCapability implements Capability, DisposableBean {
+
+	private final FeignResilienceProperties properties;
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+	private final BulkheadRegistry bulkheadRegistry;
+	private final MeterRegistry meterRegistry;
+	private final ExecutorService hedgeExecutor;
+
+	public ResilientFeignCapability(FeignResilienceProperties properties,
+									CircuitBreakerRegistry circuitBreakerRegistry,
+									BulkheadRegistry bulkheadRegistry,
+									MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.bulkheadRegistry = bulkheadRegistry;
+		this.meterRegistry = meterRegistry;
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("feign-hedge-");
+		threadFactory.setDaemon(true);
+		// Unbounded on purpose: the bulkheads cap how many attempts of each client can be running
+		this.hedgeExecutor = Executors.newCachedThreadPool(threadFactory);
+	}
+
+	@Override
+	public InvocationHandlerFactory enrich(InvocationHandlerFactory invocationHandlerFactory) {
+		return (target, dispatch) -> wrap(target.name(), invocationHandlerFactory.create(target, dispatch));
+	}
+
+	InvocationHandler wrap(String clientName, InvocationHandler delegate) {
+		FeignResilienceProperties.Settings settings = properties.forClient(clientName);
+		CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(clientName, settings.toCircuitBreakerConfig());
+		Bulkhead bulkhead = bulkheadRegistry.bulkhead(clientName, settings.toBulkheadConfig());
+
+		Cache<List<Object>, Object> fallbackCache = null;
+		if (settings.getFallbackCacheSize() > 0) {
+			fallbackCache = Caffeine.newBuilder()
+					.maximumSize(settings.getFallbackCacheSize())
+					.expireAfterWrite(settings.getFallbackCacheTtl())
+					.build();
+		}
+		return new ResilientInvocationHandler(clientName, delegate, circuitBreaker, bulkhead,
+				settings.getHedgingEnabled() ? settings.getHedgeDelay() : null,
+				hedgeExecutor, fallbackCache, Set.copyOf(settings.getFallbackCacheMethods()), meterRegistry);
+	}
+
+	@Override
+	public void destroy() {
+		hedgeExecutor.shutdownNow();
+	}
+}
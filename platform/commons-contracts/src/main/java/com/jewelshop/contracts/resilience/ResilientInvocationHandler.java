@@ -0,0 +1,236 @@
+package com.jewelshop.contracts.resilience;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+import feign.FeignException;
+import feign.Response;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Sits in front of Feign's own handler of one client proxy. Every call goes through the client's
+ * circuit breaker and bulkhead; GETs can additionally be hedged, and while the upstream is failing
+ * (or the breaker is open) the ones given a fallback cache are answered with the last successful
+ * response for the same arguments. 4xx responses are passed through untouched and do not count
+ * against the breaker.
+ * <p>
+ * Cached responses are handed out as-is, so callers must not modify what a client returns.
+ */
+class ResilientInvocationHandler implements InvocationHandler {
+
+	private static final Log log = LogFactory.getLog(ResilientInvocationHandler.class);
+
+	private final String clientName;
+	private final InvocationHandler delegate;
+	private final CircuitBreaker circuitBreaker;
+	private final Bulkhead bulkhead;
+	private final Duration hedgeDelay;
+	private final ExecutorService hedgeExecutor;
+	private final Cache<List<Object>, Object> fallbackCache;
+	private final Set<String> fallbackMethods;
+	private final MeterRegistry meterRegistry;
+	private final Counter hedges;
+	private final Map<Method, Boolean> idempotentGets = new ConcurrentHashMap<>();
+
+	/**
+	 * @param hedgeDelay       null disables hedging
+	 * @param fallbackCache    null disables the fallback
+	 * @param fallbackMethods  names of the GETs the fallback cache keeps; empty means all of them
+	 */
+	ResilientInvocationHandler(String clientName, InvocationHandler delegate, CircuitBreaker circuitBreaker,
+							   Bulkhead bulkhead, Duration hedgeDelay, ExecutorService hedgeExecutor,
+							   Cache<List<Object>, Object> fallbackCache, Set<String> fallbackMethods,
+							   MeterRegistry meterRegistry) {
+		this.clientName = clientName;
+		this.delegate = delegate;
+		this.circuitBreaker = circuitBreaker;
+		this.bulkhead = bulkhead;
+		this.hedgeDelay = hedgeDelay;
+		this.hedgeExecutor = hedgeExecutor;
+		this.fallbackCache = fallbackCache;
+		this.fallbackMethods = fallbackMethods;
+		this.meterRegistry = meterRegistry;
+		this.hedges = meterRegistry.counter("feign.client.hedges", "client", clientName);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		if (method.getDeclaringClass() == Object.class || method.isDefault()) {
+			return delegate.invoke(proxy, method, args);
+		}
+		boolean idempotentGet = idempotentGets.computeIfAbsent(method, ResilientInvocationHandler::isIdempotentGet);
+
+		if (!circuitBreaker.tryAcquirePermission()) {
+			return fallback(method, args, idempotentGet, CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+		}
+		long startNanos = System.nanoTime();
+		Object result;
+		try {
+			result = idempotentGet && hedgeDelay != null
+					? invokeHedged(proxy, method, args)
+					: invokeOnce(proxy, method, args);
+		} catch (BulkheadFullException e) {
+			circuitBreaker.releasePermission();
+			return fallback(method, args, idempotentGet, e);
+		} catch (Throwable t) {
+			long elapsedNanos = System.nanoTime() - startNanos;
+			if (isUpstreamFailure(t)) {
+				circuitBreaker.onError(elapsedNanos, TimeUnit.NANOSECONDS, t);
+				return fallback(method, args, idempotentGet, t);
+			}
+			// A 4xx or an undecodable body is an answer from a healthy upstream
+			circuitBreaker.onSuccess(elapsedNanos, TimeUnit.NANOSECONDS);
+			throw t;
+		}
+		circuitBreaker.onSuccess(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+		if (cachesFallback(method, idempotentGet) && result != null) {
+			fallbackCache.put(cacheKey(method, args), result);
+		}
+		return result;
+	}
+
+	private Object invokeOnce(Object proxy, Method method, Object[] args) throws Throwable {
+		bulkhead.acquirePermission();
+		try {
+			return delegate.invoke(proxy, method, args);
+		} finally {
+			bulkhead.onComplete();
+		}
+	}
+
+	/**
+	 * Sends the call and, if it has not completed after the hedge delay, a second copy of it (the
+	 * load balancer normally routes it to another instance). The first successful answer wins and
+	 * the other attempt is cancelled; the call only fails once every attempt has failed.
+	 */
+	private Object invokeHedged(Object proxy, Method method, Object[] args) throws Throwable {
+		bulkhead.acquirePermission();
+		CompletableFuture<Object> outcome = new CompletableFuture<>();
+		AtomicInteger running = new AtomicInteger(1);
+		List<Future<?>> attempts = new ArrayList<>(2);
+		attempts.add(submitAttempt(proxy, method, args, outcome, running));
+		try {
+			try {
+				return outcome.get(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+			} catch (TimeoutException slow) {
+				// The hedge must fit in the bulkhead too; without a free slot keep waiting on the first attempt
+				if (bulkhead.tryAcquirePermission()) {
+					running.incrementAndGet();
+					try {
+						attempts.add(submitAttempt(proxy, method, args, outcome, running));
+						hedges.increment();
+					} catch (RejectedExecutionException e) {
+						running.decrementAndGet();
+					}
+				}
+			}
+			return outcome.get();
+		} catch (ExecutionException e) {
+			throw e.getCause();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for " + clientName);
+		} finally {
+			for (Future<?> attempt : attempts) {
+				attempt.cancel(true);
+			}
+		}
+	}
+
+	private Future<?> submitAttempt(Object proxy, Method method, Object[] args,
+									CompletableFuture<Object> outcome, AtomicInteger running) {
+		try {
+			return hedgeExecutor.submit(() -> {
+				try {
+					outcome.complete(delegate.invoke(proxy, method, args));
+				} catch (Throwable t) {
+					if (running.decrementAndGet() == 0) {
+						outcome.completeExceptionally(t);
+					}
+				} finally {
+					bulkhead.onComplete();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			bulkhead.onComplete();
+			throw e;
+		}
+	}
+
+	private Object fallback(Method method, Object[] args, boolean idempotentGet, Throwable cause) throws Throwable {
+		Object cached = cachesFallback(method, idempotentGet) ? fallbackCache.getIfPresent(cacheKey(method, args)) : null;
+		meterRegistry.counter("feign.client.fallbacks",
+				"client", clientName,
+				"cause", cause.getClass().getSimpleName(),
+				"result", cached != null ? "cached" : "error").increment();
+		if (cached == null) {
+			throw cause;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug(clientName + " " + method.getName() + " failed (" + cause + "), answering with the last successful response");
+		}
+		return cached;
+	}
+
+	private boolean cachesFallback(Method method, boolean idempotentGet) {
+		return idempotentGet && fallbackCache != null
+				&& (fallbackMethods.isEmpty() || fallbackMethods.contains(method.getName()));
+	}
+
+	private static List<Object> cacheKey(Method method, Object[] args) {
+		List<Object> key = new ArrayList<>();
+		key.add(method);
+		if (args != null) {
+			key.addAll(Arrays.asList(args));
+		}
+		return key;
+	}
+
+	/** GETs are safe to repeat and to answer from cache; a raw {@link Response} body can be read only once. */
+	static boolean isIdempotentGet(Method method) {
+		RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+		return mapping != null
+				&& Arrays.asList(mapping.method()).contains(RequestMethod.GET)
+				&& method.getReturnType() != Response.class;
+	}
+
+	/** Connection problems, timeouts, 5xx and 429 - the failures a breaker should count. */
+	static boolean isUpstreamFailure(Throwable t) {
+		return t instanceof RetryableException
+				|| t instanceof FeignException.FeignServerException
+				|| t instanceof FeignException.TooManyRequests
+				|| t instanceof IOException
+				|| t instanceof TimeoutException;
+	}
+}
@@ -0,0 +1,25 @@
+package com.jewelshop.contracts.verify;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Registers {@link ContractVerifier} in servlet web applications; turn it off with
+ * {@code contracts.verification.enabled=false}.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnClass(RequestMappingHandlerMapping.class)
+@ConditionalOnProperty(prefix = "contracts.verification", name = "enabled", matchIfMissing = true)
+public class ContractVerificationAutoConfiguration {
+
+	@Bean
+	public ContractVerifier contractVerifier(ApplicationContext applicationContext) {
+		return new ContractVerifier(applicationContext);
+	}
+}
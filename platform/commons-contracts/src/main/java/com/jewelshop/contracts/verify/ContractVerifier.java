@@ -0,0 +1,147 @@
+package com.jewelshop.contracts.verify;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * Checks, once all controllers are mapped, that every controller annotated with
+ * {@link ServesContract} serves each operation of its contracts: a handler on that controller for
+ * the same HTTP method and path (path variable names aside) that reads every query parameter the
+ * contract sends. Any mismatch fails start-up with the full list, so a renamed endpoint breaks
+ * the provider's deployment instead of its callers at runtime.
+ */
+public class ContractVerifier implements SmartInitializingSingleton {
+
+	private static final Log log = LogFactory.getLog(ContractVerifier.class);
+
+	private final ApplicationContext applicationContext;
+
+	public ContractVerifier(ApplicationContext applicationContext) {
+		this.applicationContext = applicationContext;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		Map<String, Object> controllers = applicationContext.getBeansWithAnnotation(ServesContract.class);
+		if (controllers.isEmpty()) {
+			return;
+		}
+		Map<RequestMappingInfo, HandlerMethod> handlers = new LinkedHashMap<>();
+		for (RequestMappingHandlerMapping mapping : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+			handlers.putAll(mapping.getHandlerMethods());
+		}
+
+		List<String> problems = new ArrayList<>();
+		int operations = 0;
+		for (Object controller : controllers.values()) {
+			Class<?> controllerType = ClassUtils.getUserClass(controller);
+			ServesContract servesContract = AnnotatedElementUtils.findMergedAnnotation(controllerType, ServesContract.class);
+			for (Class<?> contract : servesContract.value()) {
+				operations += verify(contract, controllerType, handlers, problems);
+			}
+		}
+		if (!problems.isEmpty()) {
+			throw new IllegalStateException("Controllers do not serve their contracts:\n - " + String.join("\n - ", problems));
+		}
+		log.info("Verified " + operations + " contract operations on " + controllers.size() + " controller(s)");
+	}
+
+	static int verify(Class<?> contract, Class<?> controllerType, Map<RequestMappingInfo, HandlerMethod> handlers,
+			List<String> problems) {
+		int operations = 0;
+		for (Method operation : contract.getMethods()) {
+			RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(operation, RequestMapping.class);
+			if (mapping == null || operation.isDefault() || Modifier.isStatic(operation.getModifiers())) {
+				continue;
+			}
+			operations++;
+			RequestMethod httpMethod = mapping.method().length > 0 ? mapping.method()[0] : RequestMethod.GET;
+			String path = mapping.path().length > 0 ? mapping.path()[0] : "";
+			String operationName = contract.getSimpleName() + "." + operation.getName();
+
+			HandlerMethod handler = findHandler(handlers, controllerType, httpMethod, path);
+			if (handler == null) {
+				problems.add(operationName + ": " + controllerType.getSimpleName() + " has no " + httpMethod + " " + path);
+				continue;
+			}
+			for (Parameter parameter : operation.getParameters()) {
+				RequestParam requestParam = AnnotatedElementUtils.findMergedAnnotation(parameter, RequestParam.class);
+				if (requestParam != null && !readsQueryParameter(handler, requestParam.name())) {
+					problems.add(operationName + ": " + controllerType.getSimpleName() + "#" + handler.getMethod().getName()
+							+ " does not read query parameter '" + requestParam.name() + "'");
+				}
+			}
+		}
+		return operations;
+	}
+
+	private static HandlerMethod findHandler(Map<RequestMappingInfo, HandlerMethod> handlers, Class<?> controllerType,
+			RequestMethod httpMethod, String path) {
+		String expected = normalize(path);
+		for (Map.Entry<RequestMappingInfo, HandlerMethod> handler : handlers.entrySet()) {
+			if (handler.getValue().getBeanType() != controllerType) {
+				continue;
+			}
+			Set<RequestMethod> methods = handler.getKey().getMethodsCondition().getMethods();
+			if (!methods.isEmpty() && !methods.contains(httpMethod)) {
+				continue;
+			}
+			for (String pattern : handler.getKey().getPatternValues()) {
+				if (normalize(pattern).equals(expected)) {
+					return handler.getValue();
+				}
+			}
+		}
+		return null;
+	}
+
+	private static boolean readsQueryParameter(HandlerMethod handler, String name) {
+		for (MethodParameter parameter : handler.getMethodParameters()) {
+			parameter.initParameterNameDiscovery(new DefaultParameterNameDiscoverer());
+			RequestParam requestParam = parameter.getParameterAnnotation(RequestParam.class);
+			String parameterName;
+			if (requestParam != null) {
+				if (Map.class.isAssignableFrom(parameter.getParameterType())) {
+					return true;
+				}
+				parameterName = requestParam.name().isEmpty() ? parameter.getParameterName() : requestParam.name();
+			} else if (parameter.getParameterAnnotations().length == 0 && BeanUtils.isSimpleProperty(parameter.getParameterType())) {
+				// Spring MVC binds an unannotated simple argument as a query parameter of the same name
+				parameterName = parameter.getParameterName();
+			} else {
+				continue;
+			}
+			if (name.equals(parameterName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static String normalize(String path) {
+		String normalized = path.replaceAll("\\{[^}]*}", "{}");
+		return normalized.length() > 1 && normalized.endsWith("/") ? normalized.substring(0, normalized.length() - 1) : normalized;
+	}
+}
@@ -0,0 +1,19 @@
+package com.jewelshop.contracts.verify;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a controller serves the given contract interfaces. {@link ContractVerifier}
+ * fails start-up when one of their operations is not mapped on the controller.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ServesContract {
+
+	Class<?>[] value();
+}
@@ -0,0 +1,48 @@
+package com.jewelshop.contracts.jackson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.jewelshop.contracts.KeysetPage;
+import com.jewelshop.contracts.product.ProductDTO;
+
+class ContractsJacksonAutoConfigurationTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class, ContractsJacksonAutoConfiguration.class));
+
+	@Test
+	void testBootObjectMapper_HasBlackbirdAndReadsRecords() {
+		contextRunner.run(context -> {
+			ObjectMapper mapper = context.getBean(ObjectMapper.class);
+			assertThat(mapper.getRegisteredModuleIds()).contains(BlackbirdModule.class.getName());
+
+			// Producers send their entities, which may carry fields the contract leaves out
+			String json = """
+					{"items":[{"productId":7,"productMaterial":"Gold","productWeight":2.5,"productGmPerWeight":1.0,
+					"productQuantity":3,"productUrl":"u","vendorId":4,"internalNote":"x"}],"nextCursor":7}""";
+			KeysetPage<ProductDTO> page = mapper.readValue(json, new TypeReference<KeysetPage<ProductDTO>>() {
+			});
+
+			ProductDTO expected = new ProductDTO(7L, "Gold", 2.5, 1.0, "u", 4L);
+			assertThat(page).isEqualTo(new KeysetPage<>(List.of(expected), 7L));
+			assertThat(mapper.readValue(mapper.writeValueAsString(expected), ProductDTO.class)).isEqualTo(expected);
+		});
+	}
+
+	@Test
+	void testBlackbirdDisabled_ModuleNotRegistered() {
+		contextRunner.withPropertyValues("contracts.jackson.blackbird=false")
+				.run(context -> assertThat(context.getBean(ObjectMapper.class).getRegisteredModuleIds())
+						.doesNotContain(BlackbirdModule.class.getName()));
+	}
+}
@@ -0,0 +1,227 @@
+package com.jewelshop.contracts.resilience;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.jewelshop.contracts.ServiceNames;
+import com.jewelshop.contracts.customer.CustomerContract;
+import com.jewelshop.contracts.product.ProductContract;
+import com.jewelshop.contracts.product.ProductDTO;
+
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs real Feign clients, protected only through the auto-configuration, against two stubbed
+ * instances of each upstream, picked round-robin by the load balancer, and injects latency and
+ * errors into one or both of them.
+ */
+@SpringBootTest(classes = FeignResilienceTest.TestApplication.class,
+		webEnvironment = SpringBootTest.WebEnvironment.NONE,
+		properties = {
+				"eureka.client.enabled=false",
+				"contracts.resilience.clients.Product-service.hedging-enabled=true",
+				"contracts.resilience.clients.Product-service.hedge-delay=100ms",
+				"contracts.resilience.clients.Product-service.sliding-window-size=4",
+				"contracts.resilience.clients.Product-service.minimum-number-of-calls=4",
+				"contracts.resilience.clients.Product-service.fallback-cache-size=100",
+				"contracts.resilience.clients.Product-service.fallback-cache-methods=getProductById",
+				"contracts.resilience.clients.Customer-service.hedging-enabled=false"
+		})
+class FeignResilienceTest {
+
+	private static final int SLOW_INSTANCE_DELAY_MS = 1500;
+
+	private static final WireMockServer fastInstance = new WireMockServer(options().dynamicPort().containerThreads(50));
+	private static final WireMockServer slowInstance = new WireMockServer(options().dynamicPort().containerThreads(50));
+
+	@FeignClient(name = ServiceNames.PRODUCT)
+	interface ProductClient extends ProductContract {
+	}
+
+	@FeignClient(name = ServiceNames.CUSTOMER)
+	interface CustomerClient extends CustomerContract {
+	}
+
+	@Configuration
+	@EnableAutoConfiguration
+	@EnableFeignClients(clients = { ProductClient.class, CustomerClient.class })
+	static class TestApplication {
+	}
+
+	@DynamicPropertySource
+	static void upstreamInstances(DynamicPropertyRegistry registry) {
+		fastInstance.start();
+		slowInstance.start();
+		for (String service : List.of(ServiceNames.PRODUCT, ServiceNames.CUSTOMER)) {
+			String instances = "spring.cloud.discovery.client.simple.instances[" + service + "]";
+			registry.add(instances + "[0].uri", fastInstance::baseUrl);
+			registry.add(instances + "[1].uri", slowInstance::baseUrl);
+		}
+	}
+
+	@AfterAll
+	static void stopInstances() {
+		fastInstance.stop();
+		slowInstance.stop();
+	}
+
+	@Autowired
+	private ProductClient productClient;
+
+	@Autowired
+	private CustomerClient customerClient;
+
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private Environment environment;
+
+	@BeforeEach
+	void setUp() {
+		fastInstance.resetAll();
+		slowInstance.resetAll();
+		circuitBreakerRegistry.circuitBreaker(ServiceNames.PRODUCT).reset();
+		circuitBreakerRegistry.circuitBreaker(ServiceNames.CUSTOMER).reset();
+	}
+
+	@Test
+	void testHedgedGet_TailLatencyStaysBoundedWhenOneInstanceIsSlow() {
+		for (WireMockServer instance : List.of(fastInstance, slowInstance)) {
+			int delay = instance == slowInstance ? SLOW_INSTANCE_DELAY_MS : 0;
+			instance.stubFor(get(urlPathMatching("/api/products/\\d+"))
+					.willReturn(okJson("{\"productId\":1,\"productMaterial\":\"Gold\"}").withFixedDelay(delay)));
+			instance.stubFor(get(urlPathMatching("/api/customers/\\d+"))
+					.willReturn(okJson("{\"customerId\":1,\"firstName\":\"Asha\"}").withFixedDelay(delay)));
+		}
+
+		// Product-service is hedged after 100 ms, Customer-service is not
+		long[] hedged = new long[20];
+		for (int i = 0; i < hedged.length; i++) {
+			long start = System.nanoTime();
+			assertThat(productClient.getProductById(1L).productId()).isEqualTo(1L);
+			hedged[i] = (System.nanoTime() - start) / 1_000_000;
+		}
+		long[] unhedged = new long[6];
+		for (int i = 0; i < unhedged.length; i++) {
+			long start = System.nanoTime();
+			assertThat(customerClient.getCustomerById(1L).customerId()).isEqualTo(1L);
+			unhedged[i] = (System.nanoTime() - start) / 1_000_000;
+		}
+
+		assertThat(Arrays.stream(hedged).max().orElseThrow())
+				.as("hedged calls should not wait for the slow instance: %s", Arrays.toString(hedged))
+				.isLessThan(SLOW_INSTANCE_DELAY_MS / 2);
+		assertThat(Arrays.stream(unhedged).max().orElseThrow())
+				.as("unhedged calls routed to the slow instance should take its full delay: %s", Arrays.toString(unhedged))
+				.isGreaterThanOrEqualTo(SLOW_INSTANCE_DELAY_MS);
+		assertThat(meterRegistry.get("feign.client.hedges").tag("client", ServiceNames.PRODUCT).counter().count())
+				.isPositive();
+	}
+
+	@Test
+	void testOpenBreaker_AnswersFromLastSuccessfulResponseWithoutCallingUpstream() {
+		// One good answer, then every instance fails
+		for (WireMockServer instance : List.of(fastInstance, slowInstance)) {
+			instance.stubFor(get("/api/products/7").willReturn(okJson("{\"productId\":7,\"productMaterial\":\"Silver\"}")));
+		}
+		assertThat(productClient.getProductById(7L).productMaterial()).isEqualTo("Silver");
+		for (WireMockServer instance : List.of(fastInstance, slowInstance)) {
+			instance.stubFor(get(urlPathMatching("/api/products/\\d+")).willReturn(serviceUnavailable()));
+		}
+
+		// The breaker needs 4 calls to evaluate; each failure is answered from the fallback cache
+		for (int i = 0; i < 4; i++) {
+			assertThat(productClient.getProductById(7L).productMaterial()).isEqualTo("Silver");
+		}
+		int upstreamCallsWhenOpened = fastInstance.getAllServeEvents().size() + slowInstance.getAllServeEvents().size();
+		ProductDTO whileOpen = productClient.getProductById(7L);
+
+		CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker(ServiceNames.PRODUCT);
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThat(whileOpen.productMaterial()).isEqualTo("Silver");
+		assertThat(fastInstance.getAllServeEvents().size() + slowInstance.getAllServeEvents().size())
+				.as("an open breaker must not call the upstream")
+				.isEqualTo(upstreamCallsWhenOpened);
+		assertThatThrownBy(() -> productClient.getProductById(8L)).isInstanceOf(CallNotPermittedException.class);
+		assertThat(meterRegistry.get("resilience4j.circuitbreaker.state")
+				.tag("name", ServiceNames.PRODUCT).tag("state", "open").gauge().value()).isEqualTo(1.0);
+		assertThat(meterRegistry.get("feign.client.fallbacks")
+				.tag("client", ServiceNames.PRODUCT).tag("result", "cached").counters()
+				.stream().mapToDouble(c -> c.count()).sum()).isGreaterThanOrEqualTo(5);
+	}
+
+	@Test
+	void testFallbackCache_OnlyForListedMethodsOfClientsThatEnableIt() {
+		for (WireMockServer instance : List.of(fastInstance, slowInstance)) {
+			instance.stubFor(get("/api/products/vendor/7").willReturn(okJson("[{\"productId\":7}]")));
+			instance.stubFor(get("/api/customers/5").willReturn(okJson("{\"customerId\":5}")));
+		}
+		assertThat(productClient.getProductsByVendor(7L)).hasSize(1);
+		assertThat(customerClient.getCustomerById(5L).customerId()).isEqualTo(5L);
+		for (WireMockServer instance : List.of(fastInstance, slowInstance)) {
+			instance.resetAll();
+			instance.stubFor(any(anyUrl()).willReturn(serviceUnavailable()));
+		}
+
+		// Product-service caches getProductById only; Customer-service keeps the default of no cache
+		assertThatThrownBy(() -> productClient.getProductsByVendor(7L)).isInstanceOf(FeignException.ServiceUnavailable.class);
+		assertThatThrownBy(() -> customerClient.getCustomerById(5L)).isInstanceOf(FeignException.ServiceUnavailable.class);
+	}
+
+	@Test
+	void testNotFound_IsPassedThroughAndDoesNotCountAsFailure() {
+		for (WireMockServer instance : List.of(fastInstance, slowInstance)) {
+			instance.stubFor(get("/api/customers/404").willReturn(notFound()));
+		}
+
+		for (int i = 0; i < 12; i++) {
+			assertThatThrownBy(() -> customerClient.getCustomerById(404L)).isInstanceOf(FeignException.NotFound.class);
+		}
+		CircuitBreaker breaker = circuitBreakerRegistry.circuitBreaker(ServiceNames.CUSTOMER);
+		assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		assertThat(breaker.getMetrics().getNumberOfFailedCalls()).isZero();
+	}
+
+	@Test
+	void testFeignTimeouts_DefaultToSecondsInsteadOfAMinute() {
+		assertThat(environment.getProperty("spring.cloud.openfeign.client.config.default.connect-timeout")).isEqualTo("2000");
+		assertThat(environment.getProperty("spring.cloud.openfeign.client.config.default.read-timeout")).isEqualTo("5000");
+	}
+
+	@Test
+	void testDisabled_NoCapability() {
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(FeignResilienceAutoConfiguration.class))
+				.withPropertyValues("contracts.resilience.enabled=false")
+				.run(context -> assertThat(context).doesNotHaveBean(ResilientFeignCapability.class));
+	}
+}
@@ -0,0 +1,106 @@
+package com.jewelshop.contracts.verify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+class ContractVerifierTest {
+
+	interface SampleContract {
+
+		@GetMapping("/api/samples/{sampleId}")
+		String getSample(@PathVariable("sampleId") Long sampleId);
+
+		@GetMapping("/api/samples/page")
+		List<String> getPage(@RequestParam(value = "after", required = false) Long after, @RequestParam("limit") int limit);
+
+		@PostMapping("/api/samples/batch")
+		List<String> getSamples(@RequestBody List<Long> sampleIds);
+	}
+
+	@RestController
+	@RequestMapping("/api/samples")
+	@ServesContract(SampleContract.class)
+	static class MatchingController {
+
+		@GetMapping("/{id}")
+		public String get(@PathVariable Long id) {
+			return "sample";
+		}
+
+		@GetMapping("/page")
+		public List<String> page(@RequestParam(required = false) Long after, @RequestParam(defaultValue = "50") int limit) {
+			return List.of();
+		}
+
+		@PostMapping("/batch")
+		public List<String> batch(@RequestBody List<Long> ids) {
+			return List.of();
+		}
+	}
+
+	@RestController
+	@RequestMapping("/api/samples")
+	@ServesContract(SampleContract.class)
+	static class DriftedController {
+
+		@GetMapping("/{id}")
+		public String get(@PathVariable Long id) {
+			return "sample";
+		}
+
+		// Renamed query parameter
+		@GetMapping("/page")
+		public List<String> page(@RequestParam(required = false) Long after, @RequestParam("size") int size) {
+			return List.of();
+		}
+
+		// Wrong HTTP method
+		@GetMapping("/batch")
+		public List<String> batch() {
+			return List.of();
+		}
+	}
+
+	private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(DispatcherServletAutoConfiguration.class,
+					HttpMessageConvertersAutoConfiguration.class, WebMvcAutoConfiguration.class,
+					ContractVerificationAutoConfiguration.class));
+
+	@Test
+	void testMatchingController_StartsUp() {
+		contextRunner.withUserConfiguration(MatchingController.class)
+				.run(context -> assertThat(context).hasNotFailed().hasSingleBean(ContractVerifier.class));
+	}
+
+	@Test
+	void testDriftedController_FailsStartUpListingEveryMismatch() {
+		contextRunner.withUserConfiguration(DriftedController.class)
+				.run(context -> assertThat(context).getFailure()
+						.isInstanceOf(IllegalStateException.class)
+						.hasMessageContaining("SampleContract.getPage: DriftedController#page does not read query parameter 'limit'")
+						.hasMessageContaining("SampleContract.getSamples: DriftedController has no POST /api/samples/batch")
+						.message().doesNotContain("getSample:"));
+	}
+
+	@Test
+	void testVerificationDisabled_DriftedControllerStartsUp() {
+		contextRunner.withUserConfiguration(DriftedController.class)
+				.withPropertyValues("contracts.verification.enabled=false")
+				.run(context -> assertThat(context).hasNotFailed().doesNotHaveBean(ContractVerifier.class));
+	}
+}
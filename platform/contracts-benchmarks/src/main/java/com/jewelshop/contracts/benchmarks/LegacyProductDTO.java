@@ -1,6 +1,11 @@
-package com.feedback.dto;
-
-public class ProductDTO {
+package com.jewelshop.contracts.benchmarks;
+
+/**
+ * Verbatim copy of Feedback's mutable ProductDTO, one of the per-service copies replaced by the
+ * record in commons-contracts (Billing's Lombok {@code @Data} copy compiled to the same bean).
+ * Kept only as the benchmark baseline.
+ */
+public class LegacyProductDTO {
 
 	private Long productId;
 	private String productMaterial;
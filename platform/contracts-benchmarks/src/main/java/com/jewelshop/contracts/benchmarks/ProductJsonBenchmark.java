@@ -0,0 +1,150 @@
+package com.jewelshop.contracts.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.jewelshop.contracts.product.ProductDTO;
+
+/**
+ * Reading and writing a product list as Customer-service does on {@code /api/customers/products}:
+ * the former mutable bean ({@link LegacyProductDTO}) and the contract record, each with plain
+ * reflective Jackson and with Blackbird (the record with Blackbird is what the services now run). Mappers are configured like
+ * Spring Boot's (unknown properties ignored). Setup fails if any variant reads different values.
+ * <p>
+ * Run with {@code -prof gc} for allocation per operation ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+	private static final String[] MATERIALS = { "Gold", "Silver", "Platinum", "Rose Gold", "Pearl" };
+
+	@Param({ "1", "100" })
+	int products;
+
+	byte[] json;
+	List<LegacyProductDTO> legacyProducts;
+	List<ProductDTO> recordProducts;
+
+	ObjectReader legacyReader;
+	ObjectReader legacyBlackbirdReader;
+	ObjectReader recordReader;
+	ObjectReader recordBlackbirdReader;
+	ObjectWriter legacyWriter;
+	ObjectWriter legacyBlackbirdWriter;
+	ObjectWriter recordWriter;
+	ObjectWriter recordBlackbirdWriter;
+
+	@Setup
+	public void setUp() throws IOException {
+		ObjectMapper reflective = JsonMapper.builder()
+				.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+				.build();
+		ObjectMapper blackbird = JsonMapper.builder()
+				.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+				.addModule(new BlackbirdModule())
+				.build();
+
+		TypeReference<List<LegacyProductDTO>> legacyType = new TypeReference<>() {
+		};
+		TypeReference<List<ProductDTO>> recordType = new TypeReference<>() {
+		};
+		legacyReader = reflective.readerFor(legacyType);
+		legacyBlackbirdReader = blackbird.readerFor(legacyType);
+		recordReader = reflective.readerFor(recordType);
+		recordBlackbirdReader = blackbird.readerFor(recordType);
+		legacyWriter = reflective.writerFor(legacyType);
+		legacyBlackbirdWriter = blackbird.writerFor(legacyType);
+		recordWriter = reflective.writerFor(recordType);
+		recordBlackbirdWriter = blackbird.writerFor(recordType);
+
+		Random random = new Random(42);
+		List<ProductDTO> source = new ArrayList<>(products);
+		for (int i = 0; i < products; i++) {
+			source.add(new ProductDTO((long) i + 1, MATERIALS[random.nextInt(MATERIALS.length)],
+					1 + random.nextInt(5000) / 100.0, 0.5 + random.nextInt(100) / 100.0,
+					"https://cdn.jewelshop.example/products/" + (i + 1) + ".jpg", 1L + random.nextInt(20)));
+		}
+		json = reflective.writeValueAsBytes(source);
+
+		legacyProducts = legacyReader.readValue(json);
+		recordProducts = recordReader.readValue(json);
+		List<ProductDTO> blackbirdProducts = recordBlackbirdReader.readValue(json);
+		List<ProductDTO> legacyAsRecords = legacyProducts.stream()
+				.map(p -> new ProductDTO(p.getProductId(), p.getProductMaterial(), p.getProductWeight(),
+						p.getProductGmPerWeight(), p.getProductUrl(), p.getVendorId()))
+				.toList();
+		if (!source.equals(recordProducts) || !source.equals(blackbirdProducts) || !source.equals(legacyAsRecords)) {
+			throw new IllegalStateException("Variants read different products");
+		}
+		if (!new String(recordBlackbirdWriter.writeValueAsBytes(recordProducts)).equals(new String(json))) {
+			throw new IllegalStateException("Blackbird writes different JSON");
+		}
+	}
+
+	@Benchmark
+	public List<LegacyProductDTO> readLegacyBean() throws IOException {
+		return legacyReader.readValue(json);
+	}
+
+	@Benchmark
+	public List<LegacyProductDTO> readLegacyBeanBlackbird() throws IOException {
+		return legacyBlackbirdReader.readValue(json);
+	}
+
+	@Benchmark
+	public List<ProductDTO> readRecord() throws IOException {
+		return recordReader.readValue(json);
+	}
+
+	@Benchmark
+	public List<ProductDTO> readRecordBlackbird() throws IOException {
+		return recordBlackbirdReader.readValue(json);
+	}
+
+	@Benchmark
+	public byte[] writeLegacyBean() throws IOException {
+		return legacyWriter.writeValueAsBytes(legacyProducts);
+	}
+
+	@Benchmark
+	public byte[] writeLegacyBeanBlackbird() throws IOException {
+		return legacyBlackbirdWriter.writeValueAsBytes(legacyProducts);
+	}
+
+	@Benchmark
+	public byte[] writeRecord() throws IOException {
+		return recordWriter.writeValueAsBytes(recordProducts);
+	}
+
+	@Benchmark
+	public byte[] writeRecordBlackbird() throws IOException {
+		return recordBlackbirdWriter.writeValueAsBytes(recordProducts);
+	}
+}
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Runs the Api-Gateway twice against the same slow upstream - platform threads, then the
+# virtual-threads profile - and drives both with the same closed-loop load.
+# Results go to results/results.csv. Needs a JDK 21 on PATH for the virtual run.
+#
+#   CONCURRENCY=5000 DURATION=60 DELAY_MS=200 ./run-comparison.sh
+set -euo pipefail
+
+HERE="$(cd "$(dirname "$0")" && pwd)"
+GATEWAY_DIR="$HERE/../Api-Gateway"
+CONCURRENCY="${CONCURRENCY:-5000}"
+DURATION="${DURATION:-60}"
+WARMUP="${WARMUP:-15}"
+DELAY_MS="${DELAY_MS:-200}"
+UPSTREAM_PORT="${UPSTREAM_PORT:-9090}"
+GATEWAY_PORT="${GATEWAY_PORT:-4000}"
+HEAP="${HEAP:-512m}"
+MODES="${MODES:-platform virtual-threads}"
+
+(cd "$HERE" && mvn -B -q package)
+java -cp "$HERE/target/load-test.jar" com.loadtest.SlowUpstream "$UPSTREAM_PORT" "$DELAY_MS" &
+UPSTREAM_PID=$!
+GATEWAY_PID=""
+trap 'kill $UPSTREAM_PID ${GATEWAY_PID:-} 2>/dev/null || true' EXIT
+
+for MODE in $MODES; do
+    if [ "$MODE" = "virtual-threads" ]; then
+        (cd "$GATEWAY_DIR" && mvn -B -q -Pjava21 package -DskipTests)
+        PROFILE="--spring.profiles.active=virtual-threads"
+    else
+        (cd "$GATEWAY_DIR" && mvn -B -q package -DskipTests)
+        PROFILE=""
+    fi
+
+    # Same static route and pool limits in both modes so only the threading model differs.
+    # A list set on the command line replaces the configured routes, leaving only load-test.
+    java -Xms"$HEAP" -Xmx"$HEAP" -jar "$GATEWAY_DIR"/target/Api-Gateway-*.jar $PROFILE \
+        --server.port="$GATEWAY_PORT" \
+        --server.tomcat.max-connections=10000 \
+        --eureka.client.enabled=false \
+        --spring.cloud.gateway.mvc.routes[0].id=load-test \
+        --spring.cloud.gateway.mvc.routes[0].uri=http://localhost:"$UPSTREAM_PORT" \
+        --spring.cloud.gateway.mvc.routes[0].predicates[0]=Path=/load-test/** \
+        --gateway.http-client.routes.load-test.max-connections="$((CONCURRENCY + 100))" \
+        --gateway.http-client.routes.load-test.max-connections-per-upstream="$((CONCURRENCY + 100))" \
+        --gateway.http-client.routes.load-test.acquire-timeout=30s \
+        > "$HERE/target/gateway-$MODE.log" 2>&1 &
+    GATEWAY_PID=$!
+
+    until curl -sf "http://localhost:$GATEWAY_PORT/actuator/health" > /dev/null; do
+        kill -0 "$GATEWAY_PID" 2>/dev/null || { echo "Gateway failed, see target/gateway-$MODE.log"; exit 1; }
+        sleep 1
+    done
+
+    java -cp "$HERE/target/load-test.jar" com.loadtest.LoadGenerator \
+        --url="http://localhost:$GATEWAY_PORT/load-test/slow" \
+        --actuator="http://localhost:$GATEWAY_PORT/actuator" \
+        --concurrency="$CONCURRENCY" --duration="$DURATION" --warmup="$WARMUP" \
+        --label="$MODE" --csv="$HERE/results/results.csv"
+
+    kill "$GATEWAY_PID"
+    wait "$GATEWAY_PID" 2>/dev/null || true
+    GATEWAY_PID=""
+done
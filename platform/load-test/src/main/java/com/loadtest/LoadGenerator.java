@@ -0,0 +1,222 @@
+package com.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load: {@code concurrency} virtual users each keep exactly one request open against
+ * {@code url} for the whole run, so the target sees that many concurrent connections. Reports
+ * throughput, latency percentiles and errors, and samples the target's heap, committed memory
+ * and live threads from its actuator once a second (peak values are reported).
+ * <p>
+ * Usage: {@code java -cp load-test.jar com.loadtest.LoadGenerator --url=... [--concurrency=5000]
+ * [--duration=60] [--warmup=10] [--actuator=http://host:port/actuator] [--label=platform]
+ * [--csv=results/results.csv]}
+ */
+public final class LoadGenerator {
+
+	private static final int MAX_LATENCY_MS = 120_000;
+	private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+	private final HttpClient client;
+	private final HttpRequest request;
+	private final long measureFromNanos;
+	private final long stopAtNanos;
+
+	private final AtomicLongArray latencyMs = new AtomicLongArray(MAX_LATENCY_MS + 1);
+	private final LongAdder completed = new LongAdder();
+	private final LongAdder errors = new LongAdder();
+	private final LongAdder non2xx = new LongAdder();
+	private final CountDownLatch usersDone;
+
+	private LoadGenerator(URI url, int concurrency, Duration warmup, Duration duration) {
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(10))
+				.build();
+		this.request = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(60)).GET().build();
+		long now = System.nanoTime();
+		this.measureFromNanos = now + warmup.toNanos();
+		this.stopAtNanos = measureFromNanos + duration.toNanos();
+		this.usersDone = new CountDownLatch(concurrency);
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = parse(args);
+		URI url = URI.create(require(options, "url"));
+		int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "5000"));
+		Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+		Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+		String actuator = options.get("actuator");
+		String label = options.getOrDefault("label", "run");
+
+		System.setProperty("jdk.httpclient.connectionPoolSize", String.valueOf(concurrency));
+		LoadGenerator generator = new LoadGenerator(url, concurrency, warmup, duration);
+		TargetSampler sampler = actuator != null ? new TargetSampler(generator.client, actuator) : null;
+
+		System.out.printf("%s: %d users against %s, warmup %ds, measuring %ds%n",
+				label, concurrency, url, warmup.toSeconds(), duration.toSeconds());
+		for (int i = 0; i < concurrency; i++) {
+			generator.next();
+		}
+		if (sampler != null) {
+			sampler.runUntil(generator.stopAtNanos);
+		}
+		generator.usersDone.await();
+
+		Result result = generator.result(label, concurrency, duration, sampler);
+		System.out.println(result.describe());
+		String csv = options.get("csv");
+		if (csv != null) {
+			result.appendTo(Path.of(csv));
+		}
+	}
+
+	private void next() {
+		long start = System.nanoTime();
+		if (start >= stopAtNanos) {
+			usersDone.countDown();
+			return;
+		}
+		client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+				.whenComplete((response, failure) -> {
+					long end = System.nanoTime();
+					if (start >= measureFromNanos && end <= stopAtNanos) {
+						if (failure != null) {
+							errors.increment();
+						} else {
+							if (response.statusCode() / 100 != 2) {
+								non2xx.increment();
+							}
+							completed.increment();
+							int ms = (int) Math.min(MAX_LATENCY_MS, (end - start) / 1_000_000);
+							latencyMs.incrementAndGet(ms);
+						}
+					}
+					next();
+				});
+	}
+
+	private Result result(String label, int concurrency, Duration duration, TargetSampler sampler) {
+		long count = completed.sum();
+		return new Result(label, concurrency, count / (double) duration.toSeconds(),
+				percentile(count, 0.50), percentile(count, 0.99), percentile(count, 0.999),
+				errors.sum(), non2xx.sum(),
+				sampler != null ? sampler.peakHeapBytes : -1,
+				sampler != null ? sampler.peakCommittedBytes : -1,
+				sampler != null ? sampler.peakThreads : -1);
+	}
+
+	private long percentile(long count, double quantile) {
+		if (count == 0) {
+			return -1;
+		}
+		long rank = (long) Math.ceil(count * quantile);
+		long seen = 0;
+		for (int ms = 0; ms <= MAX_LATENCY_MS; ms++) {
+			seen += latencyMs.get(ms);
+			if (seen >= rank) {
+				return ms;
+			}
+		}
+		return MAX_LATENCY_MS;
+	}
+
+	private record Result(String label, int concurrency, double throughput, long p50Ms, long p99Ms, long p999Ms,
+			long errors, long non2xx, double peakHeapBytes, double peakCommittedBytes, double peakThreads) {
+
+		String describe() {
+			return String.format("%s: %.0f req/s, p50 %d ms, p99 %d ms, p99.9 %d ms, errors %d, non-2xx %d, "
+							+ "peak heap %.0f MB, peak committed %.0f MB, peak live threads %.0f",
+					label, throughput, p50Ms, p99Ms, p999Ms, errors, non2xx,
+					peakHeapBytes / 1_048_576, peakCommittedBytes / 1_048_576, peakThreads);
+		}
+
+		void appendTo(Path csv) throws IOException {
+			if (csv.getParent() != null) {
+				Files.createDirectories(csv.getParent());
+			}
+			if (!Files.exists(csv)) {
+				Files.writeString(csv, "label,concurrency,throughput_rps,p50_ms,p99_ms,p999_ms,errors,non2xx,"
+						+ "peak_heap_mb,peak_committed_mb,peak_threads\n");
+			}
+			String row = String.format("%s,%d,%.0f,%d,%d,%d,%d,%d,%.0f,%.0f,%.0f%n", label, concurrency, throughput,
+					p50Ms, p99Ms, p999Ms, errors, non2xx,
+					peakHeapBytes / 1_048_576, peakCommittedBytes / 1_048_576, peakThreads);
+			Files.writeString(csv, row, StandardOpenOption.APPEND);
+		}
+	}
+
+	/** Polls the target's actuator metrics on the calling thread and keeps the peaks. */
+	private static final class TargetSampler {
+
+		private final HttpClient client;
+		private final String actuator;
+		private double peakHeapBytes;
+		private double peakCommittedBytes;
+		private double peakThreads;
+
+		private TargetSampler(HttpClient client, String actuator) {
+			this.client = client;
+			this.actuator = actuator.endsWith("/") ? actuator.substring(0, actuator.length() - 1) : actuator;
+		}
+
+		void runUntil(long stopAtNanos) throws InterruptedException {
+			while (System.nanoTime() < stopAtNanos) {
+				peakHeapBytes = Math.max(peakHeapBytes, read("jvm.memory.used?tag=area:heap"));
+				peakCommittedBytes = Math.max(peakCommittedBytes, read("jvm.memory.committed"));
+				peakThreads = Math.max(peakThreads, read("jvm.threads.live"));
+				Thread.sleep(1000);
+			}
+		}
+
+		private double read(String metric) {
+			try {
+				HttpResponse<String> response = client.send(
+						HttpRequest.newBuilder(URI.create(actuator + "/metrics/" + metric))
+								.timeout(Duration.ofSeconds(5)).build(),
+						HttpResponse.BodyHandlers.ofString());
+				Matcher matcher = VALUE.matcher(response.body());
+				return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+			} catch (IOException e) {
+				return 0;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return 0;
+			}
+		}
+	}
+
+	private static Map<String, String> parse(String[] args) {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			if (arg.startsWith("--") && arg.contains("=")) {
+				int eq = arg.indexOf('=');
+				options.put(arg.substring(2, eq), arg.substring(eq + 1));
+			}
+		}
+		return options;
+	}
+
+	private static String require(Map<String, String> options, String name) {
+		String value = options.get(name);
+		if (value == null) {
+			throw new IllegalArgumentException("Missing --" + name + "=...");
+		}
+		return value;
+	}
+}
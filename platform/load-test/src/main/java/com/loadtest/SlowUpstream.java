@@ -0,0 +1,51 @@
+package com.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in for a slow backend: answers every request after a fixed delay without holding a
+ * thread while waiting, so it can keep thousands of requests open on a small machine.
+ * <p>
+ * Usage: {@code java -cp load-test.jar com.loadtest.SlowUpstream [port=9090] [delayMs=200]}
+ */
+public final class SlowUpstream {
+
+	private static final byte[] BODY = "{\"status\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+	private SlowUpstream() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 9090;
+		long delayMs = args.length > 1 ? Long.parseLong(args[1]) : 200;
+
+		ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(4);
+		HttpServer server = HttpServer.create(new InetSocketAddress(port), 10_000);
+		server.createContext("/", exchange -> scheduler.schedule(() -> respond(exchange), delayMs, TimeUnit.MILLISECONDS));
+		server.setExecutor(Executors.newFixedThreadPool(4));
+		server.start();
+		System.out.printf("SlowUpstream listening on %d, delay %d ms%n", port, delayMs);
+	}
+
+	private static void respond(HttpExchange exchange) {
+		try (exchange) {
+			exchange.getRequestBody().readAllBytes();
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, BODY.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(BODY);
+			}
+		} catch (IOException e) {
+			// client went away
+		}
+	}
+}